@@ -0,0 +1,31 @@
+package com.trustmarket.game.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ClusterConfig {
+
+    // Chỉ có loopback (nhiều node trong cùng JVM); transport mạng thật cắm vào qua ClusterTransport
+    @Bean
+    public ClusterTransport clusterTransport(@Value("${game.cluster.transport:loopback}") String transport) {
+        if (!"loopback".equals(transport)) {
+            throw new IllegalStateException("Unknown game.cluster.transport: " + transport);
+        }
+        return LoopbackClusterTransport.shared();
+    }
+
+    @Bean
+    public WebMvcConfigurer roomRoutingConfigurer(RoomDirectory directory) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new RoomRoutingInterceptor(directory))
+                        .addPathPatterns("/api/rooms/**");
+            }
+        };
+    }
+}
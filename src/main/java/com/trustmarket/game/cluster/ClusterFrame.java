@@ -0,0 +1,27 @@
+package com.trustmarket.game.cluster;
+
+/**
+ * What nodes send each other over a {@link ClusterTransport}.
+ *
+ * @param origin      node that sent the frame
+ * @param destination STOMP destination: a {@code /topic/…} for {@link Kind#TOPIC}, an {@code /app/…} for
+ *                    {@link Kind#COMMAND}; the room id for migration frames, the node id for {@link Kind#NODE}
+ * @param sessionId   for commands, the WebSocket session on the origin node that sent it; for
+ *                    migration frames, the id of the migration attempt
+ */
+public record ClusterFrame(Kind kind, String origin, String destination, String sessionId, String contentType,
+                           byte[] payload) {
+
+    public enum Kind {
+        TOPIC,      // a broadcast to replay into every other node's local broker
+        COMMAND,    // a player command forwarded to the room's owner
+        MIGRATE,    // payload = RoomCheckpoint JSON of a room the receiver should resume
+        ADOPTED,    // reply to MIGRATE: the room is running on the sender
+        REJECTED,   // reply to MIGRATE: payload = reason
+        CANCEL,     // MIGRATE timed out: hand the room back, or reject the MIGRATE if it arrives later
+        RETURNED,   // reply to CANCEL: payload = RoomCheckpoint JSON of the room as the sender left it, or none
+                    // if it never ran there
+        OWNER,      // payload = node now owning the room, empty once the ring decides again
+        NODE        // payload = "retired" or "active"
+    }
+}
@@ -0,0 +1,206 @@
+package com.trustmarket.game.cluster;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Glues the nodes' local STOMP brokers together over a {@link ClusterTransport}:
+ * <ul>
+ *     <li>{@link #outbound()} sits on the broker channel and copies every {@code /topic/…} message this node
+ *     publishes to the other nodes, which replay it into their own broker, so a client can subscribe to a
+ *     room on any node;</li>
+ *     <li>{@link #inbound()} sits on the client inbound channel and forwards {@code /app/game/…} commands for
+ *     rooms owned elsewhere (per {@link RoomDirectory}) to the owner, which runs them as if its own client
+ *     had sent them.</li>
+ * </ul>
+ * Frames that came from another node carry {@link #ORIGIN_HEADER} and are never forwarded again. On a
+ * single node both interceptors return immediately.
+ */
+@Slf4j
+@Component
+public class ClusterMessaging implements ClusterTransport.Receiver {
+
+    public static final String ORIGIN_HEADER = "clusterOrigin";
+    private static final String TOPIC_PREFIX = "/topic/";
+    private static final String COMMAND_PREFIX = "/app/game/";
+
+    private final RoomDirectory directory;
+    private final ClusterTransport transport;
+    private final Supplier<MessageChannel> brokerChannel;
+    private final Supplier<MessageChannel> inboundChannel;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private volatile ClusterTransport.Receiver control = frame -> { };
+
+    private final AtomicLong topicsOut = new AtomicLong();
+    private final AtomicLong topicsIn = new AtomicLong();
+    private final AtomicLong commandsForwarded = new AtomicLong();
+    private final AtomicLong commandsReceived = new AtomicLong();
+
+    @Autowired
+    public ClusterMessaging(RoomDirectory directory, ClusterTransport transport, ApplicationContext context) {
+        // Channels are resolved on first use: they are created by the same configuration that registers us
+        this(directory, transport,
+                () -> context.getBean("brokerChannel", MessageChannel.class),
+                () -> context.getBean("clientInboundChannel", MessageChannel.class));
+    }
+
+    public ClusterMessaging(RoomDirectory directory, ClusterTransport transport,
+                            Supplier<MessageChannel> brokerChannel, Supplier<MessageChannel> inboundChannel) {
+        this.directory = directory;
+        this.transport = transport;
+        this.brokerChannel = brokerChannel;
+        this.inboundChannel = inboundChannel;
+    }
+
+    /** Takes every frame that is neither a topic nor a command (room migration and ownership). */
+    public void setControlReceiver(ClusterTransport.Receiver control) {
+        this.control = control;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (directory.isClustered()) {
+            transport.join(directory.getLocalNodeId(), this);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (directory.isClustered()) {
+            transport.leave(directory.getLocalNodeId());
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 📤 LOCAL → CLUSTER
+    // ═══════════════════════════════════════════════════════════
+
+    public ChannelInterceptor outbound() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (directory.isClustered()) {
+                    fanOut(message);
+                }
+                return message;
+            }
+        };
+    }
+
+    public ChannelInterceptor inbound() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                return directory.isClustered() ? route(message) : message;
+            }
+        };
+    }
+
+    private void fanOut(Message<?> message) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(message);
+        String destination = headers.getDestination();
+        if (headers.getMessageType() != SimpMessageType.MESSAGE || headers.getHeader(ORIGIN_HEADER) != null
+                || destination == null || !destination.startsWith(TOPIC_PREFIX)
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return;
+        }
+        transport.broadcast(new ClusterFrame(ClusterFrame.Kind.TOPIC, directory.getLocalNodeId(), destination,
+                null, contentType(headers), payload));
+        topicsOut.incrementAndGet();
+    }
+
+    /** @return the message to process locally, or null once it has been forwarded to the owner */
+    private Message<?> route(Message<?> message) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(message);
+        String destination = headers.getDestination();
+        if (headers.getMessageType() != SimpMessageType.MESSAGE || headers.getHeader(ORIGIN_HEADER) != null
+                || destination == null || !destination.startsWith(COMMAND_PREFIX)
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+        String roomId = roomIdOf(payload);
+        if (directory.isLocal(roomId)) {
+            return message;
+        }
+        transport.send(directory.ownerOf(roomId), new ClusterFrame(ClusterFrame.Kind.COMMAND,
+                directory.getLocalNodeId(), destination, headers.getSessionId(), contentType(headers), payload));
+        commandsForwarded.incrementAndGet();
+        return null;
+    }
+
+    private String roomIdOf(byte[] payload) {
+        try {
+            JsonNode roomId = jsonMapper.readTree(payload).get("roomId");
+            return roomId == null ? null : roomId.asString();
+        } catch (RuntimeException e) {
+            // Not JSON: let the local handler reject it
+            return null;
+        }
+    }
+
+    private static String contentType(SimpMessageHeaderAccessor headers) {
+        MimeType type = headers.getContentType();
+        return type == null ? null : type.toString();
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 📥 CLUSTER → LOCAL
+    // ═══════════════════════════════════════════════════════════
+
+    @Override
+    public void receive(ClusterFrame frame) {
+        if (frame.kind() != ClusterFrame.Kind.TOPIC && frame.kind() != ClusterFrame.Kind.COMMAND) {
+            control.receive(frame);
+            return;
+        }
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setDestination(frame.destination());
+        if (frame.contentType() != null) {
+            headers.setContentType(MimeType.valueOf(frame.contentType()));
+        }
+        headers.setHeader(ORIGIN_HEADER, frame.origin());
+        switch (frame.kind()) {
+            case TOPIC -> {
+                topicsIn.incrementAndGet();
+                brokerChannel.get().send(MessageBuilder.createMessage(frame.payload(), headers.getMessageHeaders()));
+            }
+            case COMMAND -> {
+                commandsReceived.incrementAndGet();
+                headers.setSessionId(frame.sessionId());
+                headers.setSessionAttributes(new HashMap<>());
+                inboundChannel.get().send(MessageBuilder.createMessage(frame.payload(), headers.getMessageHeaders()));
+            }
+            default -> { }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("node", directory.getLocalNodeId());
+        stats.put("clustered", directory.isClustered());
+        stats.put("topicsOut", topicsOut.get());
+        stats.put("topicsIn", topicsIn.get());
+        stats.put("commandsForwarded", commandsForwarded.get());
+        stats.put("commandsReceived", commandsReceived.get());
+        return stats;
+    }
+}
@@ -0,0 +1,23 @@
+package com.trustmarket.game.cluster;
+
+/**
+ * How nodes reach each other. Implementations deliver frames from one origin to one receiver in the order
+ * they were sent; nothing is acknowledged or retried.
+ */
+public interface ClusterTransport {
+
+    /** Starts delivering frames addressed to {@code nodeId} to {@code receiver}. */
+    void join(String nodeId, Receiver receiver);
+
+    void leave(String nodeId);
+
+    /** Sends to every node that has joined, except {@code frame.origin()}. */
+    void broadcast(ClusterFrame frame);
+
+    void send(String nodeId, ClusterFrame frame);
+
+    @FunctionalInterface
+    interface Receiver {
+        void receive(ClusterFrame frame);
+    }
+}
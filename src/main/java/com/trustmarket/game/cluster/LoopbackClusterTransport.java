@@ -0,0 +1,83 @@
+package com.trustmarket.game.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * In-process transport: every node in this JVM that joins the same instance can reach the others. Each node
+ * gets one delivery thread, standing in for its network connection, so frames arrive asynchronously and in
+ * order. Several application contexts can share {@link #shared()} to run a cluster on one machine.
+ */
+@Slf4j
+public class LoopbackClusterTransport implements ClusterTransport {
+
+    private static final LoopbackClusterTransport SHARED = new LoopbackClusterTransport();
+
+    private final Map<String, Endpoint> nodes = new ConcurrentHashMap<>();
+
+    private record Endpoint(Receiver receiver, ExecutorService inbox) {
+    }
+
+    public static LoopbackClusterTransport shared() {
+        return SHARED;
+    }
+
+    @Override
+    public void join(String nodeId, Receiver receiver) {
+        ExecutorService inbox = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "cluster-inbox-" + nodeId);
+            thread.setDaemon(true);
+            return thread;
+        });
+        Endpoint previous = nodes.put(nodeId, new Endpoint(receiver, inbox));
+        if (previous != null) {
+            previous.inbox().shutdown();
+        }
+    }
+
+    @Override
+    public void leave(String nodeId) {
+        Endpoint endpoint = nodes.remove(nodeId);
+        if (endpoint != null) {
+            endpoint.inbox().shutdown();
+        }
+    }
+
+    @Override
+    public void broadcast(ClusterFrame frame) {
+        nodes.forEach((nodeId, endpoint) -> {
+            if (!nodeId.equals(frame.origin())) {
+                deliver(nodeId, endpoint, frame);
+            }
+        });
+    }
+
+    @Override
+    public void send(String nodeId, ClusterFrame frame) {
+        Endpoint endpoint = nodes.get(nodeId);
+        if (endpoint == null) {
+            log.warn("⚠️ Node {} is not reachable, dropping {} frame for {}", nodeId, frame.kind(), frame.destination());
+            return;
+        }
+        deliver(nodeId, endpoint, frame);
+    }
+
+    private static void deliver(String nodeId, Endpoint endpoint, ClusterFrame frame) {
+        try {
+            endpoint.inbox().execute(() -> {
+                try {
+                    endpoint.receiver().receive(frame);
+                } catch (Exception e) {
+                    log.error("❌ Node {} failed to handle {} frame: {}", nodeId, frame.kind(), e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Node is leaving
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.trustmarket.game.cluster;
+
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.RoomCheckpoint;
+import com.trustmarket.game.service.GameEngine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves running rooms between nodes without ending their games.
+ * <p>
+ * {@link #migrate} asks the {@link GameEngine} to freeze the room at its next quiet tick, ships the
+ * {@link RoomCheckpoint} to the target, and pins the room there in every node's {@link RoomDirectory}; the
+ * target resumes the game loop on receipt, so the game skips no more than the one tick spent in transit.
+ * Subscribers need no re-subscribing: topics reach every node, and commands already follow the directory.
+ * Commands that reach the old owner while the room is in transit fail with "room not found" and are
+ * expected to be retried (with their {@code commandId}, so nothing runs twice).
+ * <p>
+ * {@link #drain} takes this node off the ring and moves all its rooms to where the ring now places them,
+ * e.g. before a deploy. Pause (freeze to resume acknowledged) and drain times are reported and kept in
+ * {@link #stats()}. If the target rejects the room, it resumes here. If the target does not answer within
+ * {@code game.cluster.migration-timeout-ms}, it is sent a {@link ClusterFrame.Kind#CANCEL} for that attempt
+ * and the room stays frozen until the target answers with {@link ClusterFrame.Kind#RETURNED}: if the target
+ * already adopted the room, it detaches it and ships back its own checkpoint, which resumes here with every
+ * command it applied meanwhile (the late ADOPTED is ignored); if the MIGRATE had not arrived yet, it is
+ * rejected when it does and the room resumes from the checkpoint taken here, so the room never runs on two
+ * nodes. If no RETURNED comes within ten timeouts the target is presumed gone and the room resumes from
+ * this node's checkpoint; anything the target applied after adopting it is lost, and counted in
+ * {@code unreturned}.
+ * <p>
+ * The admin endpoints that drive this ({@code /api/admin/cluster/**}) need the {@code X-Admin-Token}.
+ */
+@Slf4j
+@Component
+public class RoomMigrator implements ClusterTransport.Receiver {
+
+    private static final String RETIRED = "retired";
+    private static final String ACTIVE = "active";
+
+    private final GameEngine engine;
+    private final RoomDirectory directory;
+    private final ClusterTransport transport;
+    private final long timeoutMillis;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    // Cancelled attempts waiting for the target to say whether it ran the room
+    private final Map<String, InFlight> returning = new ConcurrentHashMap<>();
+    // Target side: roomId → attempt it was adopted under, and attempts cancelled before their MIGRATE arrived
+    private final Map<String, String> adopted = new ConcurrentHashMap<>();
+    private final Map<String, Long> fenced = new ConcurrentHashMap<>();
+    private final LongAdder migrated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder handedBack = new LongAdder();
+    private final LongAdder unreturned = new LongAdder();
+    private final AtomicLong lastPauseMicros = new AtomicLong();
+    private final AtomicLong maxPauseMicros = new AtomicLong();
+    private final AtomicLong lastDrainMillis = new AtomicLong(-1);
+
+    public record Migration(String roomId, String from, String to, double pauseMillis) {
+    }
+
+    public record DrainReport(int rooms, List<Migration> migrated, List<String> failed, long drainMillis,
+                              double maxPauseMillis) {
+    }
+
+    private record InFlight(String attempt, String to, RoomCheckpoint checkpoint, long frozenAtNanos,
+                            CompletableFuture<Migration> result) {
+    }
+
+    public RoomMigrator(
+            GameEngine engine,
+            RoomDirectory directory,
+            ClusterTransport transport,
+            ClusterMessaging clusterMessaging,
+            @Value("${game.cluster.migration-timeout-ms:5000}") long timeoutMillis
+    ) {
+        this.engine = engine;
+        this.directory = directory;
+        this.transport = transport;
+        this.timeoutMillis = timeoutMillis;
+        clusterMessaging.setControlReceiver(this);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (directory.isClustered()) {
+            // A node coming back (e.g. after the deploy it was drained for) takes rooms again
+            broadcast(ClusterFrame.Kind.NODE, directory.getLocalNodeId(), ACTIVE);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 📤 OUTGOING ROOMS
+    // ═══════════════════════════════════════════════════════════
+
+    public CompletableFuture<Migration> migrate(String roomId, String to) {
+        String local = directory.getLocalNodeId();
+        if (!directory.isMember(to) || to.equals(local)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown target node: " + to));
+        }
+        if (!directory.isLocal(roomId)) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("Room " + roomId + " is owned by " + directory.ownerOf(roomId)));
+        }
+        CompletableFuture<Migration> result = new CompletableFuture<>();
+        engine.detachRoom(roomId, to).whenComplete((checkpoint, error) -> {
+            if (error != null) {
+                failed.increment();
+                result.completeExceptionally(error);
+            } else {
+                ship(roomId, to, checkpoint, result);
+            }
+        });
+        return result;
+    }
+
+    private void ship(String roomId, String to, RoomCheckpoint checkpoint, CompletableFuture<Migration> result) {
+        InFlight flight = new InFlight(UUID.randomUUID().toString(), to, checkpoint, System.nanoTime(), result);
+        inFlight.put(roomId, flight);
+        // Commands sent here from now on queue up behind the room on the target
+        directory.pin(roomId, to);
+        try {
+            transport.send(to, new ClusterFrame(ClusterFrame.Kind.MIGRATE, directory.getLocalNodeId(), roomId,
+                    flight.attempt(), "application/json", jsonMapper.writeValueAsBytes(checkpoint)));
+        } catch (RuntimeException e) {
+            abandon(roomId, flight, e.getMessage(), false);
+            return;
+        }
+        synchronized (flight) {
+            // Unless the target already turned the room down and it resumed here
+            if (inFlight.get(roomId) == flight) {
+                broadcast(ClusterFrame.Kind.OWNER, roomId, to);
+            }
+        }
+        CompletableFuture.delayedExecutor(timeoutMillis, TimeUnit.MILLISECONDS)
+                .execute(() -> abandon(roomId, flight, "no answer from " + to + " within " + timeoutMillis + "ms",
+                        true));
+    }
+
+    /**
+     * Gives up on moving a room to its target.
+     *
+     * @param cancel whether the target may have adopted it anyway; if so the room resumes here only once the
+     *               target has said whether it ran it ({@link #returned})
+     */
+    private void abandon(String roomId, InFlight flight, String reason, boolean cancel) {
+        synchronized (flight) {
+            if (!inFlight.remove(roomId, flight)) {
+                return;
+            }
+            if (cancel) {
+                returning.put(roomId, flight);
+            } else {
+                resume(roomId, flight, flight.checkpoint(), reason);
+                return;
+            }
+        }
+        log.warn("⚠️ Migration of room {} to {} timed out, asking for it back", roomId, flight.to());
+        try {
+            transport.send(flight.to(), new ClusterFrame(ClusterFrame.Kind.CANCEL,
+                    directory.getLocalNodeId(), roomId, flight.attempt(), null, null));
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Could not cancel migration of room {} on {}: {}", roomId, flight.to(), e.getMessage());
+        }
+        CompletableFuture.delayedExecutor(timeoutMillis * 10, TimeUnit.MILLISECONDS).execute(() -> {
+            if (returning.remove(roomId, flight)) {
+                unreturned.increment();
+                log.error("❌ {} never answered for room {}; resuming it from the checkpoint taken here, commands "
+                        + "it applied to the room are lost", flight.to(), roomId);
+                resume(roomId, flight, flight.checkpoint(), reason);
+            }
+        });
+    }
+
+    /** The target of a cancelled attempt answered: resume from its checkpoint if it ran the room, else ours. */
+    private void returned(String roomId, String attempt, byte[] payload) {
+        boolean ranThere = payload != null && payload.length > 0;
+        InFlight flight = returning.get(roomId);
+        if (flight == null || !flight.attempt().equals(attempt) || !returning.remove(roomId, flight)) {
+            if (ranThere) {
+                log.error("❌ Room {} came back from a cancelled migration after it had resumed here; "
+                        + "the copy that came back is discarded", roomId);
+            }
+            return;
+        }
+        RoomCheckpoint checkpoint = ranThere
+                ? jsonMapper.readValue(payload, RoomCheckpoint.class)
+                : flight.checkpoint();
+        resume(roomId, flight, checkpoint, ranThere
+                ? "cancelled after " + flight.to() + " adopted it; resumed from its checkpoint"
+                : "cancelled before " + flight.to() + " adopted it");
+    }
+
+    /** Resumes a room here that did not make it to its target. */
+    private void resume(String roomId, InFlight flight, RoomCheckpoint checkpoint, String reason) {
+        synchronized (flight) {
+            String local = directory.getLocalNodeId();
+            if (local.equals(directory.placementOf(roomId))) {
+                directory.unpin(roomId);
+                broadcast(ClusterFrame.Kind.OWNER, roomId, "");
+            } else {
+                // Draining: the ring no longer points here, so keep the room pinned to us
+                directory.pin(roomId, local);
+                broadcast(ClusterFrame.Kind.OWNER, roomId, local);
+            }
+        }
+        failed.increment();
+        log.warn("⚠️ Migration of room {} to {} failed ({}), resuming it here", roomId, flight.to(), reason);
+        engine.restoreRoom(checkpoint.toRoom(), false);
+        flight.result().completeExceptionally(new IllegalStateException(
+                "Room " + roomId + " could not move to " + flight.to() + ": " + reason));
+    }
+
+    /**
+     * Takes this node off the ring and moves every unfinished room to the node the ring now gives it.
+     * Rooms stay pinned here until their own move succeeds, so routing never points at a node that does not
+     * have the room yet.
+     */
+    public CompletableFuture<DrainReport> drain() {
+        if (!directory.isClustered()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("No other node to drain to"));
+        }
+        long started = System.nanoTime();
+        String local = directory.getLocalNodeId();
+        List<String> rooms = engine.getRoomIds().stream()
+                .filter(roomId -> {
+                    GameRoom room = engine.getRoom(roomId);
+                    return room != null && room.getCurrentState() != GameState.FINISHED && directory.isLocal(roomId);
+                })
+                .sorted()
+                .toList();
+        for (String roomId : rooms) {
+            directory.pin(roomId, local);
+            broadcast(ClusterFrame.Kind.OWNER, roomId, local);
+        }
+        directory.setRetired(local, true);
+        broadcast(ClusterFrame.Kind.NODE, local, RETIRED);
+        log.info("🚚 Draining {} rooms from node {}", rooms.size(), local);
+
+        Map<String, CompletableFuture<Migration>> moves = new LinkedHashMap<>();
+        for (String roomId : rooms) {
+            moves.put(roomId, migrate(roomId, directory.placementOf(roomId)));
+        }
+        return CompletableFuture.allOf(moves.values().stream()
+                        .map(move -> move.exceptionally(e -> null))
+                        .toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    List<Migration> moved = new ArrayList<>();
+                    List<String> stuck = new ArrayList<>();
+                    moves.forEach((roomId, move) -> {
+                        Migration migration = move.exceptionally(e -> null).join();
+                        if (migration != null) {
+                            moved.add(migration);
+                        } else {
+                            stuck.add(roomId);
+                        }
+                    });
+                    long drainMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    lastDrainMillis.set(drainMillis);
+                    double maxPause = moved.stream().mapToDouble(Migration::pauseMillis).max().orElse(0);
+                    log.info("🚚 Node {} drained in {}ms: {} moved, {} failed, max pause {}ms", local, drainMillis,
+                            moved.size(), stuck.size(), String.format("%.2f", maxPause));
+                    return new DrainReport(rooms.size(), moved, stuck, drainMillis, maxPause);
+                });
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 📥 FRAMES FROM OTHER NODES
+    // ═══════════════════════════════════════════════════════════
+
+    @Override
+    public void receive(ClusterFrame frame) {
+        String subject = frame.destination();
+        String text = frame.payload() == null ? "" : new String(frame.payload(), StandardCharsets.UTF_8);
+        switch (frame.kind()) {
+            case MIGRATE -> adopt(frame);
+            case ADOPTED -> completed(subject, frame.origin(), frame.sessionId());
+            case REJECTED -> {
+                InFlight flight = inFlight.get(subject);
+                if (flight != null && flight.attempt().equals(frame.sessionId())) {
+                    abandon(subject, flight, text, false);
+                }
+            }
+            case CANCEL -> cancelled(subject, frame.origin(), frame.sessionId());
+            case RETURNED -> returned(subject, frame.sessionId(), frame.payload());
+            case OWNER -> {
+                if (text.isEmpty()) {
+                    directory.unpin(subject);
+                } else {
+                    directory.pin(subject, text);
+                }
+            }
+            case NODE -> directory.setRetired(subject, RETIRED.equals(text));
+            default -> { }
+        }
+    }
+
+    private void adopt(ClusterFrame frame) {
+        String roomId = frame.destination();
+        String local = directory.getLocalNodeId();
+        String attempt = frame.sessionId();
+        try {
+            synchronized (adopted) {
+                if (fenced.remove(attempt) != null) {
+                    throw new IllegalStateException("migration was cancelled by " + frame.origin());
+                }
+                if (engine.getRoom(roomId) != null) {
+                    throw new IllegalStateException("room already running on " + local);
+                }
+                RoomCheckpoint checkpoint = jsonMapper.readValue(frame.payload(), RoomCheckpoint.class);
+                directory.pin(roomId, local);
+                engine.restoreRoom(checkpoint.toRoom(), false);
+                adopted.put(roomId, attempt);
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Cannot adopt room {} from {}: {}", roomId, frame.origin(), e.getMessage());
+            transport.send(frame.origin(), new ClusterFrame(ClusterFrame.Kind.REJECTED, local, roomId, attempt, null,
+                    String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8)));
+            return;
+        }
+        transport.send(frame.origin(), new ClusterFrame(ClusterFrame.Kind.ADOPTED, local, roomId, attempt, null,
+                null));
+    }
+
+    /** The origin gave up on this attempt and waits to hear whether the room ran here. */
+    private void cancelled(String roomId, String origin, String attempt) {
+        synchronized (adopted) {
+            if (!adopted.remove(roomId, attempt)) {
+                // The MIGRATE is still on its way: turn it down when it arrives
+                long now = System.nanoTime();
+                fenced.values().removeIf(at -> now - at > TimeUnit.MILLISECONDS.toNanos(timeoutMillis * 10));
+                fenced.put(attempt, now);
+                sendReturned(origin, roomId, attempt, null);
+                return;
+            }
+        }
+        handedBack.increment();
+        log.warn("⚠️ Migration of room {} from {} was cancelled after it started here; handing it back",
+                roomId, origin);
+        // ROOM_MIGRATED tells the journal and listeners here that the room lives elsewhere again
+        engine.detachRoom(roomId, origin).whenComplete((checkpoint, error) -> {
+            if (error != null) {
+                log.error("❌ Could not hand room {} back to {}: {}", roomId, origin, error.getMessage());
+            }
+            sendReturned(origin, roomId, attempt, checkpoint == null ? null : jsonMapper.writeValueAsBytes(checkpoint));
+        });
+    }
+
+    private void sendReturned(String origin, String roomId, String attempt, byte[] checkpoint) {
+        try {
+            transport.send(origin, new ClusterFrame(ClusterFrame.Kind.RETURNED, directory.getLocalNodeId(), roomId,
+                    attempt, checkpoint == null ? null : "application/json", checkpoint));
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Could not return room {} to {}: {}", roomId, origin, e.getMessage());
+        }
+    }
+
+    private void completed(String roomId, String to, String attempt) {
+        InFlight flight = inFlight.get(roomId);
+        // Too late: the attempt timed out, the room resumed here and the target was told to drop it
+        if (flight == null || !flight.attempt().equals(attempt) || !inFlight.remove(roomId, flight)) {
+            return;
+        }
+        long pauseMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - flight.frozenAtNanos());
+        migrated.increment();
+        lastPauseMicros.set(pauseMicros);
+        maxPauseMicros.accumulateAndGet(pauseMicros, Math::max);
+        log.info("🚚 Room {} moved {} → {} (paused {}µs)", roomId, directory.getLocalNodeId(), to, pauseMicros);
+        flight.result().complete(new Migration(roomId, directory.getLocalNodeId(), to, pauseMicros / 1000.0));
+    }
+
+    /** A pin only matters while the room runs; once it ends, the ring decides again. */
+    @EventListener
+    public void onGameEvent(GameEvent event) {
+        if (event.getType() == GameEvent.Type.GAME_FINISHED || event.getType() == GameEvent.Type.ROOM_MIGRATED) {
+            adopted.remove(event.getRoomId());
+        }
+        if (event.getType() == GameEvent.Type.GAME_FINISHED && directory.isPinned(event.getRoomId())) {
+            directory.unpin(event.getRoomId());
+            broadcast(ClusterFrame.Kind.OWNER, event.getRoomId(), "");
+        }
+    }
+
+    private void broadcast(ClusterFrame.Kind kind, String subject, String value) {
+        transport.broadcast(new ClusterFrame(kind, directory.getLocalNodeId(), subject, null, null,
+                value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("migrated", migrated.sum());
+        stats.put("failed", failed.sum());
+        stats.put("handedBack", handedBack.sum());
+        stats.put("unreturned", unreturned.sum());
+        stats.put("inFlight", inFlight.size());
+        stats.put("returning", returning.size());
+        stats.put("lastPauseMillis", lastPauseMicros.get() / 1000.0);
+        stats.put("maxPauseMillis", maxPauseMicros.get() / 1000.0);
+        stats.put("lastDrainMillis", lastDrainMillis.get());
+        stats.put("pinnedRooms", directory.getPinnedCount());
+        stats.put("retired", directory.isRetired(directory.getLocalNodeId()));
+        return stats;
+    }
+}
@@ -0,0 +1,55 @@
+package com.trustmarket.game.cluster;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Sends REST calls about a room to the node that owns it: a {@code 307 Temporary Redirect} to the same path
+ * on the owner's base URL, which keeps the method and body. The room id comes from the {@code {roomId}} path
+ * variable or, for {@code /create}, the {@code roomId} parameter.
+ */
+@RequiredArgsConstructor
+public class RoomRoutingInterceptor implements HandlerInterceptor {
+
+    public static final String OWNER_HEADER = "X-Room-Owner";
+
+    private final RoomDirectory directory;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!directory.isClustered()) {
+            return true;
+        }
+        String roomId = roomIdOf(request);
+        if (directory.isLocal(roomId)) {
+            return true;
+        }
+        String owner = directory.ownerOf(roomId);
+        String baseUrl = directory.baseUrlOf(owner);
+        response.setHeader(OWNER_HEADER, owner);
+        if (baseUrl.isEmpty()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return false;
+        }
+        String query = request.getQueryString();
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader(HttpHeaders.LOCATION, baseUrl + request.getRequestURI() + (query == null ? "" : "?" + query));
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String roomIdOf(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map<?, ?> map && map.get("roomId") != null) {
+            return (String) map.get("roomId");
+        }
+        return request.getParameter("roomId");
+    }
+}
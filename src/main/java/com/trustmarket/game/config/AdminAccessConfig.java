@@ -0,0 +1,58 @@
+package com.trustmarket.game.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Chỉ cho gọi /api/admin/** khi có header {@code X-Admin-Token} khớp {@code game.admin.token}.
+ * Không cấu hình token thì toàn bộ admin API bị tắt (403).
+ */
+@Configuration
+public class AdminAccessConfig implements WebMvcConfigurer {
+
+    public static final String TOKEN_HEADER = "X-Admin-Token";
+
+    private final String token;
+
+    public AdminAccessConfig(@Value("${game.admin.token:}") String token) {
+        this.token = token;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdminTokenInterceptor(token)).addPathPatterns("/api/admin/**");
+    }
+
+    static final class AdminTokenInterceptor implements HandlerInterceptor {
+
+        private final byte[] expected;
+
+        AdminTokenInterceptor(String token) {
+            this.expected = token == null || token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
+                return true;
+            }
+            String given = request.getHeader(TOKEN_HEADER);
+            // So sánh thời gian hằng để không lộ token qua độ trễ
+            if (expected != null && given != null
+                    && MessageDigest.isEqual(expected, given.getBytes(StandardCharsets.UTF_8))) {
+                return true;
+            }
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return false;
+        }
+    }
+}
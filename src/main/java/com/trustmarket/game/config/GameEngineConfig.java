@@ -0,0 +1,37 @@
+package com.trustmarket.game.config;
+
+import com.trustmarket.game.service.scheduling.ExecutorGameScheduler;
+import com.trustmarket.game.service.scheduling.GameScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Random;
+
+@Slf4j
+@Configuration
+public class GameEngineConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public GameScheduler gameScheduler(
+            @Value("${game.scheduler.tick-threads:10}") int tickThreads,
+            @Value("${game.scheduler.async-threads:5}") int asyncThreads,
+            @Value("${game.scheduler.mode:platform}") String mode
+    ) {
+        // virtual: AI calls và settlement chạy trên virtual thread, tick vẫn ở pool platform nhỏ
+        ExecutorGameScheduler.ExecutionMode executionMode = ExecutorGameScheduler.ExecutionMode.parse(mode);
+        log.info("🧵 Game scheduler: {} tick threads, async work on {} threads", tickThreads, executionMode);
+        return new ExecutorGameScheduler(tickThreads, asyncThreads, executionMode);
+    }
+
+    // Set game.random.seed to make role assignment reproducible (e.g. when replaying a bug report)
+    @Bean
+    public Random gameRandom(@Value("${game.random.seed:#{null}}") Long seed) {
+        if (seed == null) {
+            return new Random();
+        }
+        log.info("🎲 Game RNG seeded with {}", seed);
+        return new Random(seed);
+    }
+}
@@ -0,0 +1,21 @@
+package com.trustmarket.game.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Response dạng stream (replay, lịch sử) chạy mỗi request trên một virtual thread riêng.
+ * Executor mặc định của Boot chỉ có 8 luồng với hàng đợi không giới hạn, mà replay ngủ giữa các frame,
+ * nên replay thứ 9 sẽ phải chờ một replay khác phát xong mới bắt đầu.
+ */
+@Configuration
+public class StreamingConfig implements WebMvcConfigurer {
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // Chạy sau cấu hình của Boot (@Order(0)) nên executor này được dùng
+        configurer.setTaskExecutor(new VirtualThreadTaskExecutor("stream-"));
+    }
+}
@@ -1,6 +1,10 @@
 package com.trustmarket.game.config;
 
+import com.trustmarket.game.cluster.ClusterMessaging;
+import com.trustmarket.game.replay.ReplayRecorder;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -8,14 +12,28 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final ReplayRecorder replayRecorder;
+    private final ClusterMessaging clusterMessaging;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Client gửi lên server qua prefix /app
         config.setApplicationDestinationPrefixes("/app");
         // Server bắn về client qua prefix /topic (public) và /queue (private)
         config.enableSimpleBroker("/topic", "/queue");
+        // Ghi lại mọi frame gửi tới phòng để xem lại (replay)
+        config.configureBrokerChannel().interceptors(replayRecorder);
+        // Nhiều node: phát lại /topic/** sang các node khác
+        config.configureBrokerChannel().interceptors(clusterMessaging.outbound());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Nhiều node: lệnh /app/game/** của phòng thuộc node khác được chuyển tới node đó
+        registration.interceptors(clusterMessaging.inbound());
     }
 
     @Override
@@ -0,0 +1,195 @@
+package com.trustmarket.game.controller;
+
+import com.trustmarket.game.cluster.ClusterMessaging;
+import com.trustmarket.game.cluster.RoomMigrator;
+import com.trustmarket.game.replay.ReplayRecorder;
+import com.trustmarket.game.service.RoomViewCache;
+import com.trustmarket.game.service.UserProfileCache;
+import com.trustmarket.game.service.admission.CommandDeduplicator;
+import com.trustmarket.game.service.admission.CommandRateLimiter;
+import com.trustmarket.game.service.bot.BotService;
+import com.trustmarket.game.service.bot.BotStrategy;
+import com.trustmarket.game.service.chat.MarketChatService;
+import com.trustmarket.game.service.profiling.FlightRecorderService;
+import com.trustmarket.game.service.scheduling.VirtualThreadPinningMonitor;
+import com.trustmarket.game.service.spectator.SpectatorBroadcaster;
+import com.trustmarket.game.service.trace.RoomTracer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Operational read-outs for the team; not used by the game client. Every endpoint needs the
+ * {@code X-Admin-Token} header (see {@link com.trustmarket.game.config.AdminAccessConfig}).
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final UserProfileCache userProfileCache;
+    private final SpectatorBroadcaster spectatorBroadcaster;
+    private final ReplayRecorder replayRecorder;
+    private final MarketChatService marketChatService;
+    private final CommandRateLimiter commandRateLimiter;
+    private final CommandDeduplicator commandDeduplicator;
+    private final ClusterMessaging clusterMessaging;
+    private final RoomMigrator roomMigrator;
+    private final VirtualThreadPinningMonitor pinningMonitor;
+    private final RoomTracer roomTracer;
+    private final FlightRecorderService flightRecorder;
+    private final RoomViewCache roomViewCache;
+    private final BotService botService;
+
+    @GetMapping("/cache/users")
+    public ResponseEntity<Map<String, Object>> userCacheStats() {
+        return ResponseEntity.ok(userProfileCache.stats());
+    }
+
+    @GetMapping("/cache/views")
+    public ResponseEntity<Map<String, Object>> roomViewStats() {
+        return ResponseEntity.ok(roomViewCache.stats());
+    }
+
+    @GetMapping("/spectators")
+    public ResponseEntity<Map<String, Object>> spectatorStats() {
+        return ResponseEntity.ok(spectatorBroadcaster.stats());
+    }
+
+    @GetMapping("/replays")
+    public ResponseEntity<Map<String, Object>> replayRecorderStats() {
+        return ResponseEntity.ok(replayRecorder.stats());
+    }
+
+    @GetMapping("/chat")
+    public ResponseEntity<Map<String, Object>> chatStats() {
+        return ResponseEntity.ok(marketChatService.stats());
+    }
+
+    @GetMapping("/admission")
+    public ResponseEntity<Map<String, Object>> admissionStats() {
+        return ResponseEntity.ok(commandRateLimiter.stats());
+    }
+
+    @GetMapping("/dedup")
+    public ResponseEntity<Map<String, Object>> dedupStats() {
+        return ResponseEntity.ok(commandDeduplicator.stats());
+    }
+
+    @GetMapping("/scheduler")
+    public ResponseEntity<Map<String, Object>> schedulerStats() {
+        return ResponseEntity.ok(pinningMonitor.stats());
+    }
+
+    @GetMapping("/trace")
+    public ResponseEntity<Map<String, Object>> traceStats() {
+        return ResponseEntity.ok(roomTracer.stats());
+    }
+
+    // Các sự kiện của ván đã kết thúc (cũ nhất trước); phòng đang chơi trả 404 vì trace chứa vai trò bí mật và đáp án
+    @GetMapping("/rooms/{roomId}/trace")
+    public ResponseEntity<List<String>> roomTrace(@PathVariable String roomId) {
+        List<String> lines = roomTracer.finishedLines(roomId);
+        return lines.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(lines);
+    }
+
+    @GetMapping("/bots")
+    public ResponseEntity<Map<String, Object>> botStats() {
+        return ResponseEntity.ok(botService.stats());
+    }
+
+    // Cho bot vào phòng (strategy = RANDOM | TRADER | INVESTOR, bỏ trống thì xoay vòng theo cấu hình)
+    @PostMapping("/rooms/{roomId}/bots")
+    public ResponseEntity<?> addBots(
+            @PathVariable String roomId,
+            @RequestParam(defaultValue = "1") int count,
+            @RequestParam(required = false) String strategy
+    ) {
+        try {
+            BotStrategy chosen = strategy == null ? null : BotStrategy.valueOf(strategy.toUpperCase());
+            return ResponseEntity.ok(Map.of("roomId", roomId, "bots", botService.addBots(roomId, count, chosen)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/profiling")
+    public ResponseEntity<Map<String, Object>> profilingStatus() {
+        return ResponseEntity.ok(flightRecorder.status());
+    }
+
+    // Bật JFR cuộn liên tục trên node này (settings=default để chạy lâu dài, profile khi cần điều tra)
+    @PostMapping("/profiling/start")
+    public ResponseEntity<?> startProfiling(@RequestParam(defaultValue = "default") String settings) {
+        try {
+            return ResponseEntity.ok(flightRecorder.start(settings));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Ghi những gì đang có trong recording ra file .jfr và tải về (recording vẫn tiếp tục chạy)
+    // Mỗi node chỉ giữ một file: lần dump sau ghi đè lần trước
+    @PostMapping("/profiling/dump")
+    public ResponseEntity<?> dumpProfiling() {
+        Path file;
+        try {
+            file = flightRecorder.dump();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        Resource body = new FileSystemResource(file);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(body);
+    }
+
+    @PostMapping("/profiling/stop")
+    public ResponseEntity<Map<String, Object>> stopProfiling() {
+        flightRecorder.stop();
+        return ResponseEntity.ok(flightRecorder.status());
+    }
+
+    @GetMapping("/cluster")
+    public ResponseEntity<Map<String, Object>> clusterStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(clusterMessaging.stats());
+        stats.put("migration", roomMigrator.stats());
+        return ResponseEntity.ok(stats);
+    }
+
+    // Chuyển phòng đang chơi sang node khác (phải gọi trên node đang giữ phòng)
+    @PostMapping("/cluster/rooms/{roomId}/migrate")
+    public CompletableFuture<ResponseEntity<?>> migrateRoom(@PathVariable String roomId, @RequestParam String to) {
+        return roomMigrator.migrate(roomId, to).handle((migration, error) -> error == null
+                ? ResponseEntity.ok(migration)
+                : ResponseEntity.badRequest().body(Map.of("error", rootMessage(error))));
+    }
+
+    // Rút hết phòng khỏi node này trước khi deploy
+    @PostMapping("/cluster/drain")
+    public CompletableFuture<ResponseEntity<?>> drain() {
+        return roomMigrator.drain().handle((report, error) -> error == null
+                ? ResponseEntity.ok(report)
+                : ResponseEntity.badRequest().body(Map.of("error", rootMessage(error))));
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        return String.valueOf(cause.getMessage());
+    }
+}
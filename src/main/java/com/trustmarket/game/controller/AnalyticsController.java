@@ -0,0 +1,29 @@
+package com.trustmarket.game.controller;
+
+import com.trustmarket.game.dto.response.MarketStats;
+import com.trustmarket.game.service.analytics.MarketAnalytics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final MarketAnalytics marketAnalytics;
+
+    // Thống kê thị trường toàn node: 1 phút gần nhất và 1 giờ gần nhất
+    @GetMapping("/market")
+    public ResponseEntity<Map<String, MarketStats>> market() {
+        return ResponseEntity.ok(marketAnalytics.stats());
+    }
+
+    // Một cửa sổ: minute | hour
+    @GetMapping("/market/{window}")
+    public ResponseEntity<MarketStats> market(@PathVariable String window) {
+        return ResponseEntity.of(marketAnalytics.stats(window));
+    }
+}
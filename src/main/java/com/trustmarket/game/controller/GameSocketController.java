@@ -2,16 +2,25 @@ package com.trustmarket.game.controller;
 
 import com.trustmarket.game.dto.request.AnswerRequest;
 import com.trustmarket.game.dto.request.BetRequest;
+import com.trustmarket.game.dto.request.ChatRequest;
 import com.trustmarket.game.dto.request.JoinRequest;
+import com.trustmarket.game.dto.response.ChatHistory;
+import com.trustmarket.game.dto.response.RoomView;
 import com.trustmarket.game.model.game.GameRoom;
 import com.trustmarket.game.model.game.Player;
 import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.UserProfileCache;
+import com.trustmarket.game.service.admission.CommandDeduplicator;
+import com.trustmarket.game.service.admission.CommandRateLimiter;
+import com.trustmarket.game.service.chat.MarketChatService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
 @Controller
@@ -21,28 +30,33 @@ public class GameSocketController {
 
     private final GameEngine gameEngine;
     private final SimpMessagingTemplate messagingTemplate;
+    private final MarketChatService marketChatService;
+    private final CommandRateLimiter commandRateLimiter;
+    private final CommandDeduplicator commandDeduplicator;
+    private final UserProfileCache userProfileCache;
 
     // 1. Người chơi Join phòng
     // Client gửi tới: /app/game/join
     @MessageMapping("/game/join")
     public void joinRoom(@Payload JoinRequest request, SimpMessageHeaderAccessor headerAccessor) {
         String sessionId = headerAccessor.getSessionId();
-        GameRoom room = gameEngine.getRoom(request.getRoomId());
 
-        if (room != null) {
-            // Tạo Player mới
-            Player newPlayer = Player.builder()
-                    .id(sessionId) // Dùng session ID làm ID tạm
-                    .displayName(request.getNickname())
-                    .avatarUrl(request.getAvatarUrl())
-                    .cash(1000.0) // Vốn khởi điểm
-                    .isReady(true)
-                    .build();
-
-            room.getPlayers().put(sessionId, newPlayer);
+        // Tạo Player mới
+        Player newPlayer = Player.builder()
+                .id(sessionId) // Dùng session ID làm ID tạm
+                .displayName(request.getNickname())
+                .avatarUrl(request.getAvatarUrl())
+                .accountId(userProfileCache.accountId(headerAccessor.getUser())) // Chỉ tài khoản đã xác thực
+                .cash(1000.0) // Vốn khởi điểm
+                .isReady(true)
+                .build();
 
+        GameRoom room = gameEngine.seatPlayer(request.getRoomId(), newPlayer);
+        if (room != null) {
             // Broadcast danh sách player mới cho cả phòng
-            messagingTemplate.convertAndSend("/topic/room/" + request.getRoomId() + "/players", room.getPlayers().values());
+            boolean revealed = RoomView.isRevealed(room.getCurrentState());
+            messagingTemplate.convertAndSend("/topic/room/" + request.getRoomId() + "/players",
+                    room.getPlayers().values().stream().map(p -> RoomView.PlayerView.of(p, revealed)).toList());
             log.info("Player {} joined room {}", request.getNickname(), request.getRoomId());
         }
     }
@@ -52,23 +66,16 @@ public class GameSocketController {
     @MessageMapping("/game/bet")
     public void handleBet(@Payload BetRequest request, SimpMessageHeaderAccessor headerAccessor) {
         String playerId = headerAccessor.getSessionId();
-        GameRoom room = gameEngine.getRoom(request.getRoomId());
 
-        if (room != null) {
-            Player player = room.getPlayers().get(playerId);
-            if (player != null) {
-                // Cập nhật role và tiền cược
-                if ("TRADER".equalsIgnoreCase(request.getRole())) {
-                    player.setRole(Player.Role.TRADER);
-                } else {
-                    player.setRole(Player.Role.INVESTOR);
-                }
-                player.setBlindBetAmount(request.getAmount());
+        // Cập nhật role và tiền cược
+        Player.Role role = "TRADER".equalsIgnoreCase(request.getRole())
+                ? Player.Role.TRADER
+                : Player.Role.INVESTOR;
+        runOnce(request.getRoomId(), playerId, request.getCommandId(),
+                () -> gameEngine.placeBlindBet(request.getRoomId(), playerId, role, request.getAmount()));
 
-                // Gửi thông báo riêng cho user đó là đã bet thành công
-                // (Thực tế nên broadcast sự kiện "User A đã sẵn sàng" để tạo áp lực)
-            }
-        }
+        // Gửi thông báo riêng cho user đó là đã bet thành công
+        // (Thực tế nên broadcast sự kiện "User A đã sẵn sàng" để tạo áp lực)
     }
 
     // 3. Xử lý Trả lời / Đầu tư (Giai đoạn CLOSING)
@@ -76,20 +83,41 @@ public class GameSocketController {
     @MessageMapping("/game/answer")
     public void handleAnswer(@Payload AnswerRequest request, SimpMessageHeaderAccessor headerAccessor) {
         String playerId = headerAccessor.getSessionId();
-        GameRoom room = gameEngine.getRoom(request.getRoomId());
 
-        if (room != null) {
-            Player player = room.getPlayers().get(playerId);
-            if (player != null) {
-                if (player.getRole() == Player.Role.TRADER) {
-                    player.setSelectedAnswer(request.getSelectedAnswer());
-                } else {
-                    player.setInvestTargetId(request.getTargetTraderId());
+        runOnce(request.getRoomId(), playerId, request.getCommandId(), () -> {
+            Player.Role role = gameEngine.applyAnswer(
+                    request.getRoomId(), playerId, request.getSelectedAnswer(), request.getTargetTraderId());
 
-                    // Broadcast cập nhật Trust Graph (Biểu đồ tiền) ngay lập tức
-                    messagingTemplate.convertAndSend("/topic/room/" + request.getRoomId() + "/trust-update", "Update Graph Data");
-                }
+            if (role == Player.Role.INVESTOR) {
+                // Broadcast cập nhật Trust Graph (Biểu đồ tiền) ngay lập tức
+                messagingTemplate.convertAndSend("/topic/room/" + request.getRoomId() + "/trust-update", "Update Graph Data");
             }
-        }
+        });
+    }
+
+    // 4. Chat trong giai đoạn MARKET_CHAT (gửi theo lô tới /topic/game/{roomId}/chat)
+    // Client gửi tới: /app/game/chat
+    @MessageMapping("/game/chat")
+    public void handleChat(@Payload ChatRequest request, SimpMessageHeaderAccessor headerAccessor) {
+        marketChatService.post(request.getRoomId(), headerAccessor.getSessionId(), request.getText());
+    }
+
+    // 5. Lịch sử chat cho người vào sau: chỉ trả về cho người vừa subscribe
+    // Client subscribe: /app/game/chat/{roomId}
+    @SubscribeMapping("/game/chat/{roomId}")
+    public ChatHistory chatHistory(@DestinationVariable String roomId) {
+        return new ChatHistory(roomId, marketChatService.history(roomId));
+    }
+
+    // Lệnh gửi lại (cùng commandId) hoặc vượt giới hạn bị bỏ qua luôn (không log, không broadcast).
+    // Lệnh bị giới hạn không được ghi nhớ, nên gửi lại sau vẫn chạy.
+    private void runOnce(String roomId, String sessionId, String commandId, Runnable command) {
+        commandDeduplicator.execute(sessionId, commandId, () -> {
+            if (commandRateLimiter.tryAcquire(roomId, sessionId) != CommandRateLimiter.Verdict.ADMITTED) {
+                return false;
+            }
+            command.run();
+            return true;
+        }, ran -> ran);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.trustmarket.game.controller;
+
+import com.trustmarket.game.history.HistoryCursor;
+import com.trustmarket.game.history.HistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/history")
+@RequiredArgsConstructor
+public class HistoryController {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final HistoryRepository historyRepository;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    /**
+     * Archived rounds, newest first. Pass the returned {@code nextCursor} back as {@code cursor} for the
+     * next page; it is null on the last page. Rounds are written to the response as they are read.
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> history(
+            @RequestParam(required = false) String player,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        HistoryCursor from;
+        try {
+            from = cursor == null ? HistoryCursor.START : HistoryCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> jsonMapper.writeValue(out, Map.of("error", e.getMessage())));
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = jsonMapper.createGenerator(out)) {
+                HistoryCursor[] last = {null};
+                int[] count = {0};
+
+                json.writeStartObject();
+                json.writeArrayPropertyStart("rounds");
+                historyRepository.page(player, from, pageSize, row -> {
+                    json.writeStartObject();
+                    json.writeStringProperty("roundId", row.roundId());
+                    json.writeNumberProperty("playedAt", row.playedAt());
+                    json.writeStringProperty("roomId", row.roomId());
+                    json.writeNumberProperty("round", row.round());
+                    json.writeBooleanProperty("marketCrash", row.marketCrash());
+                    json.writeName("details");
+                    json.writeRawValue(row.detailsJson());
+                    json.writeEndObject();
+                    last[0] = new HistoryCursor(row.playedAt(), row.roundId());
+                    count[0]++;
+                });
+                json.writeEndArray();
+                // A short page means there is nothing older
+                json.writeStringProperty("nextCursor", count[0] == pageSize ? last[0].encode() : null);
+                json.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
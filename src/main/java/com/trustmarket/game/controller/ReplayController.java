@@ -0,0 +1,63 @@
+package com.trustmarket.game.controller;
+
+import com.trustmarket.game.replay.ReplayFile;
+import com.trustmarket.game.replay.ReplayRecorder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/replays")
+@RequiredArgsConstructor
+public class ReplayController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ReplayRecorder replayRecorder;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    /** Finished game recordings, newest first. */
+    @GetMapping
+    public ResponseEntity<List<ReplayFile.Info>> list(@RequestParam(required = false) String roomId)
+            throws IOException {
+        return ResponseEntity.ok(ReplayFile.list(replayRecorder.getDirectory(), roomId));
+    }
+
+    /**
+     * Streams a recording as gzip-encoded NDJSON, paced at {@code speed}× (1, 4 or 16) the original game.
+     * Each line is a frame players received: {@code {"t":msSinceRoundOne,"destination":…,"payload":…}}.
+     */
+    @GetMapping("/{replayId}")
+    public ResponseEntity<StreamingResponseBody> replay(
+            @PathVariable String replayId,
+            @RequestParam(defaultValue = "1") int speed
+    ) {
+        if (!ReplayFile.SPEEDS.contains(speed)) {
+            String error = "speed must be one of " + ReplayFile.SPEEDS;
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> jsonMapper.writeValue(out, Map.of("error", error)));
+        }
+        ReplayFile file = ReplayFile.open(replayRecorder.getDirectory(), replayId);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        log.info("🎞️ Streaming replay {} at {}x", replayId, speed);
+        // Phải khai báo ResponseEntity<StreamingResponseBody>: với ResponseEntity<?> Spring không stream được body
+        StreamingResponseBody body = out -> file.streamTo(out, speed);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .contentType(NDJSON)
+                .body(body);
+    }
+}
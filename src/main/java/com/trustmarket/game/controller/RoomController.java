@@ -1,13 +1,37 @@
 package com.trustmarket.game.controller;
 
+import com.trustmarket.game.dto.request.ActionBatchRequest;
+import com.trustmarket.game.dto.request.ChooseRoleRequest;
+import com.trustmarket.game.dto.request.InvestRequest;
+import com.trustmarket.game.dto.request.PlaceBetRequest;
+import com.trustmarket.game.dto.request.RoomAction;
+import com.trustmarket.game.dto.request.SubmitAnswerRequest;
+import com.trustmarket.game.dto.response.ActionBatchResponse;
+import com.trustmarket.game.dto.response.UserProfile;
 import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.Player;
 import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.RoomSnapshotCache;
+import com.trustmarket.game.service.UserProfileCache;
+import com.trustmarket.game.service.admission.CommandDeduplicator;
+import com.trustmarket.game.service.admission.CommandRateLimiter;
+import com.trustmarket.game.service.trace.RoomTracer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 @Slf4j
 @RestController
@@ -15,16 +39,25 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class RoomController {
 
+    private static final int MAX_ACTIONS = 8;
+
     private final GameEngine gameEngine;
+    private final UserProfileCache userProfileCache;
+    private final RoomSnapshotCache roomSnapshotCache;
+    private final CommandRateLimiter commandRateLimiter;
+    private final CommandDeduplicator commandDeduplicator;
+    private final RoomTracer roomTracer;
 
     // 1. Create Room
     @PostMapping("/create")
     public ResponseEntity<GameRoom> createRoom(
             @RequestParam String roomId,
-            @RequestParam String hostId
+            @RequestParam String hostId,
+            Principal principal
     ) {
         log.info("🏠 Creating room: {} by host: {}", roomId, hostId);
-        GameRoom room = gameEngine.createRoom(roomId, hostId);
+        // Thống kê chỉ được ghi cho tài khoản đã xác thực, không theo tên người chơi tự đặt
+        GameRoom room = gameEngine.createRoom(roomId, hostId, userProfileCache.accountId(principal));
         return ResponseEntity.ok(room);
     }
 
@@ -32,11 +65,12 @@ public class RoomController {
     @PostMapping("/{roomId}/join")
     public ResponseEntity<?> joinRoom(
             @PathVariable String roomId,
-            @RequestParam String playerId
+            @RequestParam String playerId,
+            Principal principal
     ) {
         try {
             log.info("👤 Player {} joining room {}", playerId, roomId);
-            gameEngine.joinRoom(roomId, playerId);
+            gameEngine.joinRoom(roomId, playerId, userProfileCache.accountId(principal));
             return ResponseEntity.ok(Map.of(
                     "message", "Joined success",
                     "roomId", roomId,
@@ -48,14 +82,43 @@ public class RoomController {
         }
     }
 
-    // 3. Get Room Info
+    // 3. Get Room Info (latest snapshot; send the ETag back as If-None-Match to get a 304 while unchanged)
     @GetMapping("/{roomId}")
-    public ResponseEntity<GameRoom> getRoom(@PathVariable String roomId) {
+    public ResponseEntity<byte[]> getRoom(
+            @PathVariable String roomId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        RoomSnapshotCache.Body body = roomSnapshotCache.get(roomId);
+        if (body == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (body.etag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(body.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(body.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.json());
+    }
+
+    // 3b. Player profiles for everyone in the room, by player id (one query for all cache misses)
+    @GetMapping("/{roomId}/profiles")
+    public ResponseEntity<Map<String, UserProfile>> getProfiles(@PathVariable String roomId) {
         GameRoom room = gameEngine.getRoom(roomId);
         if (room == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(room);
+        // Tra theo tài khoản đã xác thực, không theo tên hiển thị; khách không có hồ sơ
+        Map<UUID, UserProfile> byAccount = userProfileCache.getAllById(accountIds(room));
+        Map<String, UserProfile> byPlayer = new LinkedHashMap<>();
+        for (Player p : room.getPlayers().values()) {
+            UserProfile profile = p.getAccountId() == null ? null : byAccount.get(p.getAccountId());
+            if (profile != null) {
+                byPlayer.put(p.getId(), profile);
+            }
+        }
+        return ResponseEntity.ok(byPlayer);
     }
 
     // 4. Start Game
@@ -67,6 +130,8 @@ public class RoomController {
         try {
             log.info("🎮 Player {} requesting to start game in room {}", playerId, roomId);
             gameEngine.startGame(roomId, playerId);
+            // Warm the whole table's profiles in one query before clients start asking for them
+            userProfileCache.prefetch(accountIds(gameEngine.getRoom(roomId)));
             return ResponseEntity.ok(Map.of("message", "Game started"));
         } catch (RuntimeException e) {
             log.error("❌ Start game failed: {}", e.getMessage());
@@ -78,94 +143,144 @@ public class RoomController {
     @PostMapping("/{roomId}/choose-role")
     public ResponseEntity<?> chooseRole(
             @PathVariable String roomId,
-            @RequestBody Map<String, String> payload
+            @RequestBody ChooseRoleRequest request
     ) {
-        String playerId = payload.get("playerId");
-        String role = payload.get("role");
-
-        log.info("🎭 Player {} choosing role {} in room {}", playerId, role, roomId);
+        String playerId = request.getPlayerId();
+        String role = request.getRole();
 
-        try {
-            gameEngine.playerSelectRole(roomId, playerId, role);
-            log.info("✅ Role selection successful for player {}", playerId);
-            return ResponseEntity.ok(Map.of(
-                    "message", "Role selected: " + role,
-                    "playerId", playerId,
-                    "role", role
-            ));
-        } catch (Exception e) {
-            log.error("❌ Role selection failed: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        }
+        return command(roomId, playerId, request.getCommandId(), () -> {
+            try {
+                gameEngine.playerSelectRole(roomId, playerId, role);
+                return ResponseEntity.ok(Map.of(
+                        "message", "Role selected: " + role,
+                        "playerId", playerId,
+                        "role", role
+                ));
+            } catch (Exception e) {
+                roomTracer.trace(roomId, "❌ Role selection failed for {}: {}", playerId, e.getMessage());
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        });
     }
 
     // 6. Place Bet (NEW: Separated from role selection)
     @PostMapping("/{roomId}/bet")
     public ResponseEntity<?> placeBet(
             @PathVariable String roomId,
-            @RequestBody Map<String, Object> payload
+            @RequestBody PlaceBetRequest request
     ) {
-        String playerId = (String) payload.get("playerId");
-        Double amount = ((Number) payload.get("amount")).doubleValue();
+        String playerId = request.getPlayerId();
+        double amount = request.getAmount();
 
-        log.info("💰 Player {} betting {} in room {}", playerId, amount, roomId);
-
-        try {
-            gameEngine.handleBet(roomId, playerId, amount);
-            return ResponseEntity.ok(Map.of(
-                    "message", "Bet placed",
-                    "amount", amount
-            ));
-        } catch (Exception e) {
-            log.error("❌ Bet failed: {}", e.getMessage());
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        }
+        return command(roomId, playerId, request.getCommandId(), () -> {
+            try {
+                gameEngine.handleBet(roomId, playerId, amount);
+                return ResponseEntity.ok(Map.of(
+                        "message", "Bet placed",
+                        "amount", amount
+                ));
+            } catch (Exception e) {
+                roomTracer.trace(roomId, "❌ Bet failed for {}: {}", playerId, e.getMessage());
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        });
     }
 
     // 7. Invest (Investor chooses Trader)
     @PostMapping("/{roomId}/invest")
     public ResponseEntity<?> invest(
             @PathVariable String roomId,
-            @RequestBody Map<String, String> payload
+            @RequestBody InvestRequest request
     ) {
-        String playerId = payload.get("playerId");
-        String targetId = payload.get("targetId");
-
-        log.info("💎 Investor {} targeting Trader {} in room {}", playerId, targetId, roomId);
+        String playerId = request.getPlayerId();
+        String targetId = request.getTargetId();
 
-        try {
-            gameEngine.handleInvest(roomId, playerId, targetId);
-            return ResponseEntity.ok(Map.of(
-                    "message", "Investment placed",
-                    "investor", playerId,
-                    "trader", targetId
-            ));
-        } catch (Exception e) {
-            log.error("❌ Investment failed: {}", e.getMessage());
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        }
+        return command(roomId, playerId, request.getCommandId(), () -> {
+            try {
+                gameEngine.handleInvest(roomId, playerId, targetId);
+                return ResponseEntity.ok(Map.of(
+                        "message", "Investment placed",
+                        "investor", playerId,
+                        "trader", targetId
+                ));
+            } catch (Exception e) {
+                roomTracer.trace(roomId, "❌ Investment failed for {}: {}", playerId, e.getMessage());
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        });
     }
 
     // 8. Submit Answer (Trader answers question)
     @PostMapping("/{roomId}/submit")
     public ResponseEntity<?> submitAnswer(
             @PathVariable String roomId,
-            @RequestBody Map<String, String> payload
+            @RequestBody SubmitAnswerRequest request
     ) {
-        String playerId = payload.get("playerId");
-        String answer = payload.get("answer");
+        String playerId = request.getPlayerId();
+        String answer = request.getAnswer();
 
-        log.info("📝 Player {} submitting answer {} in room {}", playerId, answer, roomId);
+        return command(roomId, playerId, request.getCommandId(), () -> {
+            try {
+                gameEngine.submitAnswer(roomId, playerId, answer);
+                return ResponseEntity.ok(Map.of(
+                        "message", "Answer submitted",
+                        "answer", answer
+                ));
+            } catch (Exception e) {
+                roomTracer.trace(roomId, "❌ Answer submission failed for {}: {}", playerId, e.getMessage());
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        });
+    }
 
-        try {
-            gameEngine.submitAnswer(roomId, playerId, answer);
-            return ResponseEntity.ok(Map.of(
-                    "message", "Answer submitted",
-                    "answer", answer
-            ));
-        } catch (Exception e) {
-            log.error("❌ Answer submission failed: {}", e.getMessage());
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    // 9. Batch of actions (role, bet, invest, answer) in one round-trip, applied all-or-nothing
+    @PostMapping("/{roomId}/actions")
+    public ResponseEntity<?> applyActions(
+            @PathVariable String roomId,
+            @RequestBody ActionBatchRequest request
+    ) {
+        String playerId = request.getPlayerId();
+        List<RoomAction> actions = request.getActions();
+        if (actions == null || actions.isEmpty() || actions.size() > MAX_ACTIONS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "A batch needs between 1 and " + MAX_ACTIONS + " actions"));
         }
+
+        return command(roomId, playerId, request.getCommandId(), () -> {
+            try {
+                Player player = gameEngine.applyActions(roomId, playerId, actions);
+                return ResponseEntity.ok(ActionBatchResponse.of(roomId, player, actions.size()));
+            } catch (RuntimeException e) {
+                roomTracer.trace(roomId, "❌ Action batch failed for {}: {}", playerId, e.getMessage());
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Common path of player commands: a retry of an earlier {@code commandId} gets that attempt's response
+     * back untouched; anything else passes admission control before it runs. Rate-limited attempts are not
+     * remembered, so retrying them later runs the command.
+     */
+    private ResponseEntity<?> command(String roomId, String playerId, String commandId,
+                                      Supplier<ResponseEntity<?>> command) {
+        return commandDeduplicator.execute(playerId, commandId, () -> {
+            CommandRateLimiter.Verdict verdict = commandRateLimiter.tryAcquire(roomId, playerId);
+            if (verdict != CommandRateLimiter.Verdict.ADMITTED) {
+                return tooManyRequests(verdict);
+            }
+            return command.get();
+        }, response -> response.getStatusCode() != HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    // Rejected before logging or touching the engine: a flood must stay cheap
+    private static ResponseEntity<?> tooManyRequests(CommandRateLimiter.Verdict verdict) {
+        String scope = verdict == CommandRateLimiter.Verdict.ROOM_LIMITED ? "room" : "player";
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(Map.of("error", "Too many commands for this " + scope + ", slow down"));
+    }
+
+    private static List<UUID> accountIds(GameRoom room) {
+        return room.getPlayers().values().stream().map(Player::getAccountId).filter(Objects::nonNull).toList();
     }
-}
\ No newline at end of file
+}
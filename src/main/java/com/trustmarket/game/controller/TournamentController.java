@@ -0,0 +1,48 @@
+package com.trustmarket.game.controller;
+
+import com.trustmarket.game.dto.request.CreateTournamentRequest;
+import com.trustmarket.game.dto.response.TournamentView;
+import com.trustmarket.game.service.tournament.TournamentService;
+import com.trustmarket.game.service.tournament.TournamentSettings;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/tournaments")
+@RequiredArgsConstructor
+public class TournamentController {
+
+    private final TournamentService tournamentService;
+
+    // Tạo giải: tạo + xếp chỗ tất cả các bàn vòng 1, các bàn bắt đầu rải đều quanh startAt
+    @PostMapping
+    public ResponseEntity<?> create(@RequestBody CreateTournamentRequest request) {
+        TournamentSettings settings = tournamentService.getDefaults().override(request.getTableSize(),
+                request.getAdvancePerTable(), request.getRoundsPerGame(), request.getStartSpreadMs(),
+                request.getStageGapMs());
+        try {
+            return ResponseEntity.ok(tournamentService.create(request.getName(), request.getPlayers(),
+                    request.getStartAt(), settings));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<TournamentView>> list() {
+        return ResponseEntity.ok(tournamentService.list());
+    }
+
+    // Bảng xếp hạng + các bàn của từng vòng
+    @GetMapping("/{tournamentId}")
+    public ResponseEntity<TournamentView> get(@PathVariable String tournamentId) {
+        TournamentView view = tournamentService.get(tournamentId);
+        return view == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(view);
+    }
+}
@@ -0,0 +1,22 @@
+package com.trustmarket.game.controller;
+
+import com.trustmarket.game.dto.response.UserProfile;
+import com.trustmarket.game.service.UserProfileCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final UserProfileCache userProfileCache;
+
+    @GetMapping("/{username}")
+    public ResponseEntity<UserProfile> getProfile(@PathVariable String username) {
+        return userProfileCache.get(username)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
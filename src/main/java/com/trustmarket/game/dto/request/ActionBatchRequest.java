@@ -0,0 +1,11 @@
+package com.trustmarket.game.dto.request;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ActionBatchRequest {
+    private String playerId;
+    private List<RoomAction> actions; // Áp dụng theo thứ tự, tất cả hoặc không gì cả
+    private String commandId; // Tuỳ chọn: client tự sinh, gửi lại y nguyên khi retry
+}
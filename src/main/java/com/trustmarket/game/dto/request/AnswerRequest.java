@@ -6,4 +6,5 @@ public class AnswerRequest {
     private String roomId;
     private String selectedAnswer; // "A", "B", "C", "D" (Dành cho Trader)
     private String targetTraderId; // ID người mình muốn đầu tư (Dành cho Investor)
-}
\ No newline at end of file
+    private String commandId;
+}
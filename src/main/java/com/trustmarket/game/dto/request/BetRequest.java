@@ -6,4 +6,5 @@ public class BetRequest {
     private String roomId;
     private String role; // "TRADER" hoặc "INVESTOR"
     private double amount;
-}
\ No newline at end of file
+    private String commandId; // STOMP: lệnh gửi lại cùng ID sẽ bị bỏ qua
+}
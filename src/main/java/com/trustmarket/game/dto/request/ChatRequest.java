@@ -0,0 +1,8 @@
+package com.trustmarket.game.dto.request;
+import lombok.Data;
+
+@Data
+public class ChatRequest {
+    private String roomId;
+    private String text;
+}
@@ -0,0 +1,9 @@
+package com.trustmarket.game.dto.request;
+import lombok.Data;
+
+@Data
+public class ChooseRoleRequest {
+    private String playerId;
+    private String role; // "TRADER" hoặc "INVESTOR"
+    private String commandId;
+}
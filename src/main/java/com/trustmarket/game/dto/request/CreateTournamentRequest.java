@@ -0,0 +1,16 @@
+package com.trustmarket.game.dto.request;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CreateTournamentRequest {
+    private String name;
+    private List<String> players;      // Theo thứ tự hạt giống (seed) cho vòng đầu
+    private Long startAt;              // Epoch ms; bỏ trống = bắt đầu ngay
+    private Integer tableSize;         // Các trường dưới đây bỏ trống = dùng game.tournament.*
+    private Integer advancePerTable;
+    private Integer roundsPerGame;
+    private Long startSpreadMs;
+    private Long stageGapMs;
+}
@@ -0,0 +1,9 @@
+package com.trustmarket.game.dto.request;
+import lombok.Data;
+
+@Data
+public class InvestRequest {
+    private String playerId;
+    private String targetId; // ID của Trader được đầu tư
+    private String commandId;
+}
@@ -0,0 +1,9 @@
+package com.trustmarket.game.dto.request;
+import lombok.Data;
+
+@Data
+public class PlaceBetRequest {
+    private String playerId;
+    private double amount;
+    private String commandId;
+}
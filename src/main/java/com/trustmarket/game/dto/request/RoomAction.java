@@ -0,0 +1,33 @@
+package com.trustmarket.game.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * One command in a {@code POST /api/rooms/{roomId}/actions} batch, tagged by {@code type}:
+ * <pre>
+ * {"type":"role","role":"TRADER"}   {"type":"bet","amount":100}
+ * {"type":"invest","targetId":"bob"} {"type":"answer","answer":"B"}
+ * </pre>
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = RoomAction.Role.class, name = "role"),
+        @JsonSubTypes.Type(value = RoomAction.Bet.class, name = "bet"),
+        @JsonSubTypes.Type(value = RoomAction.Invest.class, name = "invest"),
+        @JsonSubTypes.Type(value = RoomAction.Answer.class, name = "answer")
+})
+public sealed interface RoomAction {
+
+    record Role(String role) implements RoomAction {
+    }
+
+    record Bet(double amount) implements RoomAction {
+    }
+
+    record Invest(String targetId) implements RoomAction {
+    }
+
+    record Answer(String answer) implements RoomAction {
+    }
+}
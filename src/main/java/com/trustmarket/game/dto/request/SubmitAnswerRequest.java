@@ -0,0 +1,9 @@
+package com.trustmarket.game.dto.request;
+import lombok.Data;
+
+@Data
+public class SubmitAnswerRequest {
+    private String playerId;
+    private String answer; // "A", "B", "C", "D"
+    private String commandId;
+}
@@ -0,0 +1,15 @@
+package com.trustmarket.game.dto.response;
+
+import com.trustmarket.game.model.game.Player;
+
+/**
+ * Outcome of an applied action batch: the player's round state after the last action.
+ */
+public record ActionBatchResponse(String roomId, String playerId, int applied, Player.Role role, double bet,
+                                  String selectedAnswer, String investTargetId) {
+
+    public static ActionBatchResponse of(String roomId, Player player, int applied) {
+        return new ActionBatchResponse(roomId, player.getId(), applied, player.getRole(),
+                player.getBlindBetAmount(), player.getSelectedAnswer(), player.getInvestTargetId());
+    }
+}
@@ -0,0 +1,10 @@
+package com.trustmarket.game.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+/**
+ * Reply to a {@code /app/game/chat/{roomId}} subscription. {@code messages} is the room's ring of recent
+ * chat, already encoded as a JSON array, and is written out as-is.
+ */
+public record ChatHistory(String roomId, @JsonRawValue String messages) {
+}
@@ -0,0 +1,24 @@
+package com.trustmarket.game.dto.response;
+
+/**
+ * Market behaviour across all rooms of this node over one sliding window ({@code minute} or {@code hour}).
+ * Bet quantiles are approximate, within the configured relative accuracy; rates are 0 when nothing happened.
+ */
+public record MarketStats(String window, long windowSeconds, Bets bets, Roles roles, Rounds rounds,
+                          Scammers scammers) {
+
+    /** Accepted bet commands; a player re-betting counts again. */
+    public record Bets(long count, double total, double mean, double p50, double p90, double p99) {
+    }
+
+    /** Public roles held at settlement, and accepted invest commands. */
+    public record Roles(long traders, long investors, double traderShare, long investments) {
+    }
+
+    public record Rounds(long settled, long crashes, double crashRate) {
+    }
+
+    /** A scammer succeeds by answering wrong; {@code stolen} is what they took from their investors. */
+    public record Scammers(long rounds, long wins, double successRate, double stolen) {
+    }
+}
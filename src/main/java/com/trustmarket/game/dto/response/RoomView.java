@@ -0,0 +1,58 @@
+package com.trustmarket.game.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.model.game.RoomSnapshot;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What everyone at the table sees on {@code /topic/game/{roomId}} and {@code GET /api/rooms/{roomId}}: the
+ * room's JSON shape, minus what players must not know yet. While answers are open, traders' answers, secret
+ * roles and the correct answer are left out; from CALCULATION on (the reveal) they are included. Absent
+ * fields are omitted rather than sent as null.
+ */
+public record RoomView(String roomId, String hostId, GameState currentState, int timeRemaining, int currentRound,
+                       int totalRounds, int playerCount, Map<String, PlayerView> players,
+                       QuestionView currentQuestion) {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record PlayerView(String id, String displayName, String avatarUrl, double cash, Player.Role role,
+                             boolean ready, double blindBetAmount, String investTargetId,
+                             String selectedAnswer, Player.SecretRole secretRole) {
+
+        /**
+         * The public seat; investments are public (they go out on trust-update as they happen). Secret roles
+         * are only revealed for this round's traders: investors may still carry one from an earlier round.
+         */
+        public static PlayerView of(Player p, boolean revealed) {
+            boolean trader = p.getRole() == Player.Role.TRADER;
+            return new PlayerView(p.getId(), p.getDisplayName(), p.getAvatarUrl(), p.getCash(), p.getRole(),
+                    p.isReady(), p.getBlindBetAmount(), p.getInvestTargetId(),
+                    revealed ? p.getSelectedAnswer() : null,
+                    revealed && trader ? p.getSecretRole() : null);
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record QuestionView(Object id, Object question, List<?> options, Object correctAnswer) {
+    }
+
+    public static boolean isRevealed(GameState state) {
+        return state == GameState.CALCULATION || state == GameState.FINISHED;
+    }
+
+    public static RoomView of(RoomSnapshot room) {
+        boolean revealed = isRevealed(room.getCurrentState());
+        Map<String, PlayerView> players = new LinkedHashMap<>();
+        room.getPlayers().forEach((id, p) -> players.put(id, PlayerView.of(p, revealed)));
+        Map<String, Object> q = room.getCurrentQuestion();
+        QuestionView question = q == null ? null : new QuestionView(q.get("id"), q.get("question"),
+                (List<?>) q.get("options"), revealed ? q.get("correctAnswer") : null);
+        return new RoomView(room.getRoomId(), room.getHostId(), room.getCurrentState(), room.getTimeRemaining(),
+                room.getCurrentRound(), room.getTotalRounds(), room.getPlayerCount(), players, question);
+    }
+}
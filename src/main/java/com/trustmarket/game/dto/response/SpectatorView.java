@@ -0,0 +1,42 @@
+package com.trustmarket.game.dto.response;
+
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.model.game.RoomSnapshot;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What spectators of a room see: the table, not the cards. Players' answers, investment targets and secret
+ * roles are left out, and the question's correct answer only appears once answers are closed.
+ */
+public record SpectatorView(String roomId, GameState state, int timeRemaining, int currentRound,
+                            int totalRounds, String question, List<?> options, String correctAnswer,
+                            List<Seat> players) {
+
+    public record Seat(String displayName, String avatarUrl, double cash, Player.Role role, double bet) {
+    }
+
+    public static SpectatorView of(RoomSnapshot room) {
+        Map<String, Object> q = room.getCurrentQuestion();
+        boolean revealed = room.getCurrentState() == GameState.CALCULATION
+                || room.getCurrentState() == GameState.FINISHED;
+        List<Seat> seats = room.getPlayers().values().stream()
+                .sorted(Comparator.comparing(Player::getId))
+                .map(p -> new Seat(p.getDisplayName(), p.getAvatarUrl(), p.getCash(), p.getRole(),
+                        p.getBlindBetAmount()))
+                .toList();
+        return new SpectatorView(
+                room.getRoomId(),
+                room.getCurrentState(),
+                room.getTimeRemaining(),
+                room.getCurrentRound(),
+                room.getTotalRounds(),
+                q == null ? null : (String) q.get("question"),
+                q == null ? null : (List<?>) q.get("options"),
+                q != null && revealed ? (String) q.get("correctAnswer") : null,
+                seats);
+    }
+}
@@ -0,0 +1,22 @@
+package com.trustmarket.game.dto.response;
+
+import java.util.List;
+
+/**
+ * A tournament as seen by players and organisers: every stage's tables with their start times, and the
+ * leaderboard by profit summed over all the games each player played.
+ */
+public record TournamentView(String id, String name, String status, int currentStage, String winner,
+                             List<StageView> stages, List<Standing> leaderboard) {
+
+    public record StageView(int stage, List<TableView> tables) {
+    }
+
+    /** @param state PENDING, PLAYING or FINISHED; {@code ranking} is filled once the game is over */
+    public record TableView(String roomId, List<String> players, long startAt, String state, List<String> ranking) {
+    }
+
+    /** @param reachedStage the last stage the player was seated in */
+    public record Standing(int rank, String playerId, double profit, int reachedStage) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.trustmarket.game.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.model.game.RoomSnapshot;
+
+import java.util.Map;
+
+/**
+ * A trader's private frame on {@code /user/queue/private/role}: their secret role, and for the Oracle the
+ * correct answer once the question is loaded. Everything in it depends only on the role, so all traders
+ * holding the same role get the same frame.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TraderView(String roomId, int round, Player.SecretRole secretRole, Object correctAnswer) {
+
+    public static TraderView of(RoomSnapshot room, Player.SecretRole role) {
+        Map<String, Object> q = room.getCurrentQuestion();
+        Object answer = role == Player.SecretRole.ORACLE && q != null ? q.get("correctAnswer") : null;
+        return new TraderView(room.getRoomId(), room.getCurrentRound(), role, answer);
+    }
+}
@@ -0,0 +1,17 @@
+package com.trustmarket.game.dto.response;
+
+import com.trustmarket.game.model.entity.User;
+
+import java.util.UUID;
+
+/**
+ * Immutable, cacheable view of a {@link User}: everything a room needs to show, nothing it must not.
+ */
+public record UserProfile(UUID id, String username, int totalGamesPlayed, int totalRoundsPlayed,
+                          double lifetimeProfit) {
+
+    public static UserProfile of(User user) {
+        return new UserProfile(user.getId(), user.getUsername(), user.getTotalGamesPlayed(),
+                user.getTotalRoundsPlayed(), user.getLifetimeProfit());
+    }
+}
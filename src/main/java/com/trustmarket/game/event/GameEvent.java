@@ -0,0 +1,42 @@
+package com.trustmarket.game.event;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Something that happened in a room: a player command the engine accepted, or a transition the game
+ * loop made. Events carry the effective values (e.g. a bet after clamping to the player's cash), so
+ * applying them in order rebuilds the room.
+ */
+@Value
+@Builder(toBuilder = true)
+public class GameEvent {
+
+    public enum Type {
+        ROOM_CREATED,           // playerId = host
+        PLAYER_JOINED,          // value = displayName, detail = avatarUrl, amount = starting cash, payload = account id
+        ROLE_SELECTED,          // value = Player.Role
+        BET_PLACED,             // amount = effective bet
+        INVESTED,               // value = target trader id
+        ANSWERED,               // value = answer
+        SECRET_ROLE_ASSIGNED,   // value = Player.SecretRole
+        PHASE_STARTED,          // value = GameState, amount = seconds in phase
+        QUESTION_LOADED,        // payload = question map
+        ROUND_SETTLED,          // payload = List<EconomyService.RoundResult>
+        MARKET_CRASH,           // payload = List<EconomyService.RoundResult>
+        ROUND_RESET,
+        GAME_FINISHED,          // payload = List<String> display names of the players who played
+        SNAPSHOT,               // payload = RoomCheckpoint
+        ROOM_MIGRATED           // value = node the room moved to; the room is gone from this engine
+    }
+
+    Type type;
+    long timestamp;
+    String roomId;
+    int round;
+    String playerId;
+    String value;
+    String detail;
+    double amount;
+    Object payload;
+}
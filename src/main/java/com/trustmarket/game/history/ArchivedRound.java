@@ -0,0 +1,86 @@
+package com.trustmarket.game.history;
+
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.service.EconomyService;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Everything worth keeping about one settled round, captured before the room resets it.
+ */
+@Value
+@Builder
+public class ArchivedRound {
+
+    String roundId;
+    String roomId;
+    int round;
+    long playedAt;
+    boolean marketCrash;
+    Map<String, Object> question;
+    List<Entry> players;
+
+    @Value
+    @Builder
+    public static class Entry {
+        String playerId;
+        String name;
+        Player.Role role;
+        Player.SecretRole secretRole;
+        double bet;
+        String answer;
+        String investTargetId;
+        double cashBefore;
+        double cashAfter;
+        double profit;
+        String reason;
+    }
+
+    /** History is partitioned by UTC day. */
+    public LocalDate playedOn() {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(playedAt), ZoneOffset.UTC);
+    }
+
+    public static ArchivedRound capture(GameRoom room, List<?> results, boolean marketCrash, long playedAt) {
+        Map<String, EconomyService.RoundResult> byPlayer = new HashMap<>();
+        for (Object r : results) {
+            if (r instanceof EconomyService.RoundResult result) {
+                byPlayer.put(result.getPlayerId(), result);
+            }
+        }
+
+        List<Entry> entries = new ArrayList<>(room.getPlayerCount());
+        for (Player p : room.getPlayers().values()) {
+            EconomyService.RoundResult result = byPlayer.get(p.getId());
+            entries.add(Entry.builder()
+                    .playerId(p.getId())
+                    .name(p.getDisplayName())
+                    .role(p.getRole())
+                    .secretRole(p.getSecretRole())
+                    .bet(p.getBlindBetAmount())
+                    .answer(p.getSelectedAnswer())
+                    .investTargetId(p.getInvestTargetId())
+                    .cashBefore(result != null ? result.getCashBefore() : p.getCash())
+                    .cashAfter(result != null ? result.getCashAfter() : p.getCash())
+                    .profit(result != null ? result.getProfitLoss() : 0)
+                    .reason(result != null ? result.getReason() : null)
+                    .build());
+        }
+
+        return ArchivedRound.builder()
+                .roundId(UUID.randomUUID().toString())
+                .roomId(room.getRoomId())
+                .round(room.getCurrentRound())
+                .playedAt(playedAt)
+                .marketCrash(marketCrash)
+                .question(room.getCurrentQuestion() == null ? null : new HashMap<>(room.getCurrentQuestion()))
+                .players(entries)
+                .build();
+    }
+}
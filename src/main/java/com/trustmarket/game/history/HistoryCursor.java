@@ -0,0 +1,42 @@
+package com.trustmarket.game.history;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Keyset position in the archive: the {@code (played_at, round_id)} of the last round a client has seen.
+ * Serialized as an opaque URL-safe token.
+ */
+public record HistoryCursor(long playedAt, String roundId) {
+
+    /** Before the newest round. */
+    public static final HistoryCursor START = new HistoryCursor(Long.MAX_VALUE, "");
+
+    private static final LocalDate LAST_DAY = LocalDate.of(9999, 12, 31);
+
+    public LocalDate playedOn() {
+        if (playedAt == Long.MAX_VALUE) {
+            return LAST_DAY;
+        }
+        return LocalDate.ofInstant(Instant.ofEpochMilli(playedAt), ZoneOffset.UTC);
+    }
+
+    public String encode() {
+        String raw = playedAt + ":" + roundId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @throws IllegalArgumentException if the token was not produced by {@link #encode()} */
+    public static HistoryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int colon = raw.indexOf(':');
+            return new HistoryCursor(Long.parseLong(raw.substring(0, colon)), raw.substring(colon + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid history cursor", e);
+        }
+    }
+}
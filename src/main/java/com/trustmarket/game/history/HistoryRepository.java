@@ -0,0 +1,278 @@
+package com.trustmarket.game.history;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JDBC storage for the round archive. Two append-only tables, both keyed by UTC day:
+ * <ul>
+ *   <li>{@code round_history} — one row per round, the full round as gzipped JSON;</li>
+ *   <li>{@code round_history_player} — one narrow row per player per round, keyed by the player's id
+ *       within the round (display names are chosen by players and need not be unique), with an index on
+ *       {@code (player_name, played_at, round_id)} that serves a player's history in keyset order.</li>
+ * </ul>
+ * On PostgreSQL both are range-partitioned by {@code played_on} with one partition per day, created on
+ * first write and dropped whole once older than {@code game.history.retention-days}. Other databases
+ * (H2 in tests) get the same tables unpartitioned.
+ */
+@Slf4j
+@Repository
+public class HistoryRepository {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String INSERT_ROUND = """
+            INSERT INTO round_history (played_on, round_id, played_at, room_id, round_no, market_crash, details)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_PLAYER = """
+            INSERT INTO round_history_player
+                (played_on, player_id, player_name, played_at, round_id, room_id, round_no, role, bet, profit,
+                 cash_after)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    // played_on bounds let PostgreSQL prune partitions newer than the cursor; DISTINCT because two players
+    // of one round may share a display name
+    private static final String PLAYER_PAGE = """
+            SELECT r.round_id, r.played_at, r.room_id, r.round_no, r.market_crash, r.details
+            FROM (
+                SELECT DISTINCT p.played_on, p.played_at, p.round_id
+                FROM round_history_player p
+                WHERE p.player_name = ? AND p.played_on <= ? AND (p.played_at, p.round_id) < (?, ?)
+                ORDER BY p.played_at DESC, p.round_id DESC
+                LIMIT ?
+            ) p
+            JOIN round_history r ON r.played_on = p.played_on AND r.round_id = p.round_id
+            ORDER BY p.played_at DESC, p.round_id DESC
+            """;
+    private static final String ALL_PAGE = """
+            SELECT r.round_id, r.played_at, r.room_id, r.round_no, r.market_crash, r.details
+            FROM round_history r
+            WHERE r.played_on <= ? AND (r.played_at, r.round_id) < (?, ?)
+            ORDER BY r.played_at DESC, r.round_id DESC
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final int retentionDays;
+    private final Set<LocalDate> knownPartitions = ConcurrentHashMap.newKeySet();
+    private volatile boolean schemaReady;
+    private boolean partitioned;
+
+    public HistoryRepository(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${game.history.retention-days:0}") int retentionDays
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionDays = retentionDays;
+    }
+
+    /** One row view of a page entry; {@code detailsJson} is the decompressed round. */
+    public record HistoryRow(String roundId, long playedAt, String roomId, int round, boolean marketCrash,
+                             String detailsJson) {
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // ✍️ WRITES
+    // ═══════════════════════════════════════════════════════════
+
+    public void insert(List<ArchivedRound> rounds) {
+        ensureSchema();
+        rounds.stream().map(ArchivedRound::playedOn).distinct().forEach(this::ensurePartition);
+
+        List<Object[]> roundRows = new ArrayList<>(rounds.size());
+        List<Object[]> playerRows = new ArrayList<>(rounds.size() * 8);
+        for (ArchivedRound r : rounds) {
+            Date day = Date.valueOf(r.playedOn());
+            roundRows.add(new Object[]{day, r.getRoundId(), r.getPlayedAt(), r.getRoomId(), r.getRound(),
+                    r.isMarketCrash(), compress(r)});
+            for (ArchivedRound.Entry e : r.getPlayers()) {
+                playerRows.add(new Object[]{day, e.getPlayerId(), e.getName(), r.getPlayedAt(), r.getRoundId(),
+                        r.getRoomId(), r.getRound(), e.getRole() == null ? null : e.getRole().name(), e.getBet(),
+                        e.getProfit(), e.getCashAfter()});
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_ROUND, roundRows);
+            jdbcTemplate.batchUpdate(INSERT_PLAYER, playerRows);
+        });
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 📖 READS
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Streams up to {@code limit} rounds older than {@code cursor}, newest first, to {@code sink} without
+     * materializing the page.
+     *
+     * @param player a display name, or null for every round
+     */
+    public void page(String player, HistoryCursor cursor, int limit, Consumer<HistoryRow> sink) {
+        ensureSchema();
+        HistoryCursor from = cursor == null ? HistoryCursor.START : cursor;
+        RowCallbackHandler handler = rs -> sink.accept(new HistoryRow(
+                rs.getString("round_id"),
+                rs.getLong("played_at"),
+                rs.getString("room_id"),
+                rs.getInt("round_no"),
+                rs.getBoolean("market_crash"),
+                decompress(rs.getBytes("details"))));
+
+        Date day = Date.valueOf(from.playedOn());
+        if (player == null) {
+            jdbcTemplate.query(ALL_PAGE, handler, day, from.playedAt(), from.roundId(), limit);
+        } else {
+            jdbcTemplate.query(PLAYER_PAGE, handler, player, day, from.playedAt(), from.roundId(), limit);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 🗂️ SCHEMA & PARTITIONS
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Creates the tables on first use rather than at startup, so booting the server never waits on (or
+     * fails because of) the database.
+     */
+    void ensureSchema() {
+        if (schemaReady) {
+            return;
+        }
+        synchronized (this) {
+            if (!schemaReady) {
+                createSchema();
+                schemaReady = true;
+            }
+        }
+    }
+
+    private void createSchema() {
+        partitioned = isPostgres(jdbcTemplate.getDataSource());
+        String partitionBy = partitioned ? " PARTITION BY RANGE (played_on)" : "";
+
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS round_history (
+                    played_on DATE NOT NULL,
+                    round_id VARCHAR(36) NOT NULL,
+                    played_at BIGINT NOT NULL,
+                    room_id VARCHAR(255) NOT NULL,
+                    round_no INT NOT NULL,
+                    market_crash BOOLEAN NOT NULL,
+                    details BYTEA NOT NULL,
+                    PRIMARY KEY (played_on, round_id)
+                )""" + partitionBy);
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS round_history_player (
+                    played_on DATE NOT NULL,
+                    player_id VARCHAR(255) NOT NULL,
+                    player_name VARCHAR(255) NOT NULL,
+                    played_at BIGINT NOT NULL,
+                    round_id VARCHAR(36) NOT NULL,
+                    room_id VARCHAR(255) NOT NULL,
+                    round_no INT NOT NULL,
+                    role VARCHAR(16),
+                    bet DOUBLE PRECISION NOT NULL,
+                    profit DOUBLE PRECISION NOT NULL,
+                    cash_after DOUBLE PRECISION NOT NULL,
+                    PRIMARY KEY (round_id, player_id, played_on)
+                )""" + partitionBy);
+        jdbcTemplate.execute(
+                "CREATE INDEX IF NOT EXISTS round_history_recent ON round_history (played_at, round_id)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS round_history_player_name"
+                + " ON round_history_player (player_name, played_at, round_id)");
+        log.info("🗄️ Round history ready ({})", partitioned ? "partitioned by day" : "unpartitioned");
+    }
+
+    void ensurePartition(LocalDate day) {
+        if (!partitioned || knownPartitions.contains(day)) {
+            return;
+        }
+        String suffix = day.format(PARTITION_SUFFIX);
+        String range = String.format("FOR VALUES FROM ('%s') TO ('%s')", day, day.plusDays(1));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS round_history_p" + suffix
+                + " PARTITION OF round_history " + range);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS round_history_player_p" + suffix
+                + " PARTITION OF round_history_player " + range);
+        knownPartitions.add(day);
+        log.info("🗂️ Created round history partitions for {}", day);
+        dropExpiredPartitions(day);
+    }
+
+    private void dropExpiredPartitions(LocalDate today) {
+        if (retentionDays <= 0) {
+            return;
+        }
+        String cutoff = today.minusDays(retentionDays).format(PARTITION_SUFFIX);
+        List<String> expired = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname IN ('round_history', 'round_history_player')
+                """, String.class).stream()
+                .filter(name -> name.substring(name.lastIndexOf("_p") + 2).compareTo(cutoff) < 0)
+                .toList();
+        for (String table : expired) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+            log.info("🗑️ Dropped expired history partition {}", table);
+        }
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try (Connection c = dataSource.getConnection()) {
+            return c.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot inspect history database", e);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 🗜️ ENCODING
+    // ═══════════════════════════════════════════════════════════
+
+    private byte[] compress(ArchivedRound round) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            jsonMapper.writeValue(gzip, round);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String decompress(byte[] gzipped) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
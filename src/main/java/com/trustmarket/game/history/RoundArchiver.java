@@ -0,0 +1,142 @@
+package com.trustmarket.game.history;
+
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.service.GameEngine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Captures every settled round (and market crash) while the room still holds its roles, bets and
+ * answers, and streams them into {@link HistoryRepository} in batches from a background thread.
+ * The game loop only pays for the capture and a non-blocking enqueue; if the database falls far enough
+ * behind to fill the queue, rounds are dropped and counted.
+ */
+@Slf4j
+@Component
+public class RoundArchiver {
+
+    private final HistoryRepository historyRepository;
+    private final GameEngine gameEngine;
+    private final BlockingQueue<ArchivedRound> queue;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final AtomicLong archived = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running;
+    private Thread writer;
+
+    public RoundArchiver(
+            HistoryRepository historyRepository,
+            GameEngine gameEngine,
+            @Value("${game.history.queue-capacity:10000}") int queueCapacity,
+            @Value("${game.history.batch-size:200}") int batchSize,
+            @Value("${game.history.max-attempts:5}") int maxAttempts
+    ) {
+        this.historyRepository = historyRepository;
+        this.gameEngine = gameEngine;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "round-archiver");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @EventListener
+    public void onGameEvent(GameEvent event) {
+        if (event.getType() != GameEvent.Type.ROUND_SETTLED && event.getType() != GameEvent.Type.MARKET_CRASH) {
+            return;
+        }
+        GameRoom room = gameEngine.getRoom(event.getRoomId());
+        if (room == null || !(event.getPayload() instanceof List<?> results)) {
+            return;
+        }
+        ArchivedRound round = ArchivedRound.capture(
+                room, results, event.getType() == GameEvent.Type.MARKET_CRASH, event.getTimestamp());
+        if (!queue.offer(round)) {
+            dropped.incrementAndGet();
+            log.warn("⚠️ History queue full, round {} of room {} not archived", round.getRound(), round.getRoomId());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public long getArchived() {
+        return archived.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void writeLoop() {
+        List<ArchivedRound> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                // Whatever queued up while the previous batch was being written goes out together
+                ArchivedRound first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<ArchivedRound> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                historyRepository.insert(batch);
+                archived.addAndGet(batch.size());
+                return;
+            } catch (DataAccessException e) {
+                if (attempt >= maxAttempts) {
+                    dropped.addAndGet(batch.size());
+                    log.error("❌ Giving up on archiving {} rounds after {} attempts: {}",
+                            batch.size(), attempt, e.getMessage());
+                    return;
+                }
+                long backoff = 100L << (attempt - 1);
+                log.warn("⚠️ History write failed (attempt {}/{}), retrying in {} ms: {}",
+                        attempt, maxAttempts, backoff, e.getMessage());
+                Thread.sleep(backoff);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.trustmarket.game.journal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.RoomCheckpoint;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary layout of one journal record body:
+ * <pre>
+ * type:byte | timestamp:long | round:int | amount:double | roomId | playerId | value | detail | payload
+ * </pre>
+ * Strings are {@code length:int} + UTF-8 bytes, with length -1 for null. The payload (question, results,
+ * snapshot) is stored as a JSON string; every other field is fixed-width or a short string.
+ */
+final class JournalCodec {
+
+    private static final GameEvent.Type[] TYPES = GameEvent.Type.values();
+    private static final TypeReference<Map<String, Object>> QUESTION = new TypeReference<>() { };
+    private static final TypeReference<List<Map<String, Object>>> RESULTS = new TypeReference<>() { };
+    private static final TypeReference<List<String>> NAMES = new TypeReference<>() { };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Encodes {@code event} into {@code out}, growing it if needed; returns the buffer actually used. */
+    ByteBuffer encode(GameEvent event, ByteBuffer out) {
+        byte[] roomId = utf8(event.getRoomId());
+        byte[] playerId = utf8(event.getPlayerId());
+        byte[] value = utf8(event.getValue());
+        byte[] detail = utf8(event.getDetail());
+        byte[] payload = utf8(payloadJson(event.getPayload()));
+
+        int size = 1 + 8 + 4 + 8
+                + sized(roomId) + sized(playerId) + sized(value) + sized(detail) + sized(payload);
+        if (out.capacity() < size) {
+            out = ByteBuffer.allocate(Math.max(size, out.capacity() * 2));
+        }
+        out.clear();
+        out.put((byte) event.getType().ordinal());
+        out.putLong(event.getTimestamp());
+        out.putInt(event.getRound());
+        out.putDouble(event.getAmount());
+        put(out, roomId);
+        put(out, playerId);
+        put(out, value);
+        put(out, detail);
+        put(out, payload);
+        out.flip();
+        return out;
+    }
+
+    GameEvent decode(ByteBuffer in) {
+        GameEvent.Type type = TYPES[in.get()];
+        GameEvent.GameEventBuilder event = GameEvent.builder()
+                .type(type)
+                .timestamp(in.getLong())
+                .round(in.getInt())
+                .amount(in.getDouble())
+                .roomId(string(in))
+                .playerId(string(in))
+                .value(string(in))
+                .detail(string(in));
+        String payload = string(in);
+        if (payload != null) {
+            event.payload(parsePayload(type, payload));
+        }
+        return event.build();
+    }
+
+    private String payloadJson(Object payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot journal payload " + payload.getClass().getSimpleName(), e);
+        }
+    }
+
+    private Object parsePayload(GameEvent.Type type, String json) {
+        try {
+            return switch (type) {
+                case SNAPSHOT -> objectMapper.readValue(json, RoomCheckpoint.class);
+                case QUESTION_LOADED -> objectMapper.readValue(json, QUESTION);
+                case ROUND_SETTLED, MARKET_CRASH -> objectMapper.readValue(json, RESULTS);
+                case GAME_FINISHED -> objectMapper.readValue(json, NAMES);
+                case PLAYER_JOINED -> objectMapper.readValue(json, String.class);
+                default -> objectMapper.readTree(json);
+            };
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt " + type + " payload in journal", e);
+        }
+    }
+
+    private static byte[] utf8(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int sized(byte[] bytes) {
+        return 4 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static void put(ByteBuffer out, byte[] bytes) {
+        if (bytes == null) {
+            out.putInt(-1);
+        } else {
+            out.putInt(bytes.length);
+            out.put(bytes);
+        }
+    }
+
+    private static String string(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return s;
+    }
+}
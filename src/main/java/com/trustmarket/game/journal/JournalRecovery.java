@@ -0,0 +1,52 @@
+package com.trustmarket.game.journal;
+
+import com.trustmarket.game.service.GameEngine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * On start-up, replays the journal left by the previous process and hands every unfinished room back
+ * to the {@link GameEngine}, which re-snapshots it and resumes its timer. While running, asks the engine
+ * for a new snapshot of any room whose event the journal had to drop, so replay doesn't miss the change.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "game.journal", name = "enabled", havingValue = "true")
+public class JournalRecovery {
+
+    private final MappedGameJournal journal;
+    private final GameEngine gameEngine;
+
+    @PostConstruct
+    public void repairDrops() {
+        journal.addDropListener(gameEngine::requestCheckpoint);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        long started = System.nanoTime();
+        RoomReplayer replayer = new RoomReplayer();
+        try {
+            journal.replay(replayer::apply);
+        } catch (RuntimeException e) {
+            // Keep the old segments for inspection instead of deleting them in recoveryComplete()
+            log.error("❌ Journal replay failed, starting with no rooms: {}", e.getMessage(), e);
+            return;
+        }
+
+        List<RoomReplayer.RecoveredRoom> rooms = replayer.liveRooms();
+        rooms.forEach(r -> gameEngine.restoreRoom(r.room(), r.settlementPending()));
+        journal.recoveryComplete();
+
+        log.info("♻️ Recovered {} room(s) from the journal in {} ms",
+                rooms.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+}
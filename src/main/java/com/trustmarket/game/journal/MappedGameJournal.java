@@ -0,0 +1,379 @@
+package com.trustmarket.game.journal;
+
+import com.trustmarket.game.event.GameEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of every {@link GameEvent}, written to fixed-size memory-mapped segment files
+ * ({@code journal-000001.log}, …).
+ * <p>
+ * The engine only enqueues, and never waits: events arrive while it holds the room's lock, so when the
+ * queue is full the event is dropped at once (counted in {@link #getDropped()}) and the
+ * {@link #addDropListener drop listeners} are told which room now has a gap so it can be re-snapshotted.
+ * A single writer thread drains up to {@code batch-size} events at a time, encodes them into the mapped
+ * segment and forces the written range once per batch (group commit), so one msync covers every event
+ * that arrived while the previous one was in flight. Records are {@code length:int | crc32:int | body};
+ * a zero length marks the end of a segment, and a bad CRC marks a torn write that recovery stops at.
+ * <p>
+ * Each segment is deleted on its own once every room that wrote to it has a newer
+ * {@link GameEvent.Type#SNAPSHOT} or has finished, so disk usage tracks live rooms rather than history and
+ * one long-lived room only pins the segments it actually wrote to. A finished room's later segments are
+ * kept while an older kept segment still holds its events, so replay never revives it from those.
+ * Lobbies that are never started are closed by {@link com.trustmarket.game.service.lobby.LobbyReaper}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "game.journal", name = "enabled", havingValue = "true")
+public class MappedGameJournal {
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int batchSize;
+    private final BlockingQueue<GameEvent> queue;
+    private final JournalCodec codec = new JournalCodec();
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<Consumer<String>> dropListeners = new CopyOnWriteArrayList<>();
+    private final Object durableLock = new Object();
+    private volatile long durable;
+    private volatile boolean running;
+    private Thread writer;
+
+    // Writer-thread state
+    private final List<Path> recoverableSegments = new ArrayList<>();
+    private final TreeMap<Integer, Set<String>> roomsBySegment = new TreeMap<>();
+    private final Map<String, Integer> snapshotSegment = new HashMap<>();
+    private final Set<String> finishedRooms = new HashSet<>();
+    private int segmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private final CRC32 crc = new CRC32();
+
+    @Autowired
+    public MappedGameJournal(
+            @Value("${game.journal.dir:data/journal}") String directory,
+            @Value("${game.journal.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${game.journal.queue-capacity:262144}") int queueCapacity,
+            @Value("${game.journal.batch-size:8192}") int batchSize
+    ) {
+        this(Path.of(directory), segmentSizeMb * 1024 * 1024, queueCapacity, batchSize);
+    }
+
+    MappedGameJournal(Path directory, int segmentBytes, int queueCapacity, int batchSize) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            Files.createDirectories(directory);
+            recoverableSegments.addAll(listSegments());
+            int last = recoverableSegments.isEmpty() ? 0 : indexOf(recoverableSegments.get(recoverableSegments.size() - 1));
+            openSegment(last + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open game journal in " + directory, e);
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "game-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("📜 Game journal open in {} ({} segment(s) to recover)", directory, recoverableSegments.size());
+    }
+
+    @EventListener
+    public void onGameEvent(GameEvent event) {
+        append(event);
+    }
+
+    /**
+     * Queues an event for the writer, or drops it if the writer has fallen a full queue behind. Replay of
+     * that room is wrong from the gap on until its next {@code SNAPSHOT}, so the drop listeners are called
+     * with the room id to request one.
+     */
+    public void append(GameEvent event) {
+        if (queue.offer(event)) {
+            enqueued.incrementAndGet();
+            return;
+        }
+        log.error("❌ Journal queue full, dropped {} for room {}", event.getType(), event.getRoomId());
+        dropped.incrementAndGet();
+        dropListeners.forEach(listener -> listener.accept(event.getRoomId()));
+    }
+
+    /** Called with the room id of every dropped event; must not block. */
+    public void addDropListener(Consumer<String> listener) {
+        dropListeners.add(listener);
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /** Blocks until everything appended so far has been forced to disk. */
+    public void flush() {
+        long target = enqueued.get();
+        synchronized (durableLock) {
+            while (durable < target && running) {
+                try {
+                    durableLock.wait(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Streams every intact event from the segments that existed at start-up, oldest first. */
+    public void replay(Consumer<GameEvent> consumer) {
+        for (Path segment : recoverableSegments) {
+            try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                if (!readSegment(buffer, consumer)) {
+                    log.warn("⚠️ Journal segment {} ends in a torn record; ignoring the tail", segment.getFileName());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read journal segment " + segment, e);
+            }
+        }
+    }
+
+    /**
+     * Deletes the start-up segments once the recovered rooms have been re-snapshotted into the current one.
+     */
+    public void recoveryComplete() {
+        flush();
+        for (Path segment : recoverableSegments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                log.warn("⚠️ Could not delete recovered journal segment {}: {}", segment, e.getMessage());
+            }
+        }
+        log.info("📜 Journal recovery complete, {} old segment(s) removed", recoverableSegments.size());
+        recoverableSegments.clear();
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            mapped.force();
+            channel.close();
+        } catch (IOException e) {
+            log.warn("⚠️ Error closing journal segment: {}", e.getMessage());
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // ✍️ WRITER THREAD
+    // ═══════════════════════════════════════════════════════════
+
+    private void writeLoop() {
+        List<GameEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                GameEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                int from = mapped.position();
+                for (GameEvent event : batch) {
+                    from = write(event, from);
+                }
+                mapped.force(from, mapped.position() - from);
+
+                synchronized (durableLock) {
+                    durable += batch.size();
+                    durableLock.notifyAll();
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    // Drain whatever is left before the thread exits
+                    continue;
+                }
+            } catch (Exception e) {
+                log.error("❌ Journal write failed, {} event(s) lost: {}", batch.size(), e.getMessage(), e);
+                synchronized (durableLock) {
+                    durable += batch.size();
+                    durableLock.notifyAll();
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /** @return the start of the range that still needs forcing (moves if the segment rolled) */
+    private int write(GameEvent event, int dirtyFrom) throws IOException {
+        scratch = codec.encode(event, scratch);
+        int length = scratch.remaining();
+        if (HEADER_BYTES + length > segmentBytes - HEADER_BYTES) {
+            log.error("❌ {} event for room {} is {} bytes, larger than a journal segment; skipped",
+                    event.getType(), event.getRoomId(), length);
+            return dirtyFrom;
+        }
+        // Keep room for the zero terminator that marks the end of the segment
+        if (mapped.remaining() < HEADER_BYTES + length + 4) {
+            mapped.force(dirtyFrom, mapped.position() - dirtyFrom);
+            openSegment(segmentIndex + 1);
+            dirtyFrom = 0;
+        }
+
+        crc.reset();
+        crc.update(scratch.array(), 0, length);
+        mapped.putInt(length);
+        mapped.putInt((int) crc.getValue());
+        mapped.put(scratch.array(), 0, length);
+
+        track(event);
+        return dirtyFrom;
+    }
+
+    private void track(GameEvent event) {
+        String roomId = event.getRoomId();
+        roomsBySegment.computeIfAbsent(segmentIndex, k -> new HashSet<>()).add(roomId);
+        switch (event.getType()) {
+            case SNAPSHOT, ROOM_CREATED -> {
+                snapshotSegment.put(roomId, segmentIndex);
+                finishedRooms.remove(roomId);
+            }
+            case GAME_FINISHED, ROOM_MIGRATED -> finishedRooms.add(roomId);
+            default -> { }
+        }
+    }
+
+    private void openSegment(int index) throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        segmentIndex = index;
+        Path path = directory.resolve(String.format("%s%06d%s", PREFIX, index, SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        deleteObsoleteSegments();
+    }
+
+    private void deleteObsoleteSegments() {
+        // Rooms with events in an older segment that is being kept
+        Set<String> retained = new HashSet<>();
+        Set<String> released = new HashSet<>();
+        Iterator<Map.Entry<Integer, Set<String>>> it = roomsBySegment.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Set<String>> entry = it.next();
+            int index = entry.getKey();
+            boolean obsolete = index != segmentIndex && entry.getValue().stream().allMatch(room ->
+                    snapshotSegment.getOrDefault(room, -1) > index
+                            || (finishedRooms.contains(room) && !retained.contains(room)));
+            if (!obsolete) {
+                retained.addAll(entry.getValue());
+                continue;
+            }
+            try {
+                Files.deleteIfExists(directory.resolve(String.format("%s%06d%s", PREFIX, index, SUFFIX)));
+                it.remove();
+                released.addAll(entry.getValue());
+            } catch (IOException e) {
+                log.warn("⚠️ Could not delete journal segment {}: {}", index, e.getMessage());
+                retained.addAll(entry.getValue());
+            }
+        }
+        // Forget rooms that no longer appear in any segment
+        released.removeAll(retained);
+        finishedRooms.removeAll(released);
+        snapshotSegment.keySet().removeAll(released);
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 📖 READING
+    // ═══════════════════════════════════════════════════════════
+
+    /** @return false if the segment ended in a torn or corrupt record */
+    private boolean readSegment(ByteBuffer buffer, Consumer<GameEvent> consumer) {
+        CRC32 check = new CRC32();
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int length = buffer.getInt();
+            if (length == 0) {
+                return true;
+            }
+            int expectedCrc = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                return false;
+            }
+            byte[] body = new byte[length];
+            buffer.get(body);
+            check.reset();
+            check.update(body, 0, length);
+            if ((int) check.getValue() != expectedCrc) {
+                return false;
+            }
+            consumer.accept(codec.decode(ByteBuffer.wrap(body)));
+        }
+        return true;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> p.getFileName().toString().startsWith(PREFIX)
+                            && p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparingInt(MappedGameJournal::indexOf))
+                    .toList();
+        }
+    }
+
+    private static int indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,167 @@
+package com.trustmarket.game.journal;
+
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.model.game.RoomCheckpoint;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rebuilds rooms by applying journaled {@link GameEvent}s in order. A {@code SNAPSHOT} replaces
+ * everything known about its room, so replay cost is bounded by one round of events per room.
+ */
+public class RoomReplayer {
+
+    /** A rebuilt room and whether its round results still have to be applied. */
+    public record RecoveredRoom(GameRoom room, boolean settlementPending) {
+    }
+
+    private final Map<String, GameRoom> rooms = new LinkedHashMap<>();
+    private final Map<String, Long> phaseStartedAt = new HashMap<>();
+    private final Map<String, Integer> phaseSeconds = new HashMap<>();
+    private final Set<String> settlementPending = new HashSet<>();
+    private long lastTimestamp;
+
+    public void apply(GameEvent event) {
+        lastTimestamp = Math.max(lastTimestamp, event.getTimestamp());
+        String roomId = event.getRoomId();
+
+        switch (event.getType()) {
+            case ROOM_CREATED -> {
+                rooms.put(roomId, GameRoom.builder()
+                        .roomId(roomId)
+                        .hostId(event.getPlayerId())
+                        .currentState(GameState.WAITING)
+                        .currentRound(1)
+                        .totalRounds(10)
+                        .players(new ConcurrentHashMap<>())
+                        .build());
+                settlementPending.remove(roomId);
+            }
+            case SNAPSHOT -> {
+                RoomCheckpoint checkpoint = (RoomCheckpoint) event.getPayload();
+                GameRoom room = checkpoint.toRoom();
+                rooms.put(roomId, room);
+                // A checkpoint may be taken mid-phase: time the rest of the phase from it
+                phaseStartedAt.put(roomId, event.getTimestamp());
+                phaseSeconds.put(roomId, room.getTimeRemaining());
+            }
+            case ROOM_MIGRATED -> {
+                // Another node carries on with it
+                rooms.remove(roomId);
+                settlementPending.remove(roomId);
+            }
+            default -> applyToRoom(rooms.get(roomId), event);
+        }
+    }
+
+    private void applyToRoom(GameRoom room, GameEvent event) {
+        if (room == null) {
+            // The room's older segments were already reclaimed: it finished before this point
+            return;
+        }
+        String roomId = room.getRoomId();
+        Player player = event.getPlayerId() == null ? null : room.getPlayers().get(event.getPlayerId());
+
+        switch (event.getType()) {
+            case PLAYER_JOINED -> room.getPlayers().put(event.getPlayerId(), Player.builder()
+                    .id(event.getPlayerId())
+                    .displayName(event.getValue())
+                    .avatarUrl(event.getDetail())
+                    .accountId(event.getPayload() instanceof String id ? UUID.fromString(id) : null)
+                    .cash(event.getAmount())
+                    .build());
+            case ROLE_SELECTED -> {
+                if (player != null) {
+                    player.setRole(Player.Role.valueOf(event.getValue()));
+                    player.setReady(true);
+                }
+            }
+            case BET_PLACED -> {
+                if (player != null) player.setBlindBetAmount(event.getAmount());
+            }
+            case INVESTED -> {
+                if (player != null) player.setInvestTargetId(event.getValue());
+            }
+            case ANSWERED -> {
+                if (player != null) player.setSelectedAnswer(event.getValue());
+            }
+            case SECRET_ROLE_ASSIGNED -> {
+                if (player != null) player.setSecretRole(Player.SecretRole.valueOf(event.getValue()));
+            }
+            case PHASE_STARTED -> {
+                GameState state = GameState.valueOf(event.getValue());
+                room.setCurrentState(state);
+                room.setCurrentRound(event.getRound());
+                phaseStartedAt.put(roomId, event.getTimestamp());
+                phaseSeconds.put(roomId, (int) event.getAmount());
+                if (state == GameState.CALCULATION) {
+                    settlementPending.add(roomId);
+                }
+            }
+            case QUESTION_LOADED -> {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> question = (Map<String, Object>) event.getPayload();
+                room.setCurrentQuestion(new HashMap<>(question));
+            }
+            case ROUND_SETTLED, MARKET_CRASH -> {
+                applyResults(room, event.getPayload());
+                settlementPending.remove(roomId);
+            }
+            case ROUND_RESET -> {
+                room.setCurrentRound(event.getRound());
+                room.getPlayers().values().forEach(p -> {
+                    p.setRole(null);
+                    p.setReady(false);
+                    p.setSelectedAnswer(null);
+                    p.setInvestTargetId(null);
+                    p.setBlindBetAmount(0);
+                });
+                room.setCurrentQuestion(null);
+            }
+            case GAME_FINISHED -> room.setCurrentState(GameState.FINISHED);
+            default -> { }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void applyResults(GameRoom room, Object payload) {
+        if (!(payload instanceof List<?> results)) {
+            return;
+        }
+        for (Object entry : results) {
+            Map<String, Object> result = (Map<String, Object>) entry;
+            Player p = room.getPlayers().get(String.valueOf(result.get("playerId")));
+            if (p != null && result.get("cashAfter") instanceof Number cash) {
+                p.setCash(cash.doubleValue());
+            }
+        }
+    }
+
+    /**
+     * @return every room that had not finished, with the time left in its phase measured against the
+     *         newest journaled event (the closest thing to "when the process died")
+     */
+    public List<RecoveredRoom> liveRooms() {
+        List<RecoveredRoom> live = new ArrayList<>();
+        for (GameRoom room : rooms.values()) {
+            if (room.getCurrentState() == GameState.FINISHED) {
+                continue;
+            }
+            Long started = phaseStartedAt.get(room.getRoomId());
+            if (started != null) {
+                long elapsedSeconds = (lastTimestamp - started) / 1000;
+                int total = phaseSeconds.getOrDefault(room.getRoomId(), 0);
+                room.setTimeRemaining((int) Math.max(1, total - elapsedSeconds));
+            } else if (room.getCurrentState() != GameState.WAITING) {
+                // Only a snapshot was seen for this phase: resume with whatever it recorded
+                room.setTimeRemaining(Math.max(1, room.getTimeRemaining()));
+            }
+            live.add(new RecoveredRoom(room, settlementPending.contains(room.getRoomId())));
+        }
+        return live;
+    }
+}
@@ -2,6 +2,7 @@ package com.trustmarket.game.model.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.UUID;
 
 @Entity
@@ -18,4 +19,11 @@ public class User {
     private String passwordHash;
 
     private int totalGamesPlayed = 0;
+
+    // Written in bulk by PlayerStatsWriter; defaults let ddl-auto=update add them to existing rows
+    @ColumnDefault("0")
+    private int totalRoundsPlayed = 0;
+
+    @ColumnDefault("0")
+    private double lifetimeProfit = 0;
 }
\ No newline at end of file
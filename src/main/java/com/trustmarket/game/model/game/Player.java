@@ -6,10 +6,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.util.UUID;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Player {
 
     private String investTargetId;
@@ -31,6 +33,9 @@ public class Player {
     private String displayName;
     private String avatarUrl;
 
+    @JsonIgnore                     // users.id của tài khoản đã xác thực; null với khách và bot
+    private UUID accountId;
+
     // Game data
     @Builder.Default
     private double cash = 1000.0;   // Tiền mặc định
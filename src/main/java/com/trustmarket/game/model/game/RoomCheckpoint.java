@@ -0,0 +1,111 @@
+package com.trustmarket.game.model.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Complete, serializable copy of a {@link GameRoom} — including each player's secret role, which the
+ * live model hides from JSON. Used for journal snapshots.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomCheckpoint {
+
+    private String roomId;
+    private String hostId;
+    private GameState currentState;
+    private int timeRemaining;
+    private int currentRound;
+    private int totalRounds;
+    private Map<String, Object> currentQuestion;
+    private List<PlayerCheckpoint> players;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PlayerCheckpoint {
+        private String id;
+        private String displayName;
+        private String avatarUrl;
+        private UUID accountId;
+        private double cash;
+        private Player.Role role;
+        private Player.SecretRole secretRole;
+        private boolean ready;
+        private double blindBetAmount;
+        private String selectedAnswer;
+        private String investTargetId;
+    }
+
+    public static RoomCheckpoint of(GameRoom room) {
+        List<PlayerCheckpoint> players = new ArrayList<>(room.getPlayerCount());
+        for (Player p : room.getPlayers().values()) {
+            players.add(PlayerCheckpoint.builder()
+                    .id(p.getId())
+                    .displayName(p.getDisplayName())
+                    .avatarUrl(p.getAvatarUrl())
+                    .accountId(p.getAccountId())
+                    .cash(p.getCash())
+                    .role(p.getRole())
+                    .secretRole(p.getSecretRole())
+                    .ready(p.isReady())
+                    .blindBetAmount(p.getBlindBetAmount())
+                    .selectedAnswer(p.getSelectedAnswer())
+                    .investTargetId(p.getInvestTargetId())
+                    .build());
+        }
+        return RoomCheckpoint.builder()
+                .roomId(room.getRoomId())
+                .hostId(room.getHostId())
+                .currentState(room.getCurrentState())
+                .timeRemaining(room.getTimeRemaining())
+                .currentRound(room.getCurrentRound())
+                .totalRounds(room.getTotalRounds())
+                .currentQuestion(room.getCurrentQuestion() == null ? null : new HashMap<>(room.getCurrentQuestion()))
+                .players(players)
+                .build();
+    }
+
+    public GameRoom toRoom() {
+        ConcurrentHashMap<String, Player> restored = new ConcurrentHashMap<>();
+        if (players != null) {
+            for (PlayerCheckpoint p : players) {
+                restored.put(p.getId(), Player.builder()
+                        .id(p.getId())
+                        .displayName(p.getDisplayName())
+                        .avatarUrl(p.getAvatarUrl())
+                        .accountId(p.getAccountId())
+                        .cash(p.getCash())
+                        .role(p.getRole())
+                        .secretRole(p.getSecretRole())
+                        .isReady(p.isReady())
+                        .blindBetAmount(p.getBlindBetAmount())
+                        .selectedAnswer(p.getSelectedAnswer())
+                        .investTargetId(p.getInvestTargetId())
+                        .build());
+            }
+        }
+        return GameRoom.builder()
+                .roomId(roomId)
+                .hostId(hostId)
+                .currentState(currentState)
+                .timeRemaining(timeRemaining)
+                .currentRound(currentRound)
+                .totalRounds(totalRounds)
+                .currentQuestion(currentQuestion == null ? null : new HashMap<>(currentQuestion))
+                .players(restored)
+                .build();
+    }
+}
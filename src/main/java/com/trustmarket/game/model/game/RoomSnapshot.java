@@ -0,0 +1,53 @@
+package com.trustmarket.game.model.game;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-only copy of a {@link GameRoom}, taken by the engine right after each change to the room and
+ * serialized with the same JSON shape as the room itself. Nothing else holds references to the copied
+ * players or question, so a snapshot can be read and serialized from any thread without locking.
+ * <p>
+ * {@code version} grows with every snapshot the engine takes (across all rooms), so a newer snapshot of
+ * a room always has a larger version.
+ */
+@Value
+@Builder
+public class RoomSnapshot {
+
+    @JsonIgnore
+    long version;
+
+    String roomId;
+    String hostId;
+    Map<String, Player> players;
+    GameState currentState;
+    int timeRemaining;
+    int currentRound;
+    int totalRounds;
+    Map<String, Object> currentQuestion;
+    int playerCount;
+
+    public static RoomSnapshot of(GameRoom room, long version) {
+        Map<String, Player> players = new LinkedHashMap<>();
+        room.getPlayers().forEach((id, p) -> players.put(id, p.toBuilder().build()));
+        Map<String, Object> question = room.getCurrentQuestion();
+        return RoomSnapshot.builder()
+                .version(version)
+                .roomId(room.getRoomId())
+                .hostId(room.getHostId())
+                .players(Collections.unmodifiableMap(players))
+                .currentState(room.getCurrentState())
+                .timeRemaining(room.getTimeRemaining())
+                .currentRound(room.getCurrentRound())
+                .totalRounds(room.getTotalRounds())
+                .currentQuestion(question == null ? null : Collections.unmodifiableMap(new LinkedHashMap<>(question)))
+                .playerCount(players.size())
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.trustmarket.game.replay;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.LongBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * A finished game recording written by {@link ReplayRecorder}: {@code <id>.ndjson.gz} holds one NDJSON line
+ * per frame ({@code {"t":msSinceRoundOne,"destination":…,"payload":…}}) as a series of gzip members — which
+ * together are still one valid gzip file — and {@code <id>.idx} holds a {@code (endOffset:long,
+ * firstT:long)} pair per member.
+ * <p>
+ * Streaming never inflates anything on the server: each member is sent as-is with
+ * {@link FileChannel#transferTo} once its first frame is due, and the client decodes the response with
+ * {@code Content-Encoding: gzip}.
+ */
+public final class ReplayFile {
+
+    static final String DATA_SUFFIX = ".ndjson.gz";
+    static final String INDEX_SUFFIX = ".idx";
+    static final int INDEX_ENTRY_BYTES = 16;
+    public static final List<Integer> SPEEDS = List.of(1, 4, 16);
+
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final String id;
+    private final Path data;
+    private final Path index;
+
+    private ReplayFile(String id, Path data, Path index) {
+        this.id = id;
+        this.data = data;
+        this.index = index;
+    }
+
+    /** Summary for listings. */
+    public record Info(String id, String roomId, long startedAt, long durationMillis, long bytes) {
+    }
+
+    static String idOf(String roomId, long startedAt) {
+        return startedAt + "-" + sanitize(roomId);
+    }
+
+    private static String sanitize(String roomId) {
+        return roomId.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    /** @return null if the id is malformed or no finished recording has it */
+    public static ReplayFile open(Path directory, String id) {
+        if (id == null || !ID.matcher(id).matches()) {
+            return null;
+        }
+        Path data = directory.resolve(id + DATA_SUFFIX);
+        Path index = directory.resolve(id + INDEX_SUFFIX);
+        return Files.isRegularFile(data) && Files.isRegularFile(index) ? new ReplayFile(id, data, index) : null;
+    }
+
+    /** Finished recordings, newest first, optionally only those of one room. */
+    public static List<Info> list(Path directory, String roomId) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        String room = roomId == null ? null : sanitize(roomId);
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(INDEX_SUFFIX))
+                    .map(name -> name.substring(0, name.length() - INDEX_SUFFIX.length()))
+                    .map(id -> open(directory, id))
+                    .filter(file -> file != null)
+                    .map(ReplayFile::info)
+                    .filter(info -> room == null || info.roomId().equals(room))
+                    .sorted(Comparator.comparingLong(Info::startedAt).reversed())
+                    .toList();
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Info info() {
+        int dash = id.indexOf('-');
+        long startedAt = Long.parseLong(id.substring(0, dash));
+        try {
+            long[] last = lastEntry();
+            return new Info(id, id.substring(dash + 1), startedAt, last == null ? 0 : last[1], Files.size(data));
+        } catch (IOException e) {
+            return new Info(id, id.substring(dash + 1), startedAt, 0, 0);
+        }
+    }
+
+    private long[] lastEntry() throws IOException {
+        long size = Files.size(index);
+        if (size < INDEX_ENTRY_BYTES) {
+            return null;
+        }
+        try (FileChannel in = FileChannel.open(index, StandardOpenOption.READ)) {
+            LongBuffer entries = in.map(FileChannel.MapMode.READ_ONLY, 0, size).asLongBuffer();
+            int last = entries.limit() - 2;
+            return new long[]{entries.get(last), entries.get(last + 1)};
+        }
+    }
+
+    /**
+     * Writes the recording to {@code out} at {@code speed}× real time: before each gzip member the thread
+     * sleeps until that member's first frame is due, then the member is transferred in one call.
+     */
+    public void streamTo(OutputStream out, int speed) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel indexChannel = FileChannel.open(index, StandardOpenOption.READ);
+             FileChannel dataChannel = FileChannel.open(data, StandardOpenOption.READ)) {
+            LongBuffer entries = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size())
+                    .asLongBuffer();
+            long startedNanos = System.nanoTime();
+            long from = 0;
+            while (entries.remaining() >= 2) {
+                long to = entries.get();
+                long dueMillis = entries.get() / speed;
+                long waitMillis = dueMillis - (System.nanoTime() - startedNanos) / 1_000_000;
+                if (waitMillis > 0) {
+                    try {
+                        Thread.sleep(waitMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                while (from < to) {
+                    from += dataChannel.transferTo(from, to - from, target);
+                }
+                out.flush();
+            }
+        }
+    }
+}
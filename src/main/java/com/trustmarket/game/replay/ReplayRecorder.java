@@ -0,0 +1,381 @@
+package com.trustmarket.game.replay;
+
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameState;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records what players of a room were sent — room frames, {@code /traders}, {@code /results}, trust updates
+ * and errors — from the start of round one until the game finishes, into one {@link ReplayFile} per game.
+ * <p>
+ * Registered as an interceptor on the broker channel, where payloads are already serialized: the sending
+ * thread only queues a reference to the bytes. A writer thread appends them as NDJSON lines and closes a
+ * gzip member every {@code game.replay.member-ms}, so a replay can be paced member by member without ever
+ * decompressing on the server. Frames that do not fit in the queue are dropped and counted.
+ * <p>
+ * Spectator frames are not recorded: they are a projection of the room frames.
+ */
+@Slf4j
+@Component
+public class ReplayRecorder implements ChannelInterceptor {
+
+    private static final String[] ROOM_TOPICS = {"/topic/game/", "/topic/room/"};
+
+    record Frame(String roomId, long timestamp, String destination, byte[] payload, boolean json) {
+    }
+
+    record Start(String roomId, long timestamp) {
+    }
+
+    record Finish(String roomId, boolean played) {
+    }
+
+    private final Path directory;
+    private final boolean enabled;
+    private final long memberMillis;
+    private final long lingerMillis;
+    private final BlockingQueue<Object> queue;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final AtomicLong framesRecorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong gamesSaved = new AtomicLong();
+    private volatile boolean running;
+    private Thread writer;
+
+    // Writer-thread state
+    private final Map<String, Recording> recordings = new HashMap<>();
+
+    @Autowired
+    public ReplayRecorder(
+            @Value("${game.replay.dir:data/replays}") String directory,
+            @Value("${game.replay.enabled:true}") boolean enabled,
+            @Value("${game.replay.member-ms:1000}") long memberMillis,
+            @Value("${game.replay.queue-capacity:65536}") int queueCapacity
+    ) {
+        this(Path.of(directory), enabled, memberMillis, 2000, queueCapacity);
+    }
+
+    ReplayRecorder(Path directory, boolean enabled, long memberMillis, long lingerMillis, int queueCapacity) {
+        this.directory = directory;
+        this.enabled = enabled;
+        this.memberMillis = memberMillis;
+        this.lingerMillis = lingerMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create replay directory " + directory, e);
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "replay-recorder");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Finishes every open recording (keeping it) and stops the writer. */
+    @PreDestroy
+    public void close() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("framesRecorded", framesRecorded.get());
+        stats.put("dropped", dropped.get());
+        stats.put("gamesSaved", gamesSaved.get());
+        stats.put("queued", queue.size());
+        return stats;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 🎙️ CAPTURE (game and broker threads)
+    // ═══════════════════════════════════════════════════════════
+
+    @EventListener
+    public void onGameEvent(GameEvent event) {
+        if (!running) {
+            return;
+        }
+        if (event.getType() == GameEvent.Type.PHASE_STARTED && event.getRound() == 1
+                && GameState.BLIND_BET.name().equals(event.getValue())) {
+            offer(new Start(event.getRoomId(), System.currentTimeMillis()));
+        } else if (event.getType() == GameEvent.Type.GAME_FINISHED) {
+            boolean played = event.getPayload() instanceof List<?> participants && !participants.isEmpty();
+            offer(new Finish(event.getRoomId(), played));
+        } else if (event.getType() == GameEvent.Type.ROOM_MIGRATED) {
+            // Keep what was recorded here; the rest of the game plays on another node
+            offer(new Finish(event.getRoomId(), true));
+        }
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!running || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(message);
+        String destination = headers.getDestination();
+        String roomId = roomOf(destination);
+        if (roomId != null) {
+            MimeType type = headers.getContentType();
+            boolean json = type != null && "json".equals(type.getSubtype());
+            offer(new Frame(roomId, System.currentTimeMillis(), destination, payload, json));
+        }
+        return message;
+    }
+
+    static String roomOf(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        for (String topic : ROOM_TOPICS) {
+            if (destination.startsWith(topic)) {
+                String rest = destination.substring(topic.length());
+                int slash = rest.indexOf('/');
+                String roomId = slash < 0 ? rest : rest.substring(0, slash);
+                return roomId.isEmpty() ? null : roomId;
+            }
+        }
+        return null;
+    }
+
+    private void offer(Object item) {
+        if (!queue.offer(item)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // ✍️ WRITER THREAD
+    // ═══════════════════════════════════════════════════════════
+
+    private void writeLoop() {
+        List<Object> drained = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Object first = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    drained.add(first);
+                }
+                queue.drainTo(drained);
+                drained.forEach(this::handle);
+                drained.clear();
+                closeDueMembers(System.currentTimeMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("❌ Replay recorder error: {}", e.getMessage(), e);
+            }
+        }
+        new ArrayList<>(recordings.keySet()).forEach(roomId -> finish(roomId, true));
+    }
+
+    private void handle(Object item) {
+        if (item instanceof Frame frame) {
+            Recording recording = recordings.get(frame.roomId());
+            if (recording != null) {
+                recording.append(frame);
+                framesRecorded.incrementAndGet();
+            }
+        } else if (item instanceof Start start) {
+            if (recordings.containsKey(start.roomId())) {
+                return;
+            }
+            try {
+                recordings.put(start.roomId(), new Recording(start.roomId(), start.timestamp()));
+            } catch (IOException e) {
+                log.warn("⚠️ Cannot record room {}: {}", start.roomId(), e.getMessage());
+            }
+        } else if (item instanceof Finish finish) {
+            Recording recording = recordings.get(finish.roomId());
+            if (recording != null) {
+                recording.finishAt(System.currentTimeMillis() + lingerMillis, finish.played());
+            }
+        }
+    }
+
+    private void closeDueMembers(long now) {
+        for (Recording recording : new ArrayList<>(recordings.values())) {
+            if (recording.finishDue(now)) {
+                finish(recording.roomId, recording.keep);
+            } else if (recording.memberDue(now)) {
+                recording.closeMember();
+            }
+        }
+    }
+
+    private void finish(String roomId, boolean keep) {
+        Recording recording = recordings.remove(roomId);
+        try {
+            if (keep) {
+                String id = recording.save();
+                gamesSaved.incrementAndGet();
+                log.info("🎞️ Saved replay {} ({} members)", id, recording.memberCount());
+            } else {
+                recording.discard();
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ Could not save replay of room {}: {}", roomId, e.getMessage());
+            recording.discard();
+        }
+    }
+
+    /** One game being written; touched only by the writer thread. */
+    private final class Recording {
+
+        final String roomId;
+        final long startedAt;
+        final Path data;
+        final Path index;
+        final FileChannel channel;
+        final ByteArrayOutputStream pending = new ByteArrayOutputStream(8192);
+        final ByteArrayOutputStream member = new ByteArrayOutputStream(4096);
+        final List<long[]> members = new ArrayList<>();
+        long pendingSince = -1;
+        long finishAt = Long.MAX_VALUE;
+        boolean keep = true;
+
+        Recording(String roomId, long startedAt) throws IOException {
+            this.roomId = roomId;
+            this.startedAt = startedAt;
+            String id = ReplayFile.idOf(roomId, startedAt);
+            this.data = directory.resolve(id + ReplayFile.DATA_SUFFIX + ".part");
+            this.index = directory.resolve(id + ReplayFile.INDEX_SUFFIX + ".part");
+            this.channel = FileChannel.open(data, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void append(Frame frame) {
+            long offset = Math.max(0, frame.timestamp() - startedAt);
+            if (pendingSince < 0) {
+                pendingSince = offset;
+            }
+            write("{\"t\":" + offset + ",\"destination\":");
+            pending.writeBytes(jsonMapper.writeValueAsBytes(frame.destination()));
+            write(",\"payload\":");
+            pending.writeBytes(frame.json()
+                    ? frame.payload()
+                    : jsonMapper.writeValueAsBytes(new String(frame.payload(), StandardCharsets.UTF_8)));
+            write("}\n");
+        }
+
+        private void write(String s) {
+            pending.writeBytes(s.getBytes(StandardCharsets.UTF_8));
+        }
+
+        boolean memberDue(long now) {
+            return pendingSince >= 0 && now - startedAt - pendingSince >= memberMillis;
+        }
+
+        boolean finishDue(long now) {
+            return now >= finishAt;
+        }
+
+        void finishAt(long at, boolean played) {
+            finishAt = at;
+            keep = played;
+        }
+
+        int memberCount() {
+            return members.size();
+        }
+
+        /** Compresses the pending lines as one gzip member and notes where it ends and when it starts. */
+        void closeMember() {
+            if (pendingSince < 0) {
+                return;
+            }
+            member.reset();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(member)) {
+                pending.writeTo(gzip);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(member.toByteArray());
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                members.add(new long[]{channel.position(), pendingSince});
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pending.reset();
+            pendingSince = -1;
+        }
+
+        String save() throws IOException {
+            closeMember();
+            channel.force(false);
+            channel.close();
+            ByteBuffer entries = ByteBuffer.allocate(members.size() * ReplayFile.INDEX_ENTRY_BYTES);
+            members.forEach(m -> entries.putLong(m[0]).putLong(m[1]));
+            Files.write(index, entries.array());
+
+            String id = ReplayFile.idOf(roomId, startedAt);
+            // Index last: a replay is listed only once both files are in place
+            Files.move(data, directory.resolve(id + ReplayFile.DATA_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+            Files.move(index, directory.resolve(id + ReplayFile.INDEX_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+            return id;
+        }
+
+        void discard() {
+            try {
+                channel.close();
+                Files.deleteIfExists(data);
+                Files.deleteIfExists(index);
+            } catch (IOException e) {
+                log.warn("⚠️ Could not delete partial replay of room {}: {}", roomId, e.getMessage());
+            }
+        }
+    }
+}
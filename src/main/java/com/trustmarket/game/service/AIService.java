@@ -3,6 +3,7 @@ package com.trustmarket.game.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trustmarket.game.model.game.Question;
+import com.trustmarket.game.service.profiling.QuestionGenerationEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -30,9 +31,24 @@ public class AIService {
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     public Question generateQuestion(String topic) {
+        QuestionGenerationEvent generation = new QuestionGenerationEvent();
+        generation.begin();
+        try {
+            return requestQuestion(topic, generation);
+        } finally {
+            generation.end();
+            if (generation.shouldCommit()) {
+                generation.topic = topic;
+                generation.commit();
+            }
+        }
+    }
+
+    private Question requestQuestion(String topic, QuestionGenerationEvent generation) {
         // Fallback nhanh nếu không có key
         if (apiKey == null || apiKey.length() < 10) {
             log.warn("⚠️ Không tìm thấy API Key. Dùng câu hỏi mẫu.");
+            generation.outcome = QuestionGenerationEvent.NO_API_KEY;
             return getMockQuestion();
         }
 
@@ -51,32 +67,49 @@ public class AIService {
 
             // Gọi API
             ResponseEntity<String> response = restTemplate.postForEntity(finalUrl, entity, String.class);
-            return parseGeminiResponse(response.getBody());
+            try {
+                Question q = readGeminiResponse(response.getBody());
+                generation.outcome = QuestionGenerationEvent.GENERATED;
+                return q;
+            } catch (Exception e) {
+                generation.outcome = QuestionGenerationEvent.UNPARSEABLE;
+                return unparseable(e);
+            }
 
         } catch (Exception e) {
             // QUAN TRỌNG: Nếu lỗi, log ra và TRẢ VỀ CÂU HỎI GIẢ NGAY LẬP TỨC
             log.error("❌ AI Service Lỗi: {} -> Dùng câu hỏi mẫu để game tiếp tục.", e.getMessage());
+            generation.outcome = QuestionGenerationEvent.REQUEST_FAILED;
             return getMockQuestion();
         }
     }
 
-    private Question parseGeminiResponse(String jsonResponse) {
+    // Package-private for the parsing benchmark
+    Question parseGeminiResponse(String jsonResponse) {
         try {
-            JsonNode rootNode = objectMapper.readTree(jsonResponse);
-            String rawText = rootNode.path("candidates").get(0)
-                    .path("content").path("parts").get(0)
-                    .path("text").asText();
-
-            String cleanJson = rawText.replace("```json", "").replace("```", "").trim();
-            Question q = objectMapper.readValue(cleanJson, Question.class);
-            q.setId(UUID.randomUUID().toString());
-            return q;
+            return readGeminiResponse(jsonResponse);
         } catch (Exception e) {
-            log.error("❌ Lỗi parse JSON AI: {}", e.getMessage());
-            return getMockQuestion();
+            return unparseable(e);
         }
     }
 
+    private Question readGeminiResponse(String jsonResponse) throws Exception {
+        JsonNode rootNode = objectMapper.readTree(jsonResponse);
+        String rawText = rootNode.path("candidates").get(0)
+                .path("content").path("parts").get(0)
+                .path("text").asText();
+
+        String cleanJson = rawText.replace("```json", "").replace("```", "").trim();
+        Question q = objectMapper.readValue(cleanJson, Question.class);
+        q.setId(UUID.randomUUID().toString());
+        return q;
+    }
+
+    private Question unparseable(Exception e) {
+        log.error("❌ Lỗi parse JSON AI: {}", e.getMessage());
+        return getMockQuestion();
+    }
+
     // Câu hỏi dự phòng (Phao cứu sinh)
     private Question getMockQuestion() {
         return Question.builder()
@@ -2,9 +2,12 @@ package com.trustmarket.game.service;
 
 import com.trustmarket.game.model.game.GameRoom;
 import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.service.profiling.SettlementEvent;
+import com.trustmarket.game.service.trace.RoomTracer;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -19,6 +22,17 @@ public class EconomyService {
     private static final double NORMAL_PROFIT_SHARE = 0.20;       // 20% fee
     private static final double ORACLE_PROFIT_SHARE = 0.70;       // 70% stolen by investors
 
+    private final RoomTracer tracer;
+
+    public EconomyService() {
+        this(new RoomTracer());
+    }
+
+    @Autowired
+    public EconomyService(RoomTracer tracer) {
+        this.tracer = tracer;
+    }
+
     @Data
     @AllArgsConstructor
     public static class RoundResult {
@@ -58,6 +72,20 @@ public class EconomyService {
     // 💰 MAIN CALCULATION (Called after CLOSING phase)
     // ═══════════════════════════════════════════════════════════
     public List<RoundResult> calculateRoundResult(GameRoom room) {
+        SettlementEvent settlement = new SettlementEvent();
+        settlement.begin();
+        List<RoundResult> results = settle(room, settlement);
+        settlement.end();
+        if (settlement.shouldCommit()) {
+            settlement.roomId = room == null ? null : room.getRoomId();
+            settlement.players = room == null ? 0 : room.getPlayerCount();
+            settlement.results = results.size();
+            settlement.commit();
+        }
+        return results;
+    }
+
+    private List<RoundResult> settle(GameRoom room, SettlementEvent settlement) {
         List<RoundResult> results = new ArrayList<>();
 
         if (room == null || room.getCurrentQuestion() == null) {
@@ -75,8 +103,10 @@ public class EconomyService {
                 .filter(p -> p.getRole() == Player.Role.INVESTOR)
                 .collect(Collectors.toList());
 
-        log.info("💰 Calculating results: {} traders, {} investors",
-                traders.size(), investors.size());
+        String roomId = room.getRoomId();
+        settlement.traders = traders.size();
+        settlement.investors = investors.size();
+        tracer.trace(roomId, "💰 Calculating results: {} traders, {} investors", traders.size(), investors.size());
 
         // ──────────────────────────────────────────────────────
         // STEP 1: Process Traders
@@ -95,7 +125,7 @@ public class EconomyService {
             boolean isCorrect = correctAnswer.equalsIgnoreCase(traderAnswer);
             Player.SecretRole role = trader.getSecretRole();
 
-            log.info("🎲 Trader {}: Role={}, Answer={}, Correct={}, Stake={}",
+            tracer.trace(roomId, "🎲 Trader {}: Role={}, Answer={}, Correct={}, Stake={}",
                     trader.getDisplayName(), role, traderAnswer, isCorrect, stake);
 
             // 🎭 SCAMMER Logic (Wins by being WRONG)
@@ -172,7 +202,7 @@ public class EconomyService {
             boolean isWinner = traderEligible.getOrDefault(traderId, false);
             Player.SecretRole role = trader.getSecretRole();
 
-            log.info("💎 Processing {} investors for Trader {} (Winner: {}, Role: {})",
+            tracer.trace(roomId, "💎 Processing {} investors for Trader {} (Winner: {}, Role: {})",
                     myInvestors.size(), trader.getDisplayName(), isWinner, role);
 
             // 🎭 SCAMMER who won (answered wrong) → STEALS all investor money
@@ -282,7 +312,7 @@ public class EconomyService {
             }
         }
 
-        log.info("✅ Round calculation complete. {} results generated.", results.size());
+        tracer.trace(roomId, "✅ Round calculation complete. {} results generated.", results.size());
         return results;
     }
 }
\ No newline at end of file
@@ -1,15 +1,30 @@
 package com.trustmarket.game.service;
 
+import com.trustmarket.game.dto.request.RoomAction;
+import com.trustmarket.game.event.GameEvent;
 import com.trustmarket.game.model.game.GameRoom;
 import com.trustmarket.game.model.game.GameState;
 import com.trustmarket.game.model.game.Player;
 import com.trustmarket.game.model.game.Question;
+import com.trustmarket.game.model.game.RoomCheckpoint;
+import com.trustmarket.game.model.game.RoomSnapshot;
+import com.trustmarket.game.service.profiling.BroadcastEvent;
+import com.trustmarket.game.service.profiling.PhaseTransitionEvent;
+import com.trustmarket.game.service.profiling.TickEvent;
+import com.trustmarket.game.service.scheduling.ExecutorGameScheduler;
+import com.trustmarket.game.service.scheduling.GameScheduler;
+import com.trustmarket.game.service.trace.RoomTracer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -19,10 +34,21 @@ public class GameEngine {
     private final SimpMessagingTemplate messagingTemplate;
     private final EconomyService economyService;
     private final AIService aiService;
-    private final ScheduledExecutorService scheduler;
-    private final ExecutorService asyncExecutor;
+    private final GameScheduler scheduler;
+    private final Random random;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RoomTracer tracer;
+    private final RoomViewCache roomViews;
     private final ConcurrentHashMap<String, GameRoom> activeRooms;
-    private final ConcurrentHashMap<String, ScheduledFuture<?>> roomTimers;
+    private final ConcurrentHashMap<String, GameScheduler.Cancellable> roomTimers;
+    private final ConcurrentHashMap<String, RoomSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong snapshotVersions = new AtomicLong();
+    private final ConcurrentHashMap<String, Detach> pendingDetach = new ConcurrentHashMap<>();
+    private final Set<String> checkpointRequests = ConcurrentHashMap.newKeySet();
+
+    /** A request to hand a room to {@code destination} once its game loop reaches a quiet tick. */
+    private record Detach(String destination, CompletableFuture<RoomCheckpoint> checkpoint) {
+    }
 
     // ⚙️ DEBUG MODE: Set to true for single-player testing
     private static final boolean DEBUG_MODE = true;
@@ -35,16 +61,47 @@ public class GameEngine {
             GameState.CALCULATION, 15
     );
 
+    private static final long CHECKPOINT_DELAY_MILLIS = 1000;
+
     public GameEngine(
             SimpMessagingTemplate messagingTemplate,
             EconomyService economyService,
             AIService aiService
+    ) {
+        this(messagingTemplate, economyService, aiService, new ExecutorGameScheduler(), new Random(), event -> { });
+    }
+
+    public GameEngine(
+            SimpMessagingTemplate messagingTemplate,
+            EconomyService economyService,
+            AIService aiService,
+            GameScheduler scheduler,
+            Random gameRandom,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this(messagingTemplate, economyService, aiService, scheduler, gameRandom, eventPublisher, new RoomTracer(),
+                new RoomViewCache(JsonMapper.builder().build()));
+    }
+
+    @Autowired
+    public GameEngine(
+            SimpMessagingTemplate messagingTemplate,
+            EconomyService economyService,
+            AIService aiService,
+            GameScheduler scheduler,
+            Random gameRandom,
+            ApplicationEventPublisher eventPublisher,
+            RoomTracer tracer,
+            RoomViewCache roomViews
     ) {
         this.messagingTemplate = messagingTemplate;
         this.economyService = economyService;
         this.aiService = aiService;
-        this.scheduler = Executors.newScheduledThreadPool(10);
-        this.asyncExecutor = Executors.newFixedThreadPool(5);
+        this.scheduler = scheduler;
+        this.random = gameRandom;
+        this.eventPublisher = eventPublisher;
+        this.tracer = tracer;
+        this.roomViews = roomViews;
         this.activeRooms = new ConcurrentHashMap<>();
         this.roomTimers = new ConcurrentHashMap<>();
     }
@@ -53,7 +110,15 @@ public class GameEngine {
     // 📡 API METHODS
     // ═══════════════════════════════════════════════════════════
 
+    // Every change to a room (player commands, REST batches, the tick, settlement) happens under
+    // synchronized (room), so they never interleave; slow work (AI calls, broadcasts) stays outside it.
+
     public GameRoom createRoom(String roomId, String hostId) {
+        return createRoom(roomId, hostId, null);
+    }
+
+    /** @param accountId the host's authenticated account, credited with their stats; null for guests */
+    public GameRoom createRoom(String roomId, String hostId, UUID accountId) {
         if (activeRooms.containsKey(roomId)) {
             log.warn("⚠️ Room {} already exists. Stopping old instance.", roomId);
             stopGame(roomId);
@@ -71,40 +136,67 @@ public class GameEngine {
         Player host = Player.builder()
                 .id(hostId)
                 .displayName(hostId)
+                .accountId(accountId)
                 .cash(2000.0)
                 .build();
 
         room.getPlayers().put(hostId, host);
         activeRooms.put(roomId, room);
+        tracer.open(roomId);
+        publish(event(GameEvent.Type.ROOM_CREATED, room).playerId(hostId));
+        publish(joinedEvent(room, host));
 
         log.info("✅ Room {} created by host {}", roomId, hostId);
         return room;
     }
 
     public void joinRoom(String roomId, String playerId) {
+        joinRoom(roomId, playerId, null);
+    }
+
+    /** @param accountId the player's authenticated account, credited with their stats; null for guests */
+    public void joinRoom(String roomId, String playerId, UUID accountId) {
         GameRoom room = activeRooms.get(roomId);
         if (room == null) {
             throw new RuntimeException("Room does not exist!");
         }
 
         if (room.getPlayers().containsKey(playerId)) {
-            log.info("ℹ️ Player {} already in room {}", playerId, roomId);
+            tracer.trace(roomId, "ℹ️ Player {} already in room {}", playerId, roomId);
             return;
         }
 
         Player p = Player.builder()
                 .id(playerId)
                 .displayName(playerId)
+                .accountId(accountId)
                 .cash(2000.0)
                 .build();
 
-        room.getPlayers().put(playerId, p);
+        synchronized (room) {
+            room.getPlayers().put(playerId, p);
+            publish(joinedEvent(room, p));
+        }
         log.info("✅ Player {} joined room {}. Total players: {}",
                 playerId, roomId, room.getPlayerCount());
 
         broadcastRoomStatus(roomId);
     }
 
+    /**
+     * Seats a player built by the caller (the STOMP join path brings its own nickname, avatar and cash).
+     */
+    public GameRoom seatPlayer(String roomId, Player player) {
+        GameRoom room = activeRooms.get(roomId);
+        if (room == null) return null;
+
+        synchronized (room) {
+            room.getPlayers().put(player.getId(), player);
+            publish(joinedEvent(room, player));
+        }
+        return room;
+    }
+
     public void startGame(String roomId, String requesterId) {
         GameRoom room = activeRooms.get(roomId);
         if (room == null) {
@@ -115,11 +207,12 @@ public class GameEngine {
             throw new RuntimeException("Only host can start the game");
         }
 
-        room.setCurrentRound(1);
         log.info("🎮 Game starting in room {}. Players: {}",
                 roomId, room.getPlayerCount());
-
-        startPhase(roomId, GameState.BLIND_BET);
+        synchronized (room) {
+            room.setCurrentRound(1);
+            startPhase(roomId, GameState.BLIND_BET);
+        }
         startGameLoop(roomId);
     }
 
@@ -130,14 +223,34 @@ public class GameEngine {
         Player p = room.getPlayers().get(playerId);
         if (p == null) return;
 
-        if (amount > p.getCash()) {
-            log.warn("⚠️ Player {} tried to bet {} but only has {}",
-                    playerId, amount, p.getCash());
-            amount = p.getCash();
+        synchronized (room) {
+            if (amount > p.getCash()) {
+                tracer.trace(roomId, "⚠️ Player {} tried to bet {} but only has {}", playerId, amount, p.getCash());
+                amount = p.getCash();
+            }
+
+            p.setBlindBetAmount(amount);
+            publish(event(GameEvent.Type.BET_PLACED, room).playerId(playerId).amount(amount));
         }
+        tracer.trace(roomId, "💰 Player {} bet {} in room {}", playerId, amount, roomId);
+    }
+
+    /**
+     * STOMP bet: sets the public role and the stake in one step, as sent by {@code /app/game/bet}.
+     */
+    public void placeBlindBet(String roomId, String playerId, Player.Role role, double amount) {
+        GameRoom room = activeRooms.get(roomId);
+        if (room == null) return;
+
+        Player p = room.getPlayers().get(playerId);
+        if (p == null) return;
 
-        p.setBlindBetAmount(amount);
-        log.info("💰 Player {} bet {} in room {}", playerId, amount, roomId);
+        synchronized (room) {
+            p.setRole(role);
+            p.setBlindBetAmount(amount);
+            publish(event(GameEvent.Type.ROLE_SELECTED, room).playerId(playerId).value(role.name()));
+            publish(event(GameEvent.Type.BET_PLACED, room).playerId(playerId).amount(amount));
+        }
     }
 
     // 🔧 FIXED: Now properly updates player state and broadcasts
@@ -150,16 +263,19 @@ public class GameEngine {
 
         Player p = room.getPlayers().get(playerId);
         if (p == null) {
-            log.error("❌ Player {} not found in room {}", playerId, roomId);
+            tracer.trace(roomId, "❌ Player {} not found in room {}", playerId, roomId);
             throw new RuntimeException("Player not found");
         }
 
         try {
             Player.Role role = Player.Role.valueOf(roleStr.toUpperCase());
-            p.setRole(role);
-            p.setReady(true);
+            synchronized (room) {
+                p.setRole(role);
+                p.setReady(true);
+                publish(event(GameEvent.Type.ROLE_SELECTED, room).playerId(playerId).value(role.name()));
+            }
 
-            log.info("✅ Player {} selected role {} in room {}", playerId, role, roomId);
+            tracer.trace(roomId, "✅ Player {} selected role {} in room {}", playerId, role, roomId);
 
             messagingTemplate.convertAndSendToUser(
                     playerId,
@@ -171,7 +287,7 @@ public class GameEngine {
             broadcastRoomStatus(roomId);
 
         } catch (IllegalArgumentException e) {
-            log.error("❌ Invalid role: {}", roleStr);
+            tracer.trace(roomId, "❌ Player {} sent invalid role {}", playerId, roleStr);
             throw new RuntimeException("Invalid role: " + roleStr);
         }
     }
@@ -184,23 +300,25 @@ public class GameEngine {
         Player trader = room.getPlayers().get(targetTraderId);
 
         if (investor == null || trader == null) {
-            log.error("❌ Invalid investor or trader");
+            tracer.trace(roomId, "❌ Invalid investment {} → {}", investorId, targetTraderId);
             return;
         }
 
-        if (investor.getRole() != Player.Role.INVESTOR) {
-            log.error("❌ Player {} is not an investor", investorId);
-            return;
-        }
+        synchronized (room) {
+            if (investor.getRole() != Player.Role.INVESTOR) {
+                tracer.trace(roomId, "❌ Player {} is not an investor", investorId);
+                return;
+            }
 
-        if (trader.getRole() != Player.Role.TRADER) {
-            log.error("❌ Player {} is not a trader", targetTraderId);
-            return;
-        }
+            if (trader.getRole() != Player.Role.TRADER) {
+                tracer.trace(roomId, "❌ Player {} is not a trader", targetTraderId);
+                return;
+            }
 
-        investor.setInvestTargetId(targetTraderId);
-        log.info("💎 Investor {} → Trader {} in room {}",
-                investorId, targetTraderId, roomId);
+            investor.setInvestTargetId(targetTraderId);
+            publish(event(GameEvent.Type.INVESTED, room).playerId(investorId).value(targetTraderId));
+        }
+        tracer.trace(roomId, "💎 Investor {} → Trader {} in room {}", investorId, targetTraderId, roomId);
 
         // Line ~145: handleInvest method
         messagingTemplate.convertAndSend(
@@ -214,19 +332,274 @@ public class GameEngine {
         if (room == null) return;
 
         Player p = room.getPlayers().get(playerId);
-        if (p == null || p.getRole() != Player.Role.TRADER) {
-            log.error("❌ Invalid answer submission from {}", playerId);
-            return;
+        if (p == null) return;
+
+        synchronized (room) {
+            if (p.getRole() != Player.Role.TRADER) {
+                tracer.trace(roomId, "❌ Invalid answer submission from {}", playerId);
+                return;
+            }
+
+            p.setSelectedAnswer(answer.toUpperCase());
+            publish(event(GameEvent.Type.ANSWERED, room).playerId(playerId).value(p.getSelectedAnswer()));
         }
+        tracer.trace(roomId, "📝 Trader {} answered: {}", playerId, answer);
+    }
 
-        p.setSelectedAnswer(answer.toUpperCase());
-        log.info("📝 Trader {} answered: {}", playerId, answer);
+    /**
+     * STOMP answer: traders record their answer, everyone else records an investment target.
+     *
+     * @return the player's public role, or null if the room or player is unknown
+     */
+    public Player.Role applyAnswer(String roomId, String playerId, String selectedAnswer, String targetTraderId) {
+        GameRoom room = activeRooms.get(roomId);
+        if (room == null) return null;
+
+        Player p = room.getPlayers().get(playerId);
+        if (p == null) return null;
+
+        synchronized (room) {
+            if (p.getRole() == Player.Role.TRADER) {
+                p.setSelectedAnswer(selectedAnswer);
+                publish(event(GameEvent.Type.ANSWERED, room).playerId(playerId).value(selectedAnswer));
+            } else {
+                p.setInvestTargetId(targetTraderId);
+                publish(event(GameEvent.Type.INVESTED, room).playerId(playerId).value(targetTraderId));
+            }
+            return p.getRole() == null ? Player.Role.INVESTOR : p.getRole();
+        }
+    }
+
+    /**
+     * REST batch: applies a player's commands in order, all or none. The whole batch is first played
+     * against a copy of the player; only if every command is valid is it applied to the room, with the
+     * same events the single-command methods publish and one broadcast at the end. Validation and
+     * application hold the room's lock, so no other command or tick can change the room in between.
+     *
+     * @return the player after the batch (a copy)
+     * @throws IllegalArgumentException naming the first invalid command; nothing has been applied
+     */
+    public Player applyActions(String roomId, String playerId, List<RoomAction> actions) {
+        GameRoom room = activeRooms.get(roomId);
+        if (room == null) {
+            throw new RuntimeException("Room not found");
+        }
+
+        Player p = room.getPlayers().get(playerId);
+        if (p == null) {
+            throw new RuntimeException("Player not found");
+        }
+        synchronized (room) {
+
+            Player staged = p.toBuilder().build();
+            for (int i = 0; i < actions.size(); i++) {
+                String error = apply(room, staged, actions.get(i), false);
+                if (error != null) {
+                    throw new IllegalArgumentException("Action " + i + " rejected: " + error);
+                }
+            }
+            actions.forEach(action -> apply(room, p, action, true));
+        }
+
+        tracer.trace(roomId, "📦 Player {} applied {} action(s) in room {}", playerId, actions.size(), roomId);
+        if (actions.stream().anyMatch(RoomAction.Role.class::isInstance)) {
+            messagingTemplate.convertAndSendToUser(
+                    playerId,
+                    "/queue/private",
+                    (Object) Map.of("role", p.getRole().name(), "status", "confirmed")
+            );
+        }
+        if (actions.stream().anyMatch(RoomAction.Invest.class::isInstance)) {
+            messagingTemplate.convertAndSend(
+                    "/topic/game/" + roomId + "/trust-update",
+                    (Object) Map.of("investor", playerId, "trader", p.getInvestTargetId())
+            );
+        }
+        broadcastRoomStatus(roomId);
+        return p.toBuilder().build();
+    }
+
+    /** @return why the action is invalid for {@code p}, or null once it has been applied */
+    private String apply(GameRoom room, Player p, RoomAction action, boolean publish) {
+        GameEvent.GameEventBuilder event;
+        if (action instanceof RoomAction.Role r) {
+            Player.Role role;
+            try {
+                role = Player.Role.valueOf(String.valueOf(r.role()).toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return "invalid role " + r.role();
+            }
+            p.setRole(role);
+            p.setReady(true);
+            event = event(GameEvent.Type.ROLE_SELECTED, room).value(role.name());
+        } else if (action instanceof RoomAction.Bet b) {
+            if (b.amount() < 0) {
+                return "bet must not be negative";
+            }
+            double amount = Math.min(b.amount(), p.getCash());
+            p.setBlindBetAmount(amount);
+            event = event(GameEvent.Type.BET_PLACED, room).amount(amount);
+        } else if (action instanceof RoomAction.Invest i) {
+            Player trader = room.getPlayers().get(i.targetId());
+            if (p.getRole() != Player.Role.INVESTOR) {
+                return "only investors can invest";
+            }
+            if (trader == null || trader.getRole() != Player.Role.TRADER) {
+                return i.targetId() + " is not a trader";
+            }
+            p.setInvestTargetId(i.targetId());
+            event = event(GameEvent.Type.INVESTED, room).value(i.targetId());
+        } else if (action instanceof RoomAction.Answer a) {
+            if (p.getRole() != Player.Role.TRADER) {
+                return "only traders can answer";
+            }
+            if (a.answer() == null || a.answer().isBlank()) {
+                return "answer is empty";
+            }
+            p.setSelectedAnswer(a.answer().toUpperCase());
+            event = event(GameEvent.Type.ANSWERED, room).value(p.getSelectedAnswer());
+        } else {
+            return "unknown action";
+        }
+        if (publish) {
+            publish(event.playerId(p.getId()));
+        }
+        return null;
     }
 
     public GameRoom getRoom(String roomId) {
         return activeRooms.get(roomId);
     }
 
+    /** The room as of its latest change, safe to read from any thread; null for unknown rooms. */
+    public RoomSnapshot getSnapshot(String roomId) {
+        return snapshots.get(roomId);
+    }
+
+    public Set<String> getRoomIds() {
+        return Set.copyOf(activeRooms.keySet());
+    }
+
+    /**
+     * Takes a room out of this engine so another one can resume it (live migration). The room is frozen at
+     * its next tick that falls between phase transitions — never while results are being settled or a
+     * question is being generated — instead of counting that tick down; the checkpoint then holds
+     * everything needed to resume, and the resuming engine's first tick is the one skipped here.
+     *
+     * @param destination node the room is moving to, recorded in its {@code ROOM_MIGRATED} event
+     * @return completes with the room's full state once it has left this engine
+     */
+    public CompletableFuture<RoomCheckpoint> detachRoom(String roomId, String destination) {
+        if (!activeRooms.containsKey(roomId)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Room not found: " + roomId));
+        }
+        Detach detach = new Detach(destination, new CompletableFuture<>());
+        if (pendingDetach.putIfAbsent(roomId, detach) != null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Room " + roomId + " is already moving"));
+        }
+        if (!roomTimers.containsKey(roomId)) {
+            // No game loop to wait for (WAITING or FINISHED)
+            tryDetach(roomId);
+        }
+        return detach.checkpoint();
+    }
+
+    /** @return true if the room left the engine */
+    private boolean tryDetach(String roomId) {
+        GameRoom room = activeRooms.get(roomId);
+        Detach detach = pendingDetach.get(roomId);
+        if (detach == null) {
+            return false;
+        }
+        if (room == null) {
+            pendingDetach.remove(roomId);
+            detach.checkpoint().completeExceptionally(new IllegalArgumentException("Room not found: " + roomId));
+            return false;
+        }
+        synchronized (room) {
+            GameState state = room.getCurrentState();
+            if (state == GameState.CALCULATION
+                    || (state == GameState.MARKET_CHAT && room.getCurrentQuestion() == null)) {
+                return false;
+            }
+            GameScheduler.Cancellable timer = roomTimers.remove(roomId);
+            if (timer != null) {
+                timer.cancel();
+            }
+            RoomCheckpoint checkpoint = RoomCheckpoint.of(room);
+            publish(event(GameEvent.Type.ROOM_MIGRATED, room).value(detach.destination()));
+            activeRooms.remove(roomId);
+            snapshots.remove(roomId);
+            roomViews.forget(roomId);
+            pendingDetach.remove(roomId);
+            log.info("📦 Room {} detached in {} ({}s left) for {}", roomId, state, room.getTimeRemaining(),
+                    detach.destination());
+            detach.checkpoint().complete(checkpoint);
+        }
+        return true;
+    }
+
+    /**
+     * Re-installs a room rebuilt outside the engine (journal recovery, or a room migrated from another
+     * node) and resumes its game loop.
+     *
+     * @param settlementPending true if the room stopped in CALCULATION before its results were applied
+     */
+    public void restoreRoom(GameRoom room, boolean settlementPending) {
+        String roomId = room.getRoomId();
+        activeRooms.put(roomId, room);
+        tracer.open(roomId);
+        // Checkpoint the recovered state so the journal no longer needs anything older
+        publish(event(GameEvent.Type.SNAPSHOT, room).payload(RoomCheckpoint.of(room)));
+        log.info("♻️ Room {} restored in {} (round {}/{}, {}s left)", roomId, room.getCurrentState(),
+                room.getCurrentRound(), room.getTotalRounds(), room.getTimeRemaining());
+
+        GameState state = room.getCurrentState();
+        if (state == GameState.WAITING || state == GameState.FINISHED) {
+            return;
+        }
+        if (state == GameState.MARKET_CHAT && room.getCurrentQuestion() == null) {
+            scheduler.execute(() -> {
+                loadQuestion(roomId);
+                broadcastRoomStatus(roomId);
+            });
+        }
+        if (state == GameState.CALCULATION && settlementPending) {
+            scheduler.execute(() -> calculateResults(roomId));
+        }
+        startGameLoop(roomId);
+    }
+
+    /**
+     * Publishes a fresh {@link GameEvent.Type#SNAPSHOT} of the room about a second from now, e.g. because the
+     * journal had to drop one of its events and replay would otherwise rebuild it without that change.
+     * Requests for a room that is already waiting for one are merged, so a backlogged listener that keeps
+     * dropping gets at most one retry per room per second.
+     */
+    public void requestCheckpoint(String roomId) {
+        if (checkpointRequests.add(roomId)) {
+            scheduler.schedule(() -> checkpoint(roomId), CHECKPOINT_DELAY_MILLIS);
+        }
+    }
+
+    private void checkpoint(String roomId) {
+        GameRoom room = activeRooms.get(roomId);
+        if (room == null) {
+            checkpointRequests.remove(roomId);
+            return;
+        }
+        synchronized (room) {
+            // Replay can't tell from a mid-settlement checkpoint whether the results were already applied
+            if (room.getCurrentState() == GameState.CALCULATION) {
+                scheduler.schedule(() -> checkpoint(roomId), CHECKPOINT_DELAY_MILLIS);
+                return;
+            }
+            // Cleared first: if this snapshot is dropped too, the drop asks for another one
+            checkpointRequests.remove(roomId);
+            publish(event(GameEvent.Type.SNAPSHOT, room).payload(RoomCheckpoint.of(room)));
+        }
+    }
+
     // ═══════════════════════════════════════════════════════════
     // 🔄 GAME LOOP
     // ═══════════════════════════════════════════════════════════
@@ -237,66 +610,104 @@ public class GameEngine {
             return;
         }
 
-        ScheduledFuture<?> timer = scheduler.scheduleAtFixedRate(() -> {
+        long firstTick = scheduler.currentTimeMillis();
+        AtomicLong ticks = new AtomicLong();
+        GameScheduler.Cancellable timer = scheduler.scheduleAtFixedRate(() -> {
+            TickEvent tick = new TickEvent();
+            tick.begin();
+            long lag = scheduler.currentTimeMillis() - (firstTick + ticks.getAndIncrement() * 1000);
             try {
+                if (pendingDetach.containsKey(roomId) && tryDetach(roomId)) {
+                    return;
+                }
                 GameRoom room = activeRooms.get(roomId);
                 if (room == null || room.getCurrentState() == GameState.FINISHED) {
                     stopGame(roomId);
                     return;
                 }
 
-                room.setTimeRemaining(room.getTimeRemaining() - 1);
+                synchronized (room) {
+                    room.setTimeRemaining(room.getTimeRemaining() - 1);
+                    takeSnapshot(room);
 
-                // Broadcast every second
-                broadcastRoomStatus(roomId);
+                    // Broadcast every second
+                    broadcastRoomStatus(roomId);
 
-                // Transition when time expires
-                if (room.getTimeRemaining() <= 0) {
-                    nextPhase(roomId);
+                    // Transition when time expires
+                    if (room.getTimeRemaining() <= 0) {
+                        nextPhase(roomId);
+                    }
                 }
 
             } catch (Exception e) {
                 log.error("❌ Game loop error in room {}: {}", roomId, e.getMessage(), e);
+                tracer.dump(roomId, "game loop error");
+            } finally {
+                tick.end();
+                if (tick.shouldCommit()) {
+                    GameRoom room = activeRooms.get(roomId);
+                    tick.roomId = roomId;
+                    tick.state = room == null ? null : room.getCurrentState().name();
+                    tick.lag = lag;
+                    tick.commit();
+                }
             }
-        }, 0, 1, TimeUnit.SECONDS);
+        }, 0, 1000);
 
         roomTimers.put(roomId, timer);
         log.info("⏱️ Timer started for room {}", roomId);
     }
 
     // 🔧 FIXED: Non-blocking AI call with proper state transition
-    private void startPhase(String roomId, GameState state) {
+    // Package-private so the JMH benchmarks can drive phases without the timer
+    void startPhase(String roomId, GameState state) {
         GameRoom room = activeRooms.get(roomId);
         if (room == null) return;
 
+        PhaseTransitionEvent transition = new PhaseTransitionEvent();
+        transition.begin();
+        GameState from = room.getCurrentState();
         room.setCurrentState(state);
         room.setTimeRemaining(STATE_DURATION.getOrDefault(state, 30));
+        publish(event(GameEvent.Type.PHASE_STARTED, room).value(state.name()).amount(room.getTimeRemaining()));
+        if (state == GameState.BLIND_BET) {
+            // One checkpoint per round keeps journal replay short
+            publish(event(GameEvent.Type.SNAPSHOT, room).payload(RoomCheckpoint.of(room)));
+        }
 
-        log.info("🔄 Room {} → Phase: {} ({}s)", roomId, state, room.getTimeRemaining());
+        tracer.trace(roomId, "🔄 Room {} → Phase: {} ({}s)", roomId, state, room.getTimeRemaining());
 
         // Immediate broadcast
         broadcastRoomStatus(roomId);
+        transition.end();
+        if (transition.shouldCommit()) {
+            transition.roomId = roomId;
+            transition.round = room.getCurrentRound();
+            transition.from = from == null ? null : from.name();
+            transition.to = state.name();
+            transition.commit();
+        }
 
         // 🚀 Async AI call for MARKET_CHAT
         if (state == GameState.MARKET_CHAT) {
-            CompletableFuture.runAsync(() -> {
+            scheduler.execute(() -> {
                 try {
-                    log.info("🤖 Generating question for room {}...", roomId);
+                    tracer.trace(roomId, "🤖 Generating question for room {}...", roomId);
                     loadQuestion(roomId);
                     broadcastRoomStatus(roomId);
-                    log.info("✅ Question loaded for room {}", roomId);
                 } catch (Exception e) {
                     log.error("❌ AI generation failed: {}", e.getMessage(), e);
+                    tracer.dump(roomId, "AI generation failed");
                 }
-            }, asyncExecutor);
+            });
         }
     }
 
-    private void nextPhase(String roomId) {
+    void nextPhase(String roomId) {
         GameRoom room = activeRooms.get(roomId);
         if (room == null) return;
 
-        log.info("➡️ Room {} transitioning from {}", roomId, room.getCurrentState());
+        tracer.trace(roomId, "➡️ Room {} transitioning from {}", roomId, room.getCurrentState());
 
         switch (room.getCurrentState()) {
             case BLIND_BET -> handleBlindBetEnd(roomId);
@@ -315,12 +726,13 @@ public class GameEngine {
                 .filter(p -> p.getRole() == Player.Role.TRADER)
                 .collect(Collectors.toList());
 
-        log.info("📊 Room {} has {} traders", roomId, traders.size());
+        tracer.trace(roomId, "📊 Room {} has {} traders", roomId, traders.size());
 
         // Market Crash condition
         if (traders.isEmpty() && room.getPlayerCount() > 1) {
             log.warn("🚨 MARKET CRASH in room {} - No traders!", roomId);
-            economyService.triggerMarketCrash(room);
+            List<EconomyService.RoundResult> crash = economyService.triggerMarketCrash(room);
+            publish(event(GameEvent.Type.MARKET_CRASH, room).payload(crash));
             broadcastError(roomId, "🚨 MARKET CRASH! No traders selected.");
 
             // Reset and start new round
@@ -338,9 +750,7 @@ public class GameEngine {
         startPhase(roomId, GameState.CALCULATION);
 
         // Calculate in background to avoid blocking
-        CompletableFuture.runAsync(() -> {
-            calculateResults(roomId);
-        }, asyncExecutor);
+        scheduler.execute(() -> calculateResults(roomId));
     }
 
     private void handleCalculationEnd(String roomId) {
@@ -348,11 +758,12 @@ public class GameEngine {
 
         if (room.getCurrentRound() >= room.getTotalRounds()) {
             room.setCurrentState(GameState.FINISHED);
+            publish(finishedEvent(room, true));
             log.info("🏁 Game finished in room {}", roomId);
             broadcastRoomStatus(roomId);
         } else {
             room.setCurrentRound(room.getCurrentRound() + 1);
-            log.info("🔄 Starting round {}/{} in room {}",
+            tracer.trace(roomId, "🔄 Starting round {}/{} in room {}",
                     room.getCurrentRound(), room.getTotalRounds(), roomId);
             resetRoundData(room);
             startPhase(roomId, GameState.BLIND_BET);
@@ -373,31 +784,27 @@ public class GameEngine {
         if (DEBUG_MODE && traders.size() == 1) {
             Player solo = traders.get(0);
             // Randomly make them Oracle or Scammer for testing
-            Player.SecretRole debugRole = Math.random() > 0.5
+            Player.SecretRole debugRole = random.nextBoolean()
                     ? Player.SecretRole.ORACLE
                     : Player.SecretRole.SCAMMER;
             solo.setSecretRole(debugRole);
-            log.info("🐛 DEBUG MODE: Solo player {} assigned role {}",
-                    solo.getId(), debugRole);
+            tracer.trace(roomId, "🐛 DEBUG MODE: Solo player {} assigned role {}", solo.getId(), debugRole);
         }
         // Normal mode: Need at least 2 traders
         else if (traders.size() >= 2) {
-            Collections.shuffle(traders);
+            Collections.shuffle(traders, random);
             traders.get(0).setSecretRole(Player.SecretRole.ORACLE);
             traders.get(1).setSecretRole(Player.SecretRole.SCAMMER);
-            log.info("🎭 Roles assigned: Oracle={}, Scammer={}",
+            tracer.trace(roomId, "🎭 Roles assigned: Oracle={}, Scammer={}",
                     traders.get(0).getId(), traders.get(1).getId());
         }
 
-        // --- 👇 ĐOẠN SỬA LỖI Ở ĐÂY (Thêm vòng lặp forEach) 👇 ---
-        traders.forEach(t -> {
-            messagingTemplate.convertAndSendToUser(
-                    t.getId(),
-                    "/queue/private/role",
-                    (Object) Map.of("secretRole", t.getSecretRole().toString())  // Add cast
-            );
-        });
-        // --------------------------------------------------------
+        traders.forEach(t -> publish(event(GameEvent.Type.SECRET_ROLE_ASSIGNED, room)
+                .playerId(t.getId())
+                .value(t.getSecretRole().name())));
+
+        // Each role's frame is encoded once and shared by every trader holding it
+        traders.forEach(t -> sendTraderView(roomId, t));
 
         // Broadcast public trader list
         List<Map<String, String>> publicTraders = traders.stream()
@@ -423,11 +830,20 @@ public class GameEngine {
             qMap.put("options", q.getOptions());
             qMap.put("correctAnswer", q.getCorrectAnswer());
 
-            room.setCurrentQuestion(qMap);
-            log.info("✅ Question set for room {}", roomId);
+            synchronized (room) {
+                room.setCurrentQuestion(qMap);
+                publish(event(GameEvent.Type.QUESTION_LOADED, room).payload(qMap));
+                tracer.trace(roomId, "✅ Question set for room {}", roomId);
+                // The Oracle's private frame now carries the answer
+                room.getPlayers().values().stream()
+                        .filter(p -> p.getRole() == Player.Role.TRADER
+                                && p.getSecretRole() == Player.SecretRole.ORACLE)
+                        .forEach(p -> sendTraderView(roomId, p));
+            }
 
         } catch (Exception e) {
-            log.error("❌ Failed to load question: {}", e.getMessage(), e);
+            log.error("❌ Failed to load question for room {}: {}", roomId, e.getMessage(), e);
+            tracer.dump(roomId, "question load failed");
         }
     }
 
@@ -435,7 +851,11 @@ public class GameEngine {
         GameRoom room = activeRooms.get(roomId);
         if (room == null) return;
 
-        List<EconomyService.RoundResult> results = economyService.calculateRoundResult(room);
+        List<EconomyService.RoundResult> results;
+        synchronized (room) {
+            results = economyService.calculateRoundResult(room);
+            publish(event(GameEvent.Type.ROUND_SETTLED, room).payload(results));
+        }
 
         Map<String, Object> payload = new HashMap<>();
         payload.put("results", results);
@@ -451,8 +871,7 @@ public class GameEngine {
         );
 
 
-        log.info("💰 Results calculated for room {}. {} entries.",
-                roomId, results.size());
+        tracer.trace(roomId, "💰 Results calculated for room {}. {} entries.", roomId, results.size());
     }
 
     private void resetRoundData(GameRoom room) {
@@ -464,33 +883,117 @@ public class GameEngine {
             p.setBlindBetAmount(0);
         });
         room.setCurrentQuestion(null);
-        log.info("🔄 Round data reset for room {}", room.getRoomId());
+        publish(event(GameEvent.Type.ROUND_RESET, room));
+        tracer.trace(room.getRoomId(), "🔄 Round data reset for room {}", room.getRoomId());
     }
 
     public void stopGame(String roomId) {
-        ScheduledFuture<?> timer = roomTimers.remove(roomId);
+        GameScheduler.Cancellable timer = roomTimers.remove(roomId);
         if (timer != null) {
-            timer.cancel(true);
+            timer.cancel();
             log.info("⏹️ Timer stopped for room {}", roomId);
         }
 
         GameRoom room = activeRooms.get(roomId);
-        if (room != null) {
-            room.setCurrentState(GameState.FINISHED);
+        if (room == null) return;
+        synchronized (room) {
+            if (room.getCurrentState() != GameState.FINISHED) {
+                boolean played = room.getCurrentState() != GameState.WAITING;
+                room.setCurrentState(GameState.FINISHED);
+                publish(finishedEvent(room, played));
+            }
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    /** Sends the public {@link com.trustmarket.game.dto.response.RoomView} of the room's latest snapshot. */
     private void broadcastRoomStatus(String roomId) {
-        GameRoom room = activeRooms.get(roomId);
-        if (room != null) {
-            messagingTemplate.convertAndSend("/topic/game/" + roomId, room);
+        RoomSnapshot snapshot = snapshots.get(roomId);
+        if (snapshot == null || !activeRooms.containsKey(roomId)) return;
+
+        BroadcastEvent broadcast = new BroadcastEvent();
+        broadcast.begin();
+        String destination = "/topic/game/" + roomId;
+        RoomViewCache.Frame frame = roomViews.publicFrame(snapshot);
+        messagingTemplate.send(destination, RoomViewCache.message(frame));
+        broadcast.end();
+        if (broadcast.shouldCommit()) {
+            broadcast.destination = destination;
+            broadcast.bytes = frame.json().length;
+            broadcast.commit();
         }
     }
 
+    private void sendTraderView(String roomId, Player trader) {
+        RoomSnapshot snapshot = snapshots.get(roomId);
+        if (snapshot == null || trader.getSecretRole() == null) return;
+
+        RoomViewCache.Frame frame = roomViews.traderFrame(snapshot, trader.getSecretRole());
+        // The destination convertAndSendToUser would resolve to
+        String user = trader.getId().replace("/", "%2F");
+        messagingTemplate.send(messagingTemplate.getUserDestinationPrefix() + user + "/queue/private/role",
+                RoomViewCache.message(frame));
+    }
+
     private void broadcastError(String roomId, String msg) {
         messagingTemplate.convertAndSend(
                 "/topic/game/" + roomId + "/error",
                 (Object) Map.of("message", msg)  // Add cast
         );
     }
-}
\ No newline at end of file
+
+    // ═══════════════════════════════════════════════════════════
+    // 📜 GAME EVENTS
+    // ═══════════════════════════════════════════════════════════
+
+    private GameEvent.GameEventBuilder event(GameEvent.Type type, GameRoom room) {
+        return GameEvent.builder()
+                .type(type)
+                .timestamp(scheduler.currentTimeMillis())
+                .roomId(room.getRoomId())
+                .round(room.getCurrentRound());
+    }
+
+    private GameEvent.GameEventBuilder joinedEvent(GameRoom room, Player p) {
+        return event(GameEvent.Type.PLAYER_JOINED, room)
+                .playerId(p.getId())
+                .value(p.getDisplayName())
+                .detail(p.getAvatarUrl())
+                .amount(p.getCash())
+                .payload(p.getAccountId() == null ? null : p.getAccountId().toString());
+    }
+
+    /** A game that never left WAITING carries no participants, so it counts for nobody's stats. */
+    private GameEvent.GameEventBuilder finishedEvent(GameRoom room, boolean played) {
+        List<String> participants = played
+                ? room.getPlayers().values().stream().map(Player::getDisplayName).toList()
+                : List.of();
+        return event(GameEvent.Type.GAME_FINISHED, room).payload(participants);
+    }
+
+    /** Every change to a room is followed by an event, so this is where its snapshot is refreshed. */
+    private void publish(GameEvent.GameEventBuilder event) {
+        GameEvent built = event.build();
+        GameRoom room = activeRooms.get(built.getRoomId());
+        if (room != null) {
+            takeSnapshot(room);
+        }
+        try {
+            eventPublisher.publishEvent(built);
+        } catch (Exception e) {
+            // A failing listener must never break the game loop
+            log.error("❌ Game event listener failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void takeSnapshot(GameRoom room) {
+        RoomSnapshot snapshot = RoomSnapshot.of(room, snapshotVersions.incrementAndGet());
+        // Two threads changing the same room may finish copying out of order; keep the newer copy
+        snapshots.merge(room.getRoomId(), snapshot,
+                (current, candidate) -> candidate.getVersion() > current.getVersion() ? candidate : current);
+    }
+}
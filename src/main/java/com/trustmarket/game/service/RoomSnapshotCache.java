@@ -0,0 +1,46 @@
+package com.trustmarket.game.service;
+
+import com.trustmarket.game.model.game.RoomSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * REST bodies of the latest {@link RoomSnapshot} per room: the public
+ * {@link com.trustmarket.game.dto.response.RoomView}, as encoded once per version by {@link RoomViewCache}
+ * (the same bytes the room topic gets), with an ETag per version.
+ */
+@Component
+public class RoomSnapshotCache {
+
+    /** Serialized snapshot; {@code etag} is quoted, ready for the header. */
+    public record Body(long version, String etag, byte[] json) {
+    }
+
+    private final GameEngine gameEngine;
+    private final RoomViewCache roomViews;
+    // Versions restart with the process, so the ETag also names the process that issued it
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentHashMap<String, Body> bodies = new ConcurrentHashMap<>();
+
+    public RoomSnapshotCache(GameEngine gameEngine, RoomViewCache roomViews) {
+        this.gameEngine = gameEngine;
+        this.roomViews = roomViews;
+    }
+
+    /** The latest body for a room, or null if the engine has no such room. */
+    public Body get(String roomId) {
+        RoomSnapshot snapshot = gameEngine.getSnapshot(roomId);
+        if (snapshot == null) {
+            return null;
+        }
+        Body cached = bodies.get(roomId);
+        if (cached != null && cached.version() >= snapshot.getVersion()) {
+            return cached;
+        }
+        Body body = new Body(snapshot.getVersion(), "\"" + instance + "-" + snapshot.getVersion() + "\"",
+                roomViews.publicFrame(snapshot).json());
+        return bodies.merge(roomId, body, (current, candidate) ->
+                candidate.version() > current.version() ? candidate : current);
+    }
+}
@@ -0,0 +1,122 @@
+package com.trustmarket.game.service;
+
+import com.trustmarket.game.dto.response.RoomView;
+import com.trustmarket.game.dto.response.TraderView;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.model.game.RoomSnapshot;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serialized per-audience projections of a room: the {@link RoomView} every player and REST poller gets,
+ * and one {@link TraderView} per secret role. Each is encoded at most once per {@link RoomSnapshot} version,
+ * on first use, and the bytes are shared by every send of that version (the room topic, the REST body, each
+ * trader holding the role).
+ * <p>
+ * Only the latest version of a room is kept. A request for an older version than the cached one is
+ * encoded but not cached.
+ */
+@Component
+public class RoomViewCache {
+
+    /** Encoded JSON of one projection of one snapshot version. */
+    public record Frame(long version, byte[] json) {
+    }
+
+    private final JsonMapper jsonMapper;
+    private final Map<String, Views> rooms = new ConcurrentHashMap<>();
+    private final LongAdder encoded = new LongAdder();
+    private final LongAdder bytesEncoded = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+
+    public RoomViewCache(JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+    }
+
+    public Frame publicFrame(RoomSnapshot snapshot) {
+        Views views = views(snapshot);
+        if (views == null) {
+            return encode(snapshot.getVersion(), RoomView.of(snapshot));
+        }
+        synchronized (views) {
+            if (views.room == null) {
+                views.room = encode(snapshot.getVersion(), RoomView.of(snapshot));
+            } else {
+                reused.increment();
+            }
+            return views.room;
+        }
+    }
+
+    public Frame traderFrame(RoomSnapshot snapshot, Player.SecretRole role) {
+        Views views = views(snapshot);
+        if (views == null) {
+            return encode(snapshot.getVersion(), TraderView.of(snapshot, role));
+        }
+        synchronized (views) {
+            Frame frame = views.traders.get(role);
+            if (frame == null) {
+                frame = encode(snapshot.getVersion(), TraderView.of(snapshot, role));
+                views.traders.put(role, frame);
+            } else {
+                reused.increment();
+            }
+            return frame;
+        }
+    }
+
+    public void forget(String roomId) {
+        rooms.remove(roomId);
+    }
+
+    /** A JSON STOMP message around already encoded bytes, for {@code SimpMessagingTemplate.send}. */
+    public static Message<byte[]> message(Frame frame) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        headers.setLeaveMutable(true);
+        return MessageBuilder.createMessage(frame.json(), headers.getMessageHeaders());
+    }
+
+    /** The holder for the snapshot's version, replacing an older one; null if the cache already moved on. */
+    private Views views(RoomSnapshot snapshot) {
+        Views views = rooms.compute(snapshot.getRoomId(), (id, current) ->
+                current == null || current.version < snapshot.getVersion() ? new Views(snapshot.getVersion()) : current);
+        return views.version == snapshot.getVersion() ? views : null;
+    }
+
+    private Frame encode(long version, Object view) {
+        byte[] json = jsonMapper.writeValueAsBytes(view);
+        encoded.increment();
+        bytesEncoded.add(json.length);
+        return new Frame(version, json);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rooms", rooms.size());
+        stats.put("encoded", encoded.sum());
+        stats.put("reused", reused.sum());
+        stats.put("bytesEncoded", bytesEncoded.sum());
+        return stats;
+    }
+
+    private static final class Views {
+        final long version;
+        Frame room;
+        final Map<Player.SecretRole, Frame> traders = new EnumMap<>(Player.SecretRole.class);
+
+        Views(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.trustmarket.game.service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.trustmarket.game.dto.response.UserProfile;
+import com.trustmarket.game.model.entity.User;
+import com.trustmarket.game.repository.UserRepository;
+import com.trustmarket.game.service.stats.PlayerStatsWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Bounded read-through cache of {@link UserProfile}s by username, plus the account id → username mapping
+ * used to look up the players of a room by the account they joined with.
+ * <p>
+ * Concurrent misses for the same user share one load, and {@link #getAll} resolves every miss of a room
+ * with a single {@code IN} query, so a tournament start costs one round-trip per room rather than one
+ * per player. Unknown usernames are cached as empty so guests don't hit the database on every join.
+ * Rooms are looked up by account id ({@link #getAllById}), never by the display name a player picked.
+ * Entries expire after {@code game.users.cache-ttl} and are invalidated as soon as
+ * {@link PlayerStatsWriter} commits new stats for them.
+ */
+@Slf4j
+@Service
+public class UserProfileCache {
+
+    private final LoadingCache<String, Optional<UserProfile>> cache;
+    private final LoadingCache<UUID, Optional<String>> usernames;
+
+    public UserProfileCache(
+            UserRepository userRepository,
+            PlayerStatsWriter statsWriter,
+            @Value("${game.users.cache-size:100000}") long maximumSize,
+            @Value("${game.users.cache-ttl:10m}") Duration ttl
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Optional<UserProfile> load(String username) {
+                        return userRepository.findByUsername(username).map(UserProfile::of);
+                    }
+
+                    @Override
+                    public Map<String, Optional<UserProfile>> loadAll(Set<? extends String> usernames) {
+                        Map<String, Optional<UserProfile>> loaded = new HashMap<>();
+                        usernames.forEach(name -> loaded.put(name, Optional.empty()));
+                        userRepository.findByUsernameIn(new ArrayList<>(usernames))
+                                .forEach(u -> loaded.put(u.getUsername(), Optional.of(UserProfile.of(u))));
+                        return loaded;
+                    }
+                });
+        // Usernames never change, so only the profiles need invalidating; loads here refresh those too
+        this.usernames = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Optional<String> load(UUID id) {
+                        return userRepository.findById(id).map(UserProfileCache.this::remember);
+                    }
+
+                    @Override
+                    public Map<UUID, Optional<String>> loadAll(Set<? extends UUID> ids) {
+                        Map<UUID, Optional<String>> loaded = new HashMap<>();
+                        ids.forEach(id -> loaded.put(id, Optional.empty()));
+                        userRepository.findAllById(new ArrayList<>(ids))
+                                .forEach(u -> loaded.put(u.getId(), Optional.of(remember(u))));
+                        return loaded;
+                    }
+                });
+        statsWriter.addFlushListener(this::invalidate);
+    }
+
+    public Optional<UserProfile> get(String username) {
+        return cache.get(username);
+    }
+
+    /** Profiles for every known username in {@code usernames}; all misses load in one query. */
+    public Map<String, UserProfile> getAll(Collection<String> usernames) {
+        Map<String, UserProfile> profiles = new LinkedHashMap<>();
+        cache.getAll(new LinkedHashSet<>(usernames))
+                .forEach((name, profile) -> profile.ifPresent(p -> profiles.put(name, p)));
+        return profiles;
+    }
+
+    /**
+     * Profiles of the accounts in {@code accountIds}, by account id; null ids (guests) are skipped. Accounts
+     * not seen before load in one query, and their profiles with them.
+     */
+    public Map<UUID, UserProfile> getAllById(Collection<UUID> accountIds) {
+        Set<UUID> ids = new LinkedHashSet<>(accountIds);
+        ids.remove(null);
+        Map<String, UUID> idsByName = new LinkedHashMap<>();
+        usernames.getAll(ids).forEach((id, name) -> name.ifPresent(n -> idsByName.put(n, id)));
+        Map<UUID, UserProfile> profiles = new LinkedHashMap<>();
+        getAll(idsByName.keySet()).forEach((name, profile) -> profiles.put(idsByName.get(name), profile));
+        return profiles;
+    }
+
+    /** Best-effort {@link #getAllById}: a database hiccup must not fail the caller. */
+    public void prefetch(Collection<UUID> accountIds) {
+        try {
+            getAllById(accountIds);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ User prefetch failed for {} accounts: {}", accountIds.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * The {@code users.id} of an authenticated caller, which is what stats are credited to; null for guests
+     * (no principal) and for principals without an account. Never derived from a client-chosen name.
+     * No authentication is configured yet, so in production the principal is always null until one is added.
+     */
+    public UUID accountId(Principal principal) {
+        if (principal == null) {
+            return null;
+        }
+        try {
+            return get(principal.getName()).map(UserProfile::id).orElse(null);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Account lookup failed for {}: {}", principal.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    public void invalidate(Collection<String> usernames) {
+        cache.invalidateAll(usernames);
+    }
+
+    private String remember(User user) {
+        cache.put(user.getUsername(), Optional.of(UserProfile.of(user)));
+        return user.getUsername();
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("size", cache.estimatedSize());
+        view.put("hitRate", stats.hitRate());
+        view.put("hits", stats.hitCount());
+        view.put("misses", stats.missCount());
+        view.put("loads", stats.loadCount());
+        view.put("loadFailures", stats.loadFailureCount());
+        view.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        view.put("evictions", stats.evictionCount());
+        return view;
+    }
+}
@@ -0,0 +1,156 @@
+package com.trustmarket.game.service.admission;
+
+import com.trustmarket.game.service.scheduling.GameScheduler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Makes player commands idempotent: a command sent again with the same client-supplied {@code commandId}
+ * gets the first attempt's outcome back without running again, so retries from flaky connections do not
+ * touch the {@link com.trustmarket.game.service.GameEngine}, log, or broadcast.
+ * <p>
+ * Each player keeps a ring of its last {@code game.dedup.ring-size} command ids, forgotten after
+ * {@code game.dedup.ttl-ms}; players idle for longer are swept. A retry that arrives while the first attempt
+ * is still running waits for its outcome. Outcomes the caller marks as not worth remembering (e.g. rate
+ * limited) are dropped, so the next retry runs for real.
+ */
+@Component
+public class CommandDeduplicator {
+
+    private final GameScheduler scheduler;
+    private final int ringSize;
+    private final long ttlMillis;
+
+    private final Map<String, Ring> players = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private GameScheduler.Cancellable sweeper;
+
+    public CommandDeduplicator(
+            GameScheduler scheduler,
+            @Value("${game.dedup.ring-size:32}") int ringSize,
+            @Value("${game.dedup.ttl-ms:120000}") long ttlMillis
+    ) {
+        this.scheduler = scheduler;
+        this.ringSize = ringSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        sweeper = scheduler.scheduleAtFixedRate(this::sweep, ttlMillis, ttlMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.cancel();
+        }
+    }
+
+    /**
+     * Runs {@code command} unless this player already sent {@code commandId}, in which case the recorded
+     * outcome is returned. Commands without an id always run.
+     *
+     * @param remember whether an outcome should answer later retries
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String playerId, String commandId, Supplier<T> command, Predicate<? super T> remember) {
+        if (playerId == null || commandId == null || commandId.isEmpty()) {
+            return command.get();
+        }
+        long now = scheduler.currentTimeMillis();
+        Ring ring = players.computeIfAbsent(playerId, id -> new Ring(ringSize));
+        CompletableFuture<Object> outcome = new CompletableFuture<>();
+        CompletableFuture<Object> previous = ring.claim(commandId, outcome, now, ttlMillis);
+        if (previous != null) {
+            duplicates.increment();
+            return (T) previous.join();
+        }
+
+        executed.increment();
+        T result;
+        try {
+            result = command.get();
+        } catch (RuntimeException e) {
+            ring.release(commandId, outcome);
+            outcome.completeExceptionally(e);
+            throw e;
+        }
+        if (!remember.test(result)) {
+            ring.release(commandId, outcome);
+        }
+        outcome.complete(result);
+        return result;
+    }
+
+    void sweep() {
+        long now = scheduler.currentTimeMillis();
+        players.values().removeIf(ring -> ring.isIdle(now, ttlMillis));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("executed", executed.sum());
+        stats.put("duplicates", duplicates.sum());
+        stats.put("players", players.size());
+        stats.put("ringSize", ringSize);
+        return stats;
+    }
+
+    /** The recent command ids of one player; slots are reused oldest first. */
+    private static final class Ring {
+
+        private final String[] ids;
+        private final long[] seenAt;
+        private final CompletableFuture<?>[] outcomes;
+        private int next;
+        private long lastSeen;
+
+        Ring(int size) {
+            this.ids = new String[size];
+            this.seenAt = new long[size];
+            this.outcomes = new CompletableFuture<?>[size];
+        }
+
+        /** @return the outcome of an earlier attempt, or null after recording {@code outcome} as the first */
+        @SuppressWarnings("unchecked")
+        synchronized CompletableFuture<Object> claim(String id, CompletableFuture<Object> outcome, long now,
+                                                     long ttl) {
+            lastSeen = now;
+            for (int i = 0; i < ids.length; i++) {
+                if (id.equals(ids[i]) && now - seenAt[i] < ttl) {
+                    return (CompletableFuture<Object>) outcomes[i];
+                }
+            }
+            ids[next] = id;
+            seenAt[next] = now;
+            outcomes[next] = outcome;
+            next = (next + 1) % ids.length;
+            return null;
+        }
+
+        synchronized void release(String id, CompletableFuture<Object> outcome) {
+            for (int i = 0; i < ids.length; i++) {
+                if (outcomes[i] == outcome && id.equals(ids[i])) {
+                    ids[i] = null;
+                    outcomes[i] = null;
+                }
+            }
+        }
+
+        synchronized boolean isIdle(long now, long ttl) {
+            return now - lastSeen >= ttl;
+        }
+    }
+}
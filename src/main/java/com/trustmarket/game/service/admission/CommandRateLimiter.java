@@ -0,0 +1,138 @@
+package com.trustmarket.game.service.admission;
+
+import com.trustmarket.game.service.scheduling.GameScheduler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for player commands (role, bet, invest, answer), checked before a command reaches the
+ * {@link com.trustmarket.game.service.GameEngine}: each player gets a token bucket of
+ * {@code game.admission.player-burst} commands refilled at {@code player-rate}/s, and each room one of
+ * {@code room-burst} at {@code room-rate}/s, so neither a single client nor a table of rotating player ids
+ * can flood a node.
+ * <p>
+ * A bucket is one {@link AtomicLong} holding its theoretical arrival time (the GCRA form of a token bucket):
+ * admitting a command is a read and a CAS, with no lock and no allocation. A bucket whose arrival time is in
+ * the past is full, i.e. indistinguishable from a new one, so the periodic sweep simply drops those; memory
+ * follows the number of recently active players and rooms.
+ */
+@Component
+public class CommandRateLimiter {
+
+    public enum Verdict { ADMITTED, PLAYER_LIMITED, ROOM_LIMITED }
+
+    private final GameScheduler scheduler;
+    private final long sweepMillis;
+    private final Limit playerLimit;
+    private final Limit roomLimit;
+
+    private final Map<String, Bucket> players = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> rooms = new ConcurrentHashMap<>();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder playerLimited = new LongAdder();
+    private final LongAdder roomLimited = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private GameScheduler.Cancellable sweeper;
+
+    public CommandRateLimiter(
+            GameScheduler scheduler,
+            @Value("${game.admission.player-rate:5}") double playerRate,
+            @Value("${game.admission.player-burst:10}") int playerBurst,
+            @Value("${game.admission.room-rate:50}") double roomRate,
+            @Value("${game.admission.room-burst:100}") int roomBurst,
+            @Value("${game.admission.sweep-ms:10000}") long sweepMillis
+    ) {
+        this.scheduler = scheduler;
+        this.playerLimit = new Limit(playerRate, playerBurst);
+        this.roomLimit = new Limit(roomRate, roomBurst);
+        this.sweepMillis = sweepMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        sweeper = scheduler.scheduleAtFixedRate(this::sweep, sweepMillis, sweepMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.cancel();
+        }
+    }
+
+    /** Takes a token from the player's bucket, then from the room's. */
+    public Verdict tryAcquire(String roomId, String playerId) {
+        long now = nowMicros();
+        if (playerId != null && !players.computeIfAbsent(playerId, id -> new Bucket()).tryAcquire(playerLimit, now)) {
+            playerLimited.increment();
+            return Verdict.PLAYER_LIMITED;
+        }
+        if (roomId != null && !rooms.computeIfAbsent(roomId, id -> new Bucket()).tryAcquire(roomLimit, now)) {
+            roomLimited.increment();
+            return Verdict.ROOM_LIMITED;
+        }
+        admitted.increment();
+        return Verdict.ADMITTED;
+    }
+
+    void sweep() {
+        long now = nowMicros();
+        int before = players.size() + rooms.size();
+        players.entrySet().removeIf(e -> e.getValue().isFull(now));
+        rooms.entrySet().removeIf(e -> e.getValue().isFull(now));
+        evicted.add(before - players.size() - rooms.size());
+    }
+
+    private long nowMicros() {
+        return scheduler.currentTimeMillis() * 1000;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("admitted", admitted.sum());
+        stats.put("playerLimited", playerLimited.sum());
+        stats.put("roomLimited", roomLimited.sum());
+        stats.put("playerBuckets", players.size());
+        stats.put("roomBuckets", rooms.size());
+        stats.put("evicted", evicted.sum());
+        return stats;
+    }
+
+    /** Refill interval and burst allowance of a bucket, in microseconds. */
+    private record Limit(long interval, long tolerance) {
+
+        Limit(double ratePerSecond, int burst) {
+            this(Math.round(1_000_000 / ratePerSecond), Math.round(1_000_000 / ratePerSecond) * (burst - 1));
+        }
+    }
+
+    private static final class Bucket {
+
+        private final AtomicLong arrival = new AtomicLong(Long.MIN_VALUE);
+
+        boolean tryAcquire(Limit limit, long now) {
+            while (true) {
+                long tat = arrival.get();
+                long from = Math.max(tat, now);
+                if (from - now > limit.tolerance()) {
+                    return false;
+                }
+                if (arrival.compareAndSet(tat, from + limit.interval())) {
+                    return true;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return arrival.get() <= now;
+        }
+    }
+}
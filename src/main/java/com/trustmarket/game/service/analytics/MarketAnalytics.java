@@ -0,0 +1,158 @@
+package com.trustmarket.game.service.analytics;
+
+import com.trustmarket.game.dto.response.MarketStats;
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.service.EconomyService;
+import com.trustmarket.game.service.scheduling.GameScheduler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.trustmarket.game.service.analytics.SlidingWindow.Counter.*;
+
+/**
+ * Live market analytics, folded in as the engine publishes its events: bet sizes from {@code handleBet},
+ * investments from {@code handleInvest}, and role mix, market crashes and scammer outcomes from each
+ * settlement. Everything lands in two {@link SlidingWindow}s (last minute in 5 s buckets, last hour in 1 min
+ * buckets), so a query sums at most 72 buckets and never looks at stored history.
+ * <p>
+ * Scammer outcomes need the round's answers, so each playing room keeps a small tally of the current
+ * round until it settles; it is dropped on settlement, reset, finish or migration.
+ */
+@Component
+public class MarketAnalytics {
+
+    private final GameScheduler scheduler;
+    private final Map<String, SlidingWindow> windows = new LinkedHashMap<>();
+    private final Map<String, RoundTally> rounds = new ConcurrentHashMap<>();
+
+    public MarketAnalytics(
+            GameScheduler scheduler,
+            @Value("${game.analytics.quantile-accuracy:0.01}") double quantileAccuracy,
+            @Value("${game.analytics.max-bet:1000000}") double maxBet
+    ) {
+        this.scheduler = scheduler;
+        windows.put("minute", new SlidingWindow("minute", 12, 5_000, quantileAccuracy, maxBet));
+        windows.put("hour", new SlidingWindow("hour", 60, 60_000, quantileAccuracy, maxBet));
+    }
+
+    @EventListener
+    public void onGameEvent(GameEvent event) {
+        long at = event.getTimestamp();
+        switch (event.getType()) {
+            case BET_PLACED -> windows.values().forEach(w -> w.addBet(at, event.getAmount()));
+            case INVESTED -> add(at, INVESTMENTS, 1);
+            case ROLE_SELECTED -> tally(event.getRoomId()).roles.put(event.getPlayerId(), event.getValue());
+            case ANSWERED -> tally(event.getRoomId()).answers.put(event.getPlayerId(), event.getValue());
+            case SECRET_ROLE_ASSIGNED -> {
+                if (Player.SecretRole.SCAMMER.name().equals(event.getValue())) {
+                    tally(event.getRoomId()).scammers.add(event.getPlayerId());
+                }
+            }
+            case QUESTION_LOADED -> {
+                if (event.getPayload() instanceof Map<?, ?> question && question.get("correctAnswer") != null) {
+                    tally(event.getRoomId()).correctAnswer = String.valueOf(question.get("correctAnswer"));
+                }
+            }
+            case ROUND_SETTLED -> settled(event, false);
+            case MARKET_CRASH -> settled(event, true);
+            case ROUND_RESET, GAME_FINISHED, ROOM_MIGRATED -> rounds.remove(event.getRoomId());
+            default -> { }
+        }
+    }
+
+    /** Both windows, keyed by name. */
+    public Map<String, MarketStats> stats() {
+        long now = scheduler.currentTimeMillis();
+        Map<String, MarketStats> stats = new LinkedHashMap<>();
+        windows.values().forEach(w -> stats.put(w.name(), stats(w, now)));
+        return stats;
+    }
+
+    /** One window ({@code minute} or {@code hour}); empty for any other name. */
+    public Optional<MarketStats> stats(String window) {
+        return Optional.ofNullable(windows.get(window)).map(w -> stats(w, scheduler.currentTimeMillis()));
+    }
+
+    private MarketStats stats(SlidingWindow window, long now) {
+        SlidingWindow.Totals t = window.totals(now);
+        long bets = t.get(BETS);
+        double total = t.get(BET_CENTS) / 100.0;
+        return new MarketStats(window.name(), window.millis() / 1000,
+                new MarketStats.Bets(bets, total, ratio(total, bets), window.quantile(t, 0.5),
+                        window.quantile(t, 0.9), window.quantile(t, 0.99)),
+                new MarketStats.Roles(t.get(TRADERS), t.get(INVESTORS),
+                        ratio(t.get(TRADERS), t.get(TRADERS) + t.get(INVESTORS)), t.get(INVESTMENTS)),
+                new MarketStats.Rounds(t.get(ROUNDS), t.get(CRASHES), ratio(t.get(CRASHES), t.get(ROUNDS))),
+                new MarketStats.Scammers(t.get(SCAMMER_ROUNDS), t.get(SCAMMER_WINS),
+                        ratio(t.get(SCAMMER_WINS), t.get(SCAMMER_ROUNDS)), t.get(STOLEN_CENTS) / 100.0));
+    }
+
+    private void settled(GameEvent event, boolean crash) {
+        long at = event.getTimestamp();
+        RoundTally tally = rounds.remove(event.getRoomId());
+        add(at, ROUNDS, 1);
+        if (crash) {
+            add(at, CRASHES, 1);
+        }
+        if (tally == null) {
+            return;
+        }
+        add(at, TRADERS, tally.count(Player.Role.TRADER));
+        add(at, INVESTORS, tally.count(Player.Role.INVESTOR));
+        if (crash || tally.correctAnswer == null) {
+            return;
+        }
+        // Same verdict as EconomyService: a scammer who did not answer counts as wrong
+        for (String scammer : tally.scammers) {
+            add(at, SCAMMER_ROUNDS, 1);
+            if (!tally.correctAnswer.equalsIgnoreCase(tally.answers.getOrDefault(scammer, "NONE"))) {
+                add(at, SCAMMER_WINS, 1);
+            }
+        }
+        if (event.getPayload() instanceof List<?> results) {
+            long stolenCents = 0;
+            for (Object r : results) {
+                if (r instanceof EconomyService.RoundResult result && result.getProfitLoss() > 0
+                        && tally.scammers.contains(result.getPlayerId())) {
+                    stolenCents += Math.round(result.getProfitLoss() * 100);
+                }
+            }
+            add(at, STOLEN_CENTS, stolenCents);
+        }
+    }
+
+    private void add(long at, SlidingWindow.Counter counter, long delta) {
+        if (delta != 0) {
+            windows.values().forEach(w -> w.add(at, counter, delta));
+        }
+    }
+
+    private RoundTally tally(String roomId) {
+        return rounds.computeIfAbsent(roomId, id -> new RoundTally());
+    }
+
+    private static double ratio(double part, double whole) {
+        return whole == 0 ? 0 : part / whole;
+    }
+
+    /** What one room's current round needs for its settlement numbers; written by the room's own events. */
+    private static final class RoundTally {
+        final Map<String, String> roles = new ConcurrentHashMap<>();
+        final Map<String, String> answers = new ConcurrentHashMap<>();
+        final Set<String> scammers = ConcurrentHashMap.newKeySet();
+        volatile String correctAnswer;
+
+        long count(Player.Role role) {
+            return roles.values().stream().filter(role.name()::equals).count();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.trustmarket.game.service.analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size log-bucket histogram in the style of DDSketch: values are counted in buckets whose bounds grow
+ * by a factor {@code gamma = (1 + a) / (1 - a)}, so any quantile read back is within relative accuracy
+ * {@code a} of a real sample. Adding is one atomic increment; sketches of the same shape merge by adding
+ * their counts, which is how a window sums its time buckets.
+ * <p>
+ * Bucket 0 holds everything below 1 (a zero bet included); values above {@code maxValue} land in the last
+ * bucket.
+ */
+final class QuantileSketch {
+
+    private final double gamma;
+    private final double logGamma;
+    private final AtomicLongArray counts;
+
+    QuantileSketch(double relativeAccuracy, double maxValue) {
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.counts = new AtomicLongArray(2 + (int) Math.ceil(Math.log(maxValue) / logGamma));
+    }
+
+    void add(double value) {
+        counts.incrementAndGet(indexOf(value));
+    }
+
+    int size() {
+        return counts.length();
+    }
+
+    void addTo(long[] into) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] += counts.get(i);
+        }
+    }
+
+    /** The value at rank {@code q} (0..1) of merged counts of this shape; 0 if they are empty. */
+    double quantile(long[] merged, double q) {
+        long total = 0;
+        for (long c : merged) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.floor(q * (total - 1));
+        long seen = 0;
+        for (int i = 0; i < merged.length; i++) {
+            seen += merged[i];
+            if (seen > rank) {
+                return valueOf(i);
+            }
+        }
+        return valueOf(merged.length - 1);
+    }
+
+    private int indexOf(double value) {
+        if (!(value >= 1)) {
+            return 0;
+        }
+        int index = 1 + (int) Math.ceil(Math.log(value) / logGamma);
+        return Math.min(index, counts.length() - 1);
+    }
+
+    /** Bucket i covers (gamma^(i-2), gamma^(i-1)]; this is the point with equal relative error to both ends. */
+    private double valueOf(int index) {
+        return index == 0 ? 0 : 2 * Math.pow(gamma, index - 1) / (gamma + 1);
+    }
+}
@@ -0,0 +1,119 @@
+package com.trustmarket.game.service.analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Counters and a bet-size sketch over the last {@code buckets * bucketMillis}, kept as a ring of time
+ * buckets. Memory is fixed: one bucket per slot, whatever the traffic.
+ * <p>
+ * Nothing locks. A writer finds the bucket for its timestamp's epoch and, if the slot still holds an older
+ * epoch, swaps in a fresh bucket with a compare-and-set; the loser of a race simply uses the winner's
+ * bucket. An update for an epoch the slot has already moved past is dropped, as it falls outside the window
+ * anyway. Reads sum the buckets whose epoch is still inside the window, so a bucket being reset is never
+ * half counted.
+ */
+final class SlidingWindow {
+
+    enum Counter {
+        BETS, BET_CENTS, INVESTMENTS, TRADERS, INVESTORS, ROUNDS, CRASHES, SCAMMER_ROUNDS, SCAMMER_WINS, STOLEN_CENTS
+    }
+
+    /** Sums of a window at one instant; {@code betSizes} are counts in the window's sketch shape. */
+    record Totals(long[] counters, long[] betSizes) {
+
+        long get(Counter counter) {
+            return counters[counter.ordinal()];
+        }
+    }
+
+    private final String name;
+    private final long bucketMillis;
+    private final double relativeAccuracy;
+    private final double maxValue;
+    private final AtomicReferenceArray<Bucket> ring;
+    private final QuantileSketch shape;
+
+    SlidingWindow(String name, int buckets, long bucketMillis, double relativeAccuracy, double maxValue) {
+        this.name = name;
+        this.bucketMillis = bucketMillis;
+        this.relativeAccuracy = relativeAccuracy;
+        this.maxValue = maxValue;
+        this.ring = new AtomicReferenceArray<>(buckets);
+        this.shape = new QuantileSketch(relativeAccuracy, maxValue);
+    }
+
+    String name() {
+        return name;
+    }
+
+    long millis() {
+        return ring.length() * bucketMillis;
+    }
+
+    void add(long at, Counter counter, long delta) {
+        Bucket bucket = bucketAt(at);
+        if (bucket != null) {
+            bucket.counters.addAndGet(counter.ordinal(), delta);
+        }
+    }
+
+    void addBet(long at, double amount) {
+        Bucket bucket = bucketAt(at);
+        if (bucket != null) {
+            bucket.counters.incrementAndGet(Counter.BETS.ordinal());
+            bucket.counters.addAndGet(Counter.BET_CENTS.ordinal(), Math.round(amount * 100));
+            bucket.betSizes.add(amount);
+        }
+    }
+
+    Totals totals(long now) {
+        long newest = now / bucketMillis;
+        long oldest = newest - ring.length() + 1;
+        long[] counters = new long[Counter.values().length];
+        long[] betSizes = new long[shape.size()];
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.epoch >= oldest && bucket.epoch <= newest) {
+                for (int c = 0; c < counters.length; c++) {
+                    counters[c] += bucket.counters.get(c);
+                }
+                bucket.betSizes.addTo(betSizes);
+            }
+        }
+        return new Totals(counters, betSizes);
+    }
+
+    double quantile(Totals totals, double q) {
+        return shape.quantile(totals.betSizes(), q);
+    }
+
+    private Bucket bucketAt(long at) {
+        long epoch = at / bucketMillis;
+        int slot = (int) Math.floorMod(epoch, (long) ring.length());
+        while (true) {
+            Bucket current = ring.get(slot);
+            if (current != null && current.epoch == epoch) {
+                return current;
+            }
+            if (current != null && current.epoch > epoch) {
+                return null;
+            }
+            Bucket fresh = new Bucket(epoch, new QuantileSketch(relativeAccuracy, maxValue));
+            if (ring.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static final class Bucket {
+        final long epoch;
+        final AtomicLongArray counters = new AtomicLongArray(Counter.values().length);
+        final QuantileSketch betSizes;
+
+        Bucket(long epoch, QuantileSketch betSizes) {
+            this.epoch = epoch;
+            this.betSizes = betSizes;
+        }
+    }
+}
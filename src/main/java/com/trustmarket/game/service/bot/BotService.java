@@ -0,0 +1,321 @@
+package com.trustmarket.game.service.bot;
+
+import com.trustmarket.game.dto.request.RoomAction;
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.model.game.RoomSnapshot;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.admission.CommandRateLimiter;
+import com.trustmarket.game.service.scheduling.GameScheduler;
+import com.trustmarket.game.service.tournament.TournamentService;
+import com.trustmarket.game.service.trace.RoomTracer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-side bot players. With {@code game.bots.auto-fill=true} (off by default), a room still WAITING with
+ * fewer than {@code game.bots.min-players} players after {@code fill-after-ms} gets bots seated until it has
+ * that many; bots can also be added to a room from the admin API. Tournament tables are never filled.
+ * A room's bots stop counting against {@code max-bots} when its game finishes, including a lobby closed by
+ * {@link com.trustmarket.game.service.lobby.LobbyReaper}, when it migrates, or when it leaves the engine.
+ * <p>
+ * A bot is a seat plus a {@link BotStrategy}; it has no thread or timer of its own. When a room with bots
+ * enters BLIND_BET or CLOSING, one task per room is scheduled a little into the phase (so humans choose
+ * first) and plays every bot of the room: roles and bets, then answers and investments. Commands go through
+ * admission control and {@link GameEngine#applyActions}, the path of a REST action batch, so bots are
+ * validated, traced and broadcast exactly like humans.
+ * <p>
+ * A table needs two traders before the Oracle and Scammer can be dealt, so while fewer than two players
+ * have picked TRADER, bots pick it whatever their strategy.
+ */
+@Slf4j
+@Service
+public class BotService {
+
+    public static final String ID_PREFIX = "bot-";
+    private static final int MIN_TRADERS = 2;
+
+    private final GameEngine engine;
+    private final GameScheduler scheduler;
+    private final CommandRateLimiter commandRateLimiter;
+    private final TournamentService tournamentService;
+    private final RoomTracer tracer;
+    private final Random random;
+    private final String nodeId;
+    private final boolean autoFill;
+    private final int minPlayers;
+    private final long fillAfterMillis;
+    private final long sweepMillis;
+    private final int maxBots;
+    private final long betDelayMillis;
+    private final long answerDelayMillis;
+    private final List<BotStrategy> strategies;
+
+    // roomId → (bot id → strategy); a room's bots are released when its game finishes or it migrates
+    private final Map<String, Map<String, BotStrategy>> rooms = new ConcurrentHashMap<>();
+    private final Map<String, Long> lobbySince = new ConcurrentHashMap<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder seated = new LongAdder();
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder limited = new LongAdder();
+    private GameScheduler.Cancellable sweeper;
+
+    public BotService(
+            GameEngine engine,
+            GameScheduler scheduler,
+            CommandRateLimiter commandRateLimiter,
+            TournamentService tournamentService,
+            RoomTracer tracer,
+            Random gameRandom,
+            @Value("${game.cluster.node-id:local}") String nodeId,
+            @Value("${game.bots.auto-fill:false}") boolean autoFill,
+            @Value("${game.bots.min-players:4}") int minPlayers,
+            @Value("${game.bots.fill-after-ms:30000}") long fillAfterMillis,
+            @Value("${game.bots.sweep-ms:5000}") long sweepMillis,
+            @Value("${game.bots.max-bots:50000}") int maxBots,
+            @Value("${game.bots.bet-delay-ms:12000}") long betDelayMillis,
+            @Value("${game.bots.answer-delay-ms:4000}") long answerDelayMillis,
+            @Value("${game.bots.strategies:RANDOM,TRADER,INVESTOR}") String strategies
+    ) {
+        this.engine = engine;
+        this.scheduler = scheduler;
+        this.commandRateLimiter = commandRateLimiter;
+        this.tournamentService = tournamentService;
+        this.tracer = tracer;
+        this.random = gameRandom;
+        this.nodeId = nodeId;
+        this.autoFill = autoFill;
+        this.minPlayers = minPlayers;
+        this.fillAfterMillis = fillAfterMillis;
+        this.sweepMillis = sweepMillis;
+        this.maxBots = maxBots;
+        this.betDelayMillis = betDelayMillis;
+        this.answerDelayMillis = answerDelayMillis;
+        this.strategies = Arrays.stream(strategies.split(","))
+                .map(s -> BotStrategy.valueOf(s.trim().toUpperCase()))
+                .toList();
+    }
+
+    @PostConstruct
+    public void start() {
+        sweeper = scheduler.scheduleAtFixedRate(this::sweep, sweepMillis, sweepMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.cancel();
+        }
+    }
+
+    /**
+     * Whether the player is a bot this service seated in the room. Decided by the ids it assigned, never by
+     * the look of the id: a human may well call themselves "bot-…".
+     */
+    public boolean isBot(String roomId, String playerId) {
+        Map<String, BotStrategy> bots = roomId == null ? null : rooms.get(roomId);
+        return bots != null && playerId != null && bots.containsKey(playerId);
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 🪑 SEATING
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Seats up to {@code count} bots in the room, fewer if the node's {@code max-bots} would be exceeded.
+     * Without a strategy, bots take the configured strategies in turn.
+     *
+     * @return the ids of the seated bots
+     * @throws IllegalArgumentException if the room is not on this node
+     */
+    public List<String> addBots(String roomId, int count, BotStrategy strategy) {
+        GameRoom room = engine.getRoom(roomId);
+        if (room == null) {
+            throw new IllegalArgumentException("Room not found: " + roomId);
+        }
+        List<String> ids = new ArrayList<>();
+        Map<String, BotStrategy> bots = rooms.computeIfAbsent(roomId, id -> new ConcurrentHashMap<>());
+        while (ids.size() < count && active.get() < maxBots) {
+            long n = sequence.incrementAndGet();
+            String botId = ID_PREFIX + nodeId + "-" + n;
+            if (room.getPlayers().containsKey(botId)) {
+                // A human already sits under this id; joining would not seat anyone
+                continue;
+            }
+            BotStrategy chosen = strategy != null ? strategy : strategies.get((int) (n % strategies.size()));
+            engine.joinRoom(roomId, botId);
+            bots.put(botId, chosen);
+            active.incrementAndGet();
+            seated.increment();
+            ids.add(botId);
+        }
+        if (!ids.isEmpty()) {
+            log.info("🤖 Seated {} bot(s) in room {}", ids.size(), roomId);
+        }
+        return ids;
+    }
+
+    private void sweep() {
+        Set<String> roomIds = engine.getRoomIds();
+        // Rooms replaced or dropped without a GAME_FINISHED still hold their bots' seats
+        rooms.keySet().stream().filter(roomId -> !roomIds.contains(roomId)).toList().forEach(this::release);
+        if (autoFill) {
+            fillLobbies(roomIds);
+        }
+    }
+
+    /** Fills rooms that have waited long enough in the lobby. */
+    private void fillLobbies(Set<String> roomIds) {
+        long now = scheduler.currentTimeMillis();
+        lobbySince.keySet().retainAll(roomIds);
+        for (String roomId : roomIds) {
+            RoomSnapshot room = engine.getSnapshot(roomId);
+            if (room == null || room.getCurrentState() != GameState.WAITING || room.getPlayerCount() >= minPlayers
+                    || tournamentService.isTournamentRoom(roomId)) {
+                lobbySince.remove(roomId);
+                continue;
+            }
+            long since = lobbySince.computeIfAbsent(roomId, id -> now);
+            if (now - since >= fillAfterMillis) {
+                lobbySince.remove(roomId);
+                try {
+                    addBots(roomId, minPlayers - room.getPlayerCount(), null);
+                } catch (RuntimeException e) {
+                    // The room went away between the snapshot and the join
+                    log.debug("Could not fill room {}: {}", roomId, e.getMessage());
+                }
+            }
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 🎲 PLAYING
+    // ═══════════════════════════════════════════════════════════
+
+    @EventListener
+    public void onGameEvent(GameEvent event) {
+        String roomId = event.getRoomId();
+        switch (event.getType()) {
+            case PHASE_STARTED -> {
+                if (!rooms.containsKey(roomId)) {
+                    return;
+                }
+                if (GameState.BLIND_BET.name().equals(event.getValue())) {
+                    scheduler.schedule(() -> placeBets(roomId), betDelayMillis);
+                } else if (GameState.CLOSING.name().equals(event.getValue())) {
+                    scheduler.schedule(() -> answer(roomId), answerDelayMillis);
+                }
+            }
+            case GAME_FINISHED, ROOM_MIGRATED -> release(roomId);
+            default -> { }
+        }
+    }
+
+    private void release(String roomId) {
+        Map<String, BotStrategy> released = rooms.remove(roomId);
+        if (released != null) {
+            active.addAndGet(-released.size());
+            log.info("🤖 Released {} bot(s) of room {}", released.size(), roomId);
+        }
+    }
+
+    private void placeBets(String roomId) {
+        Map<String, BotStrategy> bots = rooms.get(roomId);
+        RoomSnapshot room = engine.getSnapshot(roomId);
+        if (bots == null || room == null || room.getCurrentState() != GameState.BLIND_BET) {
+            return;
+        }
+        long traders = room.getPlayers().values().stream()
+                .filter(p -> !bots.containsKey(p.getId()) && p.getRole() == Player.Role.TRADER)
+                .count();
+        for (String botId : sorted(bots)) {
+            Player self = room.getPlayers().get(botId);
+            if (self == null) {
+                continue;
+            }
+            BotStrategy strategy = bots.get(botId);
+            boolean trader = traders < MIN_TRADERS || strategy.prefersTrader(random);
+            if (trader) {
+                traders++;
+            }
+            submit(roomId, botId, List.of(
+                    new RoomAction.Role(trader ? Player.Role.TRADER.name() : Player.Role.INVESTOR.name()),
+                    new RoomAction.Bet(strategy.bet(self, random))));
+        }
+    }
+
+    private void answer(String roomId) {
+        Map<String, BotStrategy> bots = rooms.get(roomId);
+        RoomSnapshot room = engine.getSnapshot(roomId);
+        if (bots == null || room == null || room.getCurrentState() != GameState.CLOSING) {
+            return;
+        }
+        List<Player> traders = room.getPlayers().values().stream()
+                .filter(p -> p.getRole() == Player.Role.TRADER)
+                .toList();
+        for (String botId : sorted(bots)) {
+            Player self = room.getPlayers().get(botId);
+            if (self == null || self.getRole() == null) {
+                continue;
+            }
+            BotStrategy strategy = bots.get(botId);
+            if (self.getRole() == Player.Role.TRADER) {
+                submit(roomId, botId, List.of(
+                        new RoomAction.Answer(strategy.answer(self, room.getCurrentQuestion(), random))));
+            } else if (!traders.isEmpty()) {
+                submit(roomId, botId, List.of(new RoomAction.Invest(strategy.invest(self, traders, random))));
+            }
+        }
+    }
+
+    /** Bots of a room in a fixed order, so a seeded game replays the same decisions. */
+    private static List<String> sorted(Map<String, BotStrategy> bots) {
+        return bots.keySet().stream().sorted().toList();
+    }
+
+    private void submit(String roomId, String botId, List<RoomAction> actions) {
+        if (commandRateLimiter.tryAcquire(roomId, botId) != CommandRateLimiter.Verdict.ADMITTED) {
+            limited.increment();
+            return;
+        }
+        try {
+            engine.applyActions(roomId, botId, actions);
+            commands.increment();
+        } catch (RuntimeException e) {
+            rejected.increment();
+            tracer.trace(roomId, "❌ Bot {} action batch failed: {}", botId, e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", active.get());
+        stats.put("rooms", rooms.size());
+        stats.put("seated", seated.sum());
+        stats.put("commands", commands.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("rateLimited", limited.sum());
+        stats.put("strategies", strategies);
+        return stats;
+    }
+}
@@ -0,0 +1,88 @@
+package com.trustmarket.game.service.bot;
+
+import com.trustmarket.game.model.game.Player;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * How a bot plays. A bot only sees what a human in its seat would: its own cash and roles, the public
+ * roles and cash of the table, and the correct answer only when it is the Oracle.
+ */
+public enum BotStrategy {
+
+    /** Coin-flip roles, bets up to a quarter of its cash, answers and invests at random. */
+    RANDOM {
+        @Override
+        boolean prefersTrader(Random random) {
+            return random.nextDouble() < 0.4;
+        }
+
+        @Override
+        double bet(Player self, Random random) {
+            return Math.floor(1 + random.nextDouble() * Math.max(1, self.getCash() / 4));
+        }
+
+        @Override
+        String invest(Player self, List<Player> traders, Random random) {
+            return traders.get(random.nextInt(traders.size())).getId();
+        }
+    },
+
+    /** Always trades, with a steady tenth of its cash. */
+    TRADER {
+        @Override
+        boolean prefersTrader(Random random) {
+            return true;
+        }
+
+        @Override
+        double bet(Player self, Random random) {
+            return Math.floor(self.getCash() / 10);
+        }
+
+        @Override
+        String invest(Player self, List<Player> traders, Random random) {
+            return RANDOM.invest(self, traders, random);
+        }
+    },
+
+    /** Invests a fifth of its cash behind the richest trader at the table. */
+    INVESTOR {
+        @Override
+        boolean prefersTrader(Random random) {
+            return false;
+        }
+
+        @Override
+        double bet(Player self, Random random) {
+            return Math.floor(self.getCash() / 5);
+        }
+
+        @Override
+        String invest(Player self, List<Player> traders, Random random) {
+            return traders.stream().max(Comparator.comparingDouble(Player::getCash)).orElseThrow().getId();
+        }
+    };
+
+    static final List<String> ANSWERS = List.of("A", "B", "C", "D");
+
+    /** The public role it picks when the table already has enough traders. */
+    abstract boolean prefersTrader(Random random);
+
+    abstract double bet(Player self, Random random);
+
+    /** A trader's answer: the Oracle's private frame carries the correct one, everyone else guesses. */
+    String answer(Player self, Map<String, Object> question, Random random) {
+        Object correct = question == null ? null : question.get("correctAnswer");
+        if (self.getSecretRole() == Player.SecretRole.ORACLE && correct != null) {
+            return correct.toString();
+        }
+        return ANSWERS.get(random.nextInt(ANSWERS.size()));
+    }
+
+    /** An investor's target, from a non-empty list of the table's traders. */
+    abstract String invest(Player self, List<Player> traders, Random random);
+}
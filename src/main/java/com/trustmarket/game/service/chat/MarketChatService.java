@@ -0,0 +1,268 @@
+package com.trustmarket.game.service.chat;
+
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.model.game.RoomSnapshot;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.scheduling.GameScheduler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import tools.jackson.core.io.JsonStringEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Table talk during {@link GameState#MARKET_CHAT}: seated players send to {@code /app/game/chat} and the
+ * room receives JSON arrays of messages on {@code /topic/game/{roomId}/chat}.
+ * <p>
+ * Each message is encoded to JSON exactly once, when it arrives, with Jackson's string quoting rather than
+ * an object mapper. Messages are buffered per room and flushed every {@code game.chat.batch-ms} as a single
+ * broker message, so a burst of chat costs one frame per room per window instead of one per line. The
+ * encoded bytes also go into a per-room ring of the last {@code game.chat.history} messages, which late
+ * joiners fetch by subscribing to {@code /app/game/chat/{roomId}}.
+ * <p>
+ * Players get {@code game.chat.rate-limit} messages per {@code game.chat.rate-window-ms}; anything over
+ * that, outside the chat phase or from someone not seated is dropped and counted, without a reply.
+ */
+@Slf4j
+@Component
+public class MarketChatService {
+
+    public static final String TOPIC_SUFFIX = "/chat";
+    private static final byte[] EMPTY_ARRAY = {'[', ']'};
+
+    private final GameEngine gameEngine;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final GameScheduler scheduler;
+    private final long batchMillis;
+    private final int historySize;
+    private final int maxLength;
+    private final int rateLimit;
+    private final long rateWindowMillis;
+
+    private final Map<String, RoomChat> rooms = new ConcurrentHashMap<>();
+    private final Set<String> dirtyRooms = ConcurrentHashMap.newKeySet();
+    private final Map<String, RateWindow> rateWindows = new ConcurrentHashMap<>();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong framesSent = new AtomicLong();
+    private GameScheduler.Cancellable ticker;
+
+    public MarketChatService(
+            GameEngine gameEngine,
+            SimpMessagingTemplate messagingTemplate,
+            GameScheduler scheduler,
+            @Value("${game.chat.batch-ms:100}") long batchMillis,
+            @Value("${game.chat.history:50}") int historySize,
+            @Value("${game.chat.max-length:280}") int maxLength,
+            @Value("${game.chat.rate-limit:5}") int rateLimit,
+            @Value("${game.chat.rate-window-ms:5000}") long rateWindowMillis
+    ) {
+        this.gameEngine = gameEngine;
+        this.messagingTemplate = messagingTemplate;
+        this.scheduler = scheduler;
+        this.batchMillis = batchMillis;
+        this.historySize = historySize;
+        this.maxLength = maxLength;
+        this.rateLimit = rateLimit;
+        this.rateWindowMillis = rateWindowMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = scheduler.scheduleAtFixedRate(this::flush, batchMillis, batchMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.cancel();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 💬 INBOUND
+    // ═══════════════════════════════════════════════════════════
+
+    /** @return whether the message was accepted for the next batch */
+    public boolean post(String roomId, String playerId, String text) {
+        if (roomId == null || text == null || text.isBlank()) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        RoomSnapshot room = gameEngine.getSnapshot(roomId);
+        Player player = room == null ? null : room.getPlayers().get(playerId);
+        if (player == null || room.getCurrentState() != GameState.MARKET_CHAT) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        long now = scheduler.currentTimeMillis();
+        if (!rateWindows.computeIfAbsent(playerId, id -> new RateWindow()).tryAcquire(now)) {
+            rateLimited.incrementAndGet();
+            return false;
+        }
+
+        String trimmed = text.strip();
+        if (trimmed.length() > maxLength) {
+            trimmed = trimmed.substring(0, maxLength);
+        }
+        rooms.computeIfAbsent(roomId, id -> new RoomChat(historySize))
+                .append(playerId, player.getDisplayName(), trimmed, now);
+        dirtyRooms.add(roomId);
+        accepted.incrementAndGet();
+        return true;
+    }
+
+    /** Recent messages of a room as a JSON array, oldest first. */
+    public String history(String roomId) {
+        RoomChat chat = rooms.get(roomId);
+        return new String(chat == null ? EMPTY_ARRAY : chat.history(), StandardCharsets.UTF_8);
+    }
+
+    @EventListener
+    public void onGameEvent(GameEvent event) {
+        if (event.getType() == GameEvent.Type.GAME_FINISHED || event.getType() == GameEvent.Type.ROOM_MIGRATED) {
+            rooms.remove(event.getRoomId());
+            dirtyRooms.remove(event.getRoomId());
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 📡 MICRO-BATCHED BROADCAST
+    // ═══════════════════════════════════════════════════════════
+
+    void flush() {
+        try {
+            for (String roomId : dirtyRooms) {
+                dirtyRooms.remove(roomId);
+                RoomChat chat = rooms.get(roomId);
+                byte[] frame = chat == null ? null : chat.drainPending();
+                if (frame != null) {
+                    send(roomId, frame);
+                }
+            }
+            long now = scheduler.currentTimeMillis();
+            rateWindows.values().removeIf(window -> window.isIdle(now));
+        } catch (Exception e) {
+            log.error("❌ Chat flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void send(String roomId, byte[] frame) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        headers.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(frame, headers.getMessageHeaders());
+        messagingTemplate.send("/topic/game/" + roomId + TOPIC_SUFFIX, message);
+        framesSent.incrementAndGet();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("batchMs", batchMillis);
+        stats.put("rooms", rooms.size());
+        stats.put("accepted", accepted.get());
+        stats.put("rateLimited", rateLimited.get());
+        stats.put("rejected", rejected.get());
+        stats.put("framesSent", framesSent.get());
+        return stats;
+    }
+
+    /** Fixed-window message allowance of one player. */
+    private final class RateWindow {
+
+        private long windowStart = -1;
+        private int used;
+
+        synchronized boolean tryAcquire(long now) {
+            if (windowStart < 0 || now - windowStart >= rateWindowMillis) {
+                windowStart = now;
+                used = 0;
+            }
+            return ++used <= rateLimit;
+        }
+
+        synchronized boolean isIdle(long now) {
+            return now - windowStart >= 2 * rateWindowMillis;
+        }
+    }
+
+    /**
+     * Pre-encoded messages of one room: a ring of the most recent ones and the ones not yet broadcast.
+     */
+    private static final class RoomChat {
+
+        private final byte[][] ring;
+        private int next;
+        private int size;
+        private long sequence;
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream(1024);
+
+        RoomChat(int capacity) {
+            this.ring = new byte[Math.max(1, capacity)][];
+        }
+
+        synchronized void append(String playerId, String name, String text, long sentAt) {
+            byte[] encoded = encode(++sequence, playerId, name, text, sentAt);
+            ring[next] = encoded;
+            next = (next + 1) % ring.length;
+            size = Math.min(size + 1, ring.length);
+            pending.write(pending.size() == 0 ? '[' : ',');
+            pending.writeBytes(encoded);
+        }
+
+        /** @return the pending messages as one JSON array, or null if there are none */
+        synchronized byte[] drainPending() {
+            if (pending.size() == 0) {
+                return null;
+            }
+            pending.write(']');
+            byte[] frame = pending.toByteArray();
+            pending.reset();
+            return frame;
+        }
+
+        synchronized byte[] history() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(size * 96 + 2);
+            out.write('[');
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.writeBytes(ring[(next - size + i + ring.length) % ring.length]);
+            }
+            out.write(']');
+            return out.toByteArray();
+        }
+
+        private static byte[] encode(long seq, String playerId, String name, String text, long sentAt) {
+            JsonStringEncoder quote = JsonStringEncoder.getInstance();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(64 + text.length());
+            out.writeBytes(("{\"seq\":" + seq + ",\"playerId\":\"").getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(quote.quoteAsUTF8(playerId));
+            out.writeBytes("\",\"name\":\"".getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(quote.quoteAsUTF8(name == null ? "" : name));
+            out.writeBytes("\",\"text\":\"".getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(quote.quoteAsUTF8(text));
+            out.writeBytes(("\",\"sentAt\":" + sentAt + "}").getBytes(StandardCharsets.UTF_8));
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.trustmarket.game.service.lobby;
+
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.RoomSnapshot;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.scheduling.GameScheduler;
+import com.trustmarket.game.service.tournament.TournamentService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closes lobbies nobody starts. A room still WAITING {@code game.lobby.max-wait-ms} after it was first seen
+ * there is stopped like any other game: its unplayed {@code GAME_FINISHED} lets the journal reclaim the
+ * segments the lobby wrote to and releases any bots seated in it. Tournament tables are left alone: they wait
+ * in WAITING for their scheduled start, however far off that is.
+ */
+@Slf4j
+@Component
+public class LobbyReaper {
+
+    private final GameEngine engine;
+    private final GameScheduler scheduler;
+    private final TournamentService tournamentService;
+    private final long maxWaitMillis;
+    private final long sweepMillis;
+
+    private final Map<String, Long> waitingSince = new ConcurrentHashMap<>();
+    private final LongAdder expired = new LongAdder();
+    private GameScheduler.Cancellable sweeper;
+
+    public LobbyReaper(
+            GameEngine engine,
+            GameScheduler scheduler,
+            TournamentService tournamentService,
+            @Value("${game.lobby.max-wait-ms:1800000}") long maxWaitMillis,
+            @Value("${game.lobby.sweep-ms:60000}") long sweepMillis
+    ) {
+        this.engine = engine;
+        this.scheduler = scheduler;
+        this.tournamentService = tournamentService;
+        this.maxWaitMillis = maxWaitMillis;
+        this.sweepMillis = sweepMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (maxWaitMillis > 0) {
+            sweeper = scheduler.scheduleAtFixedRate(this::expireIdleLobbies, sweepMillis, sweepMillis);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.cancel();
+        }
+    }
+
+    /** Stops rooms that have waited too long in the lobby; package-private for tests. */
+    void expireIdleLobbies() {
+        long now = scheduler.currentTimeMillis();
+        Set<String> roomIds = engine.getRoomIds();
+        waitingSince.keySet().retainAll(roomIds);
+        for (String roomId : roomIds) {
+            RoomSnapshot room = engine.getSnapshot(roomId);
+            if (room == null || room.getCurrentState() != GameState.WAITING
+                    || tournamentService.isTournamentRoom(roomId)) {
+                waitingSince.remove(roomId);
+                continue;
+            }
+            long since = waitingSince.computeIfAbsent(roomId, id -> now);
+            if (now - since >= maxWaitMillis) {
+                waitingSince.remove(roomId);
+                engine.stopGame(roomId);
+                expired.increment();
+                log.info("🧹 Lobby {} closed after {} s in WAITING", roomId, (now - since) / 1000);
+            }
+        }
+    }
+
+    public long getExpired() {
+        return expired.sum();
+    }
+}
@@ -0,0 +1,20 @@
+package com.trustmarket.game.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** A room state broadcast: encoding the room's public view (or reusing it) and handing it to the broker. */
+@Name("trustmarket.Broadcast")
+@Label("Room Broadcast")
+@Category({"TrustMarket", "Messaging"})
+public class BroadcastEvent extends jdk.jfr.Event {
+
+    @Label("Destination")
+    public String destination;
+
+    @Label("Payload Size")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,151 @@
+package com.trustmarket.game.service.profiling;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A rolling JDK Flight Recorder recording of this node, started and dumped from the admin API. It keeps the
+ * last {@code game.profiling.max-age-minutes} (at most {@code max-size-mb}) of JVM events plus the engine's
+ * own ({@link TickEvent}, {@link PhaseTransitionEvent}, {@link BroadcastEvent}, {@link SettlementEvent},
+ * {@link QuestionGenerationEvent}), so when tick lag spikes the minutes before it can be dumped and opened
+ * in JDK Mission Control.
+ * <p>
+ * The {@code default} JFR settings cost around 1% and are meant to stay on; {@code profile} samples more
+ * and is for short investigations. With {@code game.profiling.continuous=true} the recording starts with the
+ * node.
+ */
+@Slf4j
+@Component
+public class FlightRecorderService {
+
+    static final String RECORDING_NAME = "trustmarket";
+    static final List<Class<? extends jdk.jfr.Event>> ENGINE_EVENTS = List.of(TickEvent.class,
+            PhaseTransitionEvent.class, BroadcastEvent.class, SettlementEvent.class, QuestionGenerationEvent.class);
+
+    private final String nodeId;
+    private final Path dumpDirectory;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final boolean continuous;
+
+    private Recording recording;
+    private String settings;
+    private Path lastDump;
+
+    public FlightRecorderService(
+            @Value("${game.cluster.node-id:local}") String nodeId,
+            @Value("${game.profiling.dump-dir:${java.io.tmpdir}}") String dumpDirectory,
+            @Value("${game.profiling.max-age-minutes:30}") long maxAgeMinutes,
+            @Value("${game.profiling.max-size-mb:250}") long maxSizeMb,
+            @Value("${game.profiling.continuous:false}") boolean continuous
+    ) {
+        this.nodeId = nodeId;
+        this.dumpDirectory = Path.of(dumpDirectory);
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.continuous = continuous;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (continuous) {
+            start("default");
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            log.info("🎥 Flight recording stopped");
+        }
+    }
+
+    /**
+     * Starts the rolling recording with a JFR settings file ({@code default} or {@code profile}); a running
+     * recording is replaced.
+     *
+     * @throws IllegalArgumentException if the JVM has no such settings
+     */
+    public synchronized Map<String, Object> start(String settingsName) {
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settingsName);
+        }
+        stop();
+        Recording started = new Recording(configuration);
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(maxSizeBytes);
+        ENGINE_EVENTS.forEach(type -> started.enable(type));
+        started.start();
+        recording = started;
+        settings = settingsName;
+        log.info("🎥 Flight recording started ({} settings, keeping {} / {} MB)", settingsName, maxAge,
+                maxSizeBytes / (1024 * 1024));
+        return status();
+    }
+
+    /**
+     * Writes what the recording currently holds to {@code trustmarket-<node>.jfr} in
+     * {@code game.profiling.dump-dir}; the recording keeps running. Each dump replaces the previous one, so the
+     * node never holds more than one file of at most {@code max-size-mb}. The replacement is an atomic move, so
+     * a download of the previous dump still in progress keeps reading the old file.
+     *
+     * @throws IllegalStateException if no recording is running
+     */
+    public synchronized Path dump() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new IllegalStateException("No flight recording is running");
+        }
+        Path file = dumpDirectory.resolve(RECORDING_NAME + "-" + nodeId + ".jfr");
+        Path partial = dumpDirectory.resolve(file.getFileName() + ".part");
+        try {
+            Files.createDirectories(dumpDirectory);
+            Files.deleteIfExists(partial);
+            recording.dump(partial);
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        lastDump = file;
+        log.info("🎥 Flight recording dumped to {}", file);
+        return file;
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        boolean running = recording != null && recording.getState() == RecordingState.RUNNING;
+        status.put("running", running);
+        if (running) {
+            status.put("settings", settings);
+            status.put("startedAt", recording.getStartTime());
+            status.put("maxAgeMinutes", maxAge.toMinutes());
+            status.put("maxSizeMb", maxSizeBytes / (1024 * 1024));
+        }
+        status.put("dumpDirectory", dumpDirectory.toString());
+        status.put("lastDump", lastDump == null ? null : lastDump.toString());
+        return status;
+    }
+}
@@ -0,0 +1,24 @@
+package com.trustmarket.game.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** A room entering a phase; the duration covers the entry work (events, snapshot, first broadcast). */
+@Name("trustmarket.PhaseTransition")
+@Label("Phase Transition")
+@Category({"TrustMarket", "Engine"})
+public class PhaseTransitionEvent extends jdk.jfr.Event {
+
+    @Label("Room")
+    public String roomId;
+
+    @Label("Round")
+    public int round;
+
+    @Label("From")
+    public String from;
+
+    @Label("To")
+    public String to;
+}
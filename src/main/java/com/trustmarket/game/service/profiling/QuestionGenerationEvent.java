@@ -0,0 +1,23 @@
+package com.trustmarket.game.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One {@code AIService.generateQuestion} call; the duration is its latency. */
+@Name("trustmarket.QuestionGeneration")
+@Label("Question Generation")
+@Category({"TrustMarket", "AI"})
+public class QuestionGenerationEvent extends jdk.jfr.Event {
+
+    public static final String GENERATED = "GENERATED";
+    public static final String NO_API_KEY = "NO_API_KEY";      // fallback question, no call made
+    public static final String REQUEST_FAILED = "REQUEST_FAILED";
+    public static final String UNPARSEABLE = "UNPARSEABLE";
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Outcome")
+    public String outcome;
+}
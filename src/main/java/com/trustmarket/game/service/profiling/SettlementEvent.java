@@ -0,0 +1,27 @@
+package com.trustmarket.game.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One {@code EconomyService.calculateRoundResult} call. */
+@Name("trustmarket.Settlement")
+@Label("Round Settlement")
+@Category({"TrustMarket", "Engine"})
+public class SettlementEvent extends jdk.jfr.Event {
+
+    @Label("Room")
+    public String roomId;
+
+    @Label("Players")
+    public int players;
+
+    @Label("Traders")
+    public int traders;
+
+    @Label("Investors")
+    public int investors;
+
+    @Label("Results")
+    public int results;
+}
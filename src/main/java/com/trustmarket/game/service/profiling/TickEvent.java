@@ -0,0 +1,28 @@
+package com.trustmarket.game.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * One run of a room's one-second game loop. {@code lag} is how late the tick started against its
+ * fixed-rate schedule: a rising lag with short ticks means the tick pool is starved, not that a tick is slow.
+ */
+@Name("trustmarket.Tick")
+@Label("Room Tick")
+@Category({"TrustMarket", "Engine"})
+public class TickEvent extends jdk.jfr.Event {
+
+    @Label("Room")
+    public String roomId;
+
+    @Label("State")
+    public String state;
+
+    @Label("Lag")
+    @Description("Start of the tick minus its scheduled time")
+    @Timespan(Timespan.MILLISECONDS)
+    public long lag;
+}
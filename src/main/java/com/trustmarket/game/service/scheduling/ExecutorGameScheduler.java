@@ -0,0 +1,113 @@
+package com.trustmarket.game.service.scheduling;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wall-clock scheduler: room ticks on a small scheduled pool of platform threads, async work (AI calls,
+ * settlement) either on a fixed platform pool or on one virtual thread per task, per {@link ExecutionMode}.
+ * <p>
+ * Ticks stay on platform threads in both modes: they are short, CPU-bound and latency-sensitive, so they
+ * gain nothing from virtual threads. Async work mostly waits on I/O, and with a fixed pool one slow AI call
+ * holds up every room queued behind it.
+ */
+public class ExecutorGameScheduler implements GameScheduler {
+
+    public enum ExecutionMode {
+        PLATFORM,   // async work shares a fixed pool of asyncThreads
+        VIRTUAL;    // every async task gets its own virtual thread
+
+        public static ExecutionMode parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final ExecutionMode mode;
+    private final int tickThreads;
+    private final int asyncThreads;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService asyncExecutor;
+
+    private final LongAdder submitted = new LongAdder();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger peakRunning = new AtomicInteger();
+
+    public ExecutorGameScheduler() {
+        this(10, 5);
+    }
+
+    public ExecutorGameScheduler(int tickThreads, int asyncThreads) {
+        this(tickThreads, asyncThreads, ExecutionMode.PLATFORM);
+    }
+
+    public ExecutorGameScheduler(int tickThreads, int asyncThreads, ExecutionMode mode) {
+        this.mode = mode;
+        this.tickThreads = tickThreads;
+        this.asyncThreads = asyncThreads;
+        this.scheduler = Executors.newScheduledThreadPool(tickThreads,
+                Thread.ofPlatform().name("game-tick-", 1).factory());
+        this.asyncExecutor = mode == ExecutionMode.VIRTUAL
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("game-async-", 1).factory())
+                : Executors.newFixedThreadPool(asyncThreads, Thread.ofPlatform().name("game-async-", 1).factory());
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public Cancellable scheduleAtFixedRate(Runnable task, long initialDelayMillis, long periodMillis) {
+        ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(
+                task, initialDelayMillis, periodMillis, TimeUnit.MILLISECONDS);
+        return () -> future.cancel(true);
+    }
+
+    @Override
+    public Cancellable schedule(Runnable task, long delayMillis) {
+        ScheduledFuture<?> future = scheduler.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        return () -> future.cancel(false);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        submitted.increment();
+        asyncExecutor.execute(() -> {
+            peakRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                task.run();
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        scheduler.shutdownNow();
+        asyncExecutor.shutdownNow();
+    }
+
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", mode);
+        stats.put("tickThreads", tickThreads);
+        stats.put("asyncThreads", mode == ExecutionMode.VIRTUAL ? "per task" : asyncThreads);
+        stats.put("asyncSubmitted", submitted.sum());
+        stats.put("asyncRunning", running.get());
+        stats.put("asyncPeakRunning", peakRunning.get());
+        return stats;
+    }
+}
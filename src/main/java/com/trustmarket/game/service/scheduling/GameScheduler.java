@@ -0,0 +1,29 @@
+package com.trustmarket.game.service.scheduling;
+
+/**
+ * Time source and task runner for {@link com.trustmarket.game.service.GameEngine}.
+ * <p>
+ * Production uses {@link ExecutorGameScheduler} (wall clock, thread pools); simulations use
+ * {@link VirtualGameScheduler}, where time only moves when the caller advances it.
+ */
+public interface GameScheduler {
+
+    /** Current time on this scheduler's clock, in epoch milliseconds. */
+    long currentTimeMillis();
+
+    /** Runs {@code task} every {@code periodMillis}, first after {@code initialDelayMillis}. */
+    Cancellable scheduleAtFixedRate(Runnable task, long initialDelayMillis, long periodMillis);
+
+    /** Runs {@code task} once, after {@code delayMillis}, on the tick threads. */
+    Cancellable schedule(Runnable task, long delayMillis);
+
+    /** Runs {@code task} off the tick (AI calls, settlement). */
+    void execute(Runnable task);
+
+    void shutdown();
+
+    @FunctionalInterface
+    interface Cancellable {
+        void cancel();
+    }
+}
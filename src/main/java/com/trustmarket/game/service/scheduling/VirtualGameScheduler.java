@@ -0,0 +1,109 @@
+package com.trustmarket.game.service.scheduling;
+
+import java.util.PriorityQueue;
+
+/**
+ * Discrete-event scheduler on a virtual clock. Nothing runs until {@link #advanceBy(long)} or
+ * {@link #advanceTo(long)} is called; time then jumps straight from one due task to the next, so a
+ * 95-second round costs only the CPU time of its ticks.
+ * <p>
+ * Tasks run on the calling thread in (due time, submission order), which makes a simulation fully
+ * deterministic. Async work submitted through {@link #execute(Runnable)} runs at the current virtual
+ * instant, after the task that submitted it. Not thread-safe: drive it from a single thread.
+ */
+public class VirtualGameScheduler implements GameScheduler {
+
+    private final PriorityQueue<ScheduledTask> queue = new PriorityQueue<>();
+    private long now;
+    private long sequence;
+
+    public VirtualGameScheduler() {
+        this(0L);
+    }
+
+    public VirtualGameScheduler(long startMillis) {
+        this.now = startMillis;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return now;
+    }
+
+    @Override
+    public Cancellable scheduleAtFixedRate(Runnable task, long initialDelayMillis, long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("periodMillis must be positive");
+        }
+        ScheduledTask scheduled = new ScheduledTask(task, now + initialDelayMillis, periodMillis, sequence++);
+        queue.add(scheduled);
+        return () -> scheduled.cancelled = true;
+    }
+
+    @Override
+    public Cancellable schedule(Runnable task, long delayMillis) {
+        ScheduledTask scheduled = new ScheduledTask(task, now + Math.max(0, delayMillis), 0, sequence++);
+        queue.add(scheduled);
+        return () -> scheduled.cancelled = true;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        queue.add(new ScheduledTask(task, now, 0, sequence++));
+    }
+
+    /** Runs every task due within the next {@code millis} of virtual time. */
+    public void advanceBy(long millis) {
+        advanceTo(now + millis);
+    }
+
+    /** Runs every task due up to and including {@code targetMillis}, then parks the clock there. */
+    public void advanceTo(long targetMillis) {
+        ScheduledTask next;
+        while ((next = queue.peek()) != null && next.dueMillis <= targetMillis) {
+            queue.poll();
+            if (next.cancelled) {
+                continue;
+            }
+            now = Math.max(now, next.dueMillis);
+            next.task.run();
+            if (next.periodMillis > 0 && !next.cancelled) {
+                next.dueMillis += next.periodMillis;
+                next.order = sequence++;
+                queue.add(next);
+            }
+        }
+        now = Math.max(now, targetMillis);
+    }
+
+    /** @return true while any non-cancelled task is still queued */
+    public boolean hasPendingTasks() {
+        return queue.stream().anyMatch(t -> !t.cancelled);
+    }
+
+    @Override
+    public void shutdown() {
+        queue.clear();
+    }
+
+    private static final class ScheduledTask implements Comparable<ScheduledTask> {
+        private final Runnable task;
+        private final long periodMillis;
+        private long dueMillis;
+        private long order;
+        private volatile boolean cancelled;
+
+        private ScheduledTask(Runnable task, long dueMillis, long periodMillis, long order) {
+            this.task = task;
+            this.dueMillis = dueMillis;
+            this.periodMillis = periodMillis;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(ScheduledTask other) {
+            int byTime = Long.compare(dueMillis, other.dueMillis);
+            return byTime != 0 ? byTime : Long.compare(order, other.order);
+        }
+    }
+}
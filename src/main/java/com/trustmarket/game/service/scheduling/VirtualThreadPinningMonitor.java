@@ -0,0 +1,115 @@
+package com.trustmarket.game.service.scheduling;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier, which happens when one blocks inside a
+ * {@code synchronized} block or a native frame. A pinned thread holds one of the few carrier threads, so
+ * this is what erodes {@link ExecutorGameScheduler.ExecutionMode#VIRTUAL}.
+ * <p>
+ * Listens to JFR's {@code jdk.VirtualThreadPinned} in-process while the scheduler runs in virtual mode, and
+ * counts pins longer than {@code game.scheduler.pinning-threshold-ms} by the code that caused them (0
+ * turns it off). For a one-off trace without JFR, start the JVM with {@code -Djdk.tracePinnedThreads=short}.
+ */
+@Slf4j
+@Component
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_SITES = 50;
+    private static final String OWN_PACKAGE = "com.trustmarket.";
+
+    private final GameScheduler scheduler;
+    private final long thresholdMillis;
+
+    private final LongAdder pinned = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            GameScheduler scheduler,
+            @Value("${game.scheduler.pinning-threshold-ms:20}") long thresholdMillis
+    ) {
+        this.scheduler = scheduler;
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        boolean virtual = scheduler instanceof ExecutorGameScheduler executor
+                && executor.getMode() == ExecutorGameScheduler.ExecutionMode.VIRTUAL;
+        if (!virtual || thresholdMillis <= 0) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("📌 Watching for virtual threads pinned longer than {}ms", thresholdMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    void onPinned(RecordedEvent event) {
+        pinned.increment();
+        pinnedNanos.add(event.getDuration().toNanos());
+        String site = siteOf(event.getStackTrace());
+        if (sites.size() < MAX_SITES || sites.containsKey(site)) {
+            sites.computeIfAbsent(site, s -> new LongAdder()).increment();
+        }
+        String thread = event.getThread() == null ? "?" : event.getThread().getJavaName();
+        log.warn("📌 Virtual thread {} pinned for {}ms at {}", thread, event.getDuration().toMillis(), site);
+    }
+
+    /** The innermost frame of our own code, since the JDK frames on top (the lock or the I/O) say little. */
+    private static String siteOf(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        RecordedFrame site = frames.stream()
+                .filter(f -> f.isJavaFrame() && f.getMethod().getType().getName().startsWith(OWN_PACKAGE))
+                .findFirst()
+                .orElse(frames.get(0));
+        return site.getMethod().getType().getName() + "." + site.getMethod().getName() + ":" + site.getLineNumber();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (scheduler instanceof ExecutorGameScheduler executor) {
+            stats.putAll(executor.stats());
+        }
+        stats.put("pinningWatched", stream != null);
+        stats.put("pinningThresholdMillis", thresholdMillis);
+        stats.put("pinnedEvents", pinned.sum());
+        stats.put("pinnedMillis", pinnedNanos.sum() / 1_000_000);
+        Map<String, Long> top = new LinkedHashMap<>();
+        sites.entrySet().stream()
+                .sorted((x, y) -> Long.compare(y.getValue().sum(), x.getValue().sum()))
+                .limit(10)
+                .forEach(e -> top.put(e.getKey(), e.getValue().sum()));
+        stats.put("pinnedSites", top);
+        return stats;
+    }
+}
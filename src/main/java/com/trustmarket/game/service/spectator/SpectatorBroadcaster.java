@@ -0,0 +1,190 @@
+package com.trustmarket.game.service.spectator;
+
+import com.trustmarket.game.dto.response.SpectatorView;
+import com.trustmarket.game.model.game.RoomSnapshot;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.scheduling.GameScheduler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spectator tier: clients subscribed to {@code /topic/spectate/{roomId}} get a {@link SpectatorView} of the
+ * room every {@code game.spectators.interval-ms}, instead of the players' per-second, unfiltered
+ * {@code /topic/game/{roomId}} feed.
+ * <p>
+ * Each tick encodes one JSON frame per watched room, from the room's latest snapshot, and hands the bytes
+ * to the broker once; the broker only wraps that payload in per-subscription headers, so the cost of an
+ * extra spectator is the socket write. Rooms nobody watches are skipped, as are rooms whose snapshot has
+ * not changed since the last frame, unless someone new has subscribed to them since: a newcomer gets the
+ * room's current frame on the next tick even if it is idle.
+ */
+@Slf4j
+@Component
+public class SpectatorBroadcaster {
+
+    public static final String TOPIC_PREFIX = "/topic/spectate/";
+
+    private final GameEngine gameEngine;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final JsonMapper jsonMapper;
+    private final GameScheduler scheduler;
+    private final long intervalMillis;
+
+    private final Map<String, AtomicInteger> spectatorsByRoom = new ConcurrentHashMap<>();
+    // sessionId → subscriptionId → roomId, to undo unsubscribes (which carry no destination) and disconnects
+    private final Map<String, Map<String, String>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastSentVersion = new ConcurrentHashMap<>();
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong bytesEncoded = new AtomicLong();
+    private GameScheduler.Cancellable ticker;
+
+    public SpectatorBroadcaster(
+            GameEngine gameEngine,
+            SimpMessagingTemplate messagingTemplate,
+            JsonMapper jsonMapper,
+            GameScheduler scheduler,
+            @Value("${game.spectators.interval-ms:2000}") long intervalMillis
+    ) {
+        this.gameEngine = gameEngine;
+        this.messagingTemplate = messagingTemplate;
+        this.jsonMapper = jsonMapper;
+        this.scheduler = scheduler;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = scheduler.scheduleAtFixedRate(this::tick, intervalMillis, intervalMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.cancel();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 👀 SUBSCRIPTIONS
+    // ═══════════════════════════════════════════════════════════
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = headers.getDestination();
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX) || headers.getSessionId() == null) {
+            return;
+        }
+        String roomId = destination.substring(TOPIC_PREFIX.length());
+        String previous = subscriptions.computeIfAbsent(headers.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(String.valueOf(headers.getSubscriptionId()), roomId);
+        if (previous == null) {
+            // Counted inside compute: leave() may be dropping the room's counter at the same moment
+            spectatorsByRoom.compute(roomId, (id, count) -> {
+                AtomicInteger counter = count == null ? new AtomicInteger() : count;
+                counter.incrementAndGet();
+                return counter;
+            });
+            // The broker only routes frames sent after this subscription, so resend the room's current one
+            lastSentVersion.remove(roomId);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> session = subscriptions.get(headers.getSessionId());
+        if (session != null) {
+            leave(session.remove(String.valueOf(headers.getSubscriptionId())));
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> session = subscriptions.remove(event.getSessionId());
+        if (session != null) {
+            session.values().forEach(this::leave);
+        }
+    }
+
+    private void leave(String roomId) {
+        if (roomId == null) {
+            return;
+        }
+        spectatorsByRoom.computeIfPresent(roomId, (id, count) -> {
+            if (count.decrementAndGet() > 0) {
+                return count;
+            }
+            lastSentVersion.remove(id);
+            return null;
+        });
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 📡 FAN-OUT
+    // ═══════════════════════════════════════════════════════════
+
+    void tick() {
+        try {
+            spectatorsByRoom.keySet().forEach(this::broadcast);
+        } catch (Exception e) {
+            log.error("❌ Spectator broadcast failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void broadcast(String roomId) {
+        RoomSnapshot snapshot = gameEngine.getSnapshot(roomId);
+        if (snapshot == null) {
+            return;
+        }
+        Long last = lastSentVersion.put(roomId, snapshot.getVersion());
+        if (last != null && last == snapshot.getVersion()) {
+            return;
+        }
+        byte[] frame = jsonMapper.writeValueAsBytes(SpectatorView.of(snapshot));
+
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        headers.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(frame, headers.getMessageHeaders());
+        messagingTemplate.send(TOPIC_PREFIX + roomId, message);
+
+        framesSent.incrementAndGet();
+        bytesEncoded.addAndGet(frame.length);
+    }
+
+    public int getSpectators(String roomId) {
+        AtomicInteger count = spectatorsByRoom.get(roomId);
+        return count == null ? 0 : count.get();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Integer> rooms = new LinkedHashMap<>();
+        spectatorsByRoom.forEach((room, count) -> rooms.put(room, count.get()));
+        stats.put("intervalMs", intervalMillis);
+        stats.put("rooms", rooms);
+        stats.put("framesSent", framesSent.get());
+        stats.put("bytesEncoded", bytesEncoded.get());
+        return stats;
+    }
+}
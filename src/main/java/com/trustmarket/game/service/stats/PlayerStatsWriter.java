@@ -0,0 +1,280 @@
+package com.trustmarket.game.service.stats;
+
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.model.game.RoomSnapshot;
+import com.trustmarket.game.service.EconomyService;
+import com.trustmarket.game.service.GameEngine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind persistence of per-player stats ({@code users.total_games_played}, rounds, lifetime profit).
+ * <p>
+ * Settlements and finished games are turned into small deltas and queued; nothing on the game loop touches
+ * the database. A writer thread coalesces deltas per account and updates them in one JDBC batch, one
+ * transaction, whenever {@code batch-size} users are pending or {@code flush-interval-ms} has passed. A failed
+ * flush is retried with exponential backoff while new deltas keep accumulating in the bounded queue; once the
+ * queue is full, new deltas are dropped at once (counted in {@link #getDropped()}). Events arrive while the
+ * engine holds the room's lock, so waiting for space would stall the room and, on virtual threads, pin
+ * its carrier.
+ * <p>
+ * Stats are credited by {@code users.id} to the authenticated account a player joined with
+ * ({@link Player#getAccountId()}, read from the room's snapshot), never by the client-chosen display name.
+ * Guests and bots have no account and are skipped; no {@code users} row is ever created here.
+ * <p>
+ * Nothing in this application authenticates callers yet: no security filter or STOMP handshake handler sets a
+ * {@link java.security.Principal}, so every player currently joins as a guest and this writer stays inactive.
+ * It starts crediting stats as soon as an identity source supplies principals whose name is a
+ * {@code users.username} (see {@code UserProfileCache#accountId}).
+ */
+@Slf4j
+@Component
+public class PlayerStatsWriter {
+
+    static final String UPDATE_SQL = """
+            UPDATE users SET
+                total_games_played = total_games_played + ?,
+                total_rounds_played = total_rounds_played + ?,
+                lifetime_profit = lifetime_profit + ?
+            WHERE id = ?
+            """;
+
+    /** Stats to add to one account. */
+    record StatDelta(UUID accountId, int games, int rounds, double profit) {
+
+        StatDelta plus(StatDelta other) {
+            return new StatDelta(accountId, games + other.games, rounds + other.rounds, profit + other.profit);
+        }
+    }
+
+    private final GameEngine engine;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<StatDelta> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+
+    private final Queue<CompletableFuture<Void>> flushRequests = new ConcurrentLinkedQueue<>();
+    private final List<Consumer<List<String>>> flushListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running;
+    private Thread writer;
+
+    public PlayerStatsWriter(
+            GameEngine engine,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${game.stats.queue-capacity:10000}") int queueCapacity,
+            @Value("${game.stats.batch-size:500}") int batchSize,
+            @Value("${game.stats.flush-interval-ms:2000}") long flushIntervalMillis,
+            @Value("${game.stats.max-attempts:5}") int maxAttempts,
+            @Value("${game.stats.retry-backoff-ms:200}") long retryBackoffMillis
+    ) {
+        this.engine = engine;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "player-stats-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @EventListener
+    public void onGameEvent(GameEvent event) {
+        switch (event.getType()) {
+            case ROUND_SETTLED, MARKET_CRASH -> {
+                RoomSnapshot room = engine.getSnapshot(event.getRoomId());
+                if (room != null && event.getPayload() instanceof List<?> results) {
+                    for (Object r : results) {
+                        if (r instanceof EconomyService.RoundResult result) {
+                            enqueue(new StatDelta(accountOf(room, result.getPlayerId()), 0, 1,
+                                    result.getProfitLoss()));
+                        }
+                    }
+                }
+            }
+            case GAME_FINISHED -> {
+                // An empty participant list means the game never left WAITING
+                RoomSnapshot room = engine.getSnapshot(event.getRoomId());
+                if (room != null && event.getPayload() instanceof List<?> participants && !participants.isEmpty()) {
+                    room.getPlayers().values().forEach(p -> enqueue(new StatDelta(p.getAccountId(), 1, 0, 0)));
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private static UUID accountOf(RoomSnapshot room, String playerId) {
+        Player player = playerId == null ? null : room.getPlayers().get(playerId);
+        return player == null ? null : player.getAccountId();
+    }
+
+    void enqueue(StatDelta delta) {
+        if (delta.accountId() == null) {
+            return;
+        }
+        if (!queue.offer(delta)) {
+            dropped.incrementAndGet();
+            log.warn("⚠️ Stats queue full, dropped update for account {}", delta.accountId());
+        }
+    }
+
+    /** Writes everything queued so far and waits for it (tests, shutdown). */
+    public void flush() {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        flushRequests.add(done);
+        try {
+            done.get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("⚠️ Stats flush did not complete: {}", e.getMessage());
+        }
+    }
+
+    /** Called with the usernames of every successful flush, e.g. to invalidate cached users. */
+    public void addFlushListener(Consumer<List<String>> listener) {
+        flushListeners.add(listener);
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    public long getFlushes() {
+        return flushes.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // ✍️ WRITER THREAD
+    // ═══════════════════════════════════════════════════════════
+
+    private void writeLoop() {
+        Map<UUID, StatDelta> pending = new LinkedHashMap<>();
+        List<StatDelta> drained = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + flushIntervalMillis;
+
+        while (running || !queue.isEmpty() || !pending.isEmpty()) {
+            try {
+                long wait = Math.min(50, Math.max(0, deadline - System.currentTimeMillis()));
+                StatDelta first = queue.poll(wait, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    drained.add(first);
+                }
+                // Checked before draining: everything enqueued ahead of a flush request is then in this batch
+                boolean requested = !flushRequests.isEmpty();
+                queue.drainTo(drained);
+                drained.forEach(d -> pending.merge(d.accountId(), d, StatDelta::plus));
+                drained.clear();
+
+                boolean due = System.currentTimeMillis() >= deadline;
+                if (!pending.isEmpty() && (pending.size() >= batchSize || due || requested || !running)) {
+                    write(new ArrayList<>(pending.values()));
+                    pending.clear();
+                }
+                if (due) {
+                    deadline = System.currentTimeMillis() + flushIntervalMillis;
+                }
+                if (requested && queue.isEmpty()) {
+                    CompletableFuture<Void> done;
+                    while ((done = flushRequests.poll()) != null) {
+                        done.complete(null);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        flushRequests.forEach(done -> done.complete(null));
+    }
+
+    private void write(List<StatDelta> rows) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<String> usernames = transactionTemplate.execute(status -> {
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, rows, batchSize, (ps, d) -> {
+                        ps.setInt(1, d.games());
+                        ps.setInt(2, d.rounds());
+                        ps.setDouble(3, d.profit());
+                        ps.setObject(4, d.accountId());
+                    });
+                    // The cache is keyed by username; an account deleted meanwhile simply matches nothing
+                    String in = String.join(",", Collections.nCopies(rows.size(), "?"));
+                    return jdbcTemplate.queryForList("SELECT username FROM users WHERE id IN (" + in + ")",
+                            String.class, rows.stream().map(StatDelta::accountId).toArray());
+                });
+                rowsWritten.addAndGet(usernames.size());
+                flushes.incrementAndGet();
+                flushListeners.forEach(listener -> listener.accept(usernames));
+                log.debug("💾 Flushed stats for {} players", rows.size());
+                return;
+            } catch (DataAccessException e) {
+                if (attempt >= maxAttempts) {
+                    dropped.addAndGet(rows.size());
+                    log.error("❌ Giving up on stats for {} players after {} attempts: {}",
+                            rows.size(), attempt, e.getMessage());
+                    return;
+                }
+                retries.incrementAndGet();
+                long backoff = retryBackoffMillis << (attempt - 1);
+                log.warn("⚠️ Stats flush failed (attempt {}/{}), retrying in {} ms: {}",
+                        attempt, maxAttempts, backoff, e.getMessage());
+                Thread.sleep(backoff);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.trustmarket.game.service.tournament;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mutable state of one tournament. Every access goes through {@link TournamentService} while holding the
+ * tournament's monitor.
+ */
+final class Tournament {
+
+    enum Status {
+        SCHEDULED,  // rooms created and seated, none started yet
+        RUNNING,
+        FINISHED
+    }
+
+    static final class Table {
+        final String roomId;
+        final List<String> players;
+        final long startAt;
+        final Map<String, Double> seatedCash = new HashMap<>();
+        boolean started;
+        boolean finished;
+        List<String> ranking = List.of();
+
+        Table(String roomId, List<String> players, long startAt) {
+            this.roomId = roomId;
+            this.players = List.copyOf(players);
+            this.startAt = startAt;
+        }
+    }
+
+    record Stage(int number, List<Table> tables) {
+
+        boolean isFinished() {
+            return tables.stream().allMatch(t -> t.finished);
+        }
+    }
+
+    final String id;
+    final String name;
+    final TournamentSettings settings;
+    final List<Stage> stages = new ArrayList<>();
+    /** Profit over all games played, in registration order. */
+    final Map<String, Double> profit = new LinkedHashMap<>();
+    final Map<String, Integer> reachedStage = new HashMap<>();
+    Status status = Status.SCHEDULED;
+    String winner;
+
+    Tournament(String id, String name, TournamentSettings settings, List<String> players) {
+        this.id = id;
+        this.name = name;
+        this.settings = settings;
+        players.forEach(p -> profit.put(p, 0.0));
+    }
+
+    Stage currentStage() {
+        return stages.get(stages.size() - 1);
+    }
+}
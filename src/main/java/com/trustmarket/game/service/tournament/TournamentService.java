@@ -0,0 +1,306 @@
+package com.trustmarket.game.service.tournament;
+
+import com.trustmarket.game.cluster.RoomDirectory;
+import com.trustmarket.game.dto.response.TournamentView;
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.scheduling.GameScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs tournaments: many rooms created and seated in one call, started for an event time, with the best
+ * players of each table moving on to the next stage until a single final table is left.
+ * <p>
+ * A stage's tables do not all start on the same tick. Each gets its own slot in a
+ * {@code startSpreadMillis} window plus a random offset within it. Every phase after the start runs on the
+ * room's own timer, so the spread carries through the whole game. Question generation at MARKET_CHAT and
+ * settlement at CALCULATION then arrive as a steady stream instead of one burst per phase.
+ * <p>
+ * Seating is snake-ordered by seed (registration order at first, then profit so far), so strong players
+ * are spread over the tables. Tournament rooms are created on this node under ids the cluster directory
+ * also assigns here.
+ */
+@Slf4j
+@Service
+public class TournamentService {
+
+    private final GameEngine engine;
+    private final GameScheduler scheduler;
+    private final RoomDirectory directory;
+    private final Random random;
+    private final TournamentSettings defaults;
+    private final int maxPlayers;
+
+    private final Map<String, Tournament> tournaments = new ConcurrentHashMap<>();
+    private final Map<String, Tournament> byRoom = new ConcurrentHashMap<>();
+
+    public TournamentService(
+            GameEngine engine,
+            GameScheduler scheduler,
+            RoomDirectory directory,
+            Random gameRandom,
+            @Value("${game.tournament.table-size:6}") int tableSize,
+            @Value("${game.tournament.advance-per-table:2}") int advancePerTable,
+            @Value("${game.tournament.rounds-per-game:3}") int roundsPerGame,
+            @Value("${game.tournament.start-spread-ms:60000}") long startSpreadMillis,
+            @Value("${game.tournament.stage-gap-ms:30000}") long stageGapMillis,
+            @Value("${game.tournament.max-players:2000}") int maxPlayers
+    ) {
+        this.engine = engine;
+        this.scheduler = scheduler;
+        this.directory = directory;
+        this.random = gameRandom;
+        this.defaults = new TournamentSettings(tableSize, advancePerTable, roundsPerGame, startSpreadMillis,
+                stageGapMillis);
+        this.maxPlayers = maxPlayers;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 🏆 ORGANISING
+    // ═══════════════════════════════════════════════════════════
+
+    public TournamentSettings getDefaults() {
+        return defaults;
+    }
+
+    /**
+     * Creates and seats every table of the first stage and schedules their starts.
+     *
+     * @param players  in seed order
+     * @param startAt  epoch millis of the first possible start; null or past means now
+     * @param settings {@link #getDefaults()} with any overrides
+     */
+    public TournamentView create(String name, List<String> players, Long startAt, TournamentSettings settings) {
+        validate(players, settings);
+        String id = "t" + UUID.randomUUID().toString().substring(0, 8);
+        Tournament t = new Tournament(id, name == null || name.isBlank() ? id : name.trim(), settings, players);
+        long delay = startAt == null ? 0 : Math.max(0, startAt - scheduler.currentTimeMillis());
+        synchronized (t) {
+            tournaments.put(id, t);
+            seatStage(t, players, delay);
+            log.info("🏆 Tournament {} ({}) created: {} players at {} tables, first start in {}ms", id, t.name,
+                    players.size(), t.currentStage().tables().size(), delay);
+            return view(t);
+        }
+    }
+
+    private void validate(List<String> players, TournamentSettings s) {
+        if (players == null || players.size() < 2) {
+            throw new IllegalArgumentException("A tournament needs at least 2 players");
+        }
+        if (players.size() > maxPlayers) {
+            throw new IllegalArgumentException("At most " + maxPlayers + " players per tournament");
+        }
+        if (players.stream().anyMatch(p -> p == null || p.isBlank())
+                || players.stream().distinct().count() != players.size()) {
+            throw new IllegalArgumentException("Player ids must be non-blank and unique");
+        }
+        if (s.tableSize() < 2 || s.advancePerTable() < 1 || s.advancePerTable() >= s.tableSize()) {
+            throw new IllegalArgumentException("Need tableSize >= 2 and 1 <= advancePerTable < tableSize");
+        }
+        if (s.roundsPerGame() < 1 || s.startSpreadMillis() < 0 || s.stageGapMillis() < 0) {
+            throw new IllegalArgumentException("roundsPerGame must be positive and delays non-negative");
+        }
+    }
+
+    /** Creates and seats one stage's tables; table i starts in slot i of the spread window, at a random point. */
+    private void seatStage(Tournament t, List<String> seeded, long delayMillis) {
+        int tableCount = (seeded.size() + t.settings.tableSize() - 1) / t.settings.tableSize();
+        List<List<String>> seats = snake(seeded, tableCount);
+        int number = t.stages.size() + 1;
+        long slot = t.settings.startSpreadMillis() / tableCount;
+        long now = scheduler.currentTimeMillis();
+
+        List<Tournament.Table> tables = new ArrayList<>(tableCount);
+        for (int i = 0; i < tableCount; i++) {
+            long offset = delayMillis + i * slot + (slot > 0 ? random.nextLong(slot) : 0);
+            Tournament.Table table = new Tournament.Table(roomIdFor(t, number, i + 1), seats.get(i), now + offset);
+            openRoom(t, table);
+            scheduler.schedule(() -> startTable(t, table), offset);
+            tables.add(table);
+        }
+        t.stages.add(new Tournament.Stage(number, List.copyOf(tables)));
+        seeded.forEach(p -> t.reachedStage.put(p, number));
+    }
+
+    /** Deals seeds 1..n over the tables as 1→k, then k→1, and so on. */
+    static List<List<String>> snake(List<String> seeded, int tableCount) {
+        List<List<String>> tables = new ArrayList<>(tableCount);
+        for (int i = 0; i < tableCount; i++) {
+            tables.add(new ArrayList<>());
+        }
+        for (int k = 0; k < seeded.size(); k++) {
+            int pass = k / tableCount;
+            int pos = k % tableCount;
+            tables.get(pass % 2 == 0 ? pos : tableCount - 1 - pos).add(seeded.get(k));
+        }
+        return tables;
+    }
+
+    private String roomIdFor(Tournament t, int stage, int table) {
+        String base = t.id + "-s" + stage + "-" + table;
+        String roomId = base;
+        for (int salt = 1; !directory.isLocal(roomId) || engine.getRoom(roomId) != null; salt++) {
+            roomId = base + "-" + salt;
+        }
+        return roomId;
+    }
+
+    private void openRoom(Tournament t, Tournament.Table table) {
+        List<String> players = table.players;
+        GameRoom room = engine.createRoom(table.roomId, players.get(0));
+        for (String playerId : players.subList(1, players.size())) {
+            engine.joinRoom(table.roomId, playerId);
+        }
+        room.setTotalRounds(t.settings.roundsPerGame());
+        room.getPlayers().forEach((id, p) -> table.seatedCash.put(id, p.getCash()));
+        byRoom.put(table.roomId, t);
+    }
+
+    private void startTable(Tournament t, Tournament.Table table) {
+        synchronized (t) {
+            if (table.started || t.status == Tournament.Status.FINISHED) {
+                return;
+            }
+            table.started = true;
+            t.status = Tournament.Status.RUNNING;
+            try {
+                engine.startGame(table.roomId, table.players.get(0));
+                log.info("🏁 Tournament {} table {} started", t.id, table.roomId);
+            } catch (RuntimeException e) {
+                // Keep the tournament moving: the table ends with its seating order as ranking
+                log.error("❌ Tournament {} could not start {}: {}", t.id, table.roomId, e.getMessage());
+                finishTable(t, table, null);
+            }
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 📈 PROGRESSION
+    // ═══════════════════════════════════════════════════════════
+
+    @EventListener
+    public void onGameEvent(GameEvent event) {
+        if (event.getType() != GameEvent.Type.GAME_FINISHED) {
+            return;
+        }
+        Tournament t = byRoom.get(event.getRoomId());
+        if (t != null) {
+            // Off the finishing room's tick: the next stage may create dozens of rooms
+            scheduler.execute(() -> onTableFinished(t, event.getRoomId()));
+        }
+    }
+
+    private void onTableFinished(Tournament t, String roomId) {
+        synchronized (t) {
+            for (Tournament.Table table : t.currentStage().tables()) {
+                if (table.roomId.equals(roomId) && !table.finished) {
+                    finishTable(t, table, engine.getRoom(roomId));
+                }
+            }
+        }
+    }
+
+    private void finishTable(Tournament t, Tournament.Table table, GameRoom room) {
+        Map<String, Double> cash = new LinkedHashMap<>();
+        for (String playerId : table.players) {
+            Player p = room == null ? null : room.getPlayers().get(playerId);
+            double seated = table.seatedCash.getOrDefault(playerId, 0.0);
+            cash.put(playerId, p == null ? seated : p.getCash());
+            t.profit.merge(playerId, cash.get(playerId) - seated, Double::sum);
+        }
+        table.ranking = table.players.stream()
+                .sorted(Comparator.comparingDouble((String p) -> -cash.get(p)).thenComparing(table.players::indexOf))
+                .toList();
+        table.finished = true;
+        byRoom.remove(table.roomId);
+        log.info("🏁 Tournament {} table {} finished: {}", t.id, table.roomId, table.ranking);
+
+        Tournament.Stage stage = t.currentStage();
+        if (stage.isFinished()) {
+            advance(t, stage);
+        }
+    }
+
+    private void advance(Tournament t, Tournament.Stage stage) {
+        if (stage.tables().size() == 1) {
+            t.status = Tournament.Status.FINISHED;
+            t.winner = stage.tables().get(0).ranking.get(0);
+            log.info("🏆 Tournament {} won by {}", t.id, t.winner);
+            return;
+        }
+        List<String> advancing = new ArrayList<>();
+        for (Tournament.Table table : stage.tables()) {
+            advancing.addAll(table.ranking.subList(0, Math.min(t.settings.advancePerTable(), table.ranking.size())));
+        }
+        advancing.sort(Comparator.comparingDouble((String p) -> -t.profit.get(p)));
+        log.info("📈 Tournament {} stage {} done, {} players advance", t.id, stage.number(), advancing.size());
+        seatStage(t, advancing, t.settings.stageGapMillis());
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // 👀 READ
+    // ═══════════════════════════════════════════════════════════
+
+    public TournamentView get(String id) {
+        Tournament t = tournaments.get(id);
+        if (t == null) {
+            return null;
+        }
+        synchronized (t) {
+            return view(t);
+        }
+    }
+
+    public List<TournamentView> list() {
+        List<TournamentView> views = new ArrayList<>();
+        for (Tournament t : tournaments.values()) {
+            synchronized (t) {
+                views.add(view(t));
+            }
+        }
+        return views;
+    }
+
+    /** Whether the room is a table of a running tournament (its seats are drawn, not open). */
+    public boolean isTournamentRoom(String roomId) {
+        return byRoom.containsKey(roomId);
+    }
+
+    private static TournamentView view(Tournament t) {
+        List<TournamentView.StageView> stages = t.stages.stream()
+                .map(s -> new TournamentView.StageView(s.number(), s.tables().stream()
+                        .map(table -> new TournamentView.TableView(table.roomId, table.players, table.startAt,
+                                table.finished ? "FINISHED" : table.started ? "PLAYING" : "PENDING", table.ranking))
+                        .toList()))
+                .toList();
+        List<String> order = new ArrayList<>(t.profit.keySet());
+        // Deeper runs first, then profit
+        order.sort(Comparator.comparingInt((String p) -> -t.reachedStage.getOrDefault(p, 0))
+                .thenComparingDouble(p -> -t.profit.get(p)));
+        if (t.winner != null) {
+            order.remove(t.winner);
+            order.add(0, t.winner);
+        }
+        List<TournamentView.Standing> leaderboard = new ArrayList<>(order.size());
+        for (int i = 0; i < order.size(); i++) {
+            String p = order.get(i);
+            leaderboard.add(new TournamentView.Standing(i + 1, p, t.profit.get(p), t.reachedStage.getOrDefault(p, 0)));
+        }
+        return new TournamentView(t.id, t.name, t.status.name(), t.stages.size(), t.winner, stages, leaderboard);
+    }
+}
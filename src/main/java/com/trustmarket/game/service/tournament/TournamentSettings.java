@@ -0,0 +1,24 @@
+package com.trustmarket.game.service.tournament;
+
+/**
+ * How a tournament is played.
+ *
+ * @param advancePerTable   players from the top of each table who move on to the next stage
+ * @param roundsPerGame     rounds in each table's game (a regular room plays 10)
+ * @param startSpreadMillis a stage's tables start spread over this window instead of all at once
+ * @param stageGapMillis    pause between the last game of a stage and the first of the next
+ */
+public record TournamentSettings(int tableSize, int advancePerTable, int roundsPerGame, long startSpreadMillis,
+                                 long stageGapMillis) {
+
+    /** These settings with every non-null argument replacing its field. */
+    public TournamentSettings override(Integer tableSize, Integer advancePerTable, Integer roundsPerGame,
+                                       Long startSpreadMillis, Long stageGapMillis) {
+        return new TournamentSettings(
+                tableSize != null ? tableSize : this.tableSize,
+                advancePerTable != null ? advancePerTable : this.advancePerTable,
+                roundsPerGame != null ? roundsPerGame : this.roundsPerGame,
+                startSpreadMillis != null ? startSpreadMillis : this.startSpreadMillis,
+                stageGapMillis != null ? stageGapMillis : this.stageGapMillis);
+    }
+}
@@ -0,0 +1,158 @@
+package com.trustmarket.game.service.trace;
+
+import com.trustmarket.game.event.GameEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Hot-path logging for per-command and per-phase room events (bets, role choices, investments, answers,
+ * settlement lines). Instead of a synchronous INFO line each, an event goes into its room's
+ * {@link TraceRing} of the last {@code game.trace.ring-size} events, and only one in
+ * {@code game.trace.sample-every} is also written to the {@code com.trustmarket.game.trace} logger, which
+ * {@code logback-spring.xml} sends through a non-blocking async appender. Enabling DEBUG on that logger
+ * writes every event.
+ * <p>
+ * Nothing is lost for debugging: the ring is dumped to the log when the room hits an error (at most once per
+ * {@code game.trace.dump-interval-ms}). Rings of the last {@code game.trace.finished-rooms} finished games are
+ * kept for post-mortems at {@code GET /api/admin/rooms/{roomId}/trace}; a running room's ring is never served,
+ * since it names the Oracle, the Scammer and every answer of the current round.
+ */
+@Slf4j(topic = "com.trustmarket.game.trace")
+@Component
+public class RoomTracer {
+
+    private final int ringSize;
+    private final long sampleEvery;
+    private final long dumpIntervalMillis;
+
+    private final Map<String, TraceRing> rings = new ConcurrentHashMap<>();
+    private final Map<String, TraceRing> finished;
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder dumps = new LongAdder();
+
+    /** Defaults, for engines built outside Spring (simulator, warm-up, tests). */
+    public RoomTracer() {
+        this(256, 100, 10_000, 64);
+    }
+
+    @Autowired
+    public RoomTracer(
+            @Value("${game.trace.ring-size:256}") int ringSize,
+            @Value("${game.trace.sample-every:100}") long sampleEvery,
+            @Value("${game.trace.dump-interval-ms:10000}") long dumpIntervalMillis,
+            @Value("${game.trace.finished-rooms:64}") int finishedRooms
+    ) {
+        this.ringSize = ringSize;
+        this.sampleEvery = sampleEvery;
+        this.dumpIntervalMillis = dumpIntervalMillis;
+        this.finished = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TraceRing> eldest) {
+                return size() > finishedRooms;
+            }
+        });
+    }
+
+    /** Starts a fresh ring for a room created on (or moved to) this node. */
+    public void open(String roomId) {
+        rings.put(roomId, new TraceRing(ringSize));
+    }
+
+    /**
+     * Records an event in the room's ring, in SLF4J {@code {}} template form. The message is formatted only
+     * when the event is sampled to the log or the ring is read. Rooms that were never opened (e.g. a
+     * command naming an unknown room) get no ring, so bad room ids cannot grow the map.
+     */
+    public void trace(String roomId, String template, Object... args) {
+        TraceRing ring = roomId == null ? null : rings.get(roomId);
+        if (ring != null) {
+            ring.add(System.currentTimeMillis(), Thread.currentThread().getName(), template, args);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(template, args);
+        } else if (sampleEvery > 0 && sequence.incrementAndGet() % sampleEvery == 0) {
+            sampled.increment();
+            log.info(template, args);
+        }
+    }
+
+    /**
+     * Writes the room's ring to the log after an error, unless it was dumped less than
+     * {@code dump-interval-ms} ago.
+     *
+     * @return whether the ring was written
+     */
+    public boolean dump(String roomId, String reason) {
+        TraceRing ring = ring(roomId);
+        if (ring == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        long last = ring.lastDump.get();
+        if (last != Long.MIN_VALUE && now - last < dumpIntervalMillis || !ring.lastDump.compareAndSet(last, now)) {
+            return false;
+        }
+        dumps.increment();
+        log.warn("🧵 Trace of room {} ({}):\n{}", roomId, reason, String.join("\n", lines(ring)));
+        return true;
+    }
+
+    /** The room's recent events, oldest first; empty if the room has none. */
+    public List<String> lines(String roomId) {
+        TraceRing ring = ring(roomId);
+        return ring == null ? List.of() : lines(ring);
+    }
+
+    /** The events of a finished game, oldest first; empty while the room is still running. */
+    public List<String> finishedLines(String roomId) {
+        TraceRing ring = finished.get(roomId);
+        return ring == null ? List.of() : lines(ring);
+    }
+
+    private static List<String> lines(TraceRing ring) {
+        return ring.entries().stream().map(TraceRing.Entry::format).collect(Collectors.toList());
+    }
+
+    private TraceRing ring(String roomId) {
+        TraceRing ring = rings.get(roomId);
+        return ring != null ? ring : finished.get(roomId);
+    }
+
+    @EventListener
+    public void onGameEvent(GameEvent event) {
+        if (event.getType() == GameEvent.Type.GAME_FINISHED) {
+            TraceRing ring = rings.remove(event.getRoomId());
+            if (ring != null) {
+                finished.put(event.getRoomId(), ring);
+            }
+        } else if (event.getType() == GameEvent.Type.ROOM_MIGRATED) {
+            // The destination keeps tracing the room from here on
+            rings.remove(event.getRoomId());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rooms", rings.size());
+        stats.put("finishedRooms", finished.size());
+        stats.put("ringSize", ringSize);
+        stats.put("events", rings.values().stream().mapToLong(TraceRing::written).sum());
+        stats.put("sampleEvery", sampleEvery);
+        stats.put("sampled", sampled.sum());
+        stats.put("dumps", dumps.sum());
+        return stats;
+    }
+}
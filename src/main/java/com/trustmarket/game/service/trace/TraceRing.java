@@ -0,0 +1,57 @@
+package com.trustmarket.game.service.trace;
+
+import org.slf4j.helpers.MessageFormatter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The last {@code capacity} trace entries of one room. Writers claim a sequence number and store into its
+ * slot, with no lock; entries keep the unformatted template and arguments, so the message text is only
+ * built when somebody reads the ring.
+ */
+final class TraceRing {
+
+    record Entry(long sequence, long at, String thread, String template, Object[] args) {
+
+        String format() {
+            return Instant.ofEpochMilli(at) + " [" + thread + "] "
+                    + MessageFormatter.arrayFormat(template, args).getMessage();
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLong next = new AtomicLong();
+    /** When the ring was last written to the log, to keep an error storm from dumping it on every error. */
+    final AtomicLong lastDump = new AtomicLong(Long.MIN_VALUE);
+
+    TraceRing(int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    void add(long at, String thread, String template, Object[] args) {
+        long sequence = next.getAndIncrement();
+        slots.set((int) (sequence % slots.length()), new Entry(sequence, at, thread, template, args));
+    }
+
+    /** Oldest first. A slot overwritten while reading is skipped rather than shown out of order. */
+    List<Entry> entries() {
+        long end = next.get();
+        long start = Math.max(0, end - slots.length());
+        List<Entry> entries = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Entry entry = slots.get((int) (sequence % slots.length()));
+            if (entry != null && entry.sequence() == sequence) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    long written() {
+        return next.get();
+    }
+}
@@ -0,0 +1,145 @@
+package com.trustmarket.game.simulation;
+
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.service.AIService;
+import com.trustmarket.game.service.EconomyService;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Plays complete games on a {@link VirtualGameScheduler}: a 10-round game (~16 minutes of wall-clock
+ * time in production) finishes as fast as the ticks can execute. Every random choice — role
+ * assignment inside the engine and the simulated players' decisions — comes from the seed, so a seed
+ * always replays the same game.
+ * <p>
+ * Broadcasts go to a template whose channel accepts and drops every message.
+ */
+public class GameSimulator {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final String ROOM_ID = "sim-room";
+    private static final String[] ANSWERS = {"A", "B", "C", "D"};
+
+    private final int playerCount;
+    private final int totalRounds;
+    private final double traderProbability;
+    private final AIService aiService;
+
+    public GameSimulator(int playerCount, int totalRounds) {
+        this(playerCount, totalRounds, 0.4, new AIService());
+    }
+
+    public GameSimulator(int playerCount, int totalRounds, double traderProbability, AIService aiService) {
+        if (playerCount < 1) {
+            throw new IllegalArgumentException("A game needs at least one player");
+        }
+        this.playerCount = playerCount;
+        this.totalRounds = totalRounds;
+        this.traderProbability = traderProbability;
+        this.aiService = aiService;
+    }
+
+    public SimulationResult run(long seed) {
+        VirtualGameScheduler clock = new VirtualGameScheduler();
+        GameEngine engine = new GameEngine(
+                discardingTemplate(),
+                new EconomyService(),
+                aiService,
+                clock,
+                new Random(seed),
+                event -> { }
+        );
+        // Players decide from their own stream so engine changes don't shift their choices
+        Random decisions = new Random(~seed);
+
+        try {
+            String hostId = playerId(0);
+            GameRoom room = engine.createRoom(ROOM_ID, hostId);
+            room.setTotalRounds(totalRounds);
+            for (int i = 1; i < playerCount; i++) {
+                engine.joinRoom(ROOM_ID, playerId(i));
+            }
+            engine.startGame(ROOM_ID, hostId);
+
+            GameState lastState = null;
+            int lastRemaining = 0;
+            int crashes = 0;
+
+            while (room.getCurrentState() != GameState.FINISHED) {
+                GameState state = room.getCurrentState();
+                int remaining = room.getTimeRemaining();
+                // A new phase either changes the state or (after a market crash) restarts BLIND_BET's timer
+                boolean phaseEntered = state != lastState || remaining > lastRemaining;
+
+                if (phaseEntered) {
+                    if (state == GameState.BLIND_BET && lastState == GameState.BLIND_BET) {
+                        crashes++;
+                    }
+                    act(engine, room, state, decisions);
+                }
+                lastState = state;
+                lastRemaining = remaining;
+                clock.advanceBy(TICK_MILLIS);
+            }
+
+            Map<String, Double> balances = room.getPlayers().values().stream()
+                    .collect(Collectors.toMap(Player::getId, Player::getCash, (a, b) -> a, TreeMap::new));
+
+            return SimulationResult.builder()
+                    .seed(seed)
+                    .roundsPlayed(room.getCurrentRound())
+                    .marketCrashes(crashes)
+                    .virtualDurationMillis(clock.currentTimeMillis())
+                    .finalBalances(balances)
+                    .build();
+        } finally {
+            engine.stopGame(ROOM_ID);
+            engine.shutdown();
+        }
+    }
+
+    private void act(GameEngine engine, GameRoom room, GameState state, Random decisions) {
+        List<Player> players = room.getPlayers().values().stream()
+                .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                .toList();
+
+        if (state == GameState.BLIND_BET) {
+            for (Player p : players) {
+                boolean trader = decisions.nextDouble() < traderProbability;
+                engine.playerSelectRole(ROOM_ID, p.getId(), trader ? "TRADER" : "INVESTOR");
+                double maxBet = Math.max(1, p.getCash() / 4);
+                engine.handleBet(ROOM_ID, p.getId(), Math.floor(1 + decisions.nextDouble() * maxBet));
+            }
+        } else if (state == GameState.CLOSING) {
+            List<Player> traders = players.stream()
+                    .filter(p -> p.getRole() == Player.Role.TRADER)
+                    .toList();
+            for (Player p : players) {
+                if (p.getRole() == Player.Role.TRADER) {
+                    engine.submitAnswer(ROOM_ID, p.getId(), ANSWERS[decisions.nextInt(ANSWERS.length)]);
+                } else if (p.getRole() == Player.Role.INVESTOR && !traders.isEmpty()) {
+                    Player target = traders.get(decisions.nextInt(traders.size()));
+                    engine.handleInvest(ROOM_ID, p.getId(), target.getId());
+                }
+            }
+        }
+    }
+
+    private static String playerId(int index) {
+        return String.format("sim-%03d", index);
+    }
+
+    /** A messaging template whose channel accepts and drops every message. */
+    public static SimpMessagingTemplate discardingTemplate() {
+        return new SimpMessagingTemplate((message, timeout) -> true);
+    }
+}
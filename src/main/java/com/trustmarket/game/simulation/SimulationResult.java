@@ -0,0 +1,20 @@
+package com.trustmarket.game.simulation;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Outcome of one simulated game. Two runs with the same seed and settings produce equal results.
+ */
+@Value
+@Builder
+public class SimulationResult {
+    long seed;
+    int roundsPlayed;
+    int marketCrashes;
+    long virtualDurationMillis;
+    /** Player id → cash at the end of the game, ordered by player id. */
+    Map<String, Double> finalBalances;
+}
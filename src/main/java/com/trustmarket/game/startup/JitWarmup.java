@@ -0,0 +1,203 @@
+package com.trustmarket.game.startup;
+
+import com.trustmarket.game.dto.response.RoomView;
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.service.AIService;
+import com.trustmarket.game.service.EconomyService;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the JIT before the node takes traffic: {@code game.warmup.rooms} synthetic rooms play
+ * {@code game.warmup.rounds} rounds each through every {@link GameState} on a virtual clock, so the engine,
+ * {@link EconomyService} settlement and the JSON serialization of room snapshots are compiled by the time
+ * the first real game starts.
+ * <p>
+ * Each room's first round ends in a market crash (nobody picks TRADER); every later round seats three
+ * traders so the oracle, scammer and normal settlement branches all run, with answers rotating so both
+ * correct and wrong answers are settled. Broadcasts go through the application's STOMP message converter
+ * into a channel that drops them.
+ * <p>
+ * Runs synchronously in the {@link ApplicationReadyEvent} listener: Spring Boot only switches readiness to
+ * {@code ACCEPTING_TRAFFIC} after ready listeners return, so {@code /actuator/health/readiness} stays
+ * {@code OUT_OF_SERVICE} until warm-up is done.
+ */
+@Slf4j
+@Component
+public class JitWarmup {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int PLAYERS_PER_ROOM = 6;
+    private static final int TRADERS_PER_ROUND = 3;
+    private static final String[] ANSWERS = {"A", "B", "C", "D"};
+
+    private final EconomyService economyService;
+    private final SimpMessagingTemplate discardingTemplate;
+    private final JsonMapper jsonMapper;
+    private final int rooms;
+    private final int rounds;
+
+    public JitWarmup(
+            EconomyService economyService,
+            SimpMessagingTemplate messagingTemplate,
+            JsonMapper jsonMapper,
+            @Value("${game.warmup.rooms:20}") int rooms,
+            @Value("${game.warmup.rounds:4}") int rounds
+    ) {
+        this.economyService = economyService;
+        this.discardingTemplate = new SimpMessagingTemplate((message, timeout) -> true);
+        this.discardingTemplate.setMessageConverter(messagingTemplate.getMessageConverter());
+        this.jsonMapper = jsonMapper;
+        this.rooms = rooms;
+        this.rounds = rounds;
+    }
+
+    /** What one warm-up run exercised. */
+    public record Coverage(int rooms, int roundsSettled, Set<GameState> states, Map<String, Integer> settlements,
+                           long serializedBytes, long elapsedMillis) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpBeforeReadiness() {
+        if (rooms <= 0) {
+            return;
+        }
+        Coverage coverage = run(rooms, rounds);
+        log.info("🔥 JIT warm-up done in {} ms: {} rooms, {} rounds settled, states {}, settlements {}",
+                coverage.elapsedMillis(), coverage.rooms(), coverage.roundsSettled(), coverage.states(),
+                coverage.settlements());
+    }
+
+    public Coverage run(int roomCount, int roundsPerRoom) {
+        long started = System.nanoTime();
+        VirtualGameScheduler clock = new VirtualGameScheduler();
+        Tally tally = new Tally();
+        GameEngine engine = new GameEngine(
+                discardingTemplate,
+                economyService,
+                new AIService(),
+                clock,
+                new Random(roomCount),
+                tally::record
+        );
+
+        List<String> roomIds = new ArrayList<>();
+        try {
+            for (int r = 0; r < roomCount; r++) {
+                String roomId = "warmup-" + r;
+                GameRoom room = engine.createRoom(roomId, playerId(roomId, 0));
+                room.setTotalRounds(roundsPerRoom);
+                for (int p = 1; p < PLAYERS_PER_ROOM; p++) {
+                    engine.joinRoom(roomId, playerId(roomId, p));
+                }
+                tally.states.add(room.getCurrentState());
+                roomIds.add(roomId);
+            }
+            roomIds.forEach(roomId -> engine.startGame(roomId, playerId(roomId, 0)));
+
+            Map<String, GameState> lastState = new HashMap<>();
+            Map<String, Integer> lastRemaining = new HashMap<>();
+            Set<String> crashed = new HashSet<>();
+            long serialized = 0;
+            boolean running = true;
+
+            while (running) {
+                running = false;
+                for (String roomId : roomIds) {
+                    GameRoom room = engine.getRoom(roomId);
+                    GameState state = room.getCurrentState();
+                    int remaining = room.getTimeRemaining();
+                    tally.states.add(state);
+                    if (state != lastState.get(roomId) || remaining > lastRemaining.getOrDefault(roomId, 0)) {
+                        act(engine, room, state, crashed);
+                        // Room topic and GET /api/rooms/{id} send this view, encoded with this same mapper
+                        serialized += jsonMapper.writeValueAsBytes(RoomView.of(engine.getSnapshot(roomId))).length;
+                    }
+                    lastState.put(roomId, state);
+                    lastRemaining.put(roomId, remaining);
+                    running |= state != GameState.FINISHED;
+                }
+                clock.advanceBy(TICK_MILLIS);
+            }
+
+            return new Coverage(roomCount, tally.roundsSettled, tally.states, tally.settlements, serialized,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } finally {
+            roomIds.forEach(engine::stopGame);
+            engine.shutdown();
+        }
+    }
+
+    private void act(GameEngine engine, GameRoom room, GameState state, Set<String> crashed) {
+        String roomId = room.getRoomId();
+        List<Player> players = room.getPlayers().values().stream()
+                .sorted(Comparator.comparing(Player::getId))
+                .toList();
+        int round = room.getCurrentRound();
+
+        if (state == GameState.BLIND_BET) {
+            boolean crash = crashed.add(roomId);
+            for (int i = 0; i < players.size(); i++) {
+                Player p = players.get(i);
+                boolean trader = !crash && i < TRADERS_PER_ROUND;
+                engine.playerSelectRole(roomId, p.getId(), trader ? "TRADER" : "INVESTOR");
+                engine.handleBet(roomId, p.getId(), 10 + i);
+            }
+        } else if (state == GameState.CLOSING) {
+            List<Player> traders = players.stream().filter(p -> p.getRole() == Player.Role.TRADER).toList();
+            for (int i = 0; i < players.size(); i++) {
+                Player p = players.get(i);
+                if (p.getRole() == Player.Role.TRADER) {
+                    engine.submitAnswer(roomId, p.getId(), ANSWERS[(i + round) % ANSWERS.length]);
+                } else if (p.getRole() == Player.Role.INVESTOR && !traders.isEmpty()) {
+                    engine.handleInvest(roomId, p.getId(), traders.get((i + round) % traders.size()).getId());
+                }
+            }
+        }
+    }
+
+    private static String playerId(String roomId, int index) {
+        return roomId + "-p" + index;
+    }
+
+    /** Counts settlements by the secret roles that were in play; everything runs on the calling thread. */
+    private static final class Tally {
+
+        final Set<GameState> states = EnumSet.noneOf(GameState.class);
+        final Map<String, Integer> settlements = new TreeMap<>();
+        final Map<String, Set<String>> rolesInPlay = new HashMap<>();
+        int roundsSettled;
+
+        void record(Object event) {
+            if (!(event instanceof GameEvent e)) {
+                return;
+            }
+            switch (e.getType()) {
+                case SECRET_ROLE_ASSIGNED -> rolesInPlay.computeIfAbsent(e.getRoomId(), id -> new HashSet<>())
+                        .add(String.valueOf(e.getValue()));
+                case ROUND_SETTLED -> {
+                    roundsSettled++;
+                    Set<String> roles = rolesInPlay.remove(e.getRoomId());
+                    if (roles != null) {
+                        roles.forEach(role -> settlements.merge(role, 1, Integer::sum));
+                    }
+                }
+                case MARKET_CRASH -> settlements.merge("MARKET_CRASH", 1, Integer::sum);
+                default -> { }
+            }
+        }
+    }
+}
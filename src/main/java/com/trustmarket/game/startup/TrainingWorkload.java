@@ -0,0 +1,116 @@
+package com.trustmarket.game.startup;
+
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.simulation.GameSimulator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.converter.JacksonJsonMessageConverter;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Training run for the {@code fast-start} build: with {@code game.training.enabled=true} the application
+ * exercises its hot paths once it is ready — simulated games on the real engine, the room REST endpoints
+ * with JSON serialization, a STOMP session over SockJS — and then exits. Run under
+ * {@code -XX:ArchiveClassesAtExit}, every class loaded on the way ends up in the CDS archive.
+ * <p>
+ * The bean is always registered and checks the flag at runtime: the AOT-processed context is fixed at
+ * build time, so a {@code @ConditionalOnProperty} here would be evaluated against the build's environment.
+ */
+@Slf4j
+@Component
+public class TrainingWorkload {
+
+    private final ConfigurableApplicationContext context;
+    private final GameEngine gameEngine;
+    private final boolean enabled;
+    private final int games;
+    private final int rooms;
+
+    public TrainingWorkload(
+            ConfigurableApplicationContext context,
+            GameEngine gameEngine,
+            @Value("${game.training.enabled:false}") boolean enabled,
+            @Value("${game.training.games:20}") int games,
+            @Value("${game.training.rooms:20}") int rooms
+    ) {
+        this.context = context;
+        this.gameEngine = gameEngine;
+        this.enabled = enabled;
+        this.games = games;
+        this.rooms = rooms;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void train() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        int exitCode = 0;
+        try {
+            simulateGames();
+            exerciseRestApi();
+            exerciseStomp();
+            log.info("🏋️ Training workload finished in {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (Exception e) {
+            log.error("❌ Training workload failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private void simulateGames() {
+        GameSimulator simulator = new GameSimulator(6, 3);
+        for (int seed = 0; seed < games; seed++) {
+            simulator.run(seed);
+        }
+    }
+
+    private void exerciseRestApi() {
+        RestClient rest = RestClient.create(baseUrl());
+        for (int r = 0; r < rooms; r++) {
+            String roomId = "training-" + r;
+            String hostId = roomId + "-host";
+            rest.post().uri("/api/rooms/create?roomId={roomId}&hostId={hostId}", roomId, hostId)
+                    .retrieve().toBodilessEntity();
+            for (int p = 0; p < 4; p++) {
+                rest.post().uri("/api/rooms/{roomId}/join?playerId={playerId}", roomId, roomId + "-p" + p)
+                        .retrieve().toBodilessEntity();
+            }
+            rest.get().uri("/api/rooms/{roomId}", roomId).retrieve().body(Map.class);
+            gameEngine.stopGame(roomId);
+        }
+    }
+
+    private void exerciseStomp() throws Exception {
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new JacksonJsonMessageConverter());
+        StompSession session = stompClient.connectAsync(baseUrl() + "/ws", new StompSessionHandlerAdapter() { })
+                .get(10, TimeUnit.SECONDS);
+        session.subscribe("/topic/room/training-0/players", new StompSessionHandlerAdapter() { });
+        session.disconnect();
+        stompClient.stop();
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port", "8080");
+    }
+}
@@ -0,0 +1,164 @@
+package com.trustmarket.game.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClusterMessagingTest {
+
+    private static final Map<String, String> NODES = new LinkedHashMap<>(Map.of(
+            "a", "http://node-a:8080", "b", "http://node-b:8080", "c", "http://node-c:8080"));
+
+    LoopbackClusterTransport transport = new LoopbackClusterTransport();
+    Map<String, Node> nodes = new LinkedHashMap<>();
+
+    /** One node's messaging: what reached its local broker and its inbound (command) channel. */
+    record Node(RoomDirectory directory, ClusterMessaging messaging, BlockingQueue<Message<?>> broker,
+                BlockingQueue<Message<?>> inbound) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (String id : NODES.keySet()) {
+            RoomDirectory directory = new RoomDirectory(id, NODES, 128);
+            BlockingQueue<Message<?>> broker = new LinkedBlockingQueue<>();
+            BlockingQueue<Message<?>> inbound = new LinkedBlockingQueue<>();
+            ClusterMessaging messaging = new ClusterMessaging(directory, transport, capture(broker), capture(inbound));
+            messaging.start();
+            nodes.put(id, new Node(directory, messaging, broker, inbound));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.values().forEach(node -> node.messaging().stop());
+    }
+
+    @Test
+    void everyNodeAgreesOnOwnersAndRoomsSpreadEvenly() {
+        Map<String, Integer> perNode = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            String roomId = "room-" + i;
+            String owner = nodes.get("a").directory().ownerOf(roomId);
+            assertThat(nodes.get("c").directory().ownerOf(roomId)).isEqualTo(owner);
+            perNode.merge(owner, 1, Integer::sum);
+        }
+        assertThat(perNode.values()).allSatisfy(count -> assertThat(count).isBetween(8_000, 12_000));
+
+        // A fourth node takes about a quarter of the rooms and the rest stay where they were
+        Map<String, String> four = new LinkedHashMap<>(NODES);
+        four.put("d", "");
+        RoomDirectory grown = new RoomDirectory("a", four, 128);
+        int moved = 0;
+        for (int i = 0; i < 30_000; i++) {
+            String before = nodes.get("a").directory().ownerOf("room-" + i);
+            String after = grown.ownerOf("room-" + i);
+            if (!before.equals(after)) {
+                assertThat(after).isEqualTo("d");
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(5_000, 10_000);
+    }
+
+    @Test
+    void topicsPublishedOnOneNodeReachTheOthersOnce() throws Exception {
+        Node a = nodes.get("a");
+        Message<byte[]> frame = message("/topic/game/r1", "{\"state\":\"BLIND_BET\"}");
+
+        a.messaging().outbound().preSend(frame, null);
+
+        for (String other : List.of("b", "c")) {
+            Message<?> received = nodes.get(other).broker().poll(5, TimeUnit.SECONDS);
+            assertThat(received).isNotNull();
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(received);
+            assertThat(headers.getDestination()).isEqualTo("/topic/game/r1");
+            assertThat(headers.getHeader(ClusterMessaging.ORIGIN_HEADER)).isEqualTo("a");
+            assertThat(headers.getContentType()).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+
+            // Replaying it into b's broker must not send it around again
+            nodes.get(other).messaging().outbound().preSend(received, null);
+        }
+        Thread.sleep(100);
+        assertThat(a.broker()).isEmpty();
+        assertThat(nodes.get("b").broker()).isEmpty();
+        assertThat(a.messaging().stats()).containsEntry("topicsOut", 1L);
+    }
+
+    @Test
+    void commandsForRemoteRoomsRunOnTheOwner() throws Exception {
+        String roomId = roomOwnedBy("b");
+        Node a = nodes.get("a");
+        Message<byte[]> bet = message("/app/game/bet", "{\"roomId\":\"" + roomId + "\",\"amount\":10}");
+
+        assertThat(a.messaging().inbound().preSend(bet, null)).isNull();
+
+        Message<?> received = nodes.get("b").inbound().poll(5, TimeUnit.SECONDS);
+        assertThat(received).isNotNull();
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(received);
+        assertThat(headers.getSessionId()).isEqualTo("session-1");
+        assertThat(headers.getDestination()).isEqualTo("/app/game/bet");
+        assertThat(new String((byte[]) received.getPayload(), StandardCharsets.UTF_8)).contains(roomId);
+        // The owner runs it locally
+        assertThat(nodes.get("b").messaging().inbound().preSend(received, null)).isSameAs(received);
+
+        Message<byte[]> local = message("/app/game/bet", "{\"roomId\":\"" + roomOwnedBy("a") + "\"}");
+        assertThat(a.messaging().inbound().preSend(local, null)).isSameAs(local);
+    }
+
+    @Test
+    void restCallsAreRedirectedToTheOwner() {
+        String roomId = roomOwnedBy("c");
+        RoomRoutingInterceptor routing = new RoomRoutingInterceptor(nodes.get("a").directory());
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/rooms/" + roomId + "/bet");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("roomId", roomId));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(routing.preHandle(request, response, null)).isFalse();
+        assertThat(response.getStatus()).isEqualTo(307);
+        assertThat(response.getHeader("Location")).isEqualTo("http://node-c:8080/api/rooms/" + roomId + "/bet");
+
+        MockHttpServletRequest create = new MockHttpServletRequest("POST", "/api/rooms/create");
+        create.setParameter("roomId", roomOwnedBy("a"));
+        assertThat(routing.preHandle(create, new MockHttpServletResponse(), null)).isTrue();
+    }
+
+    private String roomOwnedBy(String node) {
+        for (int i = 0; ; i++) {
+            if (nodes.get("a").directory().ownerOf("room-" + i).equals(node)) {
+                return "room-" + i;
+            }
+        }
+    }
+
+    private static Message<byte[]> message(String destination, String json) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setDestination(destination);
+        headers.setSessionId("session-1");
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(json.getBytes(StandardCharsets.UTF_8), headers.getMessageHeaders());
+    }
+
+    private static Supplier<MessageChannel> capture(BlockingQueue<Message<?>> into) {
+        MessageChannel channel = (message, timeout) -> into.add(message);
+        return () -> channel;
+    }
+}
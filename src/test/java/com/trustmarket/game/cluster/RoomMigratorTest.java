@@ -0,0 +1,263 @@
+package com.trustmarket.game.cluster;
+
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.TestEngines;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Two engines in one JVM, joined by a transport that delivers on the sending thread. */
+class RoomMigratorTest {
+
+    private static final Map<String, String> NODES = new LinkedHashMap<>(Map.of(
+            "a", "http://node-a:8080", "b", "http://node-b:8080"));
+
+    DirectTransport transport = new DirectTransport();
+    Node a;
+    Node b;
+
+    record Node(VirtualGameScheduler clock, GameEngine engine, RoomDirectory directory, ClusterMessaging messaging,
+                RoomMigrator migrator) {
+
+        static Node start(String id, ClusterTransport transport) {
+            return start(id, transport, 60_000);
+        }
+
+        static Node start(String id, ClusterTransport transport, long migrationTimeoutMillis) {
+            VirtualGameScheduler clock = new VirtualGameScheduler();
+            GameEngine engine = TestEngines.engine(clock, 7);
+            RoomDirectory directory = new RoomDirectory(id, NODES, 64);
+            ClusterMessaging messaging = new ClusterMessaging(directory, transport, () -> null, () -> null);
+            messaging.start();
+            RoomMigrator migrator = new RoomMigrator(engine, directory, transport, messaging, migrationTimeoutMillis);
+            migrator.start();
+            return new Node(clock, engine, directory, messaging, migrator);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        a = Node.start("a", transport);
+        b = Node.start("b", transport);
+    }
+
+    @AfterEach
+    void tearDown() {
+        a.engine().shutdown();
+        b.engine().shutdown();
+    }
+
+    @Test
+    void runningRoomResumesOnTheOtherEngineWithItsSecretsAndClock() {
+        String roomId = roomOwnedBy("a", 0);
+        GameRoom before = startGame(roomId);
+        while (before.getCurrentState() != GameState.MARKET_CHAT) {
+            a.clock().advanceBy(1000);
+        }
+        a.clock().advanceBy(3000);
+        int secondsLeft = before.getTimeRemaining();
+        Map<String, Player.SecretRole> secrets = new LinkedHashMap<>();
+        before.getPlayers().forEach((id, p) -> secrets.put(id, p.getSecretRole()));
+
+        CompletableFuture<RoomMigrator.Migration> move = a.migrator().migrate(roomId, "b");
+        assertThat(move).isNotDone();
+        a.clock().advanceBy(1000);
+
+        assertThat(move).isCompleted();
+        assertThat(move.join().pauseMillis()).isGreaterThanOrEqualTo(0);
+        assertThat(a.engine().getRoom(roomId)).isNull();
+        GameRoom after = b.engine().getRoom(roomId);
+        assertThat(after.getCurrentState()).isEqualTo(GameState.MARKET_CHAT);
+        // The freezing tick did not count down: the first tick on b does
+        assertThat(after.getTimeRemaining()).isEqualTo(secondsLeft);
+        assertThat(after.getCurrentQuestion()).isEqualTo(before.getCurrentQuestion());
+        after.getPlayers().forEach((id, p) -> assertThat(p.getSecretRole()).isEqualTo(secrets.get(id)));
+        assertThat(a.directory().ownerOf(roomId)).isEqualTo("b");
+        assertThat(b.directory().isLocal(roomId)).isTrue();
+
+        b.clock().advanceBy(0);
+        assertThat(after.getTimeRemaining()).isEqualTo(secondsLeft - 1);
+        b.engine().submitAnswer(roomId, "alice", "A");
+        assertThat(after.getPlayers().get("alice").getSelectedAnswer()).isEqualTo("A");
+        b.clock().advanceBy(secondsLeft * 1000L);
+        assertThat(after.getCurrentState()).isEqualTo(GameState.CLOSING);
+        assertThat(a.migrator().stats()).containsEntry("migrated", 1L);
+    }
+
+    @Test
+    void waitsForSettlementBeforeFreezing() {
+        String roomId = roomOwnedBy("a", 0);
+        GameRoom room = startGame(roomId);
+        while (room.getCurrentState() != GameState.CALCULATION) {
+            a.clock().advanceBy(1000);
+        }
+
+        CompletableFuture<RoomMigrator.Migration> move = a.migrator().migrate(roomId, "b");
+        a.clock().advanceBy(5000);
+        assertThat(move).isNotDone();
+        while (!move.isDone()) {
+            a.clock().advanceBy(1000);
+        }
+        GameRoom moved = b.engine().getRoom(roomId);
+        assertThat(moved.getCurrentRound()).isEqualTo(2);
+        assertThat(moved.getCurrentState()).isEqualTo(GameState.BLIND_BET);
+    }
+
+    @Test
+    void rejectedRoomKeepsPlayingWhereItWas() {
+        String roomId = roomOwnedBy("a", 0);
+        GameRoom room = startGame(roomId);
+        b.engine().createRoom(roomId, "squatter");
+
+        CompletableFuture<RoomMigrator.Migration> move = a.migrator().migrate(roomId, "b");
+        a.clock().advanceBy(1000);
+
+        assertThat(move).isCompletedExceptionally();
+        assertThat(b.directory().ownerOf(roomId)).isEqualTo("a");
+        GameRoom resumed = a.engine().getRoom(roomId);
+        int secondsLeft = resumed.getTimeRemaining();
+        a.clock().advanceBy(2000);
+        assertThat(resumed.getTimeRemaining()).isLessThan(secondsLeft);
+        assertThat(resumed.getPlayers()).containsOnlyKeys(room.getPlayers().keySet());
+        assertThat(a.migrator().stats()).containsEntry("failed", 1L);
+    }
+
+    @Test
+    void lateAdoptionIsCancelledAndTheRoomComesBackWithWhatHappenedOnTheTarget() throws Exception {
+        a = Node.start("a", transport, 50);
+        String roomId = roomOwnedBy("a", 0);
+        startGame(roomId);
+        // b adopts the room, but its ADOPTED reply is stuck on the wire past the timeout
+        transport.hold(ClusterFrame.Kind.ADOPTED);
+
+        CompletableFuture<RoomMigrator.Migration> move = a.migrator().migrate(roomId, "b");
+        a.clock().advanceBy(1000);
+        assertThat(b.engine().getRoom(roomId)).isNotNull();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!a.migrator().stats().get("returning").equals(1) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // a waits for the room instead of resuming its own older copy, so b's commands survive
+        assertThat(a.engine().getRoom(roomId)).isNull();
+        b.engine().playerSelectRole(roomId, "bob", "INVESTOR");
+        b.clock().advanceBy(1000);
+        assertThat(move.handle((m, e) -> e).get(5, TimeUnit.SECONDS)).isNotNull();
+
+        assertThat(b.engine().getRoom(roomId)).isNull();
+        transport.release();
+        GameRoom back = a.engine().getRoom(roomId);
+        assertThat(back.getCurrentState()).isEqualTo(GameState.BLIND_BET);
+        assertThat(back.getPlayer("bob").getRole()).isEqualTo(Player.Role.INVESTOR);
+        assertThat(a.directory().ownerOf(roomId)).isEqualTo("a");
+        assertThat(b.directory().ownerOf(roomId)).isEqualTo("a");
+        assertThat(a.migrator().stats()).containsEntry("migrated", 0L).containsEntry("failed", 1L)
+                .containsEntry("unreturned", 0L);
+        assertThat(b.migrator().stats()).containsEntry("handedBack", 1L);
+    }
+
+    @Test
+    void drainingMovesEveryRoomAndTakesTheNodeOffTheRing() {
+        String waiting = roomOwnedBy("a", 0);
+        String playing = roomOwnedBy("a", 1);
+        a.engine().createRoom(waiting, "carol");
+        startGame(playing);
+
+        CompletableFuture<RoomMigrator.DrainReport> drain = a.migrator().drain();
+        a.clock().advanceBy(1000);
+
+        RoomMigrator.DrainReport report = drain.join();
+        assertThat(report.rooms()).isEqualTo(2);
+        assertThat(report.migrated()).hasSize(2);
+        assertThat(report.failed()).isEmpty();
+        assertThat(a.engine().getRoomIds()).isEmpty();
+        assertThat(b.engine().getRoomIds()).containsExactlyInAnyOrder(waiting, playing);
+        // New rooms land on b only
+        for (int i = 0; i < 100; i++) {
+            assertThat(a.directory().ownerOf("fresh-" + i)).isEqualTo("b");
+            assertThat(b.directory().ownerOf("fresh-" + i)).isEqualTo("b");
+        }
+
+        // Once a comes back it takes new rooms again
+        Node restarted = Node.start("a", transport);
+        assertThat(b.directory().isRetired("a")).isFalse();
+        assertThat(restarted.directory().ownerOf(roomOwnedBy("a", 2))).isEqualTo("a");
+    }
+
+    private GameRoom startGame(String roomId) {
+        GameRoom room = a.engine().createRoom(roomId, "alice");
+        a.engine().joinRoom(roomId, "bob");
+        a.engine().startGame(roomId, "alice");
+        a.engine().playerSelectRole(roomId, "alice", "TRADER");
+        return room;
+    }
+
+    private static String roomOwnedBy(String node, int skip) {
+        RoomDirectory ring = new RoomDirectory(node, NODES, 64);
+        for (int i = 0; ; i++) {
+            if (ring.ownerOf("room-" + i).equals(node) && skip-- == 0) {
+                return "room-" + i;
+            }
+        }
+    }
+
+    static final class DirectTransport implements ClusterTransport {
+
+        private final Map<String, Receiver> nodes = new ConcurrentHashMap<>();
+        private final List<Runnable> held = new CopyOnWriteArrayList<>();
+        private volatile ClusterFrame.Kind holding;
+
+        /** Keeps frames of this kind back until {@link #release()}. */
+        void hold(ClusterFrame.Kind kind) {
+            holding = kind;
+        }
+
+        void release() {
+            holding = null;
+            held.forEach(Runnable::run);
+            held.clear();
+        }
+
+        @Override
+        public void join(String nodeId, Receiver receiver) {
+            nodes.put(nodeId, receiver);
+        }
+
+        @Override
+        public void leave(String nodeId) {
+            nodes.remove(nodeId);
+        }
+
+        @Override
+        public void broadcast(ClusterFrame frame) {
+            nodes.forEach((id, receiver) -> {
+                if (!id.equals(frame.origin())) {
+                    receiver.receive(frame);
+                }
+            });
+        }
+
+        @Override
+        public void send(String nodeId, ClusterFrame frame) {
+            if (frame.kind() == holding) {
+                held.add(() -> nodes.get(nodeId).receive(frame));
+                return;
+            }
+            nodes.get(nodeId).receive(frame);
+        }
+    }
+}
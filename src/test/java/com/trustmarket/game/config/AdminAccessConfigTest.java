@@ -0,0 +1,36 @@
+package com.trustmarket.game.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdminAccessConfigTest {
+
+    @Test
+    void onlyTheConfiguredTokenIsAdmitted() {
+        AdminAccessConfig.AdminTokenInterceptor guard = new AdminAccessConfig.AdminTokenInterceptor("s3cret");
+
+        assertThat(call(guard, null).getStatus()).isEqualTo(403);
+        assertThat(call(guard, "wrong").getStatus()).isEqualTo(403);
+        assertThat(call(guard, "s3cret").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void withoutATokenTheAdminApiIsOff() {
+        AdminAccessConfig.AdminTokenInterceptor guard = new AdminAccessConfig.AdminTokenInterceptor("");
+
+        assertThat(call(guard, "").getStatus()).isEqualTo(403);
+    }
+
+    private static MockHttpServletResponse call(AdminAccessConfig.AdminTokenInterceptor guard, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/trace");
+        if (token != null) {
+            request.addHeader(AdminAccessConfig.TOKEN_HEADER, token);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        guard.preHandle(request, response, new Object());
+        return response;
+    }
+}
@@ -0,0 +1,98 @@
+package com.trustmarket.game.controller;
+
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.replay.ReplayFile;
+import com.trustmarket.game.replay.ReplayRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@WebMvcTest(ReplayController.class)
+class ReplayControllerTest {
+
+    private static final String ROOM_ID = "replay-room";
+    private static final long GAME_MILLIS = 1000;
+
+    @TempDir
+    static Path dir;
+
+    static String replayId;
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockitoBean
+    ReplayRecorder replayRecorder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(replayRecorder.getDirectory()).thenReturn(dir);
+        if (replayId == null) {
+            replayId = record();
+        }
+    }
+
+    @Test
+    void moreConcurrentReplaysThanTheDefaultPoolHasThreadsStreamSideBySide() throws Exception {
+        long started = System.nanoTime();
+        List<MvcResult> streams = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            streams.add(mvc.perform(get("/api/replays/{id}", replayId)).andExpect(request().asyncStarted())
+                    .andReturn());
+        }
+        for (MvcResult stream : streams) {
+            stream.getAsyncResult(10_000);
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        for (MvcResult stream : streams) {
+            assertThat(stream.getResponse().getContentAsByteArray()).isNotEmpty();
+        }
+        // Eight pooled threads would play the last four only after the first eight finished
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(GAME_MILLIS).isLessThan(2 * GAME_MILLIS - 200);
+    }
+
+    /** Records a one-second game: one frame at round one, one a second later. */
+    private static String record() throws Exception {
+        ReplayRecorder recorder = new ReplayRecorder(dir.toString(), true, 20, 1024);
+        recorder.start();
+        recorder.onGameEvent(GameEvent.builder().type(GameEvent.Type.PHASE_STARTED).roomId(ROOM_ID).round(1)
+                .value(GameState.BLIND_BET.name()).build());
+        Thread.sleep(100);
+        send(recorder, "{\"state\":\"BLIND_BET\"}");
+        Thread.sleep(GAME_MILLIS);
+        send(recorder, "{\"state\":\"FINISHED\"}");
+        recorder.onGameEvent(GameEvent.builder().type(GameEvent.Type.GAME_FINISHED).roomId(ROOM_ID)
+                .payload(List.of("alice")).build());
+        Thread.sleep(200);
+        recorder.close();
+        return ReplayFile.list(dir, ROOM_ID).get(0).id();
+    }
+
+    private static void send(ReplayRecorder recorder, String payload) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setDestination("/topic/game/" + ROOM_ID);
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        recorder.preSend(MessageBuilder.createMessage(payload.getBytes(StandardCharsets.UTF_8),
+                headers.getMessageHeaders()), null);
+    }
+}
@@ -0,0 +1,127 @@
+package com.trustmarket.game.controller;
+
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.RoomSnapshotCache;
+import com.trustmarket.game.service.TestEngines;
+import com.trustmarket.game.service.UserProfileCache;
+import com.trustmarket.game.service.admission.CommandDeduplicator;
+import com.trustmarket.game.service.admission.CommandRateLimiter;
+import com.trustmarket.game.service.trace.RoomTracer;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class RoomActionsTest {
+
+    VirtualGameScheduler clock;
+    GameEngine engine;
+    CommandRateLimiter limiter;
+    MockMvc mvc;
+    List<GameEvent> events = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualGameScheduler();
+        engine = TestEngines.engine(clock, 1, event -> events.add((GameEvent) event));
+        limiter = new CommandRateLimiter(clock, 5, 10, 50, 100, 10_000);
+        mvc = MockMvcBuilders
+                .standaloneSetup(new RoomController(engine, mock(UserProfileCache.class),
+                        mock(RoomSnapshotCache.class), limiter, new CommandDeduplicator(clock, 32, 120_000),
+                        new RoomTracer()))
+                .build();
+
+        engine.createRoom("r1", "alice");
+        engine.joinRoom("r1", "bob");
+        engine.joinRoom("r1", "carol");
+        engine.startGame("r1", "alice");
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void appliesTypedActionsInOrderInOneRequest() throws Exception {
+        mvc.perform(actions("alice", """
+                        [{"type":"role","role":"trader"},{"type":"bet","amount":5000},{"type":"answer","answer":"b"}]
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(3))
+                .andExpect(jsonPath("$.role").value("TRADER"))
+                .andExpect(jsonPath("$.bet").value(2000.0))
+                .andExpect(jsonPath("$.selectedAnswer").value("B"));
+
+        mvc.perform(actions("bob", """
+                        [{"type":"role","role":"INVESTOR"},{"type":"bet","amount":100},{"type":"invest","targetId":"alice"}]
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.investTargetId").value("alice"));
+
+        assertThat(events).filteredOn(e -> "bob".equals(e.getPlayerId())).extracting(GameEvent::getType)
+                .containsSubsequence(GameEvent.Type.ROLE_SELECTED, GameEvent.Type.BET_PLACED,
+                        GameEvent.Type.INVESTED);
+    }
+
+    @Test
+    void rejectsTheWholeBatchIfAnyActionIsInvalid() throws Exception {
+        events.clear();
+
+        // bob is not a trader, so the invest fails and the role and bet before it are not applied either
+        mvc.perform(actions("carol", """
+                        [{"type":"role","role":"INVESTOR"},{"type":"bet","amount":100},{"type":"invest","targetId":"bob"}]
+                        """))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Action 2 rejected: bob is not a trader"));
+
+        GameRoom room = engine.getRoom("r1");
+        Player carol = room.getPlayers().get("carol");
+        assertThat(carol.getRole()).isNull();
+        assertThat(carol.getBlindBetAmount()).isZero();
+        assertThat(events).isEmpty();
+
+        mvc.perform(actions("carol", "[]")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void retriedBatchIsAnsweredFromTheFirstAttempt() throws Exception {
+        events.clear();
+        String body = """
+                {"playerId":"bob","commandId":"c-1","actions":[{"type":"role","role":"INVESTOR"},{"type":"bet","amount":100}]}
+                """;
+
+        String first = mvc.perform(post("/api/rooms/r1/actions").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        int eventsAfterFirst = events.size();
+        for (int i = 0; i < 3; i++) {
+            mvc.perform(post("/api/rooms/r1/actions").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(first));
+        }
+
+        assertThat(events).hasSize(eventsAfterFirst);
+        assertThat(limiter.stats()).containsEntry("admitted", 1L);
+    }
+
+    private static RequestBuilder actions(String playerId, String actions) {
+        return post("/api/rooms/r1/actions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"playerId\":\"" + playerId + "\",\"actions\":" + actions.strip() + "}");
+    }
+}
@@ -0,0 +1,155 @@
+package com.trustmarket.game.history;
+
+import com.trustmarket.game.controller.HistoryController;
+import com.trustmarket.game.model.game.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HistoryRepositoryTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    HistoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new HistoryRepository(jdbcTemplate, transactionManager, 0);
+        repository.ensureSchema();
+        jdbcTemplate.execute("DELETE FROM round_history_player");
+        jdbcTemplate.execute("DELETE FROM round_history");
+    }
+
+    @Test
+    void cursorWalksAPlayersRoundsNewestFirstAcrossDays() {
+        List<ArchivedRound> rounds = new ArrayList<>();
+        long start = 1_760_000_000_000L;
+        for (int i = 0; i < 7; i++) {
+            // Two rounds share each timestamp so the round id has to break ties
+            long playedAt = start + (i / 2) * DAY;
+            rounds.add(round("room-" + i, i, playedAt, i % 3 == 0 ? List.of("alice", "bob") : List.of("bob")));
+        }
+        repository.insert(rounds);
+
+        List<String> seen = new ArrayList<>();
+        HistoryCursor cursor = HistoryCursor.START;
+        for (int page = 0; page < 10; page++) {
+            List<HistoryRepository.HistoryRow> rows = new ArrayList<>();
+            repository.page("bob", cursor, 3, rows::add);
+            rows.forEach(r -> seen.add(r.roomId()));
+            if (rows.size() < 3) break;
+            HistoryRepository.HistoryRow last = rows.get(rows.size() - 1);
+            cursor = HistoryCursor.decode(new HistoryCursor(last.playedAt(), last.roundId()).encode());
+        }
+
+        assertThat(seen).hasSize(7).doesNotHaveDuplicates();
+        assertThat(seen.subList(0, 1)).containsExactly("room-6");
+
+        List<HistoryRepository.HistoryRow> alice = new ArrayList<>();
+        repository.page("alice", null, 50, alice::add);
+        assertThat(alice).extracting(HistoryRepository.HistoryRow::roomId)
+                .containsExactly("room-6", "room-3", "room-0");
+    }
+
+    @Test
+    void playersSharingADisplayNameAreArchivedSeparately() {
+        ArchivedRound twins = ArchivedRound.builder()
+                .roundId("00000001-room-twins")
+                .roomId("room-twins")
+                .round(1)
+                .playedAt(1_760_000_000_000L)
+                .players(List.of(entry("eve", "eve"), entry("eve-2", "eve")))
+                .build();
+
+        repository.insert(List.of(twins, round("room-solo", 2, 1_760_000_001_000L, List.of("eve"))));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM round_history_player", Integer.class))
+                .isEqualTo(3);
+        List<HistoryRepository.HistoryRow> eve = new ArrayList<>();
+        repository.page("eve", null, 50, eve::add);
+        assertThat(eve).extracting(HistoryRepository.HistoryRow::roomId).containsExactly("room-solo", "room-twins");
+    }
+
+    @Test
+    void detailsRoundTripThroughCompression() {
+        repository.insert(List.of(round("room-x", 4, 1_760_000_000_000L, List.of("carol"))));
+
+        List<HistoryRepository.HistoryRow> rows = new ArrayList<>();
+        repository.page(null, null, 10, rows::add);
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).detailsJson())
+                .contains("\"question\":{\"question\":\"Q4\"")
+                .contains("\"secretRole\":\"ORACLE\"")
+                .contains("\"profit\":25.0");
+    }
+
+    @Test
+    void historyEndpointStreamsAPageWithItsNextCursor() throws Exception {
+        repository.insert(List.of(
+                round("room-a", 1, 1_760_000_000_000L, List.of("dave")),
+                round("room-b", 2, 1_760_000_001_000L, List.of("dave"))));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new HistoryController(repository)).build();
+
+        MvcResult pending = mvc.perform(get("/api/history").param("player", "dave").param("limit", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rounds[0].roomId").value("room-b"))
+                .andExpect(jsonPath("$.rounds[0].details.players[0].name").value("dave"))
+                .andExpect(jsonPath("$.nextCursor").isString());
+
+        mvc.perform(get("/api/history").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static ArchivedRound round(String roomId, int round, long playedAt, List<String> players) {
+        return ArchivedRound.builder()
+                .roundId(String.format("%08d-%s", round, roomId))
+                .roomId(roomId)
+                .round(round)
+                .playedAt(playedAt)
+                .question(Map.of("question", "Q" + round))
+                .players(players.stream().map(name -> entry(name, name)).toList())
+                .build();
+    }
+
+    private static ArchivedRound.Entry entry(String playerId, String name) {
+        return ArchivedRound.Entry.builder()
+                .playerId(playerId)
+                .name(name)
+                .role(Player.Role.TRADER)
+                .secretRole(Player.SecretRole.ORACLE)
+                .bet(100)
+                .cashBefore(1000)
+                .cashAfter(1025)
+                .profit(25)
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.trustmarket.game.journal;
+
+import com.trustmarket.game.event.GameEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Sustained journal throughput: {@code append} as the game loop sees it, and one durable batch
+ * (append × batch + flush) as recovery depends on it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameJournalBenchmark {
+
+    @Param({"1", "64", "1024"})
+    private int batch;
+
+    private Path directory;
+    private MappedGameJournal journal;
+    private GameEvent event;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-bench");
+        journal = new MappedGameJournal(directory, 64 * 1024 * 1024, 262_144, 8192);
+        journal.start();
+        event = GameEvent.builder()
+                .type(GameEvent.Type.BET_PLACED)
+                .timestamp(System.currentTimeMillis())
+                .roomId("bench-room")
+                .round(3)
+                .playerId("player-0042")
+                .amount(250)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public void durableBatch() {
+        for (int i = 0; i < 1024; i += batch) {
+            for (int j = 0; j < batch; j++) {
+                journal.append(event);
+            }
+            journal.flush();
+        }
+    }
+}
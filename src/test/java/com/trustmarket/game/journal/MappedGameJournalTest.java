@@ -0,0 +1,279 @@
+package com.trustmarket.game.journal;
+
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.TestEngines;
+import com.trustmarket.game.service.lobby.LobbyReaper;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import com.trustmarket.game.service.tournament.TournamentService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class MappedGameJournalTest {
+
+    private static final String ROOM_ID = "journal-room";
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replayRebuildsARoomStoppedMidRound() {
+        MappedGameJournal journal = open();
+        VirtualGameScheduler clock = new VirtualGameScheduler();
+        GameEngine engine = engine(clock, journal);
+
+        GameRoom live = engine.createRoom(ROOM_ID, "host");
+        engine.joinRoom(ROOM_ID, "alice");
+        engine.joinRoom(ROOM_ID, "bob");
+        engine.joinRoom(ROOM_ID, "carol");
+        engine.startGame(ROOM_ID, "host");
+
+        // Two full rounds, then stop in the middle of round 3's CLOSING phase
+        playUntil(engine, clock, live, 3, GameState.CLOSING);
+        clock.advanceBy(3_000);
+        engine.shutdown();
+        journal.close();
+
+        MappedGameJournal reopened = open();
+        RoomReplayer replayer = new RoomReplayer();
+        reopened.replay(replayer::apply);
+        reopened.close();
+
+        List<RoomReplayer.RecoveredRoom> rooms = replayer.liveRooms();
+        assertThat(rooms).hasSize(1);
+        GameRoom recovered = rooms.get(0).room();
+
+        assertThat(recovered.getCurrentState()).isEqualTo(GameState.CLOSING);
+        assertThat(recovered.getCurrentRound()).isEqualTo(3);
+        assertThat(recovered.getCurrentQuestion()).isEqualTo(live.getCurrentQuestion());
+        // The last journaled event is the investments at the start of CLOSING; ticks are not journaled
+        assertThat(recovered.getTimeRemaining()).isBetween(live.getTimeRemaining(), 10);
+        assertThat(rooms.get(0).settlementPending()).isFalse();
+        for (Player expected : live.getPlayers().values()) {
+            Player actual = recovered.getPlayer(expected.getId());
+            assertThat(actual.getCash()).isEqualTo(expected.getCash());
+            assertThat(actual.getRole()).isEqualTo(expected.getRole());
+            assertThat(actual.getSecretRole()).isEqualTo(expected.getSecretRole());
+            assertThat(actual.getBlindBetAmount()).isEqualTo(expected.getBlindBetAmount());
+            assertThat(actual.getSelectedAnswer()).isEqualTo(expected.getSelectedAnswer());
+            assertThat(actual.getInvestTargetId()).isEqualTo(expected.getInvestTargetId());
+        }
+    }
+
+    @Test
+    void tornTailIsIgnored() throws IOException {
+        MappedGameJournal journal = open();
+        for (int i = 0; i < 10; i++) {
+            journal.append(event(i));
+        }
+        journal.close();
+
+        // Flip a byte inside the last record's body, as a crash mid-write would leave it
+        Path segment = segments().get(0);
+        int lastRecordEnd = 0;
+        int lastBodyStart = 0;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            while (true) {
+                file.seek(lastRecordEnd);
+                int length = file.readInt();
+                if (length == 0) break;
+                lastBodyStart = lastRecordEnd + 8;
+                lastRecordEnd = lastBodyStart + length;
+            }
+            file.seek(lastBodyStart + 2);
+            file.write(0x7F);
+        }
+
+        MappedGameJournal reopened = open();
+        List<GameEvent> replayed = new ArrayList<>();
+        reopened.replay(replayed::add);
+        reopened.close();
+
+        assertThat(replayed).hasSize(9);
+        assertThat(replayed.get(8).getAmount()).isEqualTo(8);
+    }
+
+    @Test
+    void fullQueueDropsInsteadOfBlockingTheEngine() {
+        MappedGameJournal stalled = new MappedGameJournal(dir, SEGMENT_BYTES, 2, 64);
+        // Never started: nothing drains the queue
+        for (int i = 0; i < 5; i++) {
+            stalled.append(event(i));
+        }
+
+        assertThat(stalled.getQueued()).isEqualTo(2);
+        assertThat(stalled.getDropped()).isEqualTo(3);
+    }
+
+    @Test
+    void droppedEventIsRepairedByACheckpointOfItsRoom() {
+        MappedGameJournal journal = new MappedGameJournal(dir, SEGMENT_BYTES, 3, 64);
+        VirtualGameScheduler clock = new VirtualGameScheduler();
+        GameEngine engine = engine(clock, journal);
+        journal.addDropListener(engine::requestCheckpoint);
+
+        // The writer isn't running yet, so the lobby's later joins overflow the queue
+        GameRoom live = engine.createRoom(ROOM_ID, "host");
+        for (String player : List.of("alice", "bob", "carol", "dave")) {
+            engine.joinRoom(ROOM_ID, player);
+        }
+        assertThat(journal.getDropped()).isPositive();
+        journal.start();
+        journal.flush();
+        clock.advanceBy(1_000);
+        engine.shutdown();
+        journal.close();
+
+        MappedGameJournal reopened = open();
+        RoomReplayer replayer = new RoomReplayer();
+        reopened.replay(replayer::apply);
+        reopened.close();
+
+        List<RoomReplayer.RecoveredRoom> rooms = replayer.liveRooms();
+        assertThat(rooms).hasSize(1);
+        assertThat(rooms.get(0).room().getPlayers().keySet())
+                .containsExactlyInAnyOrderElementsOf(live.getPlayers().keySet());
+    }
+
+    @Test
+    void segmentsBeforeTheLatestSnapshotAreReclaimed() throws IOException {
+        MappedGameJournal journal = open(16 * 1024);
+        VirtualGameScheduler clock = new VirtualGameScheduler();
+        GameEngine engine = engine(clock, journal);
+
+        GameRoom live = engine.createRoom(ROOM_ID, "host");
+        for (int i = 0; i < 20; i++) {
+            engine.joinRoom(ROOM_ID, "player-" + i);
+        }
+        live.setTotalRounds(8);
+        engine.startGame(ROOM_ID, "host");
+        playUntil(engine, clock, live, 8, GameState.CALCULATION);
+        engine.shutdown();
+        journal.flush();
+
+        // Eight rounds fill several 16 KB segments, but each round starts with a snapshot of the room
+        List<Path> segments = segments();
+        assertThat(segments.get(segments.size() - 1).getFileName().toString()).isGreaterThan("journal-000004.log");
+        assertThat(segments.size()).isLessThanOrEqualTo(3);
+        journal.close();
+    }
+
+    @Test
+    void abandonedLobbyPinsOnlyItsOwnSegmentUntilItIsClosed() throws IOException {
+        MappedGameJournal journal = open(16 * 1024);
+        VirtualGameScheduler clock = new VirtualGameScheduler();
+        GameEngine engine = engine(clock, journal);
+        LobbyReaper reaper = new LobbyReaper(engine, clock, mock(TournamentService.class), 500_000, 10_000);
+        reaper.start();
+
+        // Created first and never started: it only ever wrote to the first segment
+        engine.createRoom("lobby", "nobody");
+        GameRoom live = engine.createRoom(ROOM_ID, "host");
+        for (int i = 0; i < 20; i++) {
+            engine.joinRoom(ROOM_ID, "player-" + i);
+        }
+        live.setTotalRounds(8);
+        engine.startGame(ROOM_ID, "host");
+        playUntil(engine, clock, live, 4, GameState.CALCULATION);
+        journal.flush();
+
+        // The lobby keeps the first segment, but the game's older segments behind it are already gone
+        assertThat(segmentNames()).contains("journal-000001.log").doesNotContain("journal-000002.log");
+
+        playUntil(engine, clock, live, 8, GameState.CALCULATION);
+        engine.shutdown();
+        journal.flush();
+
+        assertThat(reaper.getExpired()).isEqualTo(1);
+        assertThat(segmentNames()).doesNotContain("journal-000001.log");
+        journal.close();
+    }
+
+    private MappedGameJournal open() {
+        return open(SEGMENT_BYTES);
+    }
+
+    private MappedGameJournal open(int segmentBytes) {
+        MappedGameJournal journal = new MappedGameJournal(dir, segmentBytes, 1024, 64);
+        journal.start();
+        return journal;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private List<String> segmentNames() throws IOException {
+        return segments().stream().map(p -> p.getFileName().toString()).toList();
+    }
+
+    private static GameEngine engine(VirtualGameScheduler clock, MappedGameJournal journal) {
+        return TestEngines.engine(clock, 42, event -> journal.append((GameEvent) event));
+    }
+
+    /** Ticks the virtual clock, betting and answering like a small table would, until the target phase starts. */
+    private static void playUntil(GameEngine engine, VirtualGameScheduler clock, GameRoom room,
+                                  int round, GameState state) {
+        GameState last = null;
+        while (!(room.getCurrentRound() == round && room.getCurrentState() == state)) {
+            GameState current = room.getCurrentState();
+            if (current != last) {
+                act(engine, room, current);
+                last = current;
+            }
+            clock.advanceBy(1_000);
+        }
+        act(engine, room, state);
+    }
+
+    private static void act(GameEngine engine, GameRoom room, GameState state) {
+        List<Player> players = room.getPlayers().values().stream()
+                .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                .toList();
+        if (state == GameState.BLIND_BET) {
+            for (int i = 0; i < players.size(); i++) {
+                Player p = players.get(i);
+                engine.playerSelectRole(ROOM_ID, p.getId(), i % 2 == 0 ? "TRADER" : "INVESTOR");
+                engine.handleBet(ROOM_ID, p.getId(), 100 + i);
+            }
+        } else if (state == GameState.CLOSING) {
+            List<Player> traders = players.stream().filter(p -> p.getRole() == Player.Role.TRADER).toList();
+            for (int i = 0; i < players.size(); i++) {
+                Player p = players.get(i);
+                if (p.getRole() == Player.Role.TRADER) {
+                    engine.submitAnswer(ROOM_ID, p.getId(), i % 3 == 0 ? "A" : "B");
+                } else {
+                    engine.handleInvest(ROOM_ID, p.getId(), traders.get(i % traders.size()).getId());
+                }
+            }
+        }
+    }
+
+    private static GameEvent event(int i) {
+        return GameEvent.builder()
+                .type(GameEvent.Type.BET_PLACED)
+                .timestamp(i)
+                .roomId(ROOM_ID)
+                .round(1)
+                .playerId("p" + i)
+                .amount(i)
+                .build();
+    }
+}
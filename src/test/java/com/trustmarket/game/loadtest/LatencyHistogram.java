@@ -0,0 +1,51 @@
+package com.trustmarket.game.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free fixed-resolution histogram: 100 µs buckets up to 10 s, everything above lands in the last bucket.
+ * Good enough to read p50/p99/p999 of game-loop latencies without pulling in HdrHistogram.
+ */
+final class LatencyHistogram {
+
+    private static final long BUCKET_MICROS = 100;
+    private static final int BUCKETS = 100_000;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+
+    void recordNanos(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        int bucket = (int) Math.min(BUCKETS - 1, micros / BUCKET_MICROS);
+        counts.incrementAndGet(bucket);
+        total.increment();
+    }
+
+    long count() {
+        return total.sum();
+    }
+
+    /** @return the upper bound of the bucket holding the given quantile, in milliseconds */
+    double percentileMillis(double quantile) {
+        long n = count();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return (i + 1) * BUCKET_MICROS / 1000.0;
+            }
+        }
+        return BUCKETS * BUCKET_MICROS / 1000.0;
+    }
+
+    String summary() {
+        return String.format("n=%-9d p50=%8.1f ms  p99=%8.1f ms  p999=%8.1f ms",
+                count(), percentileMillis(0.50), percentileMillis(0.99), percentileMillis(0.999));
+    }
+}
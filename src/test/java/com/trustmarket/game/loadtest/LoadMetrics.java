@@ -0,0 +1,86 @@
+package com.trustmarket.game.loadtest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Everything the load generator measures, shared by all simulated players.
+ */
+final class LoadMetrics {
+
+    private final LatencyHistogram endToEnd = new LatencyHistogram();
+    private final LatencyHistogram tickLag = new LatencyHistogram();
+    private final LatencyHistogram phaseJitter = new LatencyHistogram();
+    private final LatencyHistogram spectatorLag = new LatencyHistogram();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder connected = new LongAdder();
+    private final LongAdder spectatorFrames = new LongAdder();
+    private final LongAdder spectators = new LongAdder();
+
+    void recordEndToEnd(long nanos) {
+        endToEnd.recordNanos(nanos);
+    }
+
+    void recordTickLag(long nanos) {
+        tickLag.recordNanos(nanos);
+    }
+
+    void recordPhaseJitter(long nanos) {
+        phaseJitter.recordNanos(nanos);
+    }
+
+    void recordSpectatorLag(long nanos) {
+        spectatorLag.recordNanos(nanos);
+    }
+
+    void countSpectatorFrame() {
+        spectatorFrames.increment();
+    }
+
+    void spectatorConnected() {
+        spectators.increment();
+    }
+
+    void countFrame() {
+        frames.increment();
+    }
+
+    void countCommand() {
+        commands.increment();
+    }
+
+    void countError() {
+        errors.increment();
+    }
+
+    void playerConnected() {
+        connected.increment();
+    }
+
+    long connectedPlayers() {
+        return connected.sum();
+    }
+
+    double tickLagP99Millis() {
+        return tickLag.percentileMillis(0.99);
+    }
+
+    String report(int rooms, int playersPerRoom, double seconds) {
+        return String.join(System.lineSeparator(),
+                "",
+                "═══════════════ STOMP load test ═══════════════",
+                String.format("rooms=%d players/room=%d connected=%d duration=%.0fs",
+                        rooms, playersPerRoom, connectedPlayers(), seconds),
+                "E2E (invest → trust-update) " + endToEnd.summary(),
+                "Tick lag (frame gap - 1s)   " + tickLag.summary(),
+                "Phase-transition jitter     " + phaseJitter.summary(),
+                String.format("Broadcast throughput        %.0f frames/s received, %.1f commands/s sent, %d errors",
+                        frames.sum() / seconds, commands.sum() / seconds, errors.sum()),
+                String.format("Tick lag p99 %s 100 ms", tickLagP99Millis() > 100 ? "EXCEEDS" : "within"),
+                String.format("Spectator fan-out           %d spectators, %.0f frames/s received",
+                        spectators.sum(), spectatorFrames.sum() / seconds),
+                "Spectator lag (gap - intvl) " + spectatorLag.summary(),
+                "");
+    }
+}
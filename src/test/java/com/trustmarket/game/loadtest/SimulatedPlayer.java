@@ -0,0 +1,195 @@
+package com.trustmarket.game.loadtest;
+
+import com.trustmarket.game.dto.request.AnswerRequest;
+import com.trustmarket.game.dto.request.BetRequest;
+import com.trustmarket.game.dto.request.JoinRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * One headless player: joins over STOMP, subscribes to every room topic, bets in BLIND_BET and
+ * answers (trader) or invests (investor) in CLOSING. Only the room's first player records phase timings,
+ * so every room contributes one sample per tick.
+ */
+@Slf4j
+class SimulatedPlayer extends StompSessionHandlerAdapter {
+
+    private final String roomId;
+    private final String nickname;
+    private final boolean observer;
+    private final LoadMetrics metrics;
+
+    private volatile StompSession session;
+    private volatile List<String> traderIds = List.of();
+    private volatile long pendingInvestNanos;
+
+    // Only touched from the session's inbound thread
+    private String lastState;
+    private int lastRound;
+    private long lastFrameNanos;
+    private long phaseStartNanos;
+    private int phaseSeconds;
+    private boolean actedThisPhase;
+    private boolean trader;
+
+    SimulatedPlayer(String roomId, String nickname, boolean observer, LoadMetrics metrics) {
+        this.roomId = roomId;
+        this.nickname = nickname;
+        this.observer = observer;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+        this.session = session;
+        session.subscribe("/topic/game/" + roomId, handler(Map.class, this::onRoomFrame));
+        session.subscribe("/topic/game/" + roomId + "/traders", handler(Map.class, this::onTraders));
+        session.subscribe("/topic/game/" + roomId + "/results", handler(Map.class, payload -> metrics.countFrame()));
+        session.subscribe("/topic/game/" + roomId + "/trust-update", handler(Map.class, payload -> metrics.countFrame()));
+        session.subscribe("/topic/game/" + roomId + "/error", handler(Map.class, payload -> metrics.countFrame()));
+        session.subscribe("/topic/room/" + roomId + "/players", handler(List.class, payload -> metrics.countFrame()));
+        session.subscribe("/topic/room/" + roomId + "/trust-update", handler(String.class, payload -> onTrustUpdate()));
+
+        JoinRequest join = new JoinRequest();
+        join.setRoomId(roomId);
+        join.setNickname(nickname);
+        session.send("/app/game/join", join);
+        metrics.playerConnected();
+    }
+
+    @Override
+    public void handleTransportError(StompSession session, Throwable exception) {
+        metrics.countError();
+        log.debug("Transport error for {}: {}", nickname, exception.getMessage());
+    }
+
+    void disconnect() {
+        StompSession s = session;
+        if (s != null && s.isConnected()) {
+            s.disconnect();
+        }
+    }
+
+    private void onRoomFrame(Map<?, ?> frame) {
+        long now = System.nanoTime();
+        metrics.countFrame();
+
+        String state = String.valueOf(frame.get("currentState"));
+        int round = frame.get("currentRound") instanceof Number n ? n.intValue() : 0;
+        int remaining = frame.get("timeRemaining") instanceof Number n ? n.intValue() : 0;
+        boolean phaseChanged = !state.equals(lastState) || round != lastRound;
+
+        if (observer && lastFrameNanos != 0) {
+            if (phaseChanged) {
+                if (phaseStartNanos != 0 && phaseSeconds > 0) {
+                    metrics.recordPhaseJitter(Math.abs((now - phaseStartNanos) - phaseSeconds * 1_000_000_000L));
+                }
+            } else {
+                // A regular tick: anything past one second is scheduler/broadcast lag
+                metrics.recordTickLag(Math.max(0, (now - lastFrameNanos) - 1_000_000_000L));
+            }
+        }
+
+        if (phaseChanged) {
+            lastState = state;
+            lastRound = round;
+            phaseStartNanos = now;
+            phaseSeconds = remaining;
+            actedThisPhase = false;
+        }
+        lastFrameNanos = now;
+
+        if (!actedThisPhase) {
+            if ("BLIND_BET".equals(state)) {
+                placeBet();
+                actedThisPhase = true;
+            } else if ("CLOSING".equals(state)) {
+                answer();
+                actedThisPhase = true;
+            }
+        }
+    }
+
+    private void placeBet() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        trader = random.nextInt(3) == 0;
+        BetRequest bet = new BetRequest();
+        bet.setRoomId(roomId);
+        bet.setRole(trader ? "TRADER" : "INVESTOR");
+        bet.setAmount(50 + random.nextInt(450));
+        send("/app/game/bet", bet);
+    }
+
+    private void answer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        AnswerRequest answer = new AnswerRequest();
+        answer.setRoomId(roomId);
+        if (trader) {
+            answer.setSelectedAnswer(String.valueOf((char) ('A' + random.nextInt(4))));
+        } else {
+            List<String> traders = traderIds;
+            if (traders.isEmpty()) {
+                return;
+            }
+            answer.setTargetTraderId(traders.get(random.nextInt(traders.size())));
+            // The server answers an investment with a trust-update broadcast: that round trip is our E2E latency
+            pendingInvestNanos = System.nanoTime();
+        }
+        send("/app/game/answer", answer);
+    }
+
+    private void onTraders(Map<?, ?> payload) {
+        metrics.countFrame();
+        if (payload.get("traders") instanceof List<?> traders) {
+            traderIds = traders.stream()
+                    .filter(Map.class::isInstance)
+                    .map(t -> String.valueOf(((Map<?, ?>) t).get("id")))
+                    .toList();
+        }
+    }
+
+    private void onTrustUpdate() {
+        metrics.countFrame();
+        long sent = pendingInvestNanos;
+        if (sent != 0) {
+            pendingInvestNanos = 0;
+            metrics.recordEndToEnd(System.nanoTime() - sent);
+        }
+    }
+
+    private void send(String destination, Object payload) {
+        StompSession s = session;
+        if (s == null || !s.isConnected()) {
+            return;
+        }
+        try {
+            s.send(destination, payload);
+            metrics.countCommand();
+        } catch (Exception e) {
+            metrics.countError();
+        }
+    }
+
+    private static <T> StompFrameHandler handler(Class<T> type, Consumer<T> consumer) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return type;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                consumer.accept(type.cast(payload));
+            }
+        };
+    }
+}
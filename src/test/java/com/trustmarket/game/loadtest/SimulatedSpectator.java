@@ -0,0 +1,67 @@
+package com.trustmarket.game.loadtest;
+
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * One headless spectator: subscribes to {@code /topic/spectate/{roomId}} and records how far apart its
+ * frames arrive relative to the configured spectator interval.
+ */
+class SimulatedSpectator extends StompSessionHandlerAdapter {
+
+    private final String roomId;
+    private final long intervalNanos;
+    private final LoadMetrics metrics;
+
+    private volatile StompSession session;
+    private long lastFrameNanos;
+
+    SimulatedSpectator(String roomId, long intervalMillis, LoadMetrics metrics) {
+        this.roomId = roomId;
+        this.intervalNanos = intervalMillis * 1_000_000;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+        this.session = session;
+        session.subscribe("/topic/spectate/" + roomId, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                onFrame();
+            }
+        });
+        metrics.spectatorConnected();
+    }
+
+    @Override
+    public void handleTransportError(StompSession session, Throwable exception) {
+        metrics.countError();
+    }
+
+    private void onFrame() {
+        long now = System.nanoTime();
+        if (lastFrameNanos != 0) {
+            metrics.recordSpectatorLag(Math.max(0, now - lastFrameNanos - intervalNanos));
+        }
+        lastFrameNanos = now;
+        metrics.countSpectatorFrame();
+    }
+
+    void disconnect() {
+        StompSession s = session;
+        if (s != null && s.isConnected()) {
+            s.disconnect();
+        }
+    }
+}
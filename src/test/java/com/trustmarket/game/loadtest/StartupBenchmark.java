@@ -0,0 +1,154 @@
+package com.trustmarket.game.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares cold starts of the default jar with the {@code fast-start} build (AOT + CDS archive): each run
+ * launches a fresh JVM, polls {@code POST /api/rooms/create} until the first room is created, then reads the
+ * process's resident set from {@code /proc} (Linux only; reported as -1 elsewhere).
+ *
+ * <pre>
+ * ./mvnw -Pfast-start -DskipTests package
+ * ./mvnw -Dmaven.resources.skip=true test-compile exec:java \
+ *     -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.trustmarket.game.loadtest.StartupBenchmark \
+ *     -Dstartup.runs=5 -Dstartup.app-args="--spring.datasource.url=jdbc:postgresql://db:5432/trustmarket_core"
+ * </pre>
+ *
+ * The default variant runs the jar built by the same {@code package}: Spring Boot's nested-jar launcher, no
+ * AOT, no archive.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(120);
+
+    private final int runs = Integer.getInteger("startup.runs", 5);
+    private final Path jar = Path.of(System.getProperty("startup.jar", "target/game-0.0.1-SNAPSHOT.jar"));
+    private final Path fastStartDir = Path.of(System.getProperty("startup.fast-dir", "target/fast-start"));
+    private final List<String> appArgs = splitArgs(System.getProperty("startup.app-args", ""));
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    record Sample(long firstRoomMillis, long rssKb) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        new StartupBenchmark().run();
+    }
+
+    private void run() throws Exception {
+        Path fastJar = fastStartDir.resolve(jar.getFileName());
+        Path archive = fastStartDir.resolve("application.jsa");
+        for (Path required : List.of(jar, fastJar, archive)) {
+            if (!Files.exists(required)) {
+                throw new IllegalStateException(required + " not found, run ./mvnw -Pfast-start package first");
+            }
+        }
+
+        List<Sample> baseline = new ArrayList<>();
+        List<Sample> fastStart = new ArrayList<>();
+        // Alternate the variants so page-cache warmth and background noise hit both alike
+        for (int i = 0; i < runs; i++) {
+            baseline.add(measure(List.of("-jar", jar.toString())));
+            fastStart.add(measure(List.of(
+                    "-XX:SharedArchiveFile=" + archive,
+                    "-Dspring.aot.enabled=true",
+                    "-Dspring.profiles.active=fast-start",
+                    "-jar", fastJar.toString())));
+        }
+
+        System.out.printf("%n%-12s %22s %22s%n", "", "first room ms (p50/min)", "RSS MB (p50/min)");
+        print("default", baseline);
+        print("fast-start", fastStart);
+    }
+
+    private Sample measure(List<String> jvmArgs) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("--server.port=" + port);
+        command.add("--game.journal.enabled=false");
+        command.addAll(appArgs);
+
+        File log = Files.createTempFile("startup-", ".log").toFile();
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            long firstRoom = awaitFirstRoom(port, started, process);
+            return new Sample(firstRoom, residentKb(process.pid()));
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException(e.getMessage() + ", see " + log, e);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private long awaitFirstRoom(int port, long started, Process process) throws InterruptedException {
+        HttpRequest create = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/rooms/create?roomId=probe&hostId=probe"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = started + START_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue());
+            }
+            try {
+                if (http.send(create, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                }
+            } catch (IOException notListeningYet) {
+                // keep polling
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No room created within " + START_TIMEOUT);
+    }
+
+    private static long residentKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // not Linux
+        }
+        return -1;
+    }
+
+    private static void print(String label, List<Sample> samples) {
+        long[] millis = samples.stream().mapToLong(Sample::firstRoomMillis).sorted().toArray();
+        long[] rss = samples.stream().mapToLong(Sample::rssKb).sorted().toArray();
+        System.out.printf("%-12s %15d / %-6d %15d / %-6d%n", label,
+                millis[millis.length / 2], millis[0], rss[rss.length / 2] / 1024, rss[0] / 1024);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<String> splitArgs(String args) {
+        return args.isBlank() ? List.of() : Arrays.asList(args.trim().split("\\s+"));
+    }
+}
@@ -0,0 +1,205 @@
+package com.trustmarket.game.loadtest;
+
+import com.trustmarket.game.TrustMarketBackendApplication;
+import com.trustmarket.game.model.game.Question;
+import com.trustmarket.game.service.AIService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.JacksonJsonMessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Headless capacity test: boots the application on a random port with a stubbed {@link AIService}
+ * and an in-memory H2 database, then drives {@code rooms × players} SockJS/STOMP sessions through
+ * full games and reports latency percentiles.
+ *
+ * <pre>
+ * ./mvnw -Dmaven.resources.skip=true test-compile exec:java \
+ *     -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.trustmarket.game.loadtest.StompLoadGenerator \
+ *     -Dloadtest.rooms=200 -Dloadtest.players=8 -Dloadtest.seconds=240 [-Dloadtest.spectators=10000]
+ * </pre>
+ *
+ * Rooms are created by a REST host and every simulated player joins through {@code RoomController};
+ * players then also join over {@code /app/game/join}, because {@code GameSocketController} keys
+ * bets and answers by STOMP session id. One round takes 95 s, so runs shorter than that never reach
+ * CLOSING and record no end-to-end samples.
+ */
+@Slf4j
+public final class StompLoadGenerator {
+
+    private final int rooms = Integer.getInteger("loadtest.rooms", 50);
+    private final int playersPerRoom = Integer.getInteger("loadtest.players", 6);
+    private final int seconds = Integer.getInteger("loadtest.seconds", 240);
+    private final long aiLatencyMillis = Long.getLong("loadtest.ai-latency-ms", 0);
+    private final int spectators = Integer.getInteger("loadtest.spectators", 0);
+    private final long spectatorIntervalMillis = Long.getLong("loadtest.spectator-interval-ms", 2000);
+
+    private final LoadMetrics metrics = new LoadMetrics();
+    private final List<SimulatedPlayer> players = new CopyOnWriteArrayList<>();
+    private final List<SimulatedSpectator> watchers = new CopyOnWriteArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        new StompLoadGenerator().run(args);
+    }
+
+    private void run(String[] args) throws Exception {
+        ConfigurableApplicationContext app = startApplication(args);
+        int port = Integer.parseInt(app.getEnvironment().getProperty("local.server.port", "8080"));
+        String httpBase = "http://localhost:" + port;
+
+        ThreadPoolTaskScheduler heartbeat = new ThreadPoolTaskScheduler();
+        heartbeat.setPoolSize(2);
+        heartbeat.initialize();
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new CompositeMessageConverter(
+                List.of(new StringMessageConverter(), new JacksonJsonMessageConverter())));
+        stompClient.setTaskScheduler(heartbeat);
+
+        RestClient rest = RestClient.create(httpBase);
+        ExecutorService connectors = Executors.newVirtualThreadPerTaskExecutor();
+
+        try {
+            log.info("Opening {} rooms × {} players against {}", rooms, playersPerRoom, httpBase);
+            List<Future<?>> seating = new ArrayList<>();
+            List<String> roomIds = new ArrayList<>();
+            for (int r = 0; r < rooms; r++) {
+                String roomId = "load-" + r + "-" + UUID.randomUUID().toString().substring(0, 8);
+                String hostId = "host-" + r;
+                roomIds.add(roomId);
+                rest.post().uri("/api/rooms/create?roomId={roomId}&hostId={hostId}", roomId, hostId)
+                        .retrieve().toBodilessEntity();
+
+                for (int p = 0; p < playersPerRoom; p++) {
+                    String nickname = roomId + "-p" + p;
+                    boolean observer = p == 0;
+                    seating.add(connectors.submit(() -> {
+                        rest.post().uri("/api/rooms/{roomId}/join?playerId={playerId}", roomId, nickname)
+                                .retrieve().toBodilessEntity();
+                        SimulatedPlayer player = new SimulatedPlayer(roomId, nickname, observer, metrics);
+                        stompClient.connectAsync(httpBase + "/ws", player).get(30, TimeUnit.SECONDS);
+                        players.add(player);
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> f : seating) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    metrics.countError();
+                    log.warn("Player failed to connect: {}", e.getCause().getMessage());
+                }
+            }
+            log.info("{} players connected, starting games", metrics.connectedPlayers());
+
+            // Everyone spectates the first room: the worst case for one room's fan-out
+            List<Future<?>> spectating = new ArrayList<>();
+            for (int s = 0; s < spectators; s++) {
+                spectating.add(connectors.submit(() -> {
+                    SimulatedSpectator spectator = new SimulatedSpectator(roomIds.get(0), spectatorIntervalMillis, metrics);
+                    stompClient.connectAsync(httpBase + "/ws", spectator).get(30, TimeUnit.SECONDS);
+                    watchers.add(spectator);
+                    return null;
+                }));
+            }
+            for (Future<?> f : spectating) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    metrics.countError();
+                }
+            }
+            if (spectators > 0) {
+                log.info("{} spectators watching {}", watchers.size(), roomIds.get(0));
+            }
+
+            for (int r = 0; r < roomIds.size(); r++) {
+                rest.post().uri("/api/rooms/{roomId}/start?playerId={hostId}", roomIds.get(r), "host-" + r)
+                        .retrieve().toBodilessEntity();
+            }
+
+            long started = System.nanoTime();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+            double elapsed = (System.nanoTime() - started) / 1e9;
+
+            System.out.println(metrics.report(rooms, playersPerRoom, elapsed));
+        } finally {
+            players.forEach(SimulatedPlayer::disconnect);
+            watchers.forEach(SimulatedSpectator::disconnect);
+            connectors.shutdownNow();
+            stompClient.stop();
+            heartbeat.shutdown();
+            app.close();
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication(String[] args) {
+        // Passed as command-line arguments: builder default properties lose to application.properties
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.devtools.restart.enabled=false",
+                "--game.journal.enabled=false",
+                "--game.spectators.interval-ms=" + spectatorIntervalMillis,
+                "--logging.level.com.trustmarket=WARN"));
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(TrustMarketBackendApplication.class)
+                .initializers(ctx -> ((GenericApplicationContext) ctx).registerBean(
+                        "stubAIService", AIService.class, () -> new StubAIService(aiLatencyMillis),
+                        bd -> bd.setPrimary(true)))
+                .run(arguments.toArray(String[]::new));
+    }
+
+    /**
+     * Returns a fixed question after an optional simulated delay, so the test measures the engine and not Gemini.
+     */
+    static final class StubAIService extends AIService {
+
+        private final long latencyMillis;
+
+        StubAIService(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public Question generateQuestion(String topic) {
+            if (latencyMillis > 0) {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return Question.builder()
+                    .id(UUID.randomUUID().toString())
+                    .content("Load test question about " + topic)
+                    .options(List.of("A. One", "B. Two", "C. Three", "D. Four"))
+                    .correctAnswer("A")
+                    .explanation("Stubbed for load testing.")
+                    .build();
+        }
+    }
+}
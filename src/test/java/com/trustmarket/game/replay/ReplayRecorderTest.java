@@ -0,0 +1,107 @@
+package com.trustmarket.game.replay;
+
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplayRecorderTest {
+
+    private static final String ROOM_ID = "replay-room";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsRoomFramesFromRoundOneAndStreamsThemBack() throws Exception {
+        ReplayRecorder recorder = new ReplayRecorder(dir, true, 20, 0, 1024);
+        recorder.start();
+
+        send(recorder, "/topic/game/" + ROOM_ID, "{\"state\":\"WAITING\"}", MimeTypeUtils.APPLICATION_JSON);
+        recorder.onGameEvent(phase(GameState.BLIND_BET));
+        awaitQueueDrained(recorder);
+        send(recorder, "/topic/game/" + ROOM_ID, "{\"state\":\"BLIND_BET\"}", MimeTypeUtils.APPLICATION_JSON);
+        send(recorder, "/topic/spectate/" + ROOM_ID, "{\"spectator\":true}", MimeTypeUtils.APPLICATION_JSON);
+        Thread.sleep(60);
+        send(recorder, "/topic/room/" + ROOM_ID + "/trust-update", "alice trusts bob", MimeTypeUtils.TEXT_PLAIN);
+        send(recorder, "/topic/game/" + ROOM_ID + "/results", "[1,2]", MimeTypeUtils.APPLICATION_JSON);
+        recorder.onGameEvent(GameEvent.builder().type(GameEvent.Type.GAME_FINISHED).roomId(ROOM_ID)
+                .payload(List.of("alice", "bob")).build());
+        awaitQueueDrained(recorder);
+        recorder.close();
+
+        List<ReplayFile.Info> replays = ReplayFile.list(dir, ROOM_ID);
+        assertThat(replays).hasSize(1);
+        ReplayFile.Info info = replays.get(0);
+        assertThat(info.roomId()).isEqualTo(ROOM_ID);
+        assertThat(info.durationMillis()).isGreaterThanOrEqualTo(50);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReplayFile.open(dir, info.id()).streamTo(out, 16);
+        String ndjson;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        List<String> lines = ndjson.lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).contains("\"destination\":\"/topic/game/replay-room\"")
+                .endsWith("\"payload\":{\"state\":\"BLIND_BET\"}}");
+        assertThat(lines.get(1)).endsWith("\"payload\":\"alice trusts bob\"}");
+        assertThat(lines.get(2)).contains("/results").endsWith("\"payload\":[1,2]}");
+    }
+
+    @Test
+    void discardsRoomsThatNeverPlayedAndRejectsUnsafeIds() throws Exception {
+        ReplayRecorder recorder = new ReplayRecorder(dir, true, 20, 0, 1024);
+        recorder.start();
+        recorder.onGameEvent(phase(GameState.BLIND_BET));
+        awaitQueueDrained(recorder);
+        send(recorder, "/topic/game/" + ROOM_ID, "{}", MimeTypeUtils.APPLICATION_JSON);
+        recorder.onGameEvent(GameEvent.builder().type(GameEvent.Type.GAME_FINISHED).roomId(ROOM_ID)
+                .payload(List.of()).build());
+        awaitQueueDrained(recorder);
+        recorder.close();
+
+        assertThat(ReplayFile.list(dir, null)).isEmpty();
+        assertThat(ReplayFile.open(dir, "../etc/passwd")).isNull();
+        assertThat(ReplayRecorder.roomOf("/topic/spectate/" + ROOM_ID)).isNull();
+        assertThat(ReplayRecorder.roomOf("/topic/room/" + ROOM_ID + "/players")).isEqualTo(ROOM_ID);
+    }
+
+    private static GameEvent phase(GameState state) {
+        return GameEvent.builder().type(GameEvent.Type.PHASE_STARTED).roomId(ROOM_ID).round(1)
+                .value(state.name()).build();
+    }
+
+    private static void send(ReplayRecorder recorder, String destination, String payload, MimeType type) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setDestination(destination);
+        headers.setContentType(type);
+        Message<byte[]> message = MessageBuilder.createMessage(payload.getBytes(StandardCharsets.UTF_8),
+                headers.getMessageHeaders());
+        recorder.preSend(message, null);
+    }
+
+    private static void awaitQueueDrained(ReplayRecorder recorder) throws InterruptedException {
+        while (((Number) recorder.stats().get("queued")).intValue() > 0) {
+            Thread.sleep(5);
+        }
+        // Let the writer finish the batch it just took
+        Thread.sleep(100);
+    }
+}
@@ -0,0 +1,51 @@
+package com.trustmarket.game.service;
+
+import com.trustmarket.game.model.game.Question;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of recorded Gemini responses (src/test/resources/gemini), including the fenced and fallback paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AIServiceBenchmark {
+
+    @Param({"plain", "fenced", "malformed"})
+    private String payload;
+
+    private AIService aiService;
+    private String response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        aiService = new AIService();
+        response = load("/gemini/" + payload + ".json");
+    }
+
+    @Benchmark
+    public Question parseGeminiResponse() {
+        return aiService.parseGeminiResponse(response);
+    }
+
+    private static String load(String resource) {
+        try (InputStream in = AIServiceBenchmark.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing recorded payload " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.trustmarket.game.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.Player;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.converter.JacksonJsonMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared set-up for the JMH benchmarks: synthetic rooms and a broker that drops every message.
+ */
+public final class BenchmarkFixtures {
+
+    /** How the players of a synthetic room are split between traders and investors. */
+    public enum RoleMix {
+        BALANCED(0.5),
+        TRADER_HEAVY(0.8),
+        INVESTOR_HEAVY(0.2);
+
+        private final double traderShare;
+
+        RoleMix(double traderShare) {
+            this.traderShare = traderShare;
+        }
+    }
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Per-command logging (and the error logged by the malformed-payload fallback) would otherwise dominate every
+     * measurement with console I/O.
+     */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger("com.trustmarket")).setLevel(Level.OFF);
+    }
+
+    /**
+     * A template that runs the real JSON conversion (as the STOMP broker would) and then discards the message.
+     */
+    static SimpMessagingTemplate noOpMessagingTemplate() {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> true);
+        template.setMessageConverter(new JacksonJsonMessageConverter());
+        return template;
+    }
+
+    /**
+     * Builds a room in CLOSING state: roles chosen, bets placed, traders answered and investors committed,
+     * with exactly one ORACLE and one SCAMMER whenever there are at least two traders.
+     */
+    static GameRoom settledRoom(int playerCount, RoleMix mix, long seed) {
+        Random random = new Random(seed);
+        ConcurrentHashMap<String, Player> players = new ConcurrentHashMap<>();
+        int traderCount = Math.max(1, (int) Math.round(playerCount * mix.traderShare));
+
+        for (int i = 0; i < playerCount; i++) {
+            String id = "p" + i;
+            boolean trader = i < traderCount;
+            Player p = Player.builder()
+                    .id(id)
+                    .displayName("Player " + i)
+                    .cash(2000.0)
+                    .role(trader ? Player.Role.TRADER : Player.Role.INVESTOR)
+                    .blindBetAmount(50 + random.nextInt(450))
+                    .build();
+            if (trader) {
+                p.setSecretRole(i == 0 ? Player.SecretRole.ORACLE
+                        : i == 1 ? Player.SecretRole.SCAMMER
+                        : Player.SecretRole.NORMAL);
+                p.setSelectedAnswer(String.valueOf((char) ('A' + random.nextInt(4))));
+            } else {
+                p.setInvestTargetId("p" + random.nextInt(traderCount));
+            }
+            players.put(id, p);
+        }
+
+        return GameRoom.builder()
+                .roomId("bench-" + playerCount)
+                .hostId("p0")
+                .currentState(GameState.CLOSING)
+                .players(players)
+                .currentQuestion(question())
+                .build();
+    }
+
+    static Map<String, Object> question() {
+        Map<String, Object> q = new HashMap<>();
+        q.put("id", "bench-question");
+        q.put("question", "Bitcoin được tạo ra bởi ai?");
+        q.put("options", List.of("A. Satoshi Nakamoto", "B. Elon Musk", "C. Vitalik Buterin", "D. Mark Zuckerberg"));
+        q.put("correctAnswer", "A");
+        return q;
+    }
+
+    /** Restores every player's balance so repeated settlements keep exercising the same branches. */
+    static void resetCash(GameRoom room) {
+        room.getPlayers().values().forEach(p -> p.setCash(2000.0));
+    }
+}
@@ -0,0 +1,50 @@
+package com.trustmarket.game.service;
+
+import com.trustmarket.game.model.game.GameRoom;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settlement cost per room size and role mix.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EconomyServiceBenchmark {
+
+    @Param({"2", "10", "100", "1000"})
+    private int players;
+
+    @Param({"BALANCED", "TRADER_HEAVY", "INVESTOR_HEAVY"})
+    private BenchmarkFixtures.RoleMix mix;
+
+    private EconomyService economyService;
+    private GameRoom room;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        economyService = new EconomyService();
+        room = BenchmarkFixtures.settledRoom(players, mix, 42L);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBalances() {
+        BenchmarkFixtures.resetCash(room);
+    }
+
+    @Benchmark
+    public List<EconomyService.RoundResult> calculateRoundResult() {
+        return economyService.calculateRoundResult(room);
+    }
+
+    @Benchmark
+    public List<EconomyService.RoundResult> triggerMarketCrash() {
+        return economyService.triggerMarketCrash(room);
+    }
+}
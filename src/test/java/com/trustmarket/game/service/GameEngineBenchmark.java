@@ -0,0 +1,77 @@
+package com.trustmarket.game.service;
+
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full round of phase transitions (BLIND_BET → … → CALCULATION), broadcasts included,
+ * against a broker that serializes and then drops every frame. Question generation and settlement
+ * still run on the engine's async executor, as they do in production.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GameEngineBenchmark {
+
+    private static final String ROOM_ID = "bench-room";
+
+    @Param({"2", "10", "100"})
+    private int players;
+
+    private GameEngine gameEngine;
+    private GameRoom room;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        gameEngine = new GameEngine(
+                BenchmarkFixtures.noOpMessagingTemplate(),
+                new EconomyService(),
+                new AIService()
+        );
+        room = gameEngine.createRoom(ROOM_ID, "p0");
+        for (int i = 1; i < players; i++) {
+            gameEngine.joinRoom(ROOM_ID, "p" + i);
+        }
+        room.setTotalRounds(Integer.MAX_VALUE);
+        gameEngine.startPhase(ROOM_ID, GameState.BLIND_BET);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        gameEngine.shutdown();
+    }
+
+    @Benchmark
+    public GameState fullRound() {
+        // Roles are cleared at the end of every round; without traders BLIND_BET would end in a market crash
+        int i = 0;
+        for (Player p : room.getPlayers().values()) {
+            p.setRole(i++ % 2 == 0 ? Player.Role.TRADER : Player.Role.INVESTOR);
+            p.setBlindBetAmount(100);
+        }
+
+        gameEngine.nextPhase(ROOM_ID); // BLIND_BET → ROLE_ASSIGN
+        gameEngine.nextPhase(ROOM_ID); // ROLE_ASSIGN → MARKET_CHAT
+        gameEngine.nextPhase(ROOM_ID); // MARKET_CHAT → CLOSING
+        gameEngine.nextPhase(ROOM_ID); // CLOSING → CALCULATION
+
+        // Restart the round directly: ending CALCULATION would clear the question under the async settlement
+        gameEngine.startPhase(ROOM_ID, GameState.BLIND_BET);
+        return room.getCurrentState();
+    }
+
+    @Benchmark
+    public GameState marketCrash() {
+        // Nobody picked TRADER: BLIND_BET ends in a crash and restarts BLIND_BET
+        gameEngine.nextPhase(ROOM_ID);
+        return room.getCurrentState();
+    }
+}
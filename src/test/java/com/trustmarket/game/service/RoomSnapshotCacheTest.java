@@ -0,0 +1,91 @@
+package com.trustmarket.game.service;
+
+import com.trustmarket.game.controller.RoomController;
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.RoomSnapshot;
+import com.trustmarket.game.service.admission.CommandDeduplicator;
+import com.trustmarket.game.service.admission.CommandRateLimiter;
+import com.trustmarket.game.service.trace.RoomTracer;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class RoomSnapshotCacheTest {
+
+    GameEngine engine;
+    RoomSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        engine = TestEngines.engine(new VirtualGameScheduler(), 1);
+        cache = new RoomSnapshotCache(engine, new RoomViewCache(JsonMapper.builder().build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void snapshotIsUnaffectedByLaterChanges() {
+        GameRoom room = engine.createRoom("r1", "host");
+        RoomSnapshot before = engine.getSnapshot("r1");
+        double startingCash = room.getPlayer("host").getCash();
+
+        room.getPlayer("host").setCash(5);
+        engine.joinRoom("r1", "guest");
+
+        assertThat(before.getPlayerCount()).isEqualTo(1);
+        assertThat(before.getPlayers().get("host").getCash()).isEqualTo(startingCash);
+        assertThat(engine.getSnapshot("r1").getVersion()).isGreaterThan(before.getVersion());
+        assertThat(engine.getSnapshot("r1").getPlayerCount()).isEqualTo(2);
+    }
+
+    @Test
+    void serializesEachVersionOnce() {
+        engine.createRoom("r1", "host");
+
+        RoomSnapshotCache.Body first = cache.get("r1");
+        assertThat(cache.get("r1")).isSameAs(first);
+
+        engine.joinRoom("r1", "guest");
+        RoomSnapshotCache.Body second = cache.get("r1");
+        assertThat(second.version()).isGreaterThan(first.version());
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+        assertThat(cache.get("missing")).isNull();
+    }
+
+    @Test
+    void pollingClientsRevalidateWithEtag() throws Exception {
+        MockMvc mvc = MockMvcBuilders
+                .standaloneSetup(new RoomController(engine, mock(UserProfileCache.class), cache,
+                        mock(CommandRateLimiter.class), mock(CommandDeduplicator.class), new RoomTracer()))
+                .build();
+        engine.createRoom("r1", "host");
+
+        String etag = mvc.perform(get("/api/rooms/r1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomId").value("r1"))
+                .andExpect(jsonPath("$.playerCount").value(1))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/api/rooms/r1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        engine.joinRoom("r1", "guest");
+        mvc.perform(get("/api/rooms/r1").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.playerCount").value(2));
+        mvc.perform(get("/api/rooms/missing")).andExpect(status().isNotFound());
+    }
+}
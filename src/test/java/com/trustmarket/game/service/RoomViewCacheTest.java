@@ -0,0 +1,129 @@
+package com.trustmarket.game.service;
+
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.Player;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import com.trustmarket.game.service.trace.RoomTracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomViewCacheTest {
+
+    JsonMapper jsonMapper = JsonMapper.builder().build();
+    RoomViewCache views = new RoomViewCache(jsonMapper);
+    VirtualGameScheduler clock = new VirtualGameScheduler();
+    List<Message<?>> sent = new ArrayList<>();
+    GameEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new GameEngine(new SimpMessagingTemplate((message, timeout) -> sent.add(message)),
+                new EconomyService(), new AIService(), clock, new Random(1), event -> { }, new RoomTracer(), views);
+        engine.createRoom("r1", "oracle").setTotalRounds(1);
+        engine.joinRoom("r1", "scammer");
+        engine.joinRoom("r1", "investor");
+        engine.startGame("r1", "oracle");
+        engine.playerSelectRole("r1", "oracle", "TRADER");
+        engine.playerSelectRole("r1", "scammer", "TRADER");
+        engine.playerSelectRole("r1", "investor", "INVESTOR");
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void roomTopicHidesAnswersUntilTheReveal() {
+        advanceTo(GameState.CLOSING);
+        engine.submitAnswer("r1", engine.getRoom("r1").getPlayers().values().stream()
+                .filter(p -> p.getRole() == Player.Role.TRADER).findFirst().orElseThrow().getId(), "B");
+        clock.advanceBy(1_000);
+
+        JsonNode closing = last("/topic/game/r1");
+        assertThat(closing.path("currentState").asString()).isEqualTo("CLOSING");
+        assertThat(closing.path("currentQuestion").path("question").asString()).isNotEmpty();
+        assertThat(closing.path("currentQuestion").has("correctAnswer")).isFalse();
+        closing.path("players").forEach(p -> {
+            assertThat(p.has("selectedAnswer")).isFalse();
+            assertThat(p.has("secretRole")).isFalse();
+        });
+
+        advanceTo(GameState.CALCULATION);
+        JsonNode reveal = last("/topic/game/r1");
+        assertThat(reveal.path("currentQuestion").path("correctAnswer").asString()).isNotEmpty();
+        assertThat(reveal.path("players").path("oracle").has("secretRole")).isTrue();
+        assertThat(reveal.path("players").path("investor").has("secretRole")).isFalse();
+    }
+
+    @Test
+    void tradersGetOneSharedFramePerRoleAndOnlyTheOracleLearnsTheAnswer() {
+        advanceTo(GameState.MARKET_CHAT);
+        clock.advanceBy(1_000);
+
+        List<JsonNode> oracle = frames("/user/" + roleHolder(Player.SecretRole.ORACLE) + "/queue/private/role");
+        List<JsonNode> scammer = frames("/user/" + roleHolder(Player.SecretRole.SCAMMER) + "/queue/private/role");
+        assertThat(oracle).hasSize(2);
+        assertThat(oracle.get(0).path("secretRole").asString()).isEqualTo("ORACLE");
+        assertThat(oracle.get(0).has("correctAnswer")).isFalse();
+        assertThat(oracle.get(1).path("correctAnswer").asString()).isNotEmpty();
+        assertThat(scammer).singleElement().satisfies(frame -> {
+            assertThat(frame.path("secretRole").asString()).isEqualTo("SCAMMER");
+            assertThat(frame.has("correctAnswer")).isFalse();
+        });
+        assertThat(frames("/user/investor/queue/private/role")).isEmpty();
+    }
+
+    @Test
+    void eachVersionIsEncodedOnce() {
+        var snapshot = engine.getSnapshot("r1");
+        RoomViewCache.Frame first = views.publicFrame(snapshot);
+        assertThat(views.publicFrame(snapshot)).isSameAs(first);
+        assertThat(views.traderFrame(snapshot, Player.SecretRole.NORMAL))
+                .isSameAs(views.traderFrame(snapshot, Player.SecretRole.NORMAL));
+
+        clock.advanceBy(1_000);
+        var newer = engine.getSnapshot("r1");
+        assertThat(views.publicFrame(newer).version()).isGreaterThan(first.version());
+        // A reader still holding the old snapshot gets its own bytes, and the newer entry stays cached
+        assertThat(views.publicFrame(snapshot).version()).isEqualTo(first.version());
+        assertThat(views.publicFrame(newer)).isSameAs(views.publicFrame(newer));
+    }
+
+    private String roleHolder(Player.SecretRole role) {
+        return engine.getRoom("r1").getPlayers().values().stream()
+                .filter(p -> p.getRole() == Player.Role.TRADER && p.getSecretRole() == role)
+                .findFirst().orElseThrow().getId();
+    }
+
+    private void advanceTo(GameState state) {
+        for (int i = 0; i < 120 && engine.getRoom("r1").getCurrentState() != state; i++) {
+            clock.advanceBy(1_000);
+        }
+        assertThat(engine.getRoom("r1").getCurrentState()).isEqualTo(state);
+    }
+
+    private JsonNode last(String destination) {
+        List<JsonNode> frames = frames(destination);
+        return frames.get(frames.size() - 1);
+    }
+
+    private List<JsonNode> frames(String destination) {
+        return sent.stream()
+                .filter(m -> destination.equals(SimpMessageHeaderAccessor.getDestination(m.getHeaders())))
+                .map(m -> jsonMapper.readTree((byte[]) m.getPayload()))
+                .toList();
+    }
+}
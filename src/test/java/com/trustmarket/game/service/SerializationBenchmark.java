@@ -0,0 +1,47 @@
+package com.trustmarket.game.service;
+
+import com.trustmarket.game.model.game.GameRoom;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the two payloads we broadcast most: the per-second room frame and the round results.
+ * Uses the same Jackson 3 mapper family as the STOMP message converter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    @Param({"2", "10", "100", "1000"})
+    private int players;
+
+    private JsonMapper jsonMapper;
+    private GameRoom room;
+    private List<EconomyService.RoundResult> results;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        jsonMapper = JsonMapper.builder().build();
+        room = BenchmarkFixtures.settledRoom(players, BenchmarkFixtures.RoleMix.BALANCED, 42L);
+        results = new EconomyService().calculateRoundResult(
+                BenchmarkFixtures.settledRoom(players, BenchmarkFixtures.RoleMix.BALANCED, 42L));
+    }
+
+    @Benchmark
+    public byte[] gameRoom() {
+        return jsonMapper.writeValueAsBytes(room);
+    }
+
+    @Benchmark
+    public byte[] roundResults() {
+        return jsonMapper.writeValueAsBytes(results);
+    }
+}
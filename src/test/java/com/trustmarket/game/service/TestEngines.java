@@ -0,0 +1,34 @@
+package com.trustmarket.game.service;
+
+import com.trustmarket.game.service.scheduling.GameScheduler;
+import com.trustmarket.game.service.trace.RoomTracer;
+import com.trustmarket.game.simulation.GameSimulator;
+import org.springframework.context.ApplicationEventPublisher;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Random;
+
+/**
+ * The engine the service tests play against: wired like production, but on the test's clock and seed, with a
+ * broker that drops every message and events going wherever the test wants them.
+ */
+public final class TestEngines {
+
+    private TestEngines() {
+    }
+
+    public static GameEngine engine(GameScheduler clock, long seed) {
+        return engine(clock, seed, event -> { });
+    }
+
+    public static GameEngine engine(GameScheduler clock, long seed, ApplicationEventPublisher events) {
+        return engine(clock, seed, events, new RoomTracer());
+    }
+
+    /** Settlement spans from the economy land in the same tracer as the engine's, as they do in production. */
+    public static GameEngine engine(GameScheduler clock, long seed, ApplicationEventPublisher events,
+                                    RoomTracer tracer) {
+        return new GameEngine(GameSimulator.discardingTemplate(), new EconomyService(tracer), new AIService(),
+                clock, new Random(seed), events, tracer, new RoomViewCache(JsonMapper.builder().build()));
+    }
+}
@@ -0,0 +1,118 @@
+package com.trustmarket.game.service;
+
+import com.trustmarket.game.dto.response.UserProfile;
+import com.trustmarket.game.model.entity.User;
+import com.trustmarket.game.repository.UserRepository;
+import com.trustmarket.game.service.stats.PlayerStatsWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class UserProfileCacheTest {
+
+    UserRepository repository;
+    PlayerStatsWriter statsWriter;
+    UserProfileCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserRepository.class);
+        statsWriter = mock(PlayerStatsWriter.class);
+        cache = new UserProfileCache(repository, statsWriter, 1000, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findByUsername("alice")).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(user("alice", 3));
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Optional<UserProfile>>> lookups = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                lookups.add(pool.submit(() -> cache.get("alice")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Optional<UserProfile>> f : lookups) {
+                assertThat(f.get().orElseThrow().totalGamesPlayed()).isEqualTo(3);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(repository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    void roomPrefetchIsOneQueryAndRemembersUnknownNames() {
+        when(repository.findByUsernameIn(anyCollection())).thenReturn(List.of(user("alice", 1), user("bob", 2)));
+
+        Map<String, UserProfile> profiles = cache.getAll(List.of("alice", "bob", "guest"));
+        cache.get("guest");
+        cache.get("bob");
+
+        assertThat(profiles).containsOnlyKeys("alice", "bob");
+        verify(repository, times(1)).findByUsernameIn(anyCollection());
+        verify(repository, never()).findByUsername(any());
+        assertThat(cache.stats()).containsEntry("hits", 2L).containsEntry("misses", 3L);
+    }
+
+    @Test
+    void roomLookupIsByAccountIdInOneQueryAndSkipsGuests() {
+        User alice = user("alice", 1);
+        alice.setId(UUID.randomUUID());
+        User bob = user("bob", 2);
+        bob.setId(UUID.randomUUID());
+        when(repository.findAllById(anyIterable())).thenReturn(List.of(alice, bob));
+
+        List<UUID> room = Arrays.asList(alice.getId(), null, bob.getId(), UUID.randomUUID());
+        Map<UUID, UserProfile> profiles = cache.getAllById(room);
+        cache.getAllById(room);
+
+        assertThat(profiles).containsOnlyKeys(alice.getId(), bob.getId());
+        assertThat(profiles.get(bob.getId()).username()).isEqualTo("bob");
+        verify(repository, times(1)).findAllById(anyIterable());
+        verify(repository, never()).findByUsernameIn(anyCollection());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void statsFlushInvalidatesTheWrittenUsers() {
+        ArgumentCaptor<Consumer<List<String>>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(statsWriter).addFlushListener(listener.capture());
+        when(repository.findByUsername("alice"))
+                .thenReturn(Optional.of(user("alice", 1)))
+                .thenReturn(Optional.of(user("alice", 2)));
+
+        assertThat(cache.get("alice").orElseThrow().totalGamesPlayed()).isEqualTo(1);
+        listener.getValue().accept(List.of("alice"));
+
+        assertThat(cache.get("alice").orElseThrow().totalGamesPlayed()).isEqualTo(2);
+    }
+
+    private static User user(String name, int games) {
+        User u = new User();
+        u.setUsername(name);
+        u.setTotalGamesPlayed(games);
+        return u;
+    }
+}
@@ -0,0 +1,98 @@
+package com.trustmarket.game.service.admission;
+
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommandDeduplicatorTest {
+
+    VirtualGameScheduler clock;
+    CommandDeduplicator dedup;
+    AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualGameScheduler();
+        dedup = new CommandDeduplicator(clock, 4, 60_000);
+        dedup.start();
+    }
+
+    @Test
+    void retriesGetTheFirstOutcomeWithoutRunning() {
+        assertThat(run("alice", "c1")).isEqualTo(1);
+        assertThat(run("alice", "c1")).isEqualTo(1);
+        assertThat(run("bob", "c1")).isEqualTo(2);
+        assertThat(run("alice", null)).isEqualTo(3);
+        assertThat(run("alice", null)).isEqualTo(4);
+        assertThat(dedup.stats()).containsEntry("duplicates", 1L).containsEntry("executed", 2L);
+    }
+
+    @Test
+    void forgetsIdsPastTheRingOrTheTtl() {
+        run("alice", "c1");
+        for (int i = 2; i <= 4; i++) {
+            run("alice", "c" + i);
+        }
+        assertThat(run("alice", "c1")).isEqualTo(1);
+
+        run("alice", "c5");
+        // c1 was the oldest of four slots
+        assertThat(run("alice", "c1")).isEqualTo(6);
+
+        clock.advanceBy(60_000);
+        assertThat(run("alice", "c5")).isEqualTo(7);
+        clock.advanceBy(120_000);
+        assertThat(dedup.stats()).containsEntry("players", 0);
+    }
+
+    @Test
+    void outcomesNotRememberedRunAgain() {
+        assertThat(dedup.execute("alice", "c1", runs::incrementAndGet, n -> false)).isEqualTo(1);
+        assertThat(dedup.execute("alice", "c1", runs::incrementAndGet, n -> true)).isEqualTo(2);
+        assertThat(dedup.execute("alice", "c1", runs::incrementAndGet, n -> true)).isEqualTo(2);
+    }
+
+    @Test
+    void retryDuringTheFirstAttemptWaitsForIt() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = pool.submit(() -> dedup.execute("alice", "slow", () -> {
+                started.countDown();
+                await(release);
+                return runs.incrementAndGet();
+            }, n -> true));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Integer> retry = pool.submit(() -> run("alice", "slow"));
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(retry.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(runs.get()).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private int run(String playerId, String commandId) {
+        return dedup.execute(playerId, commandId, runs::incrementAndGet, n -> true);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.trustmarket.game.service.admission;
+
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.trustmarket.game.service.admission.CommandRateLimiter.Verdict.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommandRateLimiterTest {
+
+    VirtualGameScheduler clock;
+    CommandRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualGameScheduler();
+        // 5/s with a burst of 10 per player, 20/s with a burst of 30 per room
+        limiter = new CommandRateLimiter(clock, 5, 10, 20, 30, 10_000);
+        limiter.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        limiter.stop();
+    }
+
+    @Test
+    void playerGetsTheBurstThenTheRefillRate() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("r1", "alice")).isEqualTo(ADMITTED);
+        }
+        assertThat(limiter.tryAcquire("r1", "alice")).isEqualTo(PLAYER_LIMITED);
+        assertThat(limiter.tryAcquire("r1", "bob")).isEqualTo(ADMITTED);
+
+        clock.advanceBy(200);
+        assertThat(limiter.tryAcquire("r1", "alice")).isEqualTo(ADMITTED);
+        assertThat(limiter.tryAcquire("r1", "alice")).isEqualTo(PLAYER_LIMITED);
+    }
+
+    @Test
+    void roomBucketCatchesRotatingPlayerIds() {
+        int admitted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (limiter.tryAcquire("r1", "bot-" + i) == ADMITTED) {
+                admitted++;
+            }
+        }
+        assertThat(admitted).isEqualTo(30);
+        assertThat(limiter.tryAcquire("r2", "bot-0")).isEqualTo(ADMITTED);
+        assertThat(limiter.stats()).containsEntry("roomLimited", 70L);
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        AtomicInteger admitted = new AtomicInteger();
+        for (int t = 0; t < 4; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire(null, "alice") == ADMITTED) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(admitted.get()).isEqualTo(10);
+    }
+
+    @Test
+    void sweepEvictsRefilledBuckets() {
+        limiter.tryAcquire("r1", "alice");
+        limiter.tryAcquire("r1", "bob");
+        assertThat(limiter.stats()).containsEntry("playerBuckets", 2).containsEntry("roomBuckets", 1);
+
+        clock.advanceBy(10_000);
+
+        assertThat(limiter.stats()).containsEntry("playerBuckets", 0).containsEntry("roomBuckets", 0)
+                .containsEntry("evicted", 3L);
+        // A fresh bucket behaves exactly like the evicted one would have
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("r1", "alice")).isEqualTo(ADMITTED);
+        }
+    }
+}
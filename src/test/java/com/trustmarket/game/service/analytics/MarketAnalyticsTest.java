@@ -0,0 +1,90 @@
+package com.trustmarket.game.service.analytics;
+
+import com.trustmarket.game.dto.response.MarketStats;
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.service.EconomyService;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.TestEngines;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MarketAnalyticsTest {
+
+    private final VirtualGameScheduler clock = new VirtualGameScheduler();
+    private final MarketAnalytics analytics = new MarketAnalytics(clock, 0.01, 1_000_000);
+
+    @Test
+    void betQuantilesAreWithinAccuracyAndSlideOutOfTheMinute() {
+        for (int amount = 1; amount <= 1000; amount++) {
+            analytics.onGameEvent(event(GameEvent.Type.BET_PLACED, "r1").playerId("p").amount(amount).build());
+        }
+
+        MarketStats.Bets bets = analytics.stats("minute").orElseThrow().bets();
+        assertThat(bets.count()).isEqualTo(1000);
+        assertThat(bets.total()).isEqualTo(500_500);
+        assertThat(bets.p50()).isCloseTo(500, within(500 * 0.01));
+        assertThat(bets.p99()).isCloseTo(990, within(990 * 0.01));
+
+        clock.advanceBy(61_000);
+        assertThat(analytics.stats("minute").orElseThrow().bets().count()).isZero();
+        assertThat(analytics.stats("hour").orElseThrow().bets().count()).isEqualTo(1000);
+        assertThat(analytics.stats("day")).isEmpty();
+    }
+
+    @Test
+    void settlementsCountCrashesAndScammerOutcomes() {
+        // A scammer who answered wrong and took 300 from an investor
+        analytics.onGameEvent(event(GameEvent.Type.ROLE_SELECTED, "r1").playerId("s").value("TRADER").build());
+        analytics.onGameEvent(event(GameEvent.Type.ROLE_SELECTED, "r1").playerId("i").value("INVESTOR").build());
+        analytics.onGameEvent(event(GameEvent.Type.SECRET_ROLE_ASSIGNED, "r1").playerId("s").value("SCAMMER").build());
+        analytics.onGameEvent(event(GameEvent.Type.QUESTION_LOADED, "r1").payload(Map.of("correctAnswer", "A")).build());
+        analytics.onGameEvent(event(GameEvent.Type.ANSWERED, "r1").playerId("s").value("B").build());
+        analytics.onGameEvent(event(GameEvent.Type.ROUND_SETTLED, "r1").payload(List.of(
+                new EconomyService.RoundResult("s", "s", 1000, 1000, 0, "safe"),
+                new EconomyService.RoundResult("i", "i", 1000, 700, -300, "scammed"),
+                new EconomyService.RoundResult("s", "s", 1000, 1300, 300, "stole"))).build());
+        // Nobody picked trader in another room
+        analytics.onGameEvent(event(GameEvent.Type.ROLE_SELECTED, "r2").playerId("x").value("INVESTOR").build());
+        analytics.onGameEvent(event(GameEvent.Type.MARKET_CRASH, "r2").payload(List.of()).build());
+
+        MarketStats stats = analytics.stats().get("minute");
+        assertThat(stats.rounds()).isEqualTo(new MarketStats.Rounds(2, 1, 0.5));
+        assertThat(stats.roles().traders()).isEqualTo(1);
+        assertThat(stats.roles().investors()).isEqualTo(2);
+        assertThat(stats.scammers()).isEqualTo(new MarketStats.Scammers(1, 1, 1.0, 300));
+    }
+
+    @Test
+    void engineBetsAndSettlementFeedTheWindows() {
+        GameEngine engine = TestEngines.engine(clock, 1, e -> analytics.onGameEvent((GameEvent) e));
+        try {
+            engine.createRoom("r1", "host").setTotalRounds(1);
+            engine.joinRoom("r1", "guest");
+            engine.startGame("r1", "host");
+            engine.playerSelectRole("r1", "host", "TRADER");
+            engine.playerSelectRole("r1", "guest", "INVESTOR");
+            engine.handleBet("r1", "host", 100);
+            engine.handleBet("r1", "guest", 200);
+            engine.handleInvest("r1", "guest", "host");
+            clock.advanceBy(120_000);
+        } finally {
+            engine.shutdown();
+        }
+
+        MarketStats hour = analytics.stats().get("hour");
+        assertThat(hour.bets().count()).isEqualTo(2);
+        assertThat(hour.bets().mean()).isEqualTo(150);
+        assertThat(hour.roles()).isEqualTo(new MarketStats.Roles(1, 1, 0.5, 1));
+        assertThat(hour.rounds().settled()).isEqualTo(1);
+    }
+
+    private GameEvent.GameEventBuilder event(GameEvent.Type type, String roomId) {
+        return GameEvent.builder().type(type).roomId(roomId).timestamp(clock.currentTimeMillis());
+    }
+}
@@ -0,0 +1,113 @@
+package com.trustmarket.game.service.bot;
+
+import com.trustmarket.game.cluster.RoomDirectory;
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.TestEngines;
+import com.trustmarket.game.service.admission.CommandRateLimiter;
+import com.trustmarket.game.service.lobby.LobbyReaper;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import com.trustmarket.game.service.tournament.TournamentService;
+import com.trustmarket.game.service.trace.RoomTracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BotServiceTest {
+
+    VirtualGameScheduler clock;
+    GameEngine engine;
+    TournamentService tournaments;
+    BotService bots;
+    List<GameEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualGameScheduler();
+        engine = TestEngines.engine(clock, 5, event -> {
+            GameEvent e = (GameEvent) event;
+            events.add(e);
+            tournaments.onGameEvent(e);
+            bots.onGameEvent(e);
+        });
+        tournaments = new TournamentService(engine, clock, new RoomDirectory("local", Map.of("local", ""), 16),
+                new Random(5), 2, 1, 1, 1_000, 1_000, 100);
+        bots = new BotService(engine, clock, new CommandRateLimiter(clock, 5, 10, 50, 100, 10_000), tournaments,
+                new RoomTracer(), new Random(5), "n1", true, 4, 30_000, 5_000, 1000, 12_000, 4_000,
+                "INVESTOR");
+        bots.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bots.stop();
+        engine.shutdown();
+    }
+
+    @Test
+    void halfEmptyLobbyIsFilledAndBotsCarryTheGame() {
+        engine.createRoom("r1", "host").setTotalRounds(2);
+        clock.advanceBy(20_000);
+        assertThat(engine.getRoom("r1").getPlayerCount()).isEqualTo(1);
+
+        clock.advanceBy(15_000);
+        assertThat(engine.getRoom("r1").getPlayers()).containsKeys("bot-n1-1", "bot-n1-2", "bot-n1-3");
+
+        // The host never acts: investor-minded bots still take the two trader seats a round needs
+        engine.startGame("r1", "host");
+        clock.advanceBy(200_000);
+
+        assertThat(engine.getRoom("r1").getCurrentState()).isEqualTo(GameState.FINISHED);
+        assertThat(events).noneMatch(e -> e.getType() == GameEvent.Type.MARKET_CRASH);
+        assertThat(events).filteredOn(e -> e.getType() == GameEvent.Type.ROUND_SETTLED).hasSize(2);
+        assertThat(events).filteredOn(e -> e.getType() == GameEvent.Type.SECRET_ROLE_ASSIGNED)
+                .extracting(GameEvent::getValue)
+                .contains("ORACLE", "SCAMMER");
+        assertThat(events).filteredOn(e -> e.getType() == GameEvent.Type.INVESTED)
+                .allMatch(e -> e.getPlayerId().startsWith("bot-n1-"));
+        assertThat(bots.stats()).containsEntry("active", 0).containsEntry("seated", 3L)
+                .containsEntry("rejected", 0L);
+    }
+
+    @Test
+    void tournamentTablesAndFullRoomsAreLeftAlone() {
+        tournaments.create("cup", List.of("a", "b"), 600_000L, tournaments.getDefaults());
+        engine.createRoom("full", "h");
+        List.of("p1", "p2", "p3").forEach(p -> engine.joinRoom("full", p));
+        clock.advanceBy(60_000);
+
+        assertThat(bots.stats()).containsEntry("seated", 0L);
+        assertThatThrownBy(() -> bots.addBots("nope", 1, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(bots.addBots("full", 2, BotStrategy.TRADER)).containsExactly("bot-n1-1", "bot-n1-2");
+
+        // A human who picked a bot-looking name is neither taken over nor treated as a bot
+        engine.createRoom("mimic", "bot-n1-3");
+        assertThat(bots.addBots("mimic", 1, null)).containsExactly("bot-n1-4");
+        assertThat(bots.isBot("mimic", "bot-n1-3")).isFalse();
+        assertThat(bots.isBot("mimic", "bot-n1-4")).isTrue();
+    }
+
+    @Test
+    void botsOfALobbyThatAgesOutAreReleased() {
+        LobbyReaper reaper = new LobbyReaper(engine, clock, tournaments, 60_000, 5_000);
+        reaper.start();
+        engine.createRoom("idle", "host");
+        clock.advanceBy(35_000);
+        assertThat(bots.stats()).containsEntry("active", 3);
+
+        // Nobody starts the game: the lobby is closed and its seats count against max-bots no more
+        clock.advanceBy(60_000);
+        assertThat(engine.getRoom("idle").getCurrentState()).isEqualTo(GameState.FINISHED);
+        assertThat(bots.stats()).containsEntry("active", 0).containsEntry("rooms", 0);
+        reaper.stop();
+    }
+}
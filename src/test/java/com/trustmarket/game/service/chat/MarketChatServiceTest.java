@@ -0,0 +1,117 @@
+package com.trustmarket.game.service.chat;
+
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.TestEngines;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MarketChatServiceTest {
+
+    private static final String ROOM_ID = "chat-room";
+
+    VirtualGameScheduler clock;
+    GameEngine engine;
+    MarketChatService chat;
+    List<Message<?>> sent = new CopyOnWriteArrayList<>();
+    JsonMapper json = JsonMapper.builder().build();
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualGameScheduler();
+        engine = TestEngines.engine(clock, 1);
+        SimpMessagingTemplate broker = new SimpMessagingTemplate((message, timeout) -> sent.add(message));
+        chat = new MarketChatService(engine, broker, clock, 100, 3, 20, 5, 5000);
+        chat.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        chat.stop();
+        engine.shutdown();
+    }
+
+    @Test
+    void batchesABurstIntoOneFramePerRoomAndKeepsRecentHistory() {
+        GameRoom room = enterMarketChat();
+
+        assertThat(chat.post(ROOM_ID, "alice", "I know the answer")).isTrue();
+        assertThat(chat.post(ROOM_ID, "bob", "  \"trust\" me  ")).isTrue();
+        assertThat(chat.post(ROOM_ID, "alice", "x".repeat(50))).isTrue();
+        assertThat(chat.post(ROOM_ID, "stranger", "hi")).isFalse();
+        clock.advanceBy(100);
+
+        List<Message<?>> chatFrames = chatFrames();
+        assertThat(chatFrames).hasSize(1);
+        JsonNode batch = json.readTree((byte[]) chatFrames.get(0).getPayload());
+        assertThat(batch).hasSize(3);
+        assertThat(batch.get(0).get("name").asString()).isEqualTo(room.getPlayers().get("alice").getDisplayName());
+        assertThat(batch.get(1).get("text").asString()).isEqualTo("\"trust\" me");
+        assertThat(batch.get(2).get("text").asString()).hasSize(20);
+
+        // Nothing new, nothing sent
+        clock.advanceBy(100);
+        assertThat(chatFrames()).hasSize(1);
+
+        chat.post(ROOM_ID, "bob", "fourth");
+        JsonNode history = json.readTree(chat.history(ROOM_ID));
+        assertThat(history).hasSize(3);
+        assertThat(history.get(0).get("seq").asLong()).isEqualTo(2);
+        assertThat(history.get(2).get("text").asString()).isEqualTo("fourth");
+
+        chat.onGameEvent(GameEvent.builder().type(GameEvent.Type.GAME_FINISHED).roomId(ROOM_ID).build());
+        assertThat(chat.history(ROOM_ID)).isEqualTo("[]");
+    }
+
+    @Test
+    void limitsEachPlayerPerWindow() {
+        enterMarketChat();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(chat.post(ROOM_ID, "alice", "msg " + i)).isTrue();
+        }
+        assertThat(chat.post(ROOM_ID, "alice", "one too many")).isFalse();
+        assertThat(chat.post(ROOM_ID, "bob", "still fine")).isTrue();
+        assertThat(chat.stats()).containsEntry("rateLimited", 1L);
+
+        clock.advanceBy(5000);
+        assertThat(chat.post(ROOM_ID, "alice", "new window")).isTrue();
+    }
+
+    @Test
+    void rejectsChatOutsideTheChatPhase() {
+        engine.createRoom(ROOM_ID, "alice");
+        assertThat(chat.post(ROOM_ID, "alice", "too early")).isFalse();
+        assertThat(chat.stats()).containsEntry("rejected", 1L);
+    }
+
+    private GameRoom enterMarketChat() {
+        GameRoom room = engine.createRoom(ROOM_ID, "alice");
+        engine.joinRoom(ROOM_ID, "bob");
+        engine.startGame(ROOM_ID, "alice");
+        engine.playerSelectRole(ROOM_ID, "alice", "TRADER");
+        while (room.getCurrentState() != GameState.MARKET_CHAT) {
+            clock.advanceBy(1000);
+        }
+        return room;
+    }
+
+    private List<Message<?>> chatFrames() {
+        return sent.stream()
+                .filter(m -> String.valueOf(m.getHeaders().get("simpDestination")).endsWith("/chat"))
+                .toList();
+    }
+}
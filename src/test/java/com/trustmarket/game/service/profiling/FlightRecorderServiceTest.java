@@ -0,0 +1,101 @@
+package com.trustmarket.game.service.profiling;
+
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.TestEngines;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightRecorderServiceTest {
+
+    @TempDir
+    Path dumps;
+
+    FlightRecorderService recorder;
+
+    @AfterEach
+    void tearDown() {
+        recorder.stop();
+    }
+
+    @Test
+    void dumpHoldsTheEngineEventsOfAGame() throws Exception {
+        recorder = new FlightRecorderService("n1", dumps.toString(), 5, 50, false);
+        assertThatThrownBy(recorder::dump).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> recorder.start("no-such-settings")).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(recorder.start("default")).containsEntry("running", true).containsEntry("settings", "default");
+        playOneRound();
+        Path file = recorder.dump();
+
+        assertThat(file.getParent()).isEqualTo(dumps);
+        assertThat(file.getFileName().toString()).isEqualTo("trustmarket-n1.jfr");
+        // A second dump replaces the first instead of piling up files
+        assertThat(recorder.dump()).isEqualTo(file);
+        try (Stream<Path> files = Files.list(dumps)) {
+            assertThat(files).containsExactly(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().startsWith("trustmarket."))
+                .filter(e -> "r1".equals(roomOf(e)) || !e.hasField("roomId"))
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .toList();
+
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("trustmarket.Tick"))
+                .isNotEmpty()
+                .allMatch(e -> e.getLong("lag") == 0);
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("trustmarket.PhaseTransition"))
+                .extracting(e -> e.getString("to"))
+                .containsSubsequence("BLIND_BET", "ROLE_ASSIGN", "MARKET_CHAT", "CLOSING", "CALCULATION");
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("trustmarket.Broadcast"))
+                .isNotEmpty()
+                .allMatch(e -> e.getLong("bytes") > 0 && e.getString("destination").equals("/topic/game/r1"));
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("trustmarket.Settlement"))
+                .singleElement()
+                .satisfies(e -> {
+                    assertThat(e.getInt("players")).isEqualTo(2);
+                    assertThat(e.getInt("traders")).isEqualTo(1);
+                    assertThat(e.getInt("investors")).isEqualTo(1);
+                });
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("trustmarket.QuestionGeneration"))
+                .extracting(e -> e.getString("outcome"))
+                .contains(QuestionGenerationEvent.NO_API_KEY);
+    }
+
+    private static String roomOf(RecordedEvent event) {
+        if (event.hasField("roomId")) {
+            return event.getString("roomId");
+        }
+        return null;
+    }
+
+    private static void playOneRound() {
+        VirtualGameScheduler clock = new VirtualGameScheduler();
+        GameEngine engine = TestEngines.engine(clock, 1);
+        try {
+            engine.createRoom("r1", "host").setTotalRounds(1);
+            engine.joinRoom("r1", "guest");
+            engine.startGame("r1", "host");
+            engine.playerSelectRole("r1", "host", "TRADER");
+            engine.playerSelectRole("r1", "guest", "INVESTOR");
+            engine.handleBet("r1", "host", 100);
+            engine.handleBet("r1", "guest", 100);
+            engine.handleInvest("r1", "guest", "host");
+            clock.advanceBy(120_000);
+        } finally {
+            engine.shutdown();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.trustmarket.game.service.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutorGameSchedulerTest {
+
+    @Test
+    void virtualModeRunsBlockingWorkSideBySideAndKeepsTicksOnPlatformThreads() throws Exception {
+        ExecutorGameScheduler scheduler = new ExecutorGameScheduler(2, 5, ExecutorGameScheduler.ExecutionMode.VIRTUAL);
+        try {
+            CountDownLatch ticked = new CountDownLatch(1);
+            AtomicBoolean tickOnVirtual = new AtomicBoolean(true);
+            GameScheduler.Cancellable tick = scheduler.scheduleAtFixedRate(() -> {
+                tickOnVirtual.set(Thread.currentThread().isVirtual());
+                ticked.countDown();
+            }, 0, 1000);
+
+            // 200 AI-call-sized waits: a pool of 5 would need 4 seconds
+            int tasks = 200;
+            CountDownLatch done = new CountDownLatch(tasks);
+            AtomicBoolean allVirtual = new AtomicBoolean(true);
+            long started = System.nanoTime();
+            for (int i = 0; i < tasks; i++) {
+                scheduler.execute(() -> {
+                    if (!Thread.currentThread().isVirtual()) {
+                        allVirtual.set(false);
+                    }
+                    sleep(100);
+                    done.countDown();
+                });
+            }
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(2000);
+            assertThat(allVirtual).isTrue();
+            assertThat(ticked.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(tickOnVirtual).isFalse();
+            tick.cancel();
+            assertThat(scheduler.stats()).containsEntry("asyncSubmitted", (long) tasks);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void pinnedVirtualThreadsAreCountedByWhereTheyBlocked() throws Exception {
+        ExecutorGameScheduler scheduler = new ExecutorGameScheduler(1, 1, ExecutorGameScheduler.ExecutionMode.VIRTUAL);
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(scheduler, 10);
+        monitor.start();
+        try {
+            Object lock = new Object();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            // The JFR stream starts asynchronously, so keep pinning until one is seen
+            while ((long) monitor.stats().get("pinnedEvents") == 0 && System.nanoTime() < deadline) {
+                scheduler.execute(() -> {
+                    synchronized (lock) {
+                        sleep(30);
+                    }
+                });
+                Thread.sleep(200);
+            }
+
+            assertThat((long) monitor.stats().get("pinnedEvents")).isPositive();
+            assertThat(monitor.stats().get("pinnedSites").toString()).contains(getClass().getName());
+        } finally {
+            monitor.stop();
+            scheduler.shutdown();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
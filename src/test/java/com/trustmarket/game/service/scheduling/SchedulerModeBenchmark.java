@@ -0,0 +1,76 @@
+package com.trustmarket.game.service.scheduling;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Side-by-side throughput of the two {@link ExecutorGameScheduler.ExecutionMode}s on the engine's async
+ * work. Each op is one burst of {@code rooms} tasks that wait {@code ioMillis} on a blocking call (the
+ * Gemini request behind a question) and then do a little settlement-sized CPU work. The burst is the case
+ * that hurts: many rooms entering MARKET_CHAT together.
+ * <p>
+ * {@code ./mvnw -Pbenchmark test -Djmh.include=SchedulerModeBenchmark}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchedulerModeBenchmark {
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private ExecutorGameScheduler.ExecutionMode mode;
+
+    @Param({"50", "500"})
+    private int rooms;
+
+    @Param({"20"})
+    private int ioMillis;
+
+    private ExecutorGameScheduler scheduler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The production defaults: 10 tick threads, 5 async threads in platform mode
+        scheduler = new ExecutorGameScheduler(10, 5, mode);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Benchmark
+    public long burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(rooms);
+        long[] checksum = new long[1];
+        for (int i = 0; i < rooms; i++) {
+            int room = i;
+            scheduler.execute(() -> {
+                try {
+                    Thread.sleep(ioMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                long settled = settle(room);
+                synchronized (checksum) {
+                    checksum[0] += settled;
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        return checksum[0];
+    }
+
+    private static long settle(int seed) {
+        long h = seed;
+        for (int i = 0; i < 2_000; i++) {
+            h = h * 31 + i;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,140 @@
+package com.trustmarket.game.service.spectator;
+
+import com.trustmarket.game.dto.response.SpectatorView;
+import com.trustmarket.game.model.game.GameRoom;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.model.game.RoomSnapshot;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.TestEngines;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpectatorBroadcasterTest {
+
+    VirtualGameScheduler clock;
+    GameEngine engine;
+    SpectatorBroadcaster broadcaster;
+    List<Message<?>> sent = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualGameScheduler();
+        SimpMessagingTemplate broker = new SimpMessagingTemplate((message, timeout) -> sent.add(message));
+        engine = TestEngines.engine(clock, 1);
+        broadcaster = new SpectatorBroadcaster(engine, broker, JsonMapper.builder().build(), clock, 2000);
+        broadcaster.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.stop();
+        engine.shutdown();
+    }
+
+    @Test
+    void encodesOneFramePerTickForAllSpectators() {
+        GameRoom room = engine.createRoom("r1", "host");
+        room.setCurrentQuestion(question());
+        engine.joinRoom("r1", "guest");
+        for (int i = 0; i < 1000; i++) {
+            broadcaster.onSubscribe(subscribe("s" + i, "/topic/spectate/r1"));
+        }
+        broadcaster.onSubscribe(subscribe("player", "/topic/game/r1"));
+
+        clock.advanceBy(2000);
+
+        assertThat(broadcaster.getSpectators("r1")).isEqualTo(1000);
+        assertThat(sent).hasSize(1);
+        String json = new String((byte[]) sent.get(0).getPayload(), StandardCharsets.UTF_8);
+        assertThat(json).contains("\"roomId\":\"r1\"", "\"question\":\"2+2?\"").doesNotContain("\"4\"");
+
+        // Nothing changed in the room, so the next tick sends nothing
+        clock.advanceBy(2000);
+        assertThat(sent).hasSize(1);
+        assertThat(broadcaster.stats()).containsEntry("framesSent", 1L);
+    }
+
+    @Test
+    void newSpectatorOfAnUnchangedRoomGetsTheCurrentFrame() {
+        engine.createRoom("r1", "host");
+        broadcaster.onSubscribe(subscribe("s1", "/topic/spectate/r1"));
+        clock.advanceBy(2000);
+        assertThat(sent).hasSize(1);
+
+        // The lobby is idle, but s2 has never seen it
+        broadcaster.onSubscribe(subscribe("s2", "/topic/spectate/r1"));
+        clock.advanceBy(2000);
+        assertThat(sent).hasSize(2);
+        assertThat(sent.get(1).getPayload()).isEqualTo(sent.get(0).getPayload());
+
+        clock.advanceBy(2000);
+        assertThat(sent).hasSize(2);
+    }
+
+    @Test
+    void stopsBroadcastingWhenTheLastSpectatorLeaves() {
+        engine.createRoom("r1", "host");
+        broadcaster.onSubscribe(subscribe("s1", "/topic/spectate/r1"));
+        broadcaster.onDisconnect(new SessionDisconnectEvent(this, message(StompCommand.DISCONNECT, "s1", null),
+                "s1", CloseStatus.NORMAL));
+        engine.joinRoom("r1", "guest");
+
+        clock.advanceBy(4000);
+
+        assertThat(broadcaster.getSpectators("r1")).isZero();
+        assertThat(sent).isEmpty();
+    }
+
+    @Test
+    void answerIsRevealedOnlyAfterAnswersClose() {
+        GameRoom room = engine.createRoom("r1", "host");
+        room.setCurrentQuestion(question());
+
+        room.setCurrentState(GameState.CLOSING);
+        assertThat(SpectatorView.of(RoomSnapshot.of(room, 1)).correctAnswer()).isNull();
+
+        room.setCurrentState(GameState.CALCULATION);
+        SpectatorView view = SpectatorView.of(RoomSnapshot.of(room, 2));
+        assertThat(view.correctAnswer()).isEqualTo("4");
+        assertThat(view.players()).extracting(SpectatorView.Seat::displayName).hasSize(1);
+    }
+
+    private static Map<String, Object> question() {
+        Map<String, Object> q = new HashMap<>();
+        q.put("question", "2+2?");
+        q.put("options", List.of("A. 3", "B. 4"));
+        q.put("correctAnswer", "4");
+        return q;
+    }
+
+    private SessionSubscribeEvent subscribe(String sessionId, String destination) {
+        return new SessionSubscribeEvent(this, message(StompCommand.SUBSCRIBE, sessionId, destination));
+    }
+
+    private static Message<byte[]> message(StompCommand command, String sessionId, String destination) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(command);
+        headers.setSessionId(sessionId);
+        headers.setSubscriptionId("sub-0");
+        headers.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+}
@@ -0,0 +1,179 @@
+package com.trustmarket.game.service.stats;
+
+import com.trustmarket.game.controller.RoomController;
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.entity.User;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.repository.UserRepository;
+import com.trustmarket.game.service.EconomyService;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.TestEngines;
+import com.trustmarket.game.service.UserProfileCache;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+// The writer commits on its own thread, so the test must not hold a transaction open around it
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PlayerStatsWriterTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    UserRepository userRepository;
+
+    VirtualGameScheduler clock;
+    GameEngine engine;
+    volatile PlayerStatsWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        clock = new VirtualGameScheduler();
+        // Settlements reach the writer the way they do in production: synchronously from the engine
+        engine = TestEngines.engine(clock, 1, event -> {
+            if (event instanceof GameEvent gameEvent && writer != null) {
+                writer.onGameEvent(gameEvent);
+            }
+        });
+        writer = new PlayerStatsWriter(engine, jdbcTemplate, transactionManager, 100, 50, 60_000, 3, 1);
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.close();
+        engine.shutdown();
+    }
+
+    @Test
+    void coalescesRoundsAndGamesIntoUpdatesOfSignedInAccounts() {
+        User alice = user("alice", 4);
+        User bob = user("bob", 0);
+        // The display name is the client's choice: "alice" here is a guest, not the account above
+        engine.createRoom("room", "p1", alice.getId());
+        // A signed-in human whose id merely looks like a bot's is still credited
+        engine.joinRoom("room", "bot-n1-1", bob.getId());
+        engine.joinRoom("room", "alice");
+
+        for (int round = 1; round <= 3; round++) {
+            writer.onGameEvent(settled(round, result("p1", 100), result("bot-n1-1", -40), result("alice", 999)));
+        }
+        writer.onGameEvent(GameEvent.builder()
+                .type(GameEvent.Type.GAME_FINISHED)
+                .roomId("room")
+                .payload(List.of("p1", "bot-n1-1", "alice"))
+                .build());
+        writer.flush();
+
+        alice = userRepository.findByUsername("alice").orElseThrow();
+        assertThat(alice.getTotalGamesPlayed()).isEqualTo(5);
+        assertThat(alice.getTotalRoundsPlayed()).isEqualTo(3);
+        assertThat(alice.getLifetimeProfit()).isEqualTo(300.0);
+
+        bob = userRepository.findByUsername("bob").orElseThrow();
+        assertThat(bob.getTotalGamesPlayed()).isEqualTo(1);
+        assertThat(bob.getTotalRoundsPlayed()).isEqualTo(3);
+        assertThat(bob.getLifetimeProfit()).isEqualTo(-120.0);
+        // The guest was skipped rather than inserted
+        assertThat(userRepository.count()).isEqualTo(2);
+        // Nothing was due yet, so the explicit flush wrote all eight events as one two-row batch
+        assertThat(writer.getFlushes()).isEqualTo(1);
+    }
+
+    @Test
+    void creditsTheAccountOfAPrincipalThatJoinedThroughTheController() {
+        User dana = user("dana", 2);
+        UserProfileCache profiles = new UserProfileCache(userRepository, writer, 100, Duration.ofMinutes(10));
+        RoomController controller = new RoomController(engine, profiles, null, null, null, null);
+        Principal signedIn = () -> "dana";
+
+        controller.createRoom("room", "host", signedIn);
+        // Same display name as the account, but no principal: a guest
+        controller.joinRoom("room", "dana", null);
+        engine.getRoom("room").setTotalRounds(1);
+        engine.startGame("room", "host");
+        // One trader, so the round settles instead of crashing the market
+        engine.playerSelectRole("room", "host", "TRADER");
+        engine.playerSelectRole("room", "dana", "INVESTOR");
+        engine.handleBet("room", "host", 10);
+        engine.handleBet("room", "dana", 10);
+        for (int second = 0; second < 600 && engine.getRoom("room").getCurrentState() != GameState.FINISHED; second++) {
+            clock.advanceBy(1000);
+        }
+        writer.flush();
+
+        assertThat(engine.getRoom("room").getCurrentState()).isEqualTo(GameState.FINISHED);
+        dana = userRepository.findByUsername("dana").orElseThrow();
+        assertThat(dana.getTotalGamesPlayed()).isEqualTo(3);
+        assertThat(dana.getTotalRoundsPlayed()).isEqualTo(1);
+        assertThat(userRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void fullQueueDropsInsteadOfBlockingTheCaller() {
+        PlayerStatsWriter stalled = new PlayerStatsWriter(engine, jdbcTemplate, transactionManager, 2, 2, 60_000, 3, 1);
+        // Never started: nothing drains the queue
+        for (int i = 0; i < 5; i++) {
+            stalled.enqueue(new PlayerStatsWriter.StatDelta(UUID.randomUUID(), 1, 0, 0));
+        }
+
+        assertThat(stalled.getQueued()).isEqualTo(2);
+        assertThat(stalled.getDropped()).isEqualTo(3);
+    }
+
+    @Test
+    void retriesFailedFlushes() {
+        User carol = user("carol", 0);
+        jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT few_games CHECK (total_games_played < 100)");
+        try {
+            writer.enqueue(new PlayerStatsWriter.StatDelta(carol.getId(), 100, 0, 0));
+            writer.flush();
+
+            assertThat(writer.getRetries()).isEqualTo(2);
+            assertThat(writer.getDropped()).isEqualTo(1);
+            assertThat(userRepository.findByUsername("carol").orElseThrow().getTotalGamesPlayed()).isZero();
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT few_games");
+        }
+    }
+
+    private User user(String username, int games) {
+        User user = new User();
+        user.setUsername(username);
+        user.setTotalGamesPlayed(games);
+        return userRepository.save(user);
+    }
+
+    private static GameEvent settled(int round, EconomyService.RoundResult... results) {
+        return GameEvent.builder()
+                .type(GameEvent.Type.ROUND_SETTLED)
+                .roomId("room")
+                .round(round)
+                .payload(List.of(results))
+                .build();
+    }
+
+    private static EconomyService.RoundResult result(String playerId, double profit) {
+        return new EconomyService.RoundResult(playerId, playerId, 1000, 1000 + profit, profit, "test");
+    }
+}
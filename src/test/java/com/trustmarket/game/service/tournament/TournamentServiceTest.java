@@ -0,0 +1,139 @@
+package com.trustmarket.game.service.tournament;
+
+import com.trustmarket.game.cluster.RoomDirectory;
+import com.trustmarket.game.dto.response.TournamentView;
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.TestEngines;
+import com.trustmarket.game.service.lobby.LobbyReaper;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TournamentServiceTest {
+
+    VirtualGameScheduler clock;
+    GameEngine engine;
+    TournamentService tournaments;
+    List<GameEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualGameScheduler();
+        engine = TestEngines.engine(clock, 3, event -> {
+            GameEvent e = (GameEvent) event;
+            events.add(e);
+            tournaments.onGameEvent(e);
+            if (e.getType() == GameEvent.Type.PHASE_STARTED && "BLIND_BET".equals(e.getValue())) {
+                // A round without traders crashes and is replayed, so the seated players pick roles
+                clock.execute(() -> pickRoles(e.getRoomId()));
+            }
+        });
+        tournaments = new TournamentService(engine, clock, new RoomDirectory("local", Map.of("local", ""), 16),
+                new Random(3), 6, 2, 1, 60_000, 5_000, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void tablesStartSpreadOverTheWindowAndStayApart() {
+        TournamentView created = tournaments.create("8 pm cup", players(60), 10_000L,
+                tournaments.getDefaults());
+
+        List<TournamentView.TableView> tables = created.stages().get(0).tables();
+        assertThat(tables).hasSize(10);
+        for (int i = 0; i < tables.size(); i++) {
+            assertThat(tables.get(i).startAt()).isBetween(10_000L + i * 6_000L, 10_000L + (i + 1) * 6_000L - 1);
+            assertThat(tables.get(i).players()).hasSize(6);
+            assertThat(engine.getRoom(tables.get(i).roomId()).getPlayerCount()).isEqualTo(6);
+        }
+        assertThat(created.status()).isEqualTo("SCHEDULED");
+
+        clock.advanceTo(40_000);
+        long started = tables.stream().filter(t -> engine.getRoom(t.roomId()).getCurrentState() != GameState.WAITING)
+                .count();
+        assertThat(started).isBetween(4L, 6L);
+
+        // The offsets carry through every timer-driven phase: no two rooms ask for a question in the same second
+        clock.advanceTo(200_000);
+        List<Long> questionSeconds = events.stream()
+                .filter(e -> e.getType() == GameEvent.Type.PHASE_STARTED && "MARKET_CHAT".equals(e.getValue()))
+                .map(e -> e.getTimestamp() / 1000)
+                .toList();
+        assertThat(questionSeconds).hasSize(10).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void tablesWaitingForALateStartAreNotClosedAsIdleLobbies() {
+        LobbyReaper reaper = new LobbyReaper(engine, clock, tournaments, 60_000, 5_000);
+        reaper.start();
+        engine.createRoom("idle", "host");
+        TournamentView created = tournaments.create("late cup", players(12), 3_600_000L, tournaments.getDefaults());
+
+        // Well past max-wait, but still long before the tables' start
+        clock.advanceBy(600_000);
+
+        assertThat(engine.getRoom("idle").getCurrentState()).isEqualTo(GameState.FINISHED);
+        assertThat(reaper.getExpired()).isEqualTo(1);
+        for (TournamentView.TableView table : created.stages().get(0).tables()) {
+            assertThat(engine.getRoom(table.roomId()).getCurrentState()).isEqualTo(GameState.WAITING);
+        }
+        reaper.stop();
+    }
+
+    @Test
+    void bestOfEachTableAdvanceUntilTheFinalTablePicksAWinner() {
+        TournamentSettings quick = new TournamentSettings(4, 2, 1, 0, 1_000);
+        String id = tournaments.create(null, players(12), null, quick).id();
+
+        for (int i = 0; i < 20 && !"FINISHED".equals(tournaments.get(id).status()); i++) {
+            clock.advanceBy(120_000);
+        }
+
+        TournamentView done = tournaments.get(id);
+        assertThat(done.status()).isEqualTo("FINISHED");
+        // 12 players at 3 tables → 6 at 2 tables → a final 4
+        assertThat(done.stages()).extracting(s -> s.tables().size()).containsExactly(3, 2, 1);
+        TournamentView.TableView finalTable = done.stages().get(2).tables().get(0);
+        assertThat(finalTable.players()).hasSize(4);
+        assertThat(done.winner()).isEqualTo(finalTable.ranking().get(0));
+        assertThat(done.leaderboard().get(0).playerId()).isEqualTo(done.winner());
+        assertThat(done.leaderboard()).extracting(TournamentView.Standing::reachedStage)
+                .isSortedAccordingTo((x, y) -> Integer.compare(y, x));
+        assertThat(done.leaderboard().get(11).reachedStage()).isEqualTo(1);
+    }
+
+    @Test
+    void snakeSeatingSpreadsTheSeeds() {
+        List<List<String>> tables = TournamentService.snake(List.of("1", "2", "3", "4", "5", "6", "7", "8"), 3);
+        assertThat(tables).containsExactly(List.of("1", "6", "7"), List.of("2", "5", "8"), List.of("3", "4"));
+
+        assertThatThrownBy(() -> tournaments.create(null, List.of("a", "a"), null, tournaments.getDefaults()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void pickRoles(String roomId) {
+        int i = 0;
+        for (String playerId : engine.getRoom(roomId).getPlayers().keySet()) {
+            engine.playerSelectRole(roomId, playerId, i++ % 2 == 0 ? "TRADER" : "INVESTOR");
+        }
+    }
+
+    private static List<String> players(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(i -> "player" + i).toList();
+    }
+}
@@ -0,0 +1,79 @@
+package com.trustmarket.game.service.trace;
+
+import com.trustmarket.game.event.GameEvent;
+import com.trustmarket.game.service.GameEngine;
+import com.trustmarket.game.service.TestEngines;
+import com.trustmarket.game.service.scheduling.VirtualGameScheduler;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomTracerTest {
+
+    @Test
+    void ringKeepsTheLatestEventsInOrder() {
+        RoomTracer tracer = new RoomTracer(4, 0, 10_000, 8);
+        tracer.open("r1");
+        for (int i = 0; i < 10; i++) {
+            tracer.trace("r1", "💰 Player {} bet {}", "p" + i, i * 10);
+        }
+        // A command naming a room nobody opened leaves no ring behind
+        tracer.trace("nope", "💰 Player {} bet {}", "p", 1);
+
+        assertThat(tracer.lines("r1")).hasSize(4);
+        assertThat(tracer.lines("r1").get(0)).endsWith("Player p6 bet 60");
+        assertThat(tracer.lines("r1").get(3)).endsWith("Player p9 bet 90");
+        assertThat(tracer.lines("nope")).isEmpty();
+        assertThat(tracer.stats()).containsEntry("rooms", 1).containsEntry("events", 10L);
+    }
+
+    @Test
+    void dumpsAreRateLimitedAndFinishedRoomsStayReadable() {
+        RoomTracer tracer = new RoomTracer(16, 0, 60_000, 1);
+        tracer.open("r1");
+        tracer.open("r2");
+        tracer.trace("r1", "❌ Game loop error");
+
+        assertThat(tracer.dump("r1", "test")).isTrue();
+        assertThat(tracer.dump("r1", "test again")).isFalse();
+        assertThat(tracer.dump("unknown", "test")).isFalse();
+
+        // A running room's ring names its secret roles, so only finished games are served
+        assertThat(tracer.finishedLines("r1")).isEmpty();
+        tracer.onGameEvent(finished("r1"));
+        assertThat(tracer.lines("r1")).hasSize(1);
+        assertThat(tracer.finishedLines("r1")).hasSize(1);
+        // Only the most recent finished room is kept
+        tracer.onGameEvent(finished("r2"));
+        assertThat(tracer.lines("r1")).isEmpty();
+        assertThat(tracer.stats()).containsEntry("rooms", 0).containsEntry("finishedRooms", 1);
+    }
+
+    @Test
+    void engineCommandsAndSettlementLandInTheRoomsRing() {
+        RoomTracer tracer = new RoomTracer(64, 0, 10_000, 8);
+        VirtualGameScheduler clock = new VirtualGameScheduler();
+        GameEngine engine = TestEngines.engine(clock, 1, event -> { }, tracer);
+        try {
+            engine.createRoom("r1", "host");
+            engine.joinRoom("r1", "guest");
+            engine.startGame("r1", "host");
+            engine.playerSelectRole("r1", "host", "TRADER");
+            engine.playerSelectRole("r1", "guest", "INVESTOR");
+            engine.handleBet("r1", "host", 5_000);
+            engine.handleInvest("r1", "guest", "host");
+            clock.advanceBy(120_000);
+
+            assertThat(tracer.lines("r1"))
+                    .anyMatch(line -> line.endsWith("Player host tried to bet 5000.0 but only has 2000.0"))
+                    .anyMatch(line -> line.endsWith("Investor guest → Trader host in room r1"))
+                    .anyMatch(line -> line.contains("Round calculation complete"));
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    private static GameEvent finished(String roomId) {
+        return GameEvent.builder().type(GameEvent.Type.GAME_FINISHED).roomId(roomId).build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.trustmarket.game.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameSimulatorTest {
+
+    @Test
+    void sameSeedReplaysTheSameGame() {
+        GameSimulator simulator = new GameSimulator(6, 10);
+
+        SimulationResult first = simulator.run(20261018L);
+        SimulationResult second = simulator.run(20261018L);
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void fullGameRunsOnVirtualTime() {
+        long started = System.nanoTime();
+        SimulationResult result = new GameSimulator(4, 10).run(7L);
+        long wallMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertThat(result.getRoundsPlayed()).isEqualTo(10);
+        assertThat(result.getFinalBalances()).hasSize(4);
+        // Ten rounds of ~95 s each
+        assertThat(result.getVirtualDurationMillis()).isGreaterThan(900_000L);
+        assertThat(wallMillis).isLessThan(result.getVirtualDurationMillis() / 100);
+    }
+
+    @Test
+    void differentSeedsDiverge() {
+        GameSimulator simulator = new GameSimulator(8, 5);
+
+        assertThat(simulator.run(1L).getFinalBalances())
+                .isNotEqualTo(simulator.run(2L).getFinalBalances());
+    }
+}
@@ -0,0 +1,31 @@
+package com.trustmarket.game.startup;
+
+import com.trustmarket.game.model.game.GameState;
+import com.trustmarket.game.service.EconomyService;
+import com.trustmarket.game.simulation.GameSimulator;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.converter.JacksonJsonMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JitWarmupTest {
+
+    @Test
+    void coversEveryStateAndSettlementBranch() {
+        SimpMessagingTemplate template = GameSimulator.discardingTemplate();
+        template.setMessageConverter(new JacksonJsonMessageConverter());
+        JitWarmup warmup = new JitWarmup(new EconomyService(), template, JsonMapper.builder().build(), 0, 0);
+
+        JitWarmup.Coverage coverage = warmup.run(3, 3);
+
+        assertThat(coverage.states()).containsExactlyInAnyOrder(GameState.values());
+        assertThat(coverage.settlements())
+                .containsOnlyKeys("ORACLE", "SCAMMER", "NORMAL", "MARKET_CRASH")
+                .containsEntry("MARKET_CRASH", 3)
+                .containsEntry("ORACLE", 9);
+        assertThat(coverage.roundsSettled()).isEqualTo(9);
+        assertThat(coverage.serializedBytes()).isPositive();
+    }
+}